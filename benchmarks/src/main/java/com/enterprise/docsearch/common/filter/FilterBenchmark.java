@@ -0,0 +1,125 @@
+package com.enterprise.docsearch.common.filter;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two filters every API request passes through. Redis is stubbed to
+ * return a fixed request count, so the rate-limit numbers are the filter's
+ * own cost without the network round trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    // Registers JavaTimeModule like the application mapper, for the error body timestamps
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final StubRedisTemplate redisTemplate = new StubRedisTemplate();
+    private final RateLimitFilter rateLimitFilter = new RateLimitFilter(redisTemplate, objectMapper);
+    private final TenantValidationFilter tenantValidationFilter = new TenantValidationFilter(objectMapper);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/search");
+    private final MockHttpServletRequest requestWithoutKey = new MockHttpServletRequest("GET", "/api/v1/search");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        request.addHeader("X-API-Key", "sk_live_acme_4f9c2b7d1e8a6035");
+        // The rate limiter runs after tenant validation has set the tenant
+        TenantContext.setTenantId("acme");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rateLimitAllowed() throws Exception {
+        redisTemplate.count = 2;
+        rateLimitFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rateLimitFirstInWindow() throws Exception {
+        redisTemplate.count = 1;
+        rateLimitFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rateLimitRejected() throws Exception {
+        redisTemplate.count = 1001;
+        // The error body is appended to the response, so each rejection needs its own
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        rateLimitFilter.doFilterInternal(request, rejected, NO_OP_CHAIN);
+        return rejected;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse tenantValidationAccepted() throws Exception {
+        tenantValidationFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        // The filter clears the tenant after the chain
+        TenantContext.setTenantId("acme");
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse tenantValidationMissingKey() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        tenantValidationFilter.doFilterInternal(requestWithoutKey, rejected, NO_OP_CHAIN);
+        return rejected;
+    }
+
+    /**
+     * A template whose INCR always answers {@link #count} and whose EXPIRE
+     * succeeds, without a connection factory behind it.
+     */
+    static class StubRedisTemplate extends RedisTemplate<String, String> {
+
+        long count;
+
+        @SuppressWarnings("unchecked")
+        private final ValueOperations<String, String> valueOperations = (ValueOperations<String, String>)
+                Proxy.newProxyInstance(ValueOperations.class.getClassLoader(),
+                        new Class<?>[]{ValueOperations.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("increment")) {
+                                return count;
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return valueOperations;
+        }
+
+        @Override
+        public Boolean expire(String key, long timeout, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public Boolean expire(String key, Duration timeout) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.enterprise.docsearch.document.service;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.common.model.DocumentStatus;
+import com.enterprise.docsearch.document.entity.DocumentEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes document content on create and maps stored entities back into
+ * documents, which every read and every index message goes through.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentServiceBenchmark {
+
+    @Param({"2000", "50000", "1000000"})
+    private int contentLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Neither method touches the repository, the publisher or the metrics
+    private final DocumentService documentService = new DocumentService(null, null, objectMapper, null);
+
+    private String content;
+    private DocumentEntity entity;
+
+    @Setup
+    public void setUp() throws Exception {
+        StringBuilder builder = new StringBuilder(contentLength);
+        while (builder.length() < contentLength) {
+            builder.append("Contract renewal terms were agreed with the vendor after the security review. ");
+        }
+        builder.setLength(contentLength);
+        content = builder.toString();
+
+        LocalDateTime now = LocalDateTime.now();
+        entity = DocumentEntity.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId("acme")
+                .title("Vendor contract renewal")
+                .content(content)
+                .metadataJson(objectMapper.writeValueAsString(Map.of(
+                        "author", "jane@example.com",
+                        "department", "legal",
+                        "tags", List.of("contract", "vendor", "renewal"),
+                        "version", 3)))
+                .status(DocumentStatus.INDEXED)
+                .fileSizeBytes((long) contentLength)
+                .contentHash(documentService.calculateHash(content))
+                .createdAt(now)
+                .updatedAt(now)
+                .indexedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public String calculateHash() {
+        return documentService.calculateHash(content);
+    }
+
+    @Benchmark
+    public Document mapToDocument() {
+        return documentService.mapToDocument(entity);
+    }
+}
@@ -0,0 +1,58 @@
+package com.enterprise.docsearch.index.service;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.common.model.DocumentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a consumed document into the source map sent to Elasticsearch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexingServiceBenchmark {
+
+    @Param({"2000", "50000"})
+    private int contentLength;
+
+    // Preparing a document touches none of the service's collaborators
+    private final IndexingService indexingService = new IndexingService(null, null, null, null, null, null);
+
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        StringBuilder content = new StringBuilder(contentLength);
+        while (content.length() < contentLength) {
+            content.append("The quarterly revenue forecast was reviewed by the finance team. ");
+        }
+        content.setLength(contentLength);
+
+        document = Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId("acme")
+                .title("Quarterly revenue forecast")
+                .content(content.toString())
+                .metadata(Map.of(
+                        "author", "jane@example.com",
+                        "department", "finance",
+                        "tags", List.of("forecast", "revenue", "q3")))
+                .status(DocumentStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public Map<String, Object> prepareDocumentForIndexing() {
+        return indexingService.prepareDocumentForIndexing(document);
+    }
+}
@@ -0,0 +1,185 @@
+package com.enterprise.docsearch.search.service;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.enterprise.docsearch.common.dto.SearchResponse.SearchResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.json.stream.JsonParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps Elasticsearch search responses into the service's response DTO.
+ * <p>
+ * The bind benchmarks start from the raw response bytes and compare binding
+ * _source into {@link SearchHitSource} with the JsonNode tree mapping it
+ * replaced; {@code gc.alloc.rate.norm} divided by {@code hits} is the
+ * per-hit allocation of each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchResponseBenchmark {
+
+    private static final String[] WORDS = {
+            "quarterly", "revenue", "forecast", "contract", "renewal", "policy", "security", "audit",
+            "onboarding", "architecture", "migration", "incident", "review", "customer", "invoice",
+            "roadmap", "compliance", "retention", "kubernetes", "latency", "budget", "vendor", "release"
+    };
+
+    @Param({"10", "100"})
+    private int hits;
+
+    private final JsonpMapper jsonpMapper = new JacksonJsonpMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonpDeserializer<SearchResponse<SearchHitSource>> typedDeserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(SearchHitSource.class));
+    private final JsonpDeserializer<SearchResponse<JsonNode>> treeDeserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(JsonNode.class));
+
+    // The mapping methods touch none of the service's collaborators
+    private final SearchService searchService = new SearchService(null, null, null, null, null, null, null,
+            null, null, null, null, null, null, null);
+
+    private byte[] responseBytes;
+    private SearchResponse<SearchHitSource> response;
+
+    @Setup
+    public void setUp() throws Exception {
+        responseBytes = objectMapper.writeValueAsBytes(searchResponseBody(hits, new Random(42)));
+        response = parse(typedDeserializer);
+    }
+
+    @Benchmark
+    public com.enterprise.docsearch.common.dto.SearchResponse buildSearchResponse() {
+        return searchService.buildSearchResponse("quarterly revenue", response, 0, hits, 12);
+    }
+
+    @Benchmark
+    public void mapToSearchResult(Blackhole blackhole) {
+        for (Hit<SearchHitSource> hit : response.hits().hits()) {
+            blackhole.consume(searchService.mapToSearchResult(hit));
+        }
+    }
+
+    @Benchmark
+    public com.enterprise.docsearch.common.dto.SearchResponse bindTypedSource() {
+        return searchService.buildSearchResponse("quarterly revenue", parse(typedDeserializer), 0, hits, 12);
+    }
+
+    @Benchmark
+    public List<SearchResult> bindJsonNodeSource() {
+        SearchResponse<JsonNode> parsed = parse(treeDeserializer);
+        List<SearchResult> results = new ArrayList<>();
+        for (Hit<JsonNode> hit : parsed.hits().hits()) {
+            results.add(mapJsonNodeHit(hit));
+        }
+        return results;
+    }
+
+    private <T> T parse(JsonpDeserializer<T> deserializer) {
+        try (JsonParser parser = jsonpMapper.jsonProvider().createParser(new ByteArrayInputStream(responseBytes))) {
+            return deserializer.deserialize(parser, jsonpMapper);
+        }
+    }
+
+    /**
+     * The mapping SearchService used before hits were bound into
+     * {@link SearchHitSource}.
+     */
+    @SuppressWarnings("unchecked")
+    private SearchResult mapJsonNodeHit(Hit<JsonNode> hit) {
+        JsonNode source = hit.source();
+
+        String title = source.has("title") ? source.get("title").asText() : "";
+        String snippet = source.has("snippet") ? source.get("snippet").asText() : "";
+
+        List<String> highlights = new ArrayList<>();
+        if (hit.highlight() != null && !hit.highlight().isEmpty()) {
+            hit.highlight().values().forEach(highlights::addAll);
+        }
+
+        Map<String, Object> metadata = new HashMap<>();
+        if (source.has("metadata")) {
+            metadata = objectMapper.convertValue(source.get("metadata"), Map.class);
+        }
+
+        return SearchResult.builder()
+                .documentId(UUID.fromString(source.get("document_id").asText()))
+                .title(title)
+                .snippet(snippet)
+                .score(hit.score() != null ? hit.score() : 0.0)
+                .metadata(metadata)
+                .highlights(highlights)
+                .build();
+    }
+
+    /**
+     * A response shaped like the ones searches get back: filtered _source
+     * with a stored snippet, a handful of metadata fields and two content
+     * highlight fragments per hit.
+     */
+    private static Map<String, Object> searchResponseBody(int hitCount, Random random) {
+        List<Map<String, Object>> hitList = new ArrayList<>();
+        for (int i = 0; i < hitCount; i++) {
+            UUID documentId = new UUID(random.nextLong(), random.nextLong());
+
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("author", "user" + random.nextInt(500) + "@example.com");
+            metadata.put("department", WORDS[random.nextInt(WORDS.length)]);
+            metadata.put("tags", List.of(word(random), word(random), word(random)));
+            metadata.put("version", 1 + random.nextInt(20));
+
+            Map<String, Object> source = new LinkedHashMap<>();
+            source.put("document_id", documentId.toString());
+            source.put("title", words(random, 6 + random.nextInt(5)));
+            source.put("snippet", words(random, 40).substring(0, 200) + "...");
+            source.put("metadata", metadata);
+
+            Map<String, Object> hit = new LinkedHashMap<>();
+            hit.put("_index", "docs_tenant_acme_v1");
+            hit.put("_id", documentId.toString());
+            hit.put("_score", 20.0 - i * 0.1);
+            hit.put("_source", source);
+            hit.put("highlight", Map.of("content", List.of(
+                    words(random, 8) + " <em>quarterly</em> " + words(random, 8),
+                    words(random, 8) + " <em>revenue</em> " + words(random, 8))));
+            hitList.add(hit);
+        }
+
+        Map<String, Object> hitsBody = new LinkedHashMap<>();
+        hitsBody.put("total", Map.of("value", 1240, "relation", "eq"));
+        hitsBody.put("max_score", 20.0);
+        hitsBody.put("hits", hitList);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("took", 12);
+        body.put("timed_out", false);
+        body.put("_shards", Map.of("total", 3, "successful", 3, "skipped", 0, "failed", 0));
+        body.put("hits", hitsBody);
+        return body;
+    }
+
+    private static String words(Random random, int count) {
+        StringJoiner joiner = new StringJoiner(" ");
+        for (int i = 0; i < count; i++) {
+            joiner.add(word(random));
+        }
+        return joiner.toString();
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,16 @@
+package com.enterprise.docsearch.common.cache;
+
+public final class CacheKeys {
+    
+    public static final String INDEX_GENERATION_PREFIX = "docsearch:index-generation:";
+    
+    // Pub/sub channel carrying TitleChangeEvent messages
+    public static final String TITLE_CHANGES_CHANNEL = "docsearch:title-changes";
+    
+    private CacheKeys() {
+    }
+    
+    public static String indexGeneration(String tenantId) {
+        return INDEX_GENERATION_PREFIX + tenantId;
+    }
+}
@@ -2,6 +2,7 @@ package com.enterprise.docsearch.common.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,9 @@ import java.time.Duration;
 @EnableCaching
 public class RedisConfig {
     
+    @Value("${search.cache.ttl:5m}")
+    private Duration searchResultsTtl;
+    
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -44,10 +48,10 @@ public class RedisConfig {
     
     @Bean
     public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        GenericJackson2JsonRedisSerializer jsonSerializer = 
-                new GenericJackson2JsonRedisSerializer(objectMapper);
+        // Default constructor embeds type information so cached values read back
+        // as their original class instead of plain maps
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer()
+                .configure(mapper -> mapper.registerModule(new JavaTimeModule()));
         
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
@@ -58,7 +62,7 @@ public class RedisConfig {
         
         // Custom configurations for different caches
         RedisCacheConfiguration searchResultsConfig = defaultConfig
-                .entryTtl(Duration.ofMinutes(5));
+                .entryTtl(searchResultsTtl);
         
         RedisCacheConfiguration documentsConfig = defaultConfig
                 .entryTtl(Duration.ofMinutes(30));
@@ -66,6 +70,7 @@ public class RedisConfig {
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withCacheConfiguration("searchResults", searchResultsConfig)
+                .withCacheConfiguration("searchFacets", searchResultsConfig)
                 .withCacheConfiguration("documents", documentsConfig)
                 .build();
     }
@@ -2,6 +2,8 @@ package com.enterprise.docsearch.common.context;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.Executor;
+
 @Slf4j
 public class TenantContext {
     
@@ -24,4 +26,28 @@ public class TenantContext {
     public static boolean hasTenant() {
         return currentTenant.get() != null;
     }
+    
+    /**
+     * Returns an executor that runs tasks on the delegate with the tenant of the
+     * calling thread. The tenant is captured here rather than at submission, so
+     * it also holds for continuations submitted from I/O threads.
+     */
+    public static Executor propagatingTo(Executor delegate) {
+        String tenantId = currentTenant.get();
+        return task -> delegate.execute(() -> runWithTenant(tenantId, task));
+    }
+    
+    private static void runWithTenant(String tenantId, Runnable task) {
+        String previous = currentTenant.get();
+        currentTenant.set(tenantId);
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                currentTenant.set(previous);
+            } else {
+                currentTenant.remove();
+            }
+        }
+    }
 }
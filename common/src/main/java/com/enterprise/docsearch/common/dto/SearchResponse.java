@@ -10,7 +10,7 @@ import java.util.Map;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchResponse {
@@ -22,6 +22,21 @@ public class SearchResponse {
     private long tookMs;
     private List<SearchResult> results;
     
+    // Opaque cursor for the next page in cursor mode; null once the walk is done
+    private String nextCursor;
+    
+    // Bucket counts per requested metadata facet; null when no facets were asked for
+    private Map<String, List<FacetBucket>> facets;
+    
+    // Elasticsearch hit the search timeout; results are what was found until then
+    private boolean timedOut;
+    
+    // Some shards timed out or failed, so hits and counts may be incomplete
+    private boolean partial;
+    
+    // Where the time went, for debug=timings requests only; never cached
+    private Timings timings;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -34,4 +49,35 @@ public class SearchResponse {
         private Map<String, Object> metadata;
         private List<String> highlights;
     }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Timings {
+        // Nanoseconds per pipeline stage, in the order they ran
+        private Map<String, Long> stagesNanos;
+        private long totalNanos;
+        private boolean cacheHit;
+        // What Elasticsearch reported; all null on a cache hit
+        private Long esTookMs;
+        private Integer shardsTotal;
+        private Integer shardsSuccessful;
+        private Integer shardsSkipped;
+        private Integer shardsFailed;
+        // Elasticsearch profile API output, when the search was profiled
+        private Map<String, Object> profile;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetBucket {
+        private String key;
+        // Bounds of a range bucket; both null for a terms bucket
+        private Double from;
+        private Double to;
+        private long count;
+    }
 }
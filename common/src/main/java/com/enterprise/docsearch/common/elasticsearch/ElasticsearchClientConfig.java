@@ -0,0 +1,183 @@
+package com.enterprise.docsearch.common.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HttpContext;
+import org.elasticsearch.client.NodeSelector;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.sniff.ElasticsearchNodesSniffer;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The Elasticsearch client shared by the services that talk to the cluster.
+ * Each service tunes compression and the pool in its own application.yml;
+ * services without the client on their classpath skip this configuration.
+ */
+@Configuration
+@ConditionalOnClass(RestClient.class)
+public class ElasticsearchClientConfig {
+    
+    @Value("${elasticsearch.hosts:http://${elasticsearch.host:localhost}:${elasticsearch.port:9200}}")
+    private String[] hosts;
+    
+    @Value("${elasticsearch.compression:false}")
+    private boolean compression;
+    
+    @Value("${elasticsearch.pool.max-connections:100}")
+    private int maxConnections;
+    
+    @Value("${elasticsearch.pool.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+    
+    @Value("${elasticsearch.pool.io-threads:0}")
+    private int ioThreads;
+    
+    @Value("${elasticsearch.pool.keep-alive:5m}")
+    private Duration keepAlive;
+    
+    @Value("${elasticsearch.sniff.enabled:false}")
+    private boolean sniffEnabled;
+    
+    @Value("${elasticsearch.sniff.interval:5m}")
+    private Duration sniffInterval;
+    
+    @Value("${elasticsearch.sniff.after-failure-delay:1m}")
+    private Duration sniffAfterFailureDelay;
+    
+    private final SniffOnFailureListener sniffOnFailureListener = new SniffOnFailureListener();
+    
+    /**
+     * Round-robins requests over all configured nodes, retrying on the next
+     * node when one fails and skipping it for a while afterwards. Dedicated
+     * master nodes found by sniffing are left out.
+     */
+    @Bean
+    public RestClient restClient(MeterRegistry meterRegistry) throws IOReactorException {
+        LeaseCountingConnectionManager connectionManager = connectionManager();
+        bindPoolMetrics(connectionManager, meterRegistry);
+        
+        RestClientBuilder builder = RestClient.builder(httpHosts())
+                .setNodeSelector(NodeSelector.SKIP_DEDICATED_MASTERS)
+                .setCompressionEnabled(compression)
+                .setHttpClientConfigCallback(httpClient -> httpClient
+                        .setConnectionManager(connectionManager)
+                        .setKeepAliveStrategy(this::keepAliveMillis));
+        if (sniffEnabled) {
+            builder.setFailureListener(sniffOnFailureListener);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Keeps the client's node list in line with the cluster, both periodically
+     * and right after a node fails. Off by default: nodes advertise their
+     * publish address, which is not reachable from outside a Docker network.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "elasticsearch.sniff.enabled", havingValue = "true")
+    public Sniffer sniffer(RestClient restClient) {
+        ElasticsearchNodesSniffer.Scheme scheme = "https".equals(httpHosts()[0].getSchemeName())
+                ? ElasticsearchNodesSniffer.Scheme.HTTPS
+                : ElasticsearchNodesSniffer.Scheme.HTTP;
+        
+        Sniffer sniffer = Sniffer.builder(restClient)
+                .setNodesSniffer(new ElasticsearchNodesSniffer(restClient,
+                        ElasticsearchNodesSniffer.DEFAULT_SNIFF_REQUEST_TIMEOUT, scheme))
+                .setSniffIntervalMillis((int) sniffInterval.toMillis())
+                .setSniffAfterFailureDelayMillis((int) sniffAfterFailureDelay.toMillis())
+                .build();
+        sniffOnFailureListener.setSniffer(sniffer);
+        return sniffer;
+    }
+    
+    @Bean
+    public ElasticsearchTransport elasticsearchTransport(RestClient restClient) {
+        return new RestClientTransport(
+                restClient,
+                new JacksonJsonpMapper()
+        );
+    }
+    
+    @Bean
+    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport transport) {
+        return new ElasticsearchClient(transport);
+    }
+    
+    private HttpHost[] httpHosts() {
+        return Arrays.stream(hosts)
+                .map(String::trim)
+                .map(HttpHost::create)
+                .toArray(HttpHost[]::new);
+    }
+    
+    /**
+     * The client's pool is built here rather than by the RestClient builder so
+     * that its statistics can be exported. A route is one node, so the
+     * per-route limit caps the connections to each node.
+     */
+    private LeaseCountingConnectionManager connectionManager() throws IOReactorException {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors())
+                .setSoKeepAlive(true)
+                .build();
+        Registry<SchemeIOSessionStrategy> schemes = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getSystemDefaultStrategy())
+                .build();
+        
+        LeaseCountingConnectionManager connectionManager = new LeaseCountingConnectionManager(
+                new DefaultConnectingIOReactor(ioReactorConfig), schemes);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+    
+    // Honours a shorter Keep-Alive from the server, otherwise closes idle connections after keepAlive
+    private long keepAliveMillis(HttpResponse response, HttpContext context) {
+        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+    }
+    
+    private void bindPoolMetrics(LeaseCountingConnectionManager connectionManager, MeterRegistry meterRegistry) {
+        Gauge.builder("elasticsearch.client.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Connections to Elasticsearch currently carrying a request")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch.client.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Idle connections to Elasticsearch kept open for reuse")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch.client.pool.waiting", connectionManager, LeaseCountingConnectionManager::getWaiting)
+                .description("Requests waiting for a connection to Elasticsearch")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch.client.pool.connecting", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Connections to Elasticsearch being opened")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch.client.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .description("Maximum connections to Elasticsearch")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.enterprise.docsearch.common.elasticsearch;
+
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the requests waiting for a connection lease. The pool's own
+ * {@code pending} statistic counts connections being opened, which stays at
+ * zero while requests queue behind a full pool.
+ */
+class LeaseCountingConnectionManager extends PoolingNHttpClientConnectionManager {
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    LeaseCountingConnectionManager(ConnectingIOReactor ioReactor, Registry<SchemeIOSessionStrategy> schemes) {
+        super(ioReactor, schemes);
+    }
+
+    int getWaiting() {
+        return waiting.get();
+    }
+
+    @Override
+    public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+            long leaseTimeout, TimeUnit timeUnit, FutureCallback<NHttpClientConnection> callback) {
+        waiting.incrementAndGet();
+        // The pool calls back exactly once: leased, timed out, failed to connect or cancelled
+        return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(NHttpClientConnection connection) {
+                        waiting.decrementAndGet();
+                        if (callback != null) {
+                            callback.completed(connection);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        waiting.decrementAndGet();
+                        if (callback != null) {
+                            callback.failed(e);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        waiting.decrementAndGet();
+                        if (callback != null) {
+                            callback.cancelled();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,17 @@
+package com.enterprise.docsearch.common.event;
+
+import java.util.List;
+
+/**
+ * Title changes of one tenant's indexed documents, published by
+ * index-service after a write so search-service can keep its in-memory
+ * typeahead in step without querying Elasticsearch.
+ */
+public record TitleChangeEvent(String tenantId, List<Change> changes) {
+
+    /**
+     * A null title means the document was deleted.
+     */
+    public record Change(String documentId, String title) {
+    }
+}
@@ -74,6 +74,23 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Invalid request", errorDetails));
     }
     
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTooManyRequests(
+            TooManyRequestsException ex, WebRequest request) {
+        
+        log.warn("Request rejected: {}", ex.getMessage());
+        
+        ApiResponse.ErrorDetails errorDetails = ApiResponse.ErrorDetails.builder()
+                .code("TOO_MANY_REQUESTS")
+                .details(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error("Too many requests", errorDetails));
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<Object>> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
@@ -0,0 +1,8 @@
+package com.enterprise.docsearch.common.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
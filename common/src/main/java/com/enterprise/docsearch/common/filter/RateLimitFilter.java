@@ -2,6 +2,7 @@ package com.enterprise.docsearch.common.filter;
 
 import com.enterprise.docsearch.common.context.TenantContext;
 import com.enterprise.docsearch.common.dto.ApiResponse;
+import com.enterprise.docsearch.common.jfr.FilterEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,6 +10,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -25,7 +27,10 @@ public class RateLimitFilter extends OncePerRequestFilter {
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
 
-    private static final int MAX_REQUESTS_PER_MINUTE = 1000;
+    private static final String FILTER_NAME = "rate_limit";
+
+    @Value("${rate-limit.requests-per-minute:1000}")
+    private int maxRequestsPerMinute = 1000;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -48,7 +53,12 @@ public class RateLimitFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (!checkRateLimit(tenantId)) {
+        FilterEvent event = new FilterEvent();
+        event.begin();
+        boolean allowed = checkRateLimit(tenantId);
+        event.complete(FILTER_NAME, tenantId, !allowed);
+
+        if (!allowed) {
             sendRateLimitError(response);
             return;
         }
@@ -72,14 +82,14 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 redisTemplate.expire(key, Duration.ofMinutes(2));
             }
 
-            if (requests > MAX_REQUESTS_PER_MINUTE) {
+            if (requests > maxRequestsPerMinute) {
                 log.warn("Rate limit exceeded for tenant: {} ({} requests)",
                         tenantId, requests);
                 return false;
             }
 
             log.debug("Rate limit check for tenant {}: {}/{}",
-                    tenantId, requests, MAX_REQUESTS_PER_MINUTE);
+                    tenantId, requests, maxRequestsPerMinute);
 
             return true;
 
@@ -93,11 +103,11 @@ public class RateLimitFilter extends OncePerRequestFilter {
     private void sendRateLimitError(HttpServletResponse response) throws IOException {
         response.setStatus(429); // Too Many Requests
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setHeader("X-RateLimit-Limit", String.valueOf(MAX_REQUESTS_PER_MINUTE));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(maxRequestsPerMinute));
         response.setHeader("X-RateLimit-Remaining", "0");
 
         ApiResponse<Object> errorResponse = ApiResponse.error(
-                "Rate limit exceeded. Maximum " + MAX_REQUESTS_PER_MINUTE +
+                "Rate limit exceeded. Maximum " + maxRequestsPerMinute +
                         " requests per minute allowed.");
 
         String jsonResponse = objectMapper.writeValueAsString(errorResponse);
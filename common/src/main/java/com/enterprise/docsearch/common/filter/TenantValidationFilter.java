@@ -2,6 +2,7 @@ package com.enterprise.docsearch.common.filter;
 
 import com.enterprise.docsearch.common.context.TenantContext;
 import com.enterprise.docsearch.common.dto.ApiResponse;
+import com.enterprise.docsearch.common.jfr.FilterEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,6 +27,7 @@ public class TenantValidationFilter extends OncePerRequestFilter {
     private final ObjectMapper objectMapper;
     
     private static final String API_KEY_HEADER = "X-API-Key";
+    private static final String FILTER_NAME = "tenant_validation";
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -41,9 +43,13 @@ public class TenantValidationFilter extends OncePerRequestFilter {
             return;
         }
         
+        FilterEvent event = new FilterEvent();
+        event.begin();
+        
         String apiKey = request.getHeader(API_KEY_HEADER);
         
         if (apiKey == null || apiKey.isEmpty()) {
+            event.complete(FILTER_NAME, null, true);
             sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, 
                     "Missing API key");
             return;
@@ -54,6 +60,7 @@ public class TenantValidationFilter extends OncePerRequestFilter {
         String tenantId = extractTenantId(apiKey);
         
         if (tenantId == null) {
+            event.complete(FILTER_NAME, null, true);
             sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, 
                     "Invalid API key format");
             return;
@@ -61,6 +68,7 @@ public class TenantValidationFilter extends OncePerRequestFilter {
         
         // Validate API key (simplified - in production, check against database)
         if (!validateApiKey(apiKey, tenantId)) {
+            event.complete(FILTER_NAME, tenantId, true);
             sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, 
                     "Invalid API key");
             return;
@@ -69,6 +77,7 @@ public class TenantValidationFilter extends OncePerRequestFilter {
         // Set tenant context
         TenantContext.setTenantId(tenantId);
         log.debug("Tenant context set: {}", tenantId);
+        event.complete(FILTER_NAME, tenantId, false);
         
         try {
             filterChain.doFilter(request, response);
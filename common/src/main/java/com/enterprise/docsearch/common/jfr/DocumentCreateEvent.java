@@ -0,0 +1,32 @@
+package com.enterprise.docsearch.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One document stored and its index message published. Ends before the
+ * transaction commits.
+ */
+@Name(DocumentCreateEvent.NAME)
+@Label("Document Create")
+@Category({"DocSearch", "Documents"})
+@Description("A document stored and queued for indexing")
+@StackTrace(false)
+public class DocumentCreateEvent extends Event {
+
+    public static final String NAME = "com.enterprise.docsearch.DocumentCreate";
+
+    @Label("Tenant")
+    public String tenant;
+
+    @Label("Content Length")
+    @Description("Characters of content")
+    public long contentLength;
+
+    @Label("Metadata Fields")
+    public int metadataFields;
+}
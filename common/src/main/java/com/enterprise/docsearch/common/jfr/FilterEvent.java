@@ -0,0 +1,44 @@
+package com.enterprise.docsearch.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The work one of our servlet filters did for a request, not counting the
+ * rest of the chain.
+ */
+@Name(FilterEvent.NAME)
+@Label("Filter")
+@Category({"DocSearch", "HTTP"})
+@Description("Tenant validation or rate limiting of a request")
+@StackTrace(false)
+public class FilterEvent extends Event {
+
+    public static final String NAME = "com.enterprise.docsearch.Filter";
+
+    @Label("Filter")
+    public String filter;
+
+    @Label("Tenant")
+    public String tenant;
+
+    @Label("Rejected")
+    public boolean rejected;
+
+    /**
+     * Ends the event and commits it, unless it isn't being recorded.
+     */
+    public void complete(String filter, String tenant, boolean rejected) {
+        end();
+        if (shouldCommit()) {
+            this.filter = filter;
+            this.tenant = tenant;
+            this.rejected = rejected;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.enterprise.docsearch.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One index or _bulk request to Elasticsearch, including preparing the
+ * documents for it.
+ */
+@Name(IndexEvent.NAME)
+@Label("Index")
+@Category({"DocSearch", "Indexing"})
+@Description("Documents written to a tenant's index")
+@StackTrace(false)
+public class IndexEvent extends Event {
+
+    public static final String NAME = "com.enterprise.docsearch.Index";
+
+    @Label("Tenant")
+    public String tenant;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Documents")
+    public int documents;
+
+    @Label("Failed Documents")
+    public int failedDocuments;
+
+    @Label("Content Length")
+    @Description("Characters of content across all documents")
+    public long contentLength;
+}
@@ -0,0 +1,26 @@
+package com.enterprise.docsearch.common.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rolling latency percentiles of our JFR events, at /actuator/jfr.
+ */
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnProperty(name = "jfr.streaming.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private final JfrEventStream eventStream;
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, Object>>> events() {
+        return eventStream.snapshot();
+    }
+}
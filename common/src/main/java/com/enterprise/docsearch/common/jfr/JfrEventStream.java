@@ -0,0 +1,122 @@
+package com.enterprise.docsearch.common.jfr;
+
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams our own JFR events out of the running JVM and keeps rolling
+ * latency percentiles per event type and tenant, for the jfr actuator
+ * endpoint. The stream is what enables the events, so they are recorded
+ * even without a recording started on the command line; one started with
+ * -XX:StartFlightRecording gets them too, next to GC and safepoint events.
+ */
+@Component
+@ConditionalOnProperty(name = "jfr.streaming.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class JfrEventStream {
+
+    static final List<String> EVENTS = List.of(
+            SearchEvent.NAME, IndexEvent.NAME, DocumentCreateEvent.NAME, FilterEvent.NAME);
+
+    // The percentiles are taken over the window, rotated in this many steps
+    private static final int WINDOW_STEPS = 6;
+
+    private final TenantTagger tenantTagger;
+    private final Duration window;
+    // Kept apart from the application registry; these meters are only read by the endpoint
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordingStream stream;
+
+    @Autowired
+    public JfrEventStream(TenantTagger tenantTagger,
+                          @Value("${jfr.streaming.window:1m}") Duration window) {
+        this(tenantTagger, window, new RecordingStream());
+    }
+
+    /**
+     * Without a stream, only what is passed to {@link #record} is counted.
+     */
+    JfrEventStream(TenantTagger tenantTagger, Duration window, RecordingStream stream) {
+        this.tenantTagger = tenantTagger;
+        this.window = window;
+        this.stream = stream;
+        tenantTagger.removeOnEviction(registry);
+        if (stream == null) {
+            return;
+        }
+
+        for (String event : EVENTS) {
+            stream.enable(event).withoutThreshold();
+            stream.onEvent(event, this::onEvent);
+        }
+        // Events are handled as they arrive, so there's no need to keep much on disk
+        stream.setMaxAge(window);
+        stream.startAsync();
+        log.info("Streaming JFR events {}", EVENTS);
+    }
+
+    void record(String event, String tenantId, Duration duration) {
+        // Not tag(): the request was already counted towards the tenant's rank by the service's meters
+        Timer.builder("jfr.events")
+                .tag("event", event)
+                .tag(TenantTagger.TAG, tenantTagger.currentTag(tenantId))
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .distributionStatisticExpiry(window)
+                .distributionStatisticBufferLength(WINDOW_STEPS)
+                .register(registry)
+                .record(duration);
+    }
+
+    /**
+     * Latency per event type and tenant in milliseconds. Percentiles and max
+     * cover the rolling window; count is everything since startup.
+     */
+    public Map<String, Map<String, Map<String, Object>>> snapshot() {
+        Map<String, Map<String, Map<String, Object>>> events = new TreeMap<>();
+        for (Timer timer : registry.find("jfr.events").timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", snapshot.count());
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                stats.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+            }
+            stats.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+
+            events.computeIfAbsent(timer.getId().getTag("event"), name -> new TreeMap<>())
+                    .put(timer.getId().getTag(TenantTagger.TAG), stats);
+        }
+        return events;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onEvent(RecordedEvent event) {
+        String tenantId = event.hasField("tenant") ? event.getString("tenant") : null;
+        record(event.getEventType().getName(), tenantId, event.getDuration());
+    }
+}
@@ -0,0 +1,46 @@
+package com.enterprise.docsearch.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One search, from the cache lookup until its response is built. An async
+ * search begins on the request thread and is committed on whichever thread
+ * completes it.
+ */
+@Name(SearchEvent.NAME)
+@Label("Search")
+@Category({"DocSearch", "Search"})
+@Description("A search request served from cache or Elasticsearch")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    public static final String NAME = "com.enterprise.docsearch.Search";
+
+    @Label("Tenant")
+    public String tenant;
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Total Hits")
+    public long totalHits;
+
+    @Label("Returned Hits")
+    public int returnedHits;
+
+    @Label("Elasticsearch Time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long tookMs;
+
+    @Label("Async")
+    public boolean async;
+}
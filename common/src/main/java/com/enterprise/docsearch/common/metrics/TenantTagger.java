@@ -0,0 +1,161 @@
+package com.enterprise.docsearch.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Turns tenant ids into a metric tag with a bounded number of values. The
+ * busiest tenants keep their own id and everyone else is tagged "other", so
+ * the number of series stays the same however many tenants there are. Which
+ * tenants are the busiest is recomputed periodically from decaying request
+ * counts; a tenant that drops out moves to "other" from then on, and its
+ * meters are removed from the registries passed to {@link #removeOnEviction}.
+ */
+@Component
+public class TenantTagger {
+
+    public static final String OTHER = "other";
+    public static final String TAG = "tenant";
+
+    // Tenants counted at most, so a flood of new ids can't grow the counts unbounded
+    static final int MAX_TRACKED = 10_000;
+
+    private final int topK;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+    private volatile Set<String> top = Set.of();
+    private Set<String> lastEvicted = Set.of();
+
+    @Autowired
+    public TenantTagger(@Value("${metrics.tenants.top-k:10}") int topK,
+                        @Value("${metrics.tenants.refresh:1m}") Duration refresh) {
+        this(topK, refresh, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tenant-tagger");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    TenantTagger(int topK, Duration refresh, ScheduledExecutorService scheduler) {
+        this.topK = topK;
+        this.scheduler = scheduler;
+        scheduler.scheduleAtFixedRate(this::refresh, refresh.toMillis(), refresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The tag for one request of the tenant, counting the request towards its
+     * rank. Until the top tenants are full, new tenants are let straight in.
+     */
+    public String tag(String tenantId) {
+        if (tenantId == null) {
+            return OTHER;
+        }
+
+        LongAdder count = counts.get(tenantId);
+        if (count == null) {
+            if (counts.size() >= MAX_TRACKED) {
+                return OTHER;
+            }
+            count = counts.computeIfAbsent(tenantId, id -> new LongAdder());
+        }
+        count.increment();
+
+        if (top.contains(tenantId) || (top.size() < topK && admit(tenantId))) {
+            return tenantId;
+        }
+        return OTHER;
+    }
+
+    /**
+     * The tag the tenant currently gets, without counting a request. For
+     * meters that see the same requests again, which would skew the ranking.
+     */
+    public String currentTag(String tenantId) {
+        return tenantId != null && top.contains(tenantId) ? tenantId : OTHER;
+    }
+
+    /**
+     * Removes the meters tagged with a tenant from the registry once the
+     * tenant drops out of the top, so its series stop being published.
+     */
+    public void removeOnEviction(MeterRegistry registry) {
+        evictionListeners.add(tenantId -> Search.in(registry).tag(TAG, tenantId).meters()
+                .forEach(registry::remove));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Takes the busiest tenants as the new top and halves every count, so
+     * the ranking follows recent traffic. Tenants whose count reaches zero
+     * are forgotten.
+     */
+    void refresh() {
+        Set<String> evicted = new HashSet<>();
+        synchronized (this) {
+            Set<String> previous = top;
+            top = counts.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum())
+                            .reversed())
+                    .limit(topK)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toUnmodifiableSet());
+
+            // Racing increments may be lost here; the counts only need to be roughly right
+            counts.entrySet().removeIf(entry -> {
+                long halved = entry.getValue().sumThenReset() / 2;
+                entry.getValue().add(halved);
+                return halved == 0;
+            });
+
+            // A request tagged just before the swap can register a meter after its removal,
+            // so the tenants evicted last time are removed once more
+            evicted.addAll(previous);
+            evicted.addAll(lastEvicted);
+            evicted.removeAll(top);
+            lastEvicted = previous.stream()
+                    .filter(tenantId -> !top.contains(tenantId))
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+
+        for (String tenantId : evicted) {
+            evictionListeners.forEach(listener -> listener.accept(tenantId));
+        }
+    }
+
+    private synchronized boolean admit(String tenantId) {
+        if (top.contains(tenantId)) {
+            return true;
+        }
+        if (top.size() >= topK) {
+            return false;
+        }
+        Set<String> admitted = new HashSet<>(top);
+        admitted.add(tenantId);
+        top = Set.copyOf(admitted);
+        return true;
+    }
+}
@@ -3,6 +3,11 @@ package com.enterprise.docsearch.common.context;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TenantContextTest {
@@ -61,4 +66,23 @@ class TenantContextTest {
         TenantContext.setTenantId("tenant2");
         assertEquals("tenant2", TenantContext.getTenantId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPropagatingExecutorCarriesCapturedTenant() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            TenantContext.setTenantId("tenant1");
+            Executor executor = TenantContext.propagatingTo(pool);
+            TenantContext.clear();
+
+            // Submitted from a thread without a tenant, like an I/O callback
+            String seen = CompletableFuture.supplyAsync(TenantContext::getTenantId, executor).get();
+            String leftBehind = pool.submit(TenantContext::getTenantId).get();
+
+            assertEquals("tenant1", seen);
+            assertNull(leftBehind);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.enterprise.docsearch.common.elasticsearch;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaseCountingConnectionManagerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private LeaseCountingConnectionManager connectionManager;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("{}".getBytes());
+            exchange.close();
+        });
+        server.start();
+
+        connectionManager = new LeaseCountingConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.custom().setIoThreadCount(1).build()),
+                RegistryBuilder.<SchemeIOSessionStrategy>create()
+                        .register("http", NoopIOSessionStrategy.INSTANCE)
+                        .build());
+        connectionManager.setMaxTotal(1);
+        connectionManager.setDefaultMaxPerRoute(1);
+
+        restClient = RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort()))
+                .setHttpClientConfigCallback(httpClient -> httpClient.setConnectionManager(connectionManager))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        restClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testCountsRequestsQueuedBehindAFullPool() throws Exception {
+        // Given
+        CountDownLatch done = new CountDownLatch(3);
+        ResponseListener listener = new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                done.countDown();
+            }
+        };
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            restClient.performRequestAsync(new Request("GET", "/"), listener);
+        }
+
+        // Then - one request holds the only connection, two wait for it
+        assertTrue(waitFor(() -> connectionManager.getTotalStats().getLeased() == 1
+                && connectionManager.getWaiting() == 2));
+        assertEquals(0, connectionManager.getTotalStats().getPending());
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, connectionManager.getWaiting());
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
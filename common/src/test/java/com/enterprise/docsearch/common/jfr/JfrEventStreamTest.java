@@ -0,0 +1,89 @@
+package com.enterprise.docsearch.common.jfr;
+
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventStreamTest {
+
+    private final TenantTagger tenantTagger = new TenantTagger(10, Duration.ofMinutes(1));
+    private JfrEventStream eventStream;
+
+    @AfterEach
+    void tearDown() {
+        if (eventStream != null) {
+            eventStream.close();
+        }
+        tenantTagger.shutdown();
+    }
+
+    @Test
+    void testSnapshotHasPercentilesPerEventAndTenant() {
+        // Given
+        tenantTagger.tag("tenant123");
+        eventStream = new JfrEventStream(tenantTagger, Duration.ofMinutes(1), null);
+
+        // When
+        for (int i = 1; i <= 100; i++) {
+            eventStream.record(SearchEvent.NAME, "tenant123", Duration.ofMillis(i));
+        }
+        eventStream.record(FilterEvent.NAME, null, Duration.ofMillis(2));
+
+        // Then
+        Map<String, Map<String, Map<String, Object>>> snapshot = eventStream.snapshot();
+        Map<String, Object> search = snapshot.get(SearchEvent.NAME).get("tenant123");
+        assertEquals(100L, search.get("count"));
+        assertEquals(50.0, (double) search.get("p50"), 2.0);
+        assertEquals(99.0, (double) search.get("p99"), 2.0);
+        assertEquals(100.0, (double) search.get("max"), 0.001);
+        assertEquals(1L, snapshot.get(FilterEvent.NAME).get(TenantTagger.OTHER).get("count"));
+    }
+
+    @Test
+    void testCommittedEventsReachTheSnapshot() throws Exception {
+        // Given
+        tenantTagger.tag("tenant123");
+        eventStream = new JfrEventStream(tenantTagger, Duration.ofMinutes(1));
+
+        // When
+        FilterEvent event = new FilterEvent();
+        event.begin();
+        event.complete("rate_limit", "tenant123", false);
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (filterCount("tenant123") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(1L, filterCount("tenant123"));
+    }
+
+    @Test
+    void testRecordingDoesNotRankTenants() {
+        // Given
+        eventStream = new JfrEventStream(tenantTagger, Duration.ofMinutes(1), null);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            eventStream.record(SearchEvent.NAME, "tenant456", Duration.ofMillis(1));
+        }
+
+        // Then - tag() would have let the tenant into the free top slots
+        assertEquals(TenantTagger.OTHER, tenantTagger.currentTag("tenant456"));
+        assertEquals(10L, eventStream.snapshot().get(SearchEvent.NAME).get(TenantTagger.OTHER).get("count"));
+    }
+
+    // The stream registers a tenant's timer before recording into it, so wait on the count
+    private long filterCount(String tenant) {
+        Map<String, Map<String, Object>> filters = eventStream.snapshot().get(FilterEvent.NAME);
+        if (filters == null || !filters.containsKey(tenant)) {
+            return 0;
+        }
+        return (long) filters.get(tenant).get("count");
+    }
+}
@@ -0,0 +1,135 @@
+package com.enterprise.docsearch.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TenantTaggerTest {
+
+    private final TenantTagger tagger =
+            new TenantTagger(2, Duration.ofMinutes(1), mock(ScheduledExecutorService.class));
+
+    @Test
+    void testFirstTenantsGetTheirOwnTagUntilTopIsFull() {
+        // When & Then
+        assertEquals("tenant1", tagger.tag("tenant1"));
+        assertEquals("tenant2", tagger.tag("tenant2"));
+        assertEquals(TenantTagger.OTHER, tagger.tag("tenant3"));
+        assertEquals("tenant1", tagger.tag("tenant1"));
+        assertEquals(TenantTagger.OTHER, tagger.tag(null));
+    }
+
+    @Test
+    void testRefreshKeepsTheBusiestTenants() {
+        // Given
+        tagger.tag("quiet");
+        tagger.tag("medium");
+        for (int i = 0; i < 10; i++) {
+            tagger.tag("busy");
+            tagger.tag("medium");
+        }
+
+        // When
+        tagger.refresh();
+
+        // Then
+        assertEquals("busy", tagger.tag("busy"));
+        assertEquals("medium", tagger.tag("medium"));
+        assertEquals(TenantTagger.OTHER, tagger.tag("quiet"));
+    }
+
+    @Test
+    void testCountsDecaySoRecentTrafficWins() {
+        // Given
+        for (int i = 0; i < 8; i++) {
+            tagger.tag("early");
+        }
+        tagger.tag("late");
+        tagger.refresh();
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            tagger.tag("late");
+            tagger.tag("newcomer");
+        }
+        tagger.refresh();
+
+        // Then
+        // early decayed to 4 while late and newcomer reached 6
+        assertEquals("late", tagger.tag("late"));
+        assertEquals("newcomer", tagger.tag("newcomer"));
+        assertEquals(TenantTagger.OTHER, tagger.tag("early"));
+    }
+
+    @Test
+    void testCurrentTagDoesNotCount() {
+        // Given
+        tagger.tag("tenant1");
+        for (int i = 0; i < 10; i++) {
+            tagger.currentTag("tenant2");
+        }
+        tagger.tag("tenant3");
+
+        // When
+        tagger.refresh();
+
+        // Then
+        assertEquals("tenant1", tagger.currentTag("tenant1"));
+        assertEquals(TenantTagger.OTHER, tagger.currentTag("tenant2"));
+        assertEquals("tenant3", tagger.currentTag("tenant3"));
+    }
+
+    @Test
+    void testEvictedTenantsMetersAreRemoved() {
+        // Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        tagger.removeOnEviction(registry);
+        for (String tenantId : new String[] {"early", "busy"}) {
+            Counter.builder("requests").tag(TenantTagger.TAG, tagger.tag(tenantId)).register(registry).increment();
+            Timer.builder("latency").tag(TenantTagger.TAG, tenantId).register(registry);
+        }
+        for (int i = 0; i < 10; i++) {
+            tagger.tag("busy");
+            tagger.tag("newcomer");
+        }
+
+        // When
+        tagger.refresh();
+
+        // Then
+        assertTrue(registry.find("requests").tag(TenantTagger.TAG, "early").meters().isEmpty());
+        assertTrue(registry.find("latency").tag(TenantTagger.TAG, "early").meters().isEmpty());
+        assertNotNull(registry.find("requests").tag(TenantTagger.TAG, "busy").counter());
+        assertNotNull(registry.find("latency").tag(TenantTagger.TAG, "busy").timer());
+    }
+
+    @Test
+    void testMetersRegisteredRightAfterEvictionAreRemovedNextRefresh() {
+        // Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        tagger.removeOnEviction(registry);
+        tagger.tag("early");
+        for (int i = 0; i < 10; i++) {
+            tagger.tag("busy");
+            tagger.tag("newcomer");
+        }
+        tagger.refresh();
+
+        // When - a request tagged before the refresh registers its meter after it
+        Counter.builder("requests").tag(TenantTagger.TAG, "early").register(registry);
+        tagger.tag("busy");
+        tagger.tag("newcomer");
+        tagger.refresh();
+
+        // Then
+        assertTrue(registry.find("requests").tag(TenantTagger.TAG, "early").meters().isEmpty());
+    }
+}
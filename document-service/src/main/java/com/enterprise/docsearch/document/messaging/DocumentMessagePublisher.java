@@ -1,6 +1,7 @@
 package com.enterprise.docsearch.document.messaging;
 
 import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.document.metrics.DocumentMetrics;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ public class DocumentMessagePublisher {
     
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final DocumentMetrics documentMetrics;
     
     private static final String EXCHANGE = "document.topic";
     private static final String INDEX_ROUTING_KEY = "document.index";
@@ -38,7 +40,7 @@ public class DocumentMessagePublisher {
             message.put("max_retries", 3);
             
             String messageJson = objectMapper.writeValueAsString(message);
-            rabbitTemplate.convertAndSend(EXCHANGE, INDEX_ROUTING_KEY, messageJson);
+            send(INDEX_ROUTING_KEY, "index", messageJson);
             
             log.info("Published index message for document: {}", document.getDocumentId());
         } catch (JsonProcessingException e) {
@@ -57,7 +59,7 @@ public class DocumentMessagePublisher {
             message.put("timestamp", LocalDateTime.now().toString());
             
             String messageJson = objectMapper.writeValueAsString(message);
-            rabbitTemplate.convertAndSend(EXCHANGE, DELETE_ROUTING_KEY, messageJson);
+            send(DELETE_ROUTING_KEY, "delete", messageJson);
             
             log.info("Published delete message for document: {}", documentId);
         } catch (JsonProcessingException e) {
@@ -65,4 +67,15 @@ public class DocumentMessagePublisher {
             throw new RuntimeException("Failed to publish message", e);
         }
     }
+    
+    private void send(String routingKey, String operation, String messageJson) {
+        long startNanos = System.nanoTime();
+        try {
+            rabbitTemplate.convertAndSend(EXCHANGE, routingKey, messageJson);
+            documentMetrics.published(operation, System.nanoTime() - startNanos, false);
+        } catch (RuntimeException e) {
+            documentMetrics.published(operation, System.nanoTime() - startNanos, true);
+            throw e;
+        }
+    }
 }
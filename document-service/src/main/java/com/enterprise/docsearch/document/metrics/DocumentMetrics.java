@@ -0,0 +1,53 @@
+package com.enterprise.docsearch.document.metrics;
+
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Document meters: how long creating a document takes, tagged by tenant, and
+ * how long handing its message to RabbitMQ takes.
+ */
+@Component
+public class DocumentMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final TenantTagger tenantTagger;
+
+    public DocumentMetrics(MeterRegistry meterRegistry, TenantTagger tenantTagger) {
+        this.meterRegistry = meterRegistry;
+        this.tenantTagger = tenantTagger;
+        tenantTagger.removeOnEviction(meterRegistry);
+    }
+
+    public void created(String tenantId, long tookNanos, boolean failed) {
+        Timer.builder("document.create")
+                .description("Document creation, from request to published index message")
+                .tag(TenantTagger.TAG, tenantTagger.tag(tenantId))
+                .tag("outcome", failed ? "error" : "success")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry)
+                .record(tookNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void published(String operation, long tookNanos, boolean failed) {
+        Timer.builder("document.publish")
+                .description("Publishing index and delete messages to RabbitMQ")
+                .tag("operation", operation)
+                .tag("outcome", failed ? "error" : "success")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry)
+                .record(tookNanos, TimeUnit.NANOSECONDS);
+    }
+}
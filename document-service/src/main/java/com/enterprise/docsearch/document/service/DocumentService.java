@@ -1,10 +1,12 @@
 package com.enterprise.docsearch.document.service;
 
 import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.common.jfr.DocumentCreateEvent;
 import com.enterprise.docsearch.common.model.Document;
 import com.enterprise.docsearch.common.model.DocumentStatus;
 import com.enterprise.docsearch.document.entity.DocumentEntity;
 import com.enterprise.docsearch.document.messaging.DocumentMessagePublisher;
+import com.enterprise.docsearch.document.metrics.DocumentMetrics;
 import com.enterprise.docsearch.document.repository.DocumentRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,10 +36,34 @@ public class DocumentService {
     private final DocumentRepository documentRepository;
     private final DocumentMessagePublisher messagePublisher;
     private final ObjectMapper objectMapper;
+    private final DocumentMetrics documentMetrics;
     
     @Transactional
     public Document createDocument(Document document) {
         String tenantId = TenantContext.getTenantId();
+        long startNanos = System.nanoTime();
+        DocumentCreateEvent event = new DocumentCreateEvent();
+        event.begin();
+        
+        try {
+            Document created = insertDocument(tenantId, document);
+            documentMetrics.created(tenantId, System.nanoTime() - startNanos, false);
+            
+            event.end();
+            if (event.shouldCommit()) {
+                event.tenant = tenantId;
+                event.contentLength = document.getContent().length();
+                event.metadataFields = document.getMetadata() != null ? document.getMetadata().size() : 0;
+                event.commit();
+            }
+            return created;
+        } catch (RuntimeException e) {
+            documentMetrics.created(tenantId, System.nanoTime() - startNanos, true);
+            throw e;
+        }
+    }
+    
+    private Document insertDocument(String tenantId, Document document) {
         log.info("Creating document for tenant: {}", tenantId);
         
         DocumentEntity entity = DocumentEntity.builder()
@@ -113,7 +139,7 @@ public class DocumentService {
         });
     }
     
-    private Document mapToDocument(DocumentEntity entity) {
+    Document mapToDocument(DocumentEntity entity) {
         Document doc = Document.builder()
                 .documentId(entity.getDocumentId())
                 .tenantId(entity.getTenantId())
@@ -138,7 +164,7 @@ public class DocumentService {
         return doc;
     }
     
-    private String calculateHash(String content) {
+    String calculateHash(String content) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
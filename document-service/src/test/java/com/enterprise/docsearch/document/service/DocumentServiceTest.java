@@ -5,6 +5,7 @@ import com.enterprise.docsearch.common.model.Document;
 import com.enterprise.docsearch.common.model.DocumentStatus;
 import com.enterprise.docsearch.document.entity.DocumentEntity;
 import com.enterprise.docsearch.document.messaging.DocumentMessagePublisher;
+import com.enterprise.docsearch.document.metrics.DocumentMetrics;
 import com.enterprise.docsearch.document.repository.DocumentRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
@@ -39,6 +40,9 @@ class DocumentServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private DocumentMetrics documentMetrics;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -95,6 +99,23 @@ class DocumentServiceTest {
         assertEquals(TENANT_ID, entityCaptor.getValue().getTenantId());
 
         verify(messagePublisher).publishIndexMessage(any(Document.class));
+        verify(documentMetrics).created(eq(TENANT_ID), anyLong(), eq(false));
+    }
+
+    @Test
+    void testCreateDocumentFailureIsRecorded() {
+        // Given
+        Document inputDoc = Document.builder()
+                .title("Test Document")
+                .content("Test Content")
+                .build();
+
+        when(documentRepository.save(any(DocumentEntity.class))).thenThrow(new RuntimeException("DB down"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> documentService.createDocument(inputDoc));
+        verify(documentMetrics).created(eq(TENANT_ID), anyLong(), eq(true));
+        verify(messagePublisher, never()).publishIndexMessage(any(Document.class));
     }
 
     @Test
@@ -0,0 +1,92 @@
+package com.enterprise.docsearch.index.config;
+
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitRetryTemplateCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String INDEX_QUEUE = "indexing.queue";
+    public static final String INDEX_DLQ = "indexing.dlq";
+
+    @Value("${indexing.batch.size:500}")
+    private int batchSize;
+
+    @Value("${indexing.batch.receive-timeout-ms:200}")
+    private long receiveTimeoutMs;
+
+    @Value("${indexing.batch.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${indexing.batch.concurrency:2}")
+    private int concurrency;
+
+    @Value("${indexing.batch.max-attempts:3}")
+    private int maxAttempts;
+
+    // Counts the retries of the single-message listeners, whose retry template Boot builds
+    @Bean
+    public RabbitRetryTemplateCustomizer retryMetricsCustomizer(IndexMetrics indexMetrics) {
+        return (target, template) -> {
+            if (target == RabbitRetryTemplateCustomizer.Target.LISTENER) {
+                template.registerListener(indexMetrics);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "indexing.batch.enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            ConnectionFactory connectionFactory, IndexMetrics indexMetrics) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+
+        // Deliver up to batchSize messages per listener call; a partial batch is
+        // handed over once no further message arrives within the receive timeout
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchReceiveTimeoutMs(batchSize, receiveTimeoutMs, maxWaitMs));
+        factory.setPrefetchCount(batchSize);
+        factory.setConcurrentConsumers(concurrency);
+
+        // The whole batch is acked once the listener returns, or rejected to the DLQ
+        // after the retry attempts are exhausted
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        RetryTemplate retryTemplate = RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(1000, 2.0, 10000)
+                .withListener(indexMetrics)
+                .build();
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .retryOperations(retryTemplate)
+                .recoverer((MessageBatchRecoverer) (messages, cause) -> {
+                    throw new AmqpRejectAndDontRequeueException(
+                            "Batch of " + messages.size() + " messages failed after retries", cause);
+                })
+                .build());
+
+        return factory;
+    }
+
+    /**
+     * The receive timeout applies to each message of a batch, so messages
+     * trickling in just inside it keep a batch open for up to batchSize times
+     * the timeout. Shortens it so that stays within the max wait, down to 1 ms.
+     */
+    static long batchReceiveTimeoutMs(int batchSize, long receiveTimeoutMs, long maxWaitMs) {
+        return Math.max(1, Math.min(receiveTimeoutMs, maxWaitMs / batchSize));
+    }
+}
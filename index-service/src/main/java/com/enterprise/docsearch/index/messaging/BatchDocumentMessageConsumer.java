@@ -0,0 +1,163 @@
+package com.enterprise.docsearch.index.messaging;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.index.config.RabbitMQConfig;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import com.enterprise.docsearch.index.service.BulkItemFailure;
+import com.enterprise.docsearch.index.service.IndexingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "indexing.batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchDocumentMessageConsumer {
+
+    private final IndexingService indexingService;
+    private final ObjectMapper objectMapper;
+    private final RabbitTemplate rabbitTemplate;
+    private final IndexMetrics indexMetrics;
+
+    @Value("${indexing.batch.max-bytes:5242880}")
+    private long maxBatchBytes;
+
+    @RabbitListener(queues = RabbitMQConfig.INDEX_QUEUE, containerFactory = "batchListenerContainerFactory")
+    public void handleIndexBatch(List<Message> messages) {
+        log.info("Received index batch of {} messages", messages.size());
+
+        // bulkIndexDocuments writes into a single tenant index, so split by tenant first
+        Map<String, List<PendingDocument>> documentsByTenant = new LinkedHashMap<>();
+
+        for (Message message : messages) {
+            Document document;
+            try {
+                document = readDocument(message.getBody());
+            } catch (Exception e) {
+                log.error("Malformed index message in batch, routing to {}", RabbitMQConfig.INDEX_DLQ, e);
+                rabbitTemplate.send("", RabbitMQConfig.INDEX_DLQ, message);
+                indexMetrics.message("index", null, true);
+                continue;
+            }
+
+            if (document != null) {
+                documentsByTenant
+                        .computeIfAbsent(document.getTenantId(), tenantId -> new ArrayList<>())
+                        .add(new PendingDocument(document, message));
+            }
+        }
+
+        List<FailedDocument> failed = new ArrayList<>();
+        try {
+            documentsByTenant.forEach((tenantId, pending) -> failed.addAll(flushTenant(tenantId, pending)));
+        } catch (RuntimeException e) {
+            countMessages(documentsByTenant, true);
+            throw e;
+        }
+
+        // Throwing makes the retry advice run the whole batch again; re-indexing the
+        // documents that did succeed overwrites them with the same content
+        List<FailedDocument> retryable = failed.stream().filter(f -> f.failure().retryable()).toList();
+        if (!retryable.isEmpty()) {
+            countMessages(documentsByTenant, true);
+            BulkItemFailure first = retryable.get(0).failure();
+            throw new RuntimeException("Bulk indexing failed for " + retryable.size()
+                    + " documents with retryable errors, first: " + first.status() + " " + first.reason());
+        }
+
+        // Sending these again would fail the same way, so they go to the DLQ one by one
+        for (FailedDocument document : failed) {
+            log.error("Routing document {} to {} after bulk indexing rejected it: {}",
+                    document.failure().documentId(), RabbitMQConfig.INDEX_DLQ, document.failure().reason());
+            rabbitTemplate.send("", RabbitMQConfig.INDEX_DLQ, document.pending().message());
+            documentsByTenant.get(document.pending().document().getTenantId()).remove(document.pending());
+            indexMetrics.message("index", document.pending().document().getTenantId(), true);
+        }
+        countMessages(documentsByTenant, false);
+
+        log.info("Successfully processed index batch of {} messages across {} tenants",
+                messages.size(), documentsByTenant.size());
+    }
+
+    private List<FailedDocument> flushTenant(String tenantId, List<PendingDocument> pending) {
+        List<FailedDocument> failed = new ArrayList<>();
+        List<PendingDocument> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+
+        for (PendingDocument entry : pending) {
+            if (!chunk.isEmpty() && chunkBytes + entry.sizeBytes() > maxBatchBytes) {
+                failed.addAll(bulkIndex(chunk, chunkBytes));
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(entry);
+            chunkBytes += entry.sizeBytes();
+        }
+
+        if (!chunk.isEmpty()) {
+            failed.addAll(bulkIndex(chunk, chunkBytes));
+        }
+
+        log.debug("Flushed {} documents for tenant {}", pending.size(), tenantId);
+        return failed;
+    }
+
+    private void countMessages(Map<String, List<PendingDocument>> documentsByTenant, boolean failed) {
+        documentsByTenant.forEach((tenantId, pending) ->
+                indexMetrics.messages("index", tenantId, failed, pending.size()));
+    }
+
+    // Sized by the messages the documents came in, which is close to the _bulk body
+    private List<FailedDocument> bulkIndex(List<PendingDocument> chunk, long chunkBytes) {
+        List<BulkItemFailure> failures = indexingService.bulkIndexDocuments(
+                chunk.stream().map(PendingDocument::document).toList());
+        indexMetrics.bulk(chunk.size(), chunkBytes);
+
+        List<FailedDocument> failed = new ArrayList<>();
+        for (BulkItemFailure failure : failures) {
+            failed.add(new FailedDocument(chunk.get(failure.position()), failure));
+        }
+        return failed;
+    }
+
+    private Document readDocument(byte[] body) throws IOException {
+        JsonNode message = objectMapper.readTree(body);
+
+        // The publisher sends pre-serialized JSON through a JSON converter, so the
+        // envelope may arrive as a JSON string wrapping the actual object
+        if (message.isTextual()) {
+            message = objectMapper.readTree(message.asText());
+        }
+
+        JsonNode payload = message.get("payload");
+        if (!"index".equals(message.path("operation").asText()) || payload == null || payload.isNull()) {
+            return null;
+        }
+
+        return objectMapper.treeToValue(payload, Document.class);
+    }
+
+    private record PendingDocument(Document document, Message message) {
+
+        int sizeBytes() {
+            return message.getBody().length;
+        }
+    }
+
+    private record FailedDocument(PendingDocument pending, BulkItemFailure failure) {
+    }
+}
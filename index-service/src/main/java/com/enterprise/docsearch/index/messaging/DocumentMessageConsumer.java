@@ -1,6 +1,7 @@
 package com.enterprise.docsearch.index.messaging;
 
 import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
 import com.enterprise.docsearch.index.service.IndexingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -18,13 +19,18 @@ public class DocumentMessageConsumer {
     
     private final IndexingService indexingService;
     private final ObjectMapper objectMapper;
+    private final IndexMetrics indexMetrics;
     
-    @RabbitListener(queues = "indexing.queue", concurrency = "5")
+    // Disabled when the batch consumer owns the index queue
+    @RabbitListener(queues = "indexing.queue", concurrency = "5",
+            autoStartup = "#{!${indexing.batch.enabled:false}}")
     public void handleIndexMessage(String messageJson) {
+        String tenantId = null;
         try {
             log.info("Received index message: {}", messageJson);
             
             Map<String, Object> message = objectMapper.readValue(messageJson, Map.class);
+            tenantId = (String) message.get("tenant_id");
             
             String operation = (String) message.get("operation");
             Map<String, Object> payload = (Map<String, Object>) message.get("payload");
@@ -35,15 +41,18 @@ public class DocumentMessageConsumer {
                 log.info("Successfully processed index message for document: {}", 
                         document.getDocumentId());
             }
+            indexMetrics.message("index", tenantId, false);
             
         } catch (Exception e) {
             log.error("Error processing index message", e);
+            indexMetrics.message("index", tenantId, true);
             throw new RuntimeException("Failed to process message", e);
         }
     }
     
     @RabbitListener(queues = "deletion.queue", concurrency = "3")
     public void handleDeleteMessage(String messageJson) {
+        String tenantId = null;
         try {
             log.info("Received delete message: {}", messageJson);
             
@@ -51,16 +60,18 @@ public class DocumentMessageConsumer {
             
             String operation = (String) message.get("operation");
             String documentIdStr = (String) message.get("document_id");
-            String tenantId = (String) message.get("tenant_id");
+            tenantId = (String) message.get("tenant_id");
             
             if ("delete".equals(operation)) {
                 UUID documentId = UUID.fromString(documentIdStr);
                 indexingService.deleteDocument(documentId, tenantId);
                 log.info("Successfully processed delete message for document: {}", documentId);
             }
+            indexMetrics.message("delete", tenantId, false);
             
         } catch (Exception e) {
             log.error("Error processing delete message", e);
+            indexMetrics.message("delete", tenantId, true);
             throw new RuntimeException("Failed to process message", e);
         }
     }
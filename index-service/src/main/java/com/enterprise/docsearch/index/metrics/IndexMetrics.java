@@ -0,0 +1,135 @@
+package com.enterprise.docsearch.index.metrics;
+
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import com.enterprise.docsearch.common.model.Document;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Indexing meters. Also listens to the listener retry templates, so
+ * redelivered messages and batches are counted whichever consumer runs.
+ */
+@Component
+public class IndexMetrics implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+    private final TenantTagger tenantTagger;
+    private final DistributionSummary bulkSize;
+    private final DistributionSummary bulkBytes;
+    private final Timer lag;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public IndexMetrics(MeterRegistry meterRegistry, TenantTagger tenantTagger) {
+        this.meterRegistry = meterRegistry;
+        this.tenantTagger = tenantTagger;
+        tenantTagger.removeOnEviction(meterRegistry);
+        this.bulkSize = DistributionSummary.builder("index.bulk.size")
+                .description("Documents per _bulk request")
+                .baseUnit("documents")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+        this.bulkBytes = DistributionSummary.builder("index.bulk.bytes")
+                .description("Message bytes per _bulk request")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(16.0 * 1024 * 1024)
+                .register(meterRegistry);
+        this.lag = Timer.builder("index.lag")
+                .description("Time from a document's creation until it is indexed")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+        this.retries = Counter.builder("index.retries")
+                .description("Listener calls retried after a failure")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("index.retries.exhausted")
+                .description("Listener calls that failed on every attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a consumed message. The rate of this counter is the
+     * messages-per-second figure; a failed attempt counts once per delivery.
+     */
+    public void message(String operation, String tenantId, boolean failed) {
+        messages(operation, tenantId, failed, 1);
+    }
+
+    public void messages(String operation, String tenantId, boolean failed, int count) {
+        Counter.builder("index.messages")
+                .description("Consumed index and delete messages")
+                .tag("operation", operation)
+                .tag(TenantTagger.TAG, tenantTagger.tag(tenantId))
+                .tag("outcome", failed ? "error" : "success")
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Counts an index generation bump. A failed one leaves search-service
+     * serving the tenant's cached results until a retry gets through.
+     */
+    public void generationBump(boolean failed) {
+        Counter.builder("index.generation.bumps")
+                .description("Index generation bumps sent to Redis")
+                .tag("outcome", failed ? "error" : "success")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void titleChanges(int changes, boolean failed) {
+        Counter.builder("index.title.changes")
+                .description("Title changes published to search-service's typeahead")
+                .tag("outcome", failed ? "error" : "success")
+                .register(meterRegistry)
+                .increment(changes);
+    }
+
+    public void bulk(int documents, long bytes) {
+        bulkSize.record(documents);
+        bulkBytes.record(bytes);
+    }
+
+    /**
+     * Records the lag of a document that just became searchable.
+     * {@code createdAt} only has second precision and both services are
+     * assumed to run in the same time zone.
+     */
+    public void indexed(Document document) {
+        if (document.getCreatedAt() == null) {
+            return;
+        }
+        Duration elapsed = Duration.between(document.getCreatedAt(), LocalDateTime.now());
+        // Skewed clocks can put the creation in the future
+        if (!elapsed.isNegative()) {
+            lag.record(elapsed);
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        // The retry count is the number of failed attempts; only those followed by another attempt are retries
+        int retried = throwable == null ? context.getRetryCount() : context.getRetryCount() - 1;
+        if (retried > 0) {
+            retries.increment(retried);
+        }
+        if (throwable != null) {
+            exhausted.increment();
+        }
+    }
+}
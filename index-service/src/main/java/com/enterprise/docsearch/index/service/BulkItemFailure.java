@@ -0,0 +1,20 @@
+package com.enterprise.docsearch.index.service;
+
+/**
+ * A document that a _bulk request did not index.
+ *
+ * @param position   index of the document in the list passed to bulkIndexDocuments
+ * @param documentId id of the document
+ * @param status     HTTP status of the item
+ * @param reason     Elasticsearch's reason for the failure
+ */
+public record BulkItemFailure(int position, String documentId, int status, String reason) {
+
+    /**
+     * A rejected execution or node failure can succeed when sent again; a
+     * mapping conflict or malformed document cannot.
+     */
+    public boolean retryable() {
+        return status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,105 @@
+package com.enterprise.docsearch.index.service;
+
+import com.enterprise.docsearch.common.cache.CacheKeys;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bumps a per-tenant generation counter in Redis after index changes, which
+ * search-service folds into its cache keys. A bump is only issued once the
+ * latest write is one refresh interval old, i.e. visible to searches, so a
+ * burst of writes results in a single bump. Under continuous writes a bump
+ * is still forced at least every two intervals. A bump that fails is retried
+ * every interval until Redis takes it, since until then search-service keeps
+ * serving the tenant's cached results.
+ */
+@Component
+@Slf4j
+public class IndexGenerationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final IndexMetrics indexMetrics;
+    private final long refreshIntervalNanos;
+
+    private final Map<String, TenantState> tenants = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "index-generation-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IndexGenerationPublisher(StringRedisTemplate redisTemplate,
+                                    IndexMetrics indexMetrics,
+                                    @Value("${indexing.refresh-interval:5s}") Duration refreshInterval) {
+        this.redisTemplate = redisTemplate;
+        this.indexMetrics = indexMetrics;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    public void markChanged(String tenantId) {
+        TenantState state = tenants.computeIfAbsent(tenantId, id -> new TenantState());
+        long now = System.nanoTime();
+        state.lastChange.set(now);
+
+        if (state.pendingSince.compareAndSet(0, now)) {
+            schedule(tenantId, state, refreshIntervalNanos);
+        }
+    }
+
+    private void publish(String tenantId, TenantState state) {
+        long now = System.nanoTime();
+        long remaining = state.lastChange.get() + refreshIntervalNanos - now;
+
+        if (remaining > 0 && now - state.pendingSince.get() < 2 * refreshIntervalNanos) {
+            schedule(tenantId, state, remaining);
+            return;
+        }
+
+        try {
+            Long generation = redisTemplate.opsForValue().increment(CacheKeys.indexGeneration(tenantId));
+            log.debug("Bumped index generation for tenant {} to {}", tenantId, generation);
+            indexMetrics.generationBump(false);
+        } catch (Exception e) {
+            log.error("Could not bump index generation for tenant {}, searches keep serving cached results; "
+                    + "retrying", tenantId, e);
+            indexMetrics.generationBump(true);
+            // Still pending, so the retry covers any change made in the meantime
+            schedule(tenantId, state, refreshIntervalNanos);
+            return;
+        }
+
+        state.pendingSince.set(0);
+
+        // Writes that were not yet refreshed when we bumped need a bump of their own
+        long lastChange = state.lastChange.get();
+        if (lastChange > now - refreshIntervalNanos && state.pendingSince.compareAndSet(0, lastChange)) {
+            schedule(tenantId, state, lastChange + refreshIntervalNanos - now);
+        }
+    }
+
+    private void schedule(String tenantId, TenantState state, long delayNanos) {
+        scheduler.schedule(() -> publish(tenantId, state), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static final class TenantState {
+        private final AtomicLong lastChange = new AtomicLong();
+        private final AtomicLong pendingSince = new AtomicLong();
+    }
+}
@@ -0,0 +1,86 @@
+package com.enterprise.docsearch.index.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexRegistry {
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final Set<String> knownIndices = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Void>> pendingCreates = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadExistingIndices() {
+        String pattern = IndexingService.INDEX_PREFIX + "*";
+
+        try {
+            elasticsearchClient.cat().indices(i -> i.index(pattern)).valueBody()
+                    .forEach(record -> knownIndices.add(record.index()));
+            elasticsearchClient.cat().aliases(a -> a.name(pattern)).valueBody()
+                    .forEach(record -> knownIndices.add(record.alias()));
+
+            log.info("Loaded {} existing tenant indices", knownIndices.size());
+        } catch (Exception e) {
+            // Not fatal: indices are then resolved lazily on first write
+            log.warn("Could not load existing tenant indices, falling back to lazy creation", e);
+        }
+    }
+
+    public boolean isKnown(String indexName) {
+        return knownIndices.contains(indexName);
+    }
+
+    public void register(String indexName) {
+        knownIndices.add(indexName);
+    }
+
+    /**
+     * Runs the creator once per unknown index; concurrent callers for the same
+     * index wait on the in-flight creation instead of issuing their own.
+     */
+    public void ensureIndex(String indexName, Consumer<String> creator) {
+        if (knownIndices.contains(indexName)) {
+            return;
+        }
+
+        CompletableFuture<Void> creation = new CompletableFuture<>();
+        CompletableFuture<Void> inFlight = pendingCreates.putIfAbsent(indexName, creation);
+
+        if (inFlight != null) {
+            try {
+                inFlight.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Failed to create index " + indexName, e.getCause());
+            }
+            return;
+        }
+
+        try {
+            if (!knownIndices.contains(indexName)) {
+                creator.accept(indexName);
+                knownIndices.add(indexName);
+            }
+            creation.complete(null);
+        } catch (RuntimeException e) {
+            creation.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingCreates.remove(indexName, creation);
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package com.enterprise.docsearch.index.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.Result;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
-import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
-import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
+import com.enterprise.docsearch.common.jfr.IndexEvent;
 import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.StringReader;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -25,11 +30,33 @@ public class IndexingService {
     
     private final ElasticsearchClient elasticsearchClient;
     private final ObjectMapper objectMapper;
+    private final IndexRegistry indexRegistry;
+    private final IndexGenerationPublisher generationPublisher;
+    private final TitleChangePublisher titleChangePublisher;
+    private final IndexMetrics indexMetrics;
     
-    private static final String INDEX_PREFIX = "docs_tenant_";
+    static final String INDEX_PREFIX = "docs_tenant_";
+    private static final int SNIPPET_LENGTH = 200;
+
+    // Every metadata value gets the same fields whatever its JSON type, so a key that is a
+    // number in one document and a string in another still maps: keyword for exact filters
+    // and terms facets, number for ranges. Values that aren't numbers are left out of number.
+    static final String METADATA_FIELD_MAPPING = """
+            {
+              "type": "text",
+              "fields": {
+                "keyword": { "type": "keyword", "ignore_above": 256 },
+                "number": { "type": "double", "ignore_malformed": true }
+              }
+            }""";
+
+    @Value("${indexing.refresh-interval:5s}")
+    private Duration refreshInterval = Duration.ofSeconds(5);
     
     public void indexDocument(Document document) {
         String indexName = INDEX_PREFIX + document.getTenantId();
+        IndexEvent event = new IndexEvent();
+        event.begin();
         
         try {
             // Ensure index exists
@@ -46,25 +73,38 @@ public class IndexingService {
             );
             
             if (response.result() == Result.Created || response.result() == Result.Updated) {
+                generationPublisher.markChanged(document.getTenantId());
+                titleChangePublisher.publish(document.getTenantId(), List.of(
+                        new TitleChangeEvent.Change(document.getDocumentId().toString(), document.getTitle())));
+                indexMetrics.indexed(document);
                 log.info("Successfully indexed document {} in index {}", 
                         document.getDocumentId(), indexName);
             } else {
                 log.warn("Unexpected result while indexing document: {}", response.result());
             }
+            commitIndexEvent(event, document.getTenantId(), "index", List.of(document), 0);
             
         } catch (Exception e) {
+            commitIndexEvent(event, document.getTenantId(), "index", List.of(document), 1);
             log.error("Error indexing document {}", document.getDocumentId(), e);
             throw new RuntimeException("Failed to index document", e);
         }
     }
     
-    public void bulkIndexDocuments(List<Document> documents) {
+    /**
+     * Indexes one tenant's documents in a single _bulk request. Documents
+     * Elasticsearch rejects don't fail the call; they are returned so the
+     * caller can retry or dead-letter them.
+     */
+    public List<BulkItemFailure> bulkIndexDocuments(List<Document> documents) {
         if (documents.isEmpty()) {
-            return;
+            return List.of();
         }
         
         String tenantId = documents.get(0).getTenantId();
         String indexName = INDEX_PREFIX + tenantId;
+        IndexEvent event = new IndexEvent();
+        event.begin();
         
         try {
             ensureIndexExists(indexName);
@@ -90,18 +130,24 @@ public class IndexingService {
             
             BulkResponse response = elasticsearchClient.bulk(bulkRequest);
             
-            if (response.errors()) {
-                log.error("Bulk indexing had errors");
-                response.items().forEach(item -> {
-                    if (item.error() != null) {
-                        log.error("Error indexing document: {}", item.error().reason());
-                    }
-                });
-            } else {
+            // Even a partially failed bulk request changes what the tenant can find
+            generationPublisher.markChanged(tenantId);
+            titleChangePublisher.publish(tenantId, indexedTitles(documents, response));
+            List<BulkItemFailure> failures = failures(response);
+            recordIndexed(documents, failures);
+            commitIndexEvent(event, tenantId, "bulk", documents, failures.size());
+            
+            if (failures.isEmpty()) {
                 log.info("Successfully bulk indexed {} documents", documents.size());
+            } else {
+                log.error("Bulk indexing failed for {} of {} documents", failures.size(), documents.size());
+                failures.forEach(failure -> log.error("Error indexing document {} (status {}): {}",
+                        failure.documentId(), failure.status(), failure.reason()));
             }
+            return failures;
             
         } catch (Exception e) {
+            commitIndexEvent(event, tenantId, "bulk", documents, documents.size());
             log.error("Error during bulk indexing", e);
             throw new RuntimeException("Failed to bulk index documents", e);
         }
@@ -116,6 +162,9 @@ public class IndexingService {
                     .id(documentId.toString())
             );
             
+            generationPublisher.markChanged(tenantId);
+            titleChangePublisher.publish(tenantId, List.of(new TitleChangeEvent.Change(documentId.toString(), null)));
+            
             log.info("Successfully deleted document {} from index {}", documentId, indexName);
             
         } catch (Exception e) {
@@ -124,25 +173,88 @@ public class IndexingService {
         }
     }
     
-    private void ensureIndexExists(String indexName) {
-        try {
-            boolean exists = elasticsearchClient.indices()
-                    .exists(ExistsRequest.of(e -> e.index(indexName)))
-                    .value();
-            
-            if (!exists) {
-                createIndex(indexName);
+    private static List<TitleChangeEvent.Change> indexedTitles(List<Document> documents, BulkResponse response) {
+        Map<String, String> titles = new HashMap<>();
+        for (Document doc : documents) {
+            titles.put(doc.getDocumentId().toString(), doc.getTitle());
+        }
+        
+        List<TitleChangeEvent.Change> changes = new ArrayList<>();
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() == null && titles.containsKey(item.id())) {
+                changes.add(new TitleChangeEvent.Change(item.id(), titles.get(item.id())));
             }
-        } catch (Exception e) {
-            log.error("Error checking index existence", e);
-            throw new RuntimeException("Failed to check index", e);
         }
+        return changes;
+    }
+    
+    // Items come back in the order of the request's operations
+    private static List<BulkItemFailure> failures(BulkResponse response) {
+        if (!response.errors()) {
+            return List.of();
+        }
+        
+        List<BulkItemFailure> failures = new ArrayList<>();
+        List<BulkResponseItem> items = response.items();
+        for (int i = 0; i < items.size(); i++) {
+            BulkResponseItem item = items.get(i);
+            if (item.error() != null) {
+                failures.add(new BulkItemFailure(i, item.id(), item.status(), item.error().reason()));
+            }
+        }
+        return failures;
+    }
+    
+    private void recordIndexed(List<Document> documents, List<BulkItemFailure> failures) {
+        Set<Integer> failed = new HashSet<>();
+        for (BulkItemFailure failure : failures) {
+            failed.add(failure.position());
+        }
+        
+        for (int i = 0; i < documents.size(); i++) {
+            if (!failed.contains(i)) {
+                indexMetrics.indexed(documents.get(i));
+            }
+        }
+    }
+    
+    private static void commitIndexEvent(IndexEvent event, String tenantId, String operation,
+                                         List<Document> documents, int failed) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        
+        long contentLength = 0;
+        for (Document doc : documents) {
+            if (doc.getContent() != null) {
+                contentLength += doc.getContent().length();
+            }
+        }
+        
+        event.tenant = tenantId;
+        event.operation = operation;
+        event.documents = documents.size();
+        event.failedDocuments = failed;
+        event.contentLength = contentLength;
+        event.commit();
+    }
+    
+    private void ensureIndexExists(String indexName) {
+        indexRegistry.ensureIndex(indexName, this::createIndex);
     }
     
     private void createIndex(String indexName) {
         try {
             String mappings = """
                 {
+                  "date_detection": false,
+                  "dynamic_templates": [
+                    { "metadata_strings": { "path_match": "metadata.*", "match_mapping_type": "string", "mapping": %1$s } },
+                    { "metadata_longs": { "path_match": "metadata.*", "match_mapping_type": "long", "mapping": %1$s } },
+                    { "metadata_doubles": { "path_match": "metadata.*", "match_mapping_type": "double", "mapping": %1$s } },
+                    { "metadata_booleans": { "path_match": "metadata.*", "match_mapping_type": "boolean", "mapping": %1$s } }
+                  ],
                   "properties": {
                     "document_id": { "type": "keyword" },
                     "tenant_id": { "type": "keyword" },
@@ -155,45 +267,74 @@ public class IndexingService {
                     },
                     "content": { 
                       "type": "text",
-                      "analyzer": "standard"
+                      "analyzer": "standard",
+                      "index_options": "offsets"
                     },
+                    "snippet": { "type": "text", "index": false },
+                    "content_length": { "type": "integer" },
                     "metadata": { "type": "object" },
                     "indexed_at": { "type": "date" }
                   }
                 }
-                """;
+                """.formatted(METADATA_FIELD_MAPPING);
             
             String settings = """
                 {
                   "number_of_shards": 3,
                   "number_of_replicas": 2,
-                  "refresh_interval": "5s"
+                  "refresh_interval": "%dms"
                 }
-                """;
+                """.formatted(refreshInterval.toMillis());
             
             elasticsearchClient.indices().create(c -> c
                     .index(indexName)
-                    .withJson(new StringReader(mappings))
+                    .mappings(m -> m.withJson(new StringReader(mappings)))
                     .settings(s -> s.withJson(new StringReader(settings)))
             );
             
             log.info("Created index: {}", indexName);
             
+        } catch (ElasticsearchException e) {
+            // Another instance won the creation race
+            if ("resource_already_exists_exception".equals(e.error().type())) {
+                log.debug("Index {} already exists", indexName);
+                return;
+            }
+            log.error("Error creating index {}", indexName, e);
+            throw new RuntimeException("Failed to create index", e);
         } catch (Exception e) {
             log.error("Error creating index {}", indexName, e);
             throw new RuntimeException("Failed to create index", e);
         }
     }
     
-    private Map<String, Object> prepareDocumentForIndexing(Document document) {
+    Map<String, Object> prepareDocumentForIndexing(Document document) {
+        String content = document.getContent() != null ? document.getContent() : "";
+        
         Map<String, Object> esDocument = new HashMap<>();
         esDocument.put("document_id", document.getDocumentId().toString());
         esDocument.put("tenant_id", document.getTenantId());
         esDocument.put("title", document.getTitle());
         esDocument.put("content", document.getContent());
+        // Stored so searches can skip fetching the full content
+        esDocument.put("snippet", buildSnippet(content));
+        esDocument.put("content_length", content.length());
         esDocument.put("metadata", document.getMetadata() != null ? document.getMetadata() : new HashMap<>());
         esDocument.put("indexed_at", LocalDateTime.now().toString());
         
         return esDocument;
     }
+    
+    static String buildSnippet(String content) {
+        if (content.length() <= SNIPPET_LENGTH) {
+            return content;
+        }
+        
+        int end = SNIPPET_LENGTH;
+        // Don't cut a surrogate pair in half
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end) + "...";
+    }
 }
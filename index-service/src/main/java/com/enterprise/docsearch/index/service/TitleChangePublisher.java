@@ -0,0 +1,44 @@
+package com.enterprise.docsearch.index.service;
+
+import com.enterprise.docsearch.common.cache.CacheKeys;
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Broadcasts indexed and deleted titles over Redis pub/sub. Delivery is best
+ * effort: search-service rebuilds a tenant's typeahead from Elasticsearch
+ * whenever it loads it, so a lost message only delays a suggestion. Until
+ * then deleted titles are still suggested, so failures are counted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TitleChangePublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final IndexMetrics indexMetrics;
+
+    public void publish(String tenantId, List<TitleChangeEvent.Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            String payload = objectMapper.writeValueAsString(new TitleChangeEvent(tenantId, changes));
+            redisTemplate.convertAndSend(CacheKeys.TITLE_CHANGES_CHANNEL, payload);
+            indexMetrics.titleChanges(changes.size(), false);
+        } catch (Exception e) {
+            log.error("Could not publish {} title changes for tenant {}, typeahead stays stale until reloaded",
+                    changes.size(), tenantId, e);
+            indexMetrics.titleChanges(changes.size(), true);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.enterprise.docsearch.index.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RabbitMQConfigTest {
+
+    @Test
+    void testReceiveTimeoutKeepsBatchWithinMaxWait() {
+        // When & Then
+        assertEquals(4, RabbitMQConfig.batchReceiveTimeoutMs(500, 200, 2000));
+        assertTrue(500 * RabbitMQConfig.batchReceiveTimeoutMs(500, 200, 2000) <= 2000);
+    }
+
+    @Test
+    void testShortReceiveTimeoutIsKept() {
+        // When & Then
+        assertEquals(200, RabbitMQConfig.batchReceiveTimeoutMs(5, 200, 2000));
+    }
+
+    @Test
+    void testReceiveTimeoutNeverDropsToZero() {
+        // When & Then
+        assertEquals(1, RabbitMQConfig.batchReceiveTimeoutMs(500, 200, 100));
+    }
+}
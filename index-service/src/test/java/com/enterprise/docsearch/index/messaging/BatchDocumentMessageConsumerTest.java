@@ -0,0 +1,214 @@
+package com.enterprise.docsearch.index.messaging;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import com.enterprise.docsearch.index.service.BulkItemFailure;
+import com.enterprise.docsearch.index.service.IndexingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchDocumentMessageConsumerTest {
+
+    @Mock
+    private IndexingService indexingService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private IndexMetrics indexMetrics;
+
+    private BatchDocumentMessageConsumer batchConsumer;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        batchConsumer = new BatchDocumentMessageConsumer(indexingService, objectMapper, rabbitTemplate, indexMetrics);
+        ReflectionTestUtils.setField(batchConsumer, "maxBatchBytes", 5L * 1024 * 1024);
+    }
+
+    @Test
+    void testHandleIndexBatchGroupsByTenant() throws Exception {
+        // Given
+        List<Message> messages = Arrays.asList(
+                indexMessage("tenantA", "Doc 1"),
+                indexMessage("tenantB", "Doc 2"),
+                indexMessage("tenantA", "Doc 3")
+        );
+
+        // When
+        batchConsumer.handleIndexBatch(messages);
+
+        // Then
+        ArgumentCaptor<List<Document>> captor = ArgumentCaptor.forClass(List.class);
+        verify(indexingService, times(2)).bulkIndexDocuments(captor.capture());
+
+        List<Document> tenantA = captor.getAllValues().get(0);
+        List<Document> tenantB = captor.getAllValues().get(1);
+        assertEquals(2, tenantA.size());
+        assertTrue(tenantA.stream().allMatch(doc -> "tenantA".equals(doc.getTenantId())));
+        assertEquals(1, tenantB.size());
+        assertEquals("tenantB", tenantB.get(0).getTenantId());
+        verify(indexMetrics).messages("index", "tenantA", false, 2);
+        verify(indexMetrics).messages("index", "tenantB", false, 1);
+        verify(indexMetrics).bulk(eq(2), anyLong());
+    }
+
+    @Test
+    void testHandleIndexBatchSplitsByByteSize() throws Exception {
+        // Given
+        Message first = indexMessage("tenantA", "Doc 1");
+        ReflectionTestUtils.setField(batchConsumer, "maxBatchBytes", (long) first.getBody().length + 1);
+
+        List<Message> messages = Arrays.asList(
+                first,
+                indexMessage("tenantA", "Doc 2"),
+                indexMessage("tenantA", "Doc 3")
+        );
+
+        // When
+        batchConsumer.handleIndexBatch(messages);
+
+        // Then
+        verify(indexingService, times(3)).bulkIndexDocuments(anyList());
+    }
+
+    @Test
+    void testHandleIndexBatchAcceptsStringEncodedEnvelope() throws Exception {
+        // Given
+        Message message = indexMessage("tenantA", "Doc 1");
+        byte[] wrapped = objectMapper.writeValueAsBytes(new String(message.getBody(), StandardCharsets.UTF_8));
+
+        // When
+        batchConsumer.handleIndexBatch(Collections.singletonList(new Message(wrapped, new MessageProperties())));
+
+        // Then
+        verify(indexingService).bulkIndexDocuments(anyList());
+    }
+
+    @Test
+    void testHandleIndexBatchRoutesMalformedMessageToDlq() throws Exception {
+        // Given
+        Message malformed = new Message("{ invalid json }".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+        List<Message> messages = Arrays.asList(malformed, indexMessage("tenantA", "Doc 1"));
+
+        // When
+        batchConsumer.handleIndexBatch(messages);
+
+        // Then
+        verify(rabbitTemplate).send(eq(""), eq("indexing.dlq"), eq(malformed));
+        verify(indexingService).bulkIndexDocuments(anyList());
+        verify(indexMetrics).message("index", null, true);
+    }
+
+    @Test
+    void testHandleIndexBatchSkipsNonIndexOperations() throws Exception {
+        // Given
+        Map<String, Object> message = new HashMap<>();
+        message.put("operation", "invalid");
+        message.put("payload", null);
+
+        // When
+        batchConsumer.handleIndexBatch(Collections.singletonList(
+                new Message(objectMapper.writeValueAsBytes(message), new MessageProperties())));
+
+        // Then
+        verify(indexingService, never()).bulkIndexDocuments(anyList());
+        verify(rabbitTemplate, never()).send(any(), any(), any(Message.class));
+    }
+
+    @Test
+    void testHandleIndexBatchPropagatesBulkFailure() throws Exception {
+        // Given
+        doThrow(new RuntimeException("Bulk failed"))
+                .when(indexingService).bulkIndexDocuments(anyList());
+
+        // When & Then
+        assertThrows(RuntimeException.class, () ->
+                batchConsumer.handleIndexBatch(Collections.singletonList(indexMessage("tenantA", "Doc 1"))));
+    }
+
+    @Test
+    void testHandleIndexBatchRoutesDocumentsRejectedByBulkToDlq() throws Exception {
+        // Given
+        Message accepted = indexMessage("tenantA", "Doc 1");
+        Message rejected = indexMessage("tenantA", "Doc 2");
+        when(indexingService.bulkIndexDocuments(anyList())).thenReturn(List.of(
+                new BulkItemFailure(1, "doc-2", 400, "failed to parse field [metadata.size]")));
+
+        // When
+        batchConsumer.handleIndexBatch(Arrays.asList(accepted, rejected));
+
+        // Then
+        verify(rabbitTemplate).send(eq(""), eq("indexing.dlq"), eq(rejected));
+        verify(rabbitTemplate, never()).send(eq(""), eq("indexing.dlq"), eq(accepted));
+        verify(indexMetrics).message("index", "tenantA", true);
+        verify(indexMetrics).messages("index", "tenantA", false, 1);
+    }
+
+    @Test
+    void testHandleIndexBatchFailsBatchOnRetryableItemErrors() throws Exception {
+        // Given
+        List<Message> messages = Arrays.asList(indexMessage("tenantA", "Doc 1"), indexMessage("tenantA", "Doc 2"));
+        when(indexingService.bulkIndexDocuments(anyList())).thenReturn(List.of(
+                new BulkItemFailure(0, "doc-1", 429, "rejected execution of coordinating operation")));
+
+        // When & Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> batchConsumer.handleIndexBatch(messages));
+        assertTrue(e.getMessage().contains("429"));
+        verify(rabbitTemplate, never()).send(any(), any(), any(Message.class));
+        verify(indexMetrics).messages("index", "tenantA", true, 2);
+        verify(indexMetrics, never()).messages("index", "tenantA", false, 2);
+    }
+
+    @Test
+    void testHandleIndexBatchRetriesBeforeDeadLetteringWhenBothKindsFail() throws Exception {
+        // Given
+        List<Message> messages = Arrays.asList(indexMessage("tenantA", "Doc 1"), indexMessage("tenantB", "Doc 2"));
+        when(indexingService.bulkIndexDocuments(anyList()))
+                .thenReturn(List.of(new BulkItemFailure(0, "doc-1", 400, "mapper_parsing_exception")))
+                .thenReturn(List.of(new BulkItemFailure(0, "doc-2", 503, "unavailable_shards_exception")));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> batchConsumer.handleIndexBatch(messages));
+        // The retried batch decides again, so nothing is dead-lettered twice
+        verify(rabbitTemplate, never()).send(any(), any(), any(Message.class));
+    }
+
+    private Message indexMessage(String tenantId, String title) throws Exception {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("documentId", UUID.randomUUID().toString());
+        payload.put("tenantId", tenantId);
+        payload.put("title", title);
+        payload.put("content", "Content for " + title);
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("operation", "index");
+        message.put("tenant_id", tenantId);
+        message.put("payload", payload);
+
+        return new Message(objectMapper.writeValueAsBytes(message), new MessageProperties());
+    }
+}
@@ -2,6 +2,7 @@ package com.enterprise.docsearch.index.messaging;
 
 import com.enterprise.docsearch.common.model.Document;
 import com.enterprise.docsearch.common.model.DocumentStatus;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
 import com.enterprise.docsearch.index.service.IndexingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +28,9 @@ class DocumentMessageConsumerTest {
     @Mock
     private IndexingService indexingService;
 
+    @Mock
+    private IndexMetrics indexMetrics;
+
     @InjectMocks
     private DocumentMessageConsumer messageConsumer;
 
@@ -35,7 +39,7 @@ class DocumentMessageConsumerTest {
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
-        messageConsumer = new DocumentMessageConsumer(indexingService, objectMapper);
+        messageConsumer = new DocumentMessageConsumer(indexingService, objectMapper, indexMetrics);
     }
 
     @Test
@@ -64,6 +68,7 @@ class DocumentMessageConsumerTest {
 
         // Then
         verify(indexingService).indexDocument(any(Document.class));
+        verify(indexMetrics).message("index", null, false);
     }
 
     @Test
@@ -127,6 +132,7 @@ class DocumentMessageConsumerTest {
         // When & Then
         assertThrows(RuntimeException.class, () ->
                 messageConsumer.handleIndexMessage(messageJson));
+        verify(indexMetrics).message("index", null, true);
     }
 
     @Test
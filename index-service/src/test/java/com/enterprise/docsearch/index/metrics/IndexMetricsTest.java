@@ -0,0 +1,84 @@
+package com.enterprise.docsearch.index.metrics;
+
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import com.enterprise.docsearch.common.model.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TenantTagger tenantTagger = new TenantTagger(10, Duration.ofMinutes(1));
+    private final IndexMetrics metrics = new IndexMetrics(meterRegistry, tenantTagger);
+
+    @AfterEach
+    void tearDown() {
+        tenantTagger.shutdown();
+    }
+
+    @Test
+    void testRetriesAreCountedOncePerExtraAttempt() {
+        // Given
+        RetryTemplate retryTemplate = RetryTemplate.builder()
+                .maxAttempts(3)
+                .noBackoff()
+                .withListener(metrics)
+                .build();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        retryTemplate.execute(context -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new IllegalStateException("ES down");
+            }
+            return null;
+        });
+        assertThrows(IllegalStateException.class, () -> retryTemplate.execute(context -> {
+            throw new IllegalStateException("ES down");
+        }));
+
+        // Then
+        assertEquals(3.0, meterRegistry.counter("index.retries").count());
+        assertEquals(1.0, meterRegistry.counter("index.retries.exhausted").count());
+    }
+
+    @Test
+    void testLagIsMeasuredFromCreation() {
+        // Given
+        Document document = Document.builder().createdAt(LocalDateTime.now().minusMinutes(2)).build();
+        Document future = Document.builder().createdAt(LocalDateTime.now().plusMinutes(2)).build();
+
+        // When
+        metrics.indexed(document);
+        metrics.indexed(future);
+        metrics.indexed(new Document());
+
+        // Then
+        assertEquals(1, meterRegistry.timer("index.lag").count());
+        assertTrue(meterRegistry.timer("index.lag").totalTime(TimeUnit.SECONDS) >= 120);
+    }
+
+    @Test
+    void testMessagesAreCountedByTenantAndOutcome() {
+        // When
+        metrics.messages("index", "tenant123", false, 3);
+        metrics.message("index", "tenant123", true);
+        metrics.bulk(3, 4096);
+
+        // Then
+        assertEquals(3.0, meterRegistry.counter("index.messages",
+                "operation", "index", "tenant", "tenant123", "outcome", "success").count());
+        assertEquals(1.0, meterRegistry.counter("index.messages",
+                "operation", "index", "tenant", "tenant123", "outcome", "error").count());
+        assertEquals(4096.0, meterRegistry.summary("index.bulk.bytes").totalAmount());
+    }
+}
@@ -0,0 +1,128 @@
+package com.enterprise.docsearch.index.service;
+
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexGenerationPublisherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private IndexMetrics indexMetrics;
+
+    private IndexGenerationPublisher publisher;
+
+    private static final String GENERATION_KEY = "docsearch:index-generation:tenant123";
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        publisher = new IndexGenerationPublisher(redisTemplate, indexMetrics, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void testBurstOfChangesIsPublishedOnceAfterRefreshInterval() throws Exception {
+        // When
+        for (int i = 0; i < 10; i++) {
+            publisher.markChanged("tenant123");
+        }
+
+        // Then
+        verify(valueOperations, never()).increment(GENERATION_KEY);
+        verify(valueOperations, timeout(1000).times(1)).increment(GENERATION_KEY);
+        Thread.sleep(300);
+        verify(valueOperations, times(1)).increment(GENERATION_KEY);
+    }
+
+    @Test
+    void testChangeDuringPendingBumpDefersIt() throws Exception {
+        // When
+        publisher.markChanged("tenant123");
+        Thread.sleep(50);
+        publisher.markChanged("tenant123");
+
+        // Then
+        verify(valueOperations, timeout(1000).times(1)).increment(GENERATION_KEY);
+        Thread.sleep(300);
+        verify(valueOperations, times(1)).increment(GENERATION_KEY);
+    }
+
+    @Test
+    void testChangeAfterBumpGetsItsOwnBump() throws Exception {
+        // When
+        publisher.markChanged("tenant123");
+        verify(valueOperations, timeout(1000).times(1)).increment(GENERATION_KEY);
+        publisher.markChanged("tenant123");
+
+        // Then
+        verify(valueOperations, timeout(1000).times(2)).increment(GENERATION_KEY);
+    }
+
+    @Test
+    void testTenantsAreTrackedIndependently() {
+        // When
+        publisher.markChanged("tenant123");
+        publisher.markChanged("tenant456");
+
+        // Then
+        verify(valueOperations, timeout(1000)).increment(GENERATION_KEY);
+        verify(valueOperations, timeout(1000)).increment("docsearch:index-generation:tenant456");
+    }
+
+    @Test
+    void testRedisFailureDoesNotStopLaterBumps() throws Exception {
+        // Given
+        when(valueOperations.increment(GENERATION_KEY))
+                .thenThrow(new RuntimeException("Redis down"))
+                .thenReturn(2L);
+
+        // When
+        publisher.markChanged("tenant123");
+        verify(valueOperations, timeout(1000).times(1)).increment(GENERATION_KEY);
+        Thread.sleep(150);
+        publisher.markChanged("tenant123");
+
+        // Then
+        verify(valueOperations, timeout(1000).times(2)).increment(GENERATION_KEY);
+    }
+
+    @Test
+    void testFailedBumpIsRetriedAndCounted() throws Exception {
+        // Given
+        when(valueOperations.increment(GENERATION_KEY))
+                .thenThrow(new RuntimeException("Redis down"))
+                .thenThrow(new RuntimeException("Redis down"))
+                .thenReturn(1L);
+
+        // When
+        publisher.markChanged("tenant123");
+
+        // Then - no further change is needed for the bump to get through
+        verify(valueOperations, timeout(2000).times(3)).increment(GENERATION_KEY);
+        verify(indexMetrics, times(2)).generationBump(true);
+        verify(indexMetrics, timeout(1000)).generationBump(false);
+        Thread.sleep(300);
+        verify(valueOperations, times(3)).increment(GENERATION_KEY);
+    }
+}
@@ -0,0 +1,116 @@
+package com.enterprise.docsearch.index.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.cat.ElasticsearchCatClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexRegistryTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchCatClient catClient;
+
+    private IndexRegistry indexRegistry;
+
+    @BeforeEach
+    void setUp() {
+        indexRegistry = new IndexRegistry(elasticsearchClient);
+    }
+
+    @Test
+    void testConcurrentFirstWritesCreateIndexOnce() throws Exception {
+        // Given
+        int threads = 8;
+        AtomicInteger creations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                indexRegistry.ensureIndex("docs_tenant_new", name -> {
+                    creations.incrementAndGet();
+                    sleep(50);
+                });
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, creations.get());
+        assertTrue(indexRegistry.isKnown("docs_tenant_new"));
+    }
+
+    @Test
+    void testFailedCreationIsRetriedOnNextWrite() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        assertThrows(RuntimeException.class, () -> indexRegistry.ensureIndex("docs_tenant_x", name -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException("ES unavailable");
+        }));
+        indexRegistry.ensureIndex("docs_tenant_x", name -> attempts.incrementAndGet());
+
+        // Then
+        assertEquals(2, attempts.get());
+        assertTrue(indexRegistry.isKnown("docs_tenant_x"));
+    }
+
+    @Test
+    void testKnownIndexSkipsCreator() {
+        // Given
+        indexRegistry.register("docs_tenant_known");
+
+        // When
+        indexRegistry.ensureIndex("docs_tenant_known", name -> fail("Creator must not run"));
+
+        // Then
+        assertTrue(indexRegistry.isKnown("docs_tenant_known"));
+    }
+
+    @Test
+    void testLoadExistingIndicesToleratesEsFailure() throws Exception {
+        // Given
+        when(elasticsearchClient.cat()).thenReturn(catClient);
+        when(catClient.indices(any(Function.class))).thenThrow(new IOException("Connection refused"));
+
+        // When & Then
+        assertDoesNotThrow(() -> indexRegistry.loadExistingIndices());
+        assertFalse(indexRegistry.isKnown("docs_tenant_any"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.enterprise.docsearch.index.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
 import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.mapping.DynamicTemplate;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.DeleteResponse;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
 import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
-import co.elastic.clients.elasticsearch.indices.ExistsRequest;
-import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
 import com.enterprise.docsearch.common.model.Document;
 import com.enterprise.docsearch.common.model.DocumentStatus;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,15 +48,28 @@ class IndexingServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private IndexGenerationPublisher generationPublisher;
+
+    @Mock
+    private TitleChangePublisher titleChangePublisher;
+
+    @Mock
+    private IndexMetrics indexMetrics;
+
     @InjectMocks
     private IndexingService indexingService;
 
+    private IndexRegistry indexRegistry;
+
     private static final String TENANT_ID = "tenant123";
 
     @BeforeEach
     void setUp() {
-        when(elasticsearchClient.indices()).thenReturn(indicesClient);
-        indexingService = new IndexingService(elasticsearchClient, new ObjectMapper());
+        lenient().when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        indexRegistry = new IndexRegistry(elasticsearchClient);
+        indexingService = new IndexingService(elasticsearchClient, new ObjectMapper(), indexRegistry,
+                generationPublisher, titleChangePublisher, indexMetrics);
     }
 
     @Test
@@ -67,9 +88,7 @@ class IndexingServiceTest {
                 .status(DocumentStatus.PENDING)
                 .build();
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         IndexResponse indexResponse = mock(IndexResponse.class);
         when(indexResponse.result()).thenReturn(Result.Created);
@@ -80,7 +99,8 @@ class IndexingServiceTest {
 
         // Then
         verify(elasticsearchClient).index(any(Function.class));
-        verify(indicesClient).exists(any(Function.class));
+        verify(indicesClient, never()).create(any(Function.class));
+        verify(generationPublisher).markChanged(TENANT_ID);
     }
 
     @Test
@@ -94,9 +114,6 @@ class IndexingServiceTest {
                 .content("Test Content")
                 .build();
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(false);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
         when(indicesClient.create(any(Function.class))).thenReturn(null);
 
         IndexResponse indexResponse = mock(IndexResponse.class);
@@ -111,6 +128,42 @@ class IndexingServiceTest {
         verify(elasticsearchClient).index(any(Function.class));
     }
 
+    @Test
+    void testCreatedIndexMapsEveryMetadataTypeTheSameWay() throws Exception {
+        // Given
+        Document document = Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .title("Test Document")
+                .content("Test Content")
+                .build();
+
+        IndexResponse indexResponse = mock(IndexResponse.class);
+        when(indexResponse.result()).thenReturn(Result.Created);
+        when(elasticsearchClient.index(any(Function.class))).thenReturn(indexResponse);
+
+        // When
+        indexingService.indexDocument(document);
+
+        // Then
+        ArgumentCaptor<Function<CreateIndexRequest.Builder, ObjectBuilder<CreateIndexRequest>>> captor =
+                ArgumentCaptor.forClass(Function.class);
+        verify(indicesClient).create(captor.capture());
+        TypeMapping mappings = captor.getValue().apply(new CreateIndexRequest.Builder()).build().mappings();
+
+        assertFalse(mappings.dateDetection());
+        List<String> types = new ArrayList<>();
+        for (Map<String, DynamicTemplate> templates : mappings.dynamicTemplates()) {
+            DynamicTemplate template = templates.values().iterator().next();
+            assertEquals("metadata.*", template.pathMatch());
+            Map<String, Property> fields = template.mapping().text().fields();
+            assertTrue(fields.get("keyword").isKeyword());
+            assertTrue(fields.get("number").double_().ignoreMalformed());
+            types.add(template.matchMappingType());
+        }
+        assertEquals(List.of("string", "long", "double", "boolean"), types);
+    }
+
     @Test
     void testIndexDocumentThrowsExceptionOnFailure() throws Exception {
         // Given
@@ -121,14 +174,13 @@ class IndexingServiceTest {
                 .content("Test Content")
                 .build();
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         when(elasticsearchClient.index(any(Function.class))).thenThrow(new RuntimeException("ES error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> indexingService.indexDocument(document));
+        verifyNoInteractions(generationPublisher);
     }
 
     @Test
@@ -149,13 +201,10 @@ class IndexingServiceTest {
                         .build()
         );
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         BulkResponse bulkResponse = mock(BulkResponse.class);
         when(bulkResponse.errors()).thenReturn(false);
-        when(bulkResponse.items()).thenReturn(Collections.emptyList());
         when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse);
 
         // When
@@ -177,9 +226,7 @@ class IndexingServiceTest {
                         .build()
         );
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         BulkResponseItem errorItem = mock(BulkResponseItem.class);
         when(errorItem.error()).thenReturn(null);
@@ -196,6 +243,71 @@ class IndexingServiceTest {
         verify(elasticsearchClient).bulk(any(BulkRequest.class));
     }
 
+    @Test
+    void testBulkIndexPublishesTitlesOfIndexedDocumentsOnly() throws Exception {
+        // Given
+        UUID indexedId = UUID.randomUUID();
+        UUID failedId = UUID.randomUUID();
+        List<Document> documents = Arrays.asList(
+                Document.builder().documentId(indexedId).tenantId(TENANT_ID).title("Indexed").content("c").build(),
+                Document.builder().documentId(failedId).tenantId(TENANT_ID).title("Failed").content("c").build()
+        );
+
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
+
+        BulkResponseItem indexedItem = mock(BulkResponseItem.class);
+        when(indexedItem.id()).thenReturn(indexedId.toString());
+        BulkResponseItem failedItem = mock(BulkResponseItem.class);
+        when(failedItem.id()).thenReturn(failedId.toString());
+        when(failedItem.error()).thenReturn(ErrorCause.of(e -> e.reason("boom")));
+
+        BulkResponse bulkResponse = mock(BulkResponse.class);
+        when(bulkResponse.errors()).thenReturn(true);
+        when(bulkResponse.items()).thenReturn(Arrays.asList(indexedItem, failedItem));
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse);
+
+        // When
+        indexingService.bulkIndexDocuments(documents);
+
+        // Then
+        verify(titleChangePublisher).publish(TENANT_ID,
+                List.of(new TitleChangeEvent.Change(indexedId.toString(), "Indexed")));
+        verify(indexMetrics).indexed(documents.get(0));
+        verify(indexMetrics, never()).indexed(documents.get(1));
+    }
+
+    @Test
+    void testBulkIndexReturnsFailedItemsWithPositionAndStatus() throws Exception {
+        // Given
+        List<Document> documents = Arrays.asList(
+                Document.builder().documentId(UUID.randomUUID()).tenantId(TENANT_ID).title("A").content("c").build(),
+                Document.builder().documentId(UUID.randomUUID()).tenantId(TENANT_ID).title("B").content("c").build()
+        );
+
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
+
+        BulkResponseItem indexedItem = mock(BulkResponseItem.class);
+        BulkResponseItem rejectedItem = mock(BulkResponseItem.class);
+        when(rejectedItem.id()).thenReturn(documents.get(1).getDocumentId().toString());
+        when(rejectedItem.status()).thenReturn(429);
+        when(rejectedItem.error()).thenReturn(ErrorCause.of(e -> e
+                .type("es_rejected_execution_exception").reason("rejected execution")));
+
+        BulkResponse bulkResponse = mock(BulkResponse.class);
+        when(bulkResponse.errors()).thenReturn(true);
+        when(bulkResponse.items()).thenReturn(Arrays.asList(indexedItem, rejectedItem));
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse);
+
+        // When
+        List<BulkItemFailure> failures = indexingService.bulkIndexDocuments(documents);
+
+        // Then
+        assertEquals(List.of(new BulkItemFailure(1, documents.get(1).getDocumentId().toString(),
+                429, "rejected execution")), failures);
+        assertTrue(failures.get(0).retryable());
+        assertFalse(new BulkItemFailure(0, "id", 400, "mapper_parsing_exception").retryable());
+    }
+
     @Test
     void testBulkIndexEmptyList() {
         // Given
@@ -220,6 +332,9 @@ class IndexingServiceTest {
 
         // Then
         verify(elasticsearchClient).delete(any(Function.class));
+        verify(generationPublisher).markChanged(TENANT_ID);
+        verify(titleChangePublisher).publish(TENANT_ID,
+                List.of(new TitleChangeEvent.Change(documentId.toString(), null)));
     }
 
     @Test
@@ -248,9 +363,7 @@ class IndexingServiceTest {
                 .metadata(metadata)
                 .build();
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         IndexResponse indexResponse = mock(IndexResponse.class);
         when(indexResponse.result()).thenReturn(Result.Created);
@@ -273,9 +386,7 @@ class IndexingServiceTest {
                 .content("Test Content")
                 .build();
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         IndexResponse indexResponse = mock(IndexResponse.class);
         when(indexResponse.result()).thenReturn(Result.Created);
@@ -298,9 +409,7 @@ class IndexingServiceTest {
                 .content("Updated Content")
                 .build();
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
+        indexRegistry.register("docs_tenant_" + TENANT_ID);
 
         IndexResponse indexResponse = mock(IndexResponse.class);
         when(indexResponse.result()).thenReturn(Result.Updated);
@@ -325,14 +434,10 @@ class IndexingServiceTest {
                         .build()
         );
 
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(false);
-        when(indicesClient.exists(any(Function.class))).thenReturn(existsResponse);
         when(indicesClient.create(any(Function.class))).thenReturn(null);
 
         BulkResponse bulkResponse = mock(BulkResponse.class);
         when(bulkResponse.errors()).thenReturn(false);
-        when(bulkResponse.items()).thenReturn(Collections.emptyList());
         when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse);
 
         // When
@@ -342,4 +447,106 @@ class IndexingServiceTest {
         verify(indicesClient).create(any(Function.class));
         verify(elasticsearchClient).bulk(any(BulkRequest.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIndexCreatedOnlyOncePerTenant() throws Exception {
+        // Given
+        IndexResponse indexResponse = mock(IndexResponse.class);
+        when(indexResponse.result()).thenReturn(Result.Created);
+        when(elasticsearchClient.index(any(Function.class))).thenReturn(indexResponse);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            indexingService.indexDocument(Document.builder()
+                    .documentId(UUID.randomUUID())
+                    .tenantId(TENANT_ID)
+                    .title("Doc " + i)
+                    .content("Content " + i)
+                    .build());
+        }
+
+        // Then
+        verify(indicesClient, times(1)).create(any(Function.class));
+        verify(indicesClient, never()).exists(any(Function.class));
+        assertTrue(indexRegistry.isKnown("docs_tenant_" + TENANT_ID));
+    }
+
+    @Test
+    void testIndexCreationRaceTreatedAsSuccess() throws Exception {
+        // Given
+        ElasticsearchException alreadyExists = new ElasticsearchException("indices.create",
+                ErrorResponse.of(r -> r
+                        .status(400)
+                        .error(e -> e.type("resource_already_exists_exception").reason("exists"))));
+        when(indicesClient.create(any(Function.class))).thenThrow(alreadyExists);
+
+        IndexResponse indexResponse = mock(IndexResponse.class);
+        when(indexResponse.result()).thenReturn(Result.Created);
+        when(elasticsearchClient.index(any(Function.class))).thenReturn(indexResponse);
+
+        // When
+        indexingService.indexDocument(Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .title("Test Document")
+                .content("Test Content")
+                .build());
+
+        // Then
+        verify(elasticsearchClient).index(any(Function.class));
+        assertTrue(indexRegistry.isKnown("docs_tenant_" + TENANT_ID));
+    }
+
+    @Test
+    void testPrepareDocumentStoresSnippetAndContentLength() {
+        // Given
+        String content = "a".repeat(500);
+        Document document = Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .title("Long Document")
+                .content(content)
+                .build();
+
+        // When
+        Map<String, Object> esDocument = indexingService.prepareDocumentForIndexing(document);
+
+        // Then
+        assertEquals("a".repeat(200) + "...", esDocument.get("snippet"));
+        assertEquals(500, esDocument.get("content_length"));
+        assertEquals(content, esDocument.get("content"));
+    }
+
+    @Test
+    void testPrepareDocumentWithShortOrMissingContent() {
+        // Given
+        Document shortDocument = Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .title("Short")
+                .content("Short content")
+                .build();
+        Document emptyDocument = Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .title("Empty")
+                .build();
+
+        // When & Then
+        assertEquals("Short content", indexingService.prepareDocumentForIndexing(shortDocument).get("snippet"));
+        assertEquals("", indexingService.prepareDocumentForIndexing(emptyDocument).get("snippet"));
+        assertEquals(0, indexingService.prepareDocumentForIndexing(emptyDocument).get("content_length"));
+    }
+
+    @Test
+    void testSnippetDoesNotSplitSurrogatePair() {
+        // Given
+        String content = "a".repeat(199) + "\uD83D\uDE00" + "tail";
+
+        // When
+        String snippet = IndexingService.buildSnippet(content);
+
+        // Then
+        assertEquals("a".repeat(199) + "...", snippet);
+    }
+}
@@ -0,0 +1,76 @@
+package com.enterprise.docsearch.index.service;
+
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
+import com.enterprise.docsearch.index.metrics.IndexMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TitleChangePublisherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private IndexMetrics indexMetrics;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TitleChangePublisher publisher;
+
+    private static final String CHANNEL = "docsearch:title-changes";
+
+    @BeforeEach
+    void setUp() {
+        publisher = new TitleChangePublisher(redisTemplate, objectMapper, indexMetrics);
+    }
+
+    @Test
+    void testPublishesChangesAsJson() throws Exception {
+        // When
+        publisher.publish("tenant123", List.of(
+                new TitleChangeEvent.Change("doc-1", "Annual Report"),
+                new TitleChangeEvent.Change("doc-2", null)));
+
+        // Then
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), payload.capture());
+        TitleChangeEvent event = objectMapper.readValue(payload.getValue(), TitleChangeEvent.class);
+        assertEquals("tenant123", event.tenantId());
+        assertEquals("Annual Report", event.changes().get(0).title());
+        assertNull(event.changes().get(1).title());
+    }
+
+    @Test
+    void testEmptyChangesAreNotPublished() {
+        // When
+        publisher.publish("tenant123", Collections.emptyList());
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testRedisFailureIsSwallowedAndCounted() {
+        // Given
+        doThrow(new RuntimeException("Redis down")).when(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+
+        // When & Then
+        assertDoesNotThrow(() -> publisher.publish("tenant123",
+                List.of(new TitleChangeEvent.Change("doc-1", "Title"))));
+        verify(indexMetrics).titleChanges(1, true);
+    }
+}
@@ -0,0 +1,107 @@
+package com.enterprise.docsearch.loadtest;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.loadtest.backend.ContainerElasticsearch;
+import com.enterprise.docsearch.loadtest.backend.ElasticsearchBackend;
+import com.enterprise.docsearch.loadtest.backend.EmbeddedSearchService;
+import com.enterprise.docsearch.loadtest.backend.StandInElasticsearch;
+import com.enterprise.docsearch.loadtest.corpus.CorpusGenerator;
+import com.enterprise.docsearch.loadtest.driver.HttpSearchTarget;
+import com.enterprise.docsearch.loadtest.driver.LoadReport;
+import com.enterprise.docsearch.loadtest.driver.OpenLoopDriver;
+import com.enterprise.docsearch.loadtest.query.QueryGenerator;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a corpus, loads it into an Elasticsearch, starts search-service
+ * against it and drives a Zipfian query stream at it open-loop. With
+ * {@code --target=URL} the corpus and backend steps are skipped and an
+ * already running search-service is loaded instead.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (LoadTestOptions.wantsHelp(args)) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        CorpusGenerator corpus = new CorpusGenerator(options.corpus());
+        QueryGenerator queries = new QueryGenerator(options.queries(), corpus.tenantIds(), corpus.vocabulary());
+
+        if (!LoadTestOptions.IN_PROCESS.equals(options.target())) {
+            System.out.printf("Loading %s; its Elasticsearch must already hold a corpus generated with the same options%n",
+                    options.target());
+            drive(options, URI.create(options.target()), queries);
+            return;
+        }
+
+        try (ElasticsearchBackend elasticsearch = startElasticsearch(options)) {
+            System.out.printf("Generating %d documents for each of %d tenants into %s%n",
+                    options.corpus().documentsPerTenant(), options.corpus().tenants(), elasticsearch.uri());
+            for (String tenantId : corpus.tenantIds()) {
+                List<Document> documents = corpus.generate(tenantId);
+                elasticsearch.load(tenantId, documents);
+            }
+
+            try (EmbeddedSearchService searchService =
+                         new EmbeddedSearchService(elasticsearch.uri(), options.redis(), Map.of())) {
+                System.out.printf("search-service is up at %s%n", searchService.uri());
+                drive(options, searchService.uri(), queries);
+            }
+        }
+    }
+
+    private static ElasticsearchBackend startElasticsearch(LoadTestOptions options) throws Exception {
+        if (LoadTestOptions.CONTAINER.equals(options.elasticsearch())) {
+            if (ContainerElasticsearch.isDockerAvailable()) {
+                System.out.println("Starting Elasticsearch in Docker");
+                return new ContainerElasticsearch();
+            }
+            System.out.println("Docker is not available, falling back to the stand-in Elasticsearch");
+        }
+        return new StandInElasticsearch(options.elasticsearchLatency(), options.elasticsearchThreads());
+    }
+
+    private static void drive(LoadTestOptions options, URI searchService, QueryGenerator queries) throws Exception {
+        PrintStream histogramLog = options.histogramLog() != null
+                ? new PrintStream(new FileOutputStream(options.histogramLog()))
+                : null;
+
+        try (HttpSearchTarget target = new HttpSearchTarget(searchService, options.requestTimeout())) {
+            OpenLoopDriver driver = new OpenLoopDriver(target, queries::next, options.rate(), options.poisson(),
+                    options.queries().seed())
+                    .progressTo(System.out);
+            if (histogramLog != null) {
+                driver.histogramLogTo(histogramLog);
+            }
+
+            System.out.printf("Sending %.0f searches/s%s: %s warmup, %s measured%n", options.rate(),
+                    options.poisson() ? " (Poisson arrivals)" : "", options.warmup(), options.duration());
+            LoadReport report = driver.run(options.warmup(), options.duration(), options.drainTimeout());
+            report.print(System.out);
+        } finally {
+            if (histogramLog != null) {
+                histogramLog.close();
+            }
+        }
+    }
+}
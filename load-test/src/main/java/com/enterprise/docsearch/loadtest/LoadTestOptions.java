@@ -0,0 +1,133 @@
+package com.enterprise.docsearch.loadtest;
+
+import com.enterprise.docsearch.loadtest.corpus.CorpusSpec;
+import com.enterprise.docsearch.loadtest.query.QuerySpec;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Command line of a load test, as {@code --name=value} pairs. Durations take
+ * the same forms as in application.yml, e.g. {@code 500ms} or {@code 2m}.
+ */
+record LoadTestOptions(String target,
+                       String elasticsearch,
+                       Duration elasticsearchLatency,
+                       int elasticsearchThreads,
+                       String redis,
+                       CorpusSpec corpus,
+                       QuerySpec queries,
+                       double rate,
+                       boolean poisson,
+                       Duration warmup,
+                       Duration duration,
+                       Duration drainTimeout,
+                       Duration requestTimeout,
+                       String histogramLog) {
+
+    static final String IN_PROCESS = "in-process";
+    static final String STAND_IN = "stand-in";
+    static final String CONTAINER = "container";
+
+    private static final Set<String> NAMES = Set.of(
+            "target", "elasticsearch", "es-latency", "es-threads", "redis",
+            "tenants", "documents", "vocabulary", "term-skew", "median-words", "size-sigma", "max-words", "seed",
+            "distinct-queries", "query-skew", "tenant-skew", "max-terms", "page-size", "next-page-rate", "fuzzy-rate",
+            "rate", "poisson", "warmup", "duration", "drain-timeout", "request-timeout", "histogram-log", "help");
+
+    static final String USAGE = """
+            Usage: java -jar load-test.jar [--name=value ...]
+
+            Target
+              --target=in-process|URL      search-service to load; in-process starts one here (in-process)
+              --elasticsearch=stand-in|container
+                                           what in-process search-service searches (stand-in)
+              --es-latency=DURATION        time each stand-in search holds a search thread (2ms)
+              --es-threads=N               stand-in search threads (cores * 3 / 2 + 1)
+              --redis=HOST:PORT            Redis for in-process search-service (embedded)
+
+            Corpus
+              --tenants=N  --documents=N (per tenant)  --vocabulary=N  --term-skew=EXPONENT
+              --median-words=N  --size-sigma=SIGMA  --max-words=N  --seed=N
+
+            Queries
+              --distinct-queries=N (per tenant)  --query-skew=EXPONENT  --tenant-skew=EXPONENT
+              --max-terms=N  --page-size=N  --next-page-rate=P  --fuzzy-rate=P
+
+            Load
+              --rate=PER_SECOND (100)  --poisson  --warmup=DURATION (10s)  --duration=DURATION (60s)
+              --drain-timeout=DURATION (30s)  --request-timeout=DURATION (30s)
+              --histogram-log=FILE         one-second histograms in HdrHistogram's log format
+            """;
+
+    static LoadTestOptions parse(String... args) {
+        SimpleCommandLinePropertySource source = new SimpleCommandLinePropertySource(args);
+        for (String name : source.getPropertyNames()) {
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        String nonOptionArgs = source.getProperty(SimpleCommandLinePropertySource.DEFAULT_NON_OPTION_ARGS_PROPERTY_NAME);
+        if (nonOptionArgs != null) {
+            throw new IllegalArgumentException("Unexpected argument " + nonOptionArgs);
+        }
+
+        CorpusSpec corpusDefaults = CorpusSpec.defaults();
+        QuerySpec queryDefaults = QuerySpec.defaults();
+        Options options = new Options(source);
+
+        return new LoadTestOptions(
+                options.get("target", Function.identity(), IN_PROCESS),
+                options.get("elasticsearch", Function.identity(), STAND_IN),
+                options.get("es-latency", DurationStyle::detectAndParse, Duration.ofMillis(2)),
+                options.get("es-threads", Integer::parseInt, Runtime.getRuntime().availableProcessors() * 3 / 2 + 1),
+                options.get("redis", Function.identity(), null),
+                new CorpusSpec(
+                        options.get("tenants", Integer::parseInt, corpusDefaults.tenants()),
+                        options.get("documents", Integer::parseInt, corpusDefaults.documentsPerTenant()),
+                        options.get("vocabulary", Integer::parseInt, corpusDefaults.vocabularySize()),
+                        options.get("term-skew", Double::parseDouble, corpusDefaults.termExponent()),
+                        options.get("median-words", Integer::parseInt, corpusDefaults.medianWords()),
+                        options.get("size-sigma", Double::parseDouble, corpusDefaults.sizeSigma()),
+                        options.get("max-words", Integer::parseInt, corpusDefaults.maxWords()),
+                        options.get("seed", Long::parseLong, corpusDefaults.seed())),
+                new QuerySpec(
+                        options.get("distinct-queries", Integer::parseInt, queryDefaults.distinctQueries()),
+                        options.get("query-skew", Double::parseDouble, queryDefaults.queryExponent()),
+                        options.get("tenant-skew", Double::parseDouble, queryDefaults.tenantExponent()),
+                        options.get("max-terms", Integer::parseInt, queryDefaults.maxTerms()),
+                        options.get("page-size", Integer::parseInt, queryDefaults.pageSize()),
+                        options.get("next-page-rate", Double::parseDouble, queryDefaults.nextPageRate()),
+                        options.get("fuzzy-rate", Double::parseDouble, queryDefaults.fuzzyRate()),
+                        queryDefaults.seed()),
+                options.get("rate", Double::parseDouble, 100.0),
+                source.containsProperty("poisson") && !"false".equals(source.getProperty("poisson")),
+                options.get("warmup", DurationStyle::detectAndParse, Duration.ofSeconds(10)),
+                options.get("duration", DurationStyle::detectAndParse, Duration.ofSeconds(60)),
+                options.get("drain-timeout", DurationStyle::detectAndParse, Duration.ofSeconds(30)),
+                options.get("request-timeout", DurationStyle::detectAndParse, Duration.ofSeconds(30)),
+                options.get("histogram-log", Function.identity(), null));
+    }
+
+    static boolean wantsHelp(String... args) {
+        return new SimpleCommandLinePropertySource(args).containsProperty("help");
+    }
+
+    private record Options(SimpleCommandLinePropertySource source) {
+
+        <T> T get(String name, Function<String, T> parser, T defaultValue) {
+            String value = source.getProperty(name);
+            if (value == null || value.isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                return parser.apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid value for --" + name + ": " + value, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.enterprise.docsearch.loadtest.backend;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.enterprise.docsearch.common.model.Document;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * A single-node Elasticsearch in Docker, loaded through the bulk API. Slower
+ * to start than the stand-in, but runs the real query, highlighting and
+ * aggregation code.
+ */
+@Slf4j
+public class ContainerElasticsearch implements ElasticsearchBackend {
+
+    private static final String IMAGE = "docker.elastic.co/elasticsearch/elasticsearch:8.11.0";
+    private static final int BULK_SIZE = 500;
+    // The mapping index-service creates tenant indices with
+    private static final String MAPPINGS = """
+            {
+              "mappings": {
+                "date_detection": false,
+                "dynamic_templates": [
+                  { "metadata_strings": { "path_match": "metadata.*", "match_mapping_type": "string", "mapping": %1$s } },
+                  { "metadata_longs": { "path_match": "metadata.*", "match_mapping_type": "long", "mapping": %1$s } },
+                  { "metadata_doubles": { "path_match": "metadata.*", "match_mapping_type": "double", "mapping": %1$s } },
+                  { "metadata_booleans": { "path_match": "metadata.*", "match_mapping_type": "boolean", "mapping": %1$s } }
+                ],
+                "properties": {
+                  "document_id": { "type": "keyword" },
+                  "tenant_id": { "type": "keyword" },
+                  "title": {
+                    "type": "text",
+                    "analyzer": "standard",
+                    "fields": {
+                      "keyword": { "type": "keyword" }
+                    }
+                  },
+                  "content": {
+                    "type": "text",
+                    "analyzer": "standard",
+                    "index_options": "offsets"
+                  },
+                  "snippet": { "type": "text", "index": false },
+                  "content_length": { "type": "integer" },
+                  "metadata": { "type": "object" },
+                  "indexed_at": { "type": "date" }
+                }
+              }
+            }
+            """.formatted("""
+            {
+              "type": "text",
+              "fields": {
+                "keyword": { "type": "keyword", "ignore_above": 256 },
+                "number": { "type": "double", "ignore_malformed": true }
+              }
+            }""");
+
+    private final ElasticsearchContainer container;
+    private final RestClient restClient;
+    private final ElasticsearchClient client;
+
+    public ContainerElasticsearch() {
+        this.container = new ElasticsearchContainer(IMAGE)
+                .withEnv("xpack.security.enabled", "false")
+                .withEnv("ES_JAVA_OPTS", "-Xms1g -Xmx1g");
+        container.start();
+        this.restClient = RestClient.builder(HttpHost.create(container.getHttpHostAddress())).build();
+        this.client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+    }
+
+    public static boolean isDockerAvailable() {
+        try {
+            return DockerClientFactory.instance().isDockerAvailable();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void load(String tenantId, List<Document> documents) throws IOException {
+        String indexName = INDEX_PREFIX + tenantId;
+        client.indices().create(c -> c
+                .index(indexName)
+                .withJson(new StringReader(MAPPINGS))
+                .settings(st -> st.numberOfShards("1").numberOfReplicas("0")));
+
+        for (int start = 0; start < documents.size(); start += BULK_SIZE) {
+            List<Document> chunk = documents.subList(start, Math.min(documents.size(), start + BULK_SIZE));
+            BulkRequest.Builder bulk = new BulkRequest.Builder().index(indexName);
+            for (Document document : chunk) {
+                bulk.operations(op -> op.index(i -> i
+                        .id(document.getDocumentId().toString())
+                        .document(IndexedSource.of(document))));
+            }
+            if (start + BULK_SIZE >= documents.size()) {
+                bulk.refresh(Refresh.True);
+            }
+
+            BulkResponse response = client.bulk(bulk.build());
+            if (response.errors()) {
+                log.warn("Some documents of tenant {} failed to index", tenantId);
+            }
+        }
+    }
+
+    @Override
+    public URI uri() {
+        return URI.create("http://" + container.getHttpHostAddress());
+    }
+
+    @Override
+    public void close() {
+        try {
+            restClient.close();
+        } catch (IOException e) {
+            log.warn("Error closing Elasticsearch client", e);
+        }
+        container.stop();
+    }
+}
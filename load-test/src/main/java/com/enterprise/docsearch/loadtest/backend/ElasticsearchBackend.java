@@ -0,0 +1,24 @@
+package com.enterprise.docsearch.loadtest.backend;
+
+import com.enterprise.docsearch.common.model.Document;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * An Elasticsearch, real or stand-in, that search-service can be pointed at.
+ */
+public interface ElasticsearchBackend extends AutoCloseable {
+
+    String INDEX_PREFIX = "docs_tenant_";
+
+    /**
+     * Makes the documents searchable under the tenant's index.
+     */
+    void load(String tenantId, List<Document> documents) throws Exception;
+
+    URI uri();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,102 @@
+package com.enterprise.docsearch.loadtest.backend;
+
+import com.enterprise.docsearch.search.SearchServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * search-service running in this JVM against the given Elasticsearch, with an
+ * in-memory H2 in place of PostgreSQL and, unless a Redis address is given,
+ * an embedded Redis. Caching, coalescing, bulkheads and the async executor
+ * are the real ones.
+ */
+@Slf4j
+public class EmbeddedSearchService implements AutoCloseable {
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * @param redis {@code host:port} of a Redis to use, or null to start an embedded one
+     */
+    public EmbeddedSearchService(URI elasticsearch, String redis, Map<String, Object> overrides) throws IOException {
+        String redisHost = "127.0.0.1";
+        int redisPort;
+        if (redis == null) {
+            redisPort = freePort();
+            redisServer = RedisServer.builder()
+                    .port(redisPort)
+                    .setting("bind 127.0.0.1")
+                    .setting("maxmemory 256mb")
+                    .build();
+            redisServer.start();
+        } else {
+            redisServer = null;
+            redisHost = redis.substring(0, redis.lastIndexOf(':'));
+            redisPort = Integer.parseInt(redis.substring(redis.lastIndexOf(':') + 1));
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("elasticsearch.hosts", elasticsearch.toString());
+        properties.put("spring.data.redis.host", redisHost);
+        properties.put("spring.data.redis.port", redisPort);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.sql.init.mode", "always");
+        properties.put("spring.sql.init.schema-locations", "classpath:loadtest-schema.sql");
+        // The load generator decides the request rate, not the per-tenant limit
+        properties.put("rate-limit.requests-per-minute", Integer.MAX_VALUE);
+        // The stand-in does not return profiles
+        properties.put("search.profile.sample-rate", 0);
+        // Rejections and timeouts are counted by the driver, not logged once per request
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.enterprise.docsearch", "ERROR");
+        properties.putAll(overrides);
+
+        // As arguments rather than default properties, so they win over search-service's application.yml
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        try {
+            context = new SpringApplicationBuilder(SearchServiceApplication.class)
+                    .run(args);
+        } catch (RuntimeException e) {
+            if (redisServer != null) {
+                redisServer.stop();
+            }
+            throw e;
+        }
+    }
+
+    public URI uri() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://127.0.0.1:" + port);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.enterprise.docsearch.loadtest.backend;
+
+import com.enterprise.docsearch.common.model.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The _source index-service stores for a document, so loaded corpora look
+ * to search-service exactly like indexed ones.
+ */
+final class IndexedSource {
+
+    private static final int SNIPPET_LENGTH = 200;
+
+    private IndexedSource() {
+    }
+
+    static Map<String, Object> of(Document document) {
+        String content = document.getContent() != null ? document.getContent() : "";
+
+        Map<String, Object> source = new HashMap<>();
+        source.put("document_id", document.getDocumentId().toString());
+        source.put("tenant_id", document.getTenantId());
+        source.put("title", document.getTitle());
+        source.put("content", content);
+        source.put("snippet", snippet(content));
+        source.put("content_length", content.length());
+        source.put("metadata", document.getMetadata() != null ? document.getMetadata() : new HashMap<>());
+        source.put("indexed_at", LocalDateTime.now().toString());
+        return source;
+    }
+
+    static String snippet(String content) {
+        if (content.length() <= SNIPPET_LENGTH) {
+            return content;
+        }
+
+        int end = SNIPPET_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end) + "...";
+    }
+}
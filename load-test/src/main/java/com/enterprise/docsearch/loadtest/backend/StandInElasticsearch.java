@@ -0,0 +1,461 @@
+package com.enterprise.docsearch.loadtest.backend;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process HTTP server that answers the part of the Elasticsearch REST
+ * API search-service uses: _search (from/size, point-in-time with
+ * search_after), _msearch, opening and closing points-in-time, and the
+ * cluster info and health calls.
+ * <p>
+ * Each tenant's documents sit in an in-memory inverted index. A search
+ * matches any of its terms in title or content, title counting double, and
+ * scores with a BM25-style term weight without length normalisation. Fuzzy
+ * matching, filters and aggregations are not evaluated. Requests are served
+ * by a fixed pool of threads that each sleep for the configured latency on
+ * top of the real matching work, so, like a node's search thread pool, a
+ * saturated stand-in queues requests instead of answering faster.
+ */
+@Slf4j
+public class StandInElasticsearch implements ElasticsearchBackend {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TRACK_TOTAL_HITS_UP_TO = 10_000;
+    private static final double K1 = 1.2;
+    private static final int TITLE_WEIGHT = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, TenantIndex> indices = new ConcurrentHashMap<>();
+    private final Map<String, String> pointsInTime = new ConcurrentHashMap<>();
+    private final AtomicLong pitSequence = new AtomicLong();
+    private final Duration latency;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * @param latency       extra time every search holds a search thread
+     * @param searchThreads concurrent searches before requests queue
+     */
+    public StandInElasticsearch(Duration latency, int searchThreads) throws IOException {
+        this.latency = latency;
+        this.executor = Executors.newFixedThreadPool(searchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-es");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @Override
+    public void load(String tenantId, List<Document> documents) {
+        String indexName = INDEX_PREFIX + tenantId;
+        indices.put(indexName, new TenantIndex(indexName, documents));
+    }
+
+    @Override
+    public URI uri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Reply reply;
+            try {
+                reply = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                        exchange.getRequestBody().readAllBytes());
+            } catch (Exception e) {
+                log.warn("Stand-in Elasticsearch failed on {} {}", exchange.getRequestMethod(),
+                        exchange.getRequestURI(), e);
+                reply = error(500, "exception", String.valueOf(e.getMessage()));
+            }
+
+            exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (reply.body() == null || "HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(reply.status(), -1);
+                return;
+            }
+            byte[] body = objectMapper.writeValueAsBytes(reply.body());
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private Reply route(String method, String path, byte[] body) throws Exception {
+        List<String> segments = Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toList();
+        String last = segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+        String index = segments.size() > 1 ? segments.get(0) : null;
+
+        if (segments.isEmpty()) {
+            return new Reply(200, info());
+        }
+        if (segments.equals(List.of("_cluster", "health"))) {
+            return new Reply(200, objectMapper.createObjectNode().put("status", "green"));
+        }
+        if (segments.equals(List.of("_nodes", "http"))) {
+            return new Reply(200, nodes());
+        }
+        if ("_search".equals(last)) {
+            return search(index, body.length > 0 ? objectMapper.readTree(body) : objectMapper.createObjectNode());
+        }
+        if ("_msearch".equals(last)) {
+            return multiSearch(index, new String(body, StandardCharsets.UTF_8));
+        }
+        if ("_pit".equals(last) && index != null) {
+            return openPointInTime(index);
+        }
+        if ("_pit".equals(last) && "DELETE".equals(method)) {
+            return closePointInTime(objectMapper.readTree(body).path("id").asText());
+        }
+        if (segments.size() == 1 && "HEAD".equals(method)) {
+            return new Reply(indices.containsKey(last) ? 200 : 404, null);
+        }
+        return error(404, "resource_not_found_exception", "Not supported by the stand-in: " + method + " " + path);
+    }
+
+    private Reply search(String indexName, JsonNode request) throws InterruptedException {
+        long startNanos = System.nanoTime();
+
+        String pitId = request.path("pit").path("id").asText(null);
+        if (pitId != null) {
+            indexName = pointsInTime.get(pitId);
+            if (indexName == null) {
+                return error(404, "search_context_missing_exception", "No search context found for id [" + pitId + "]");
+            }
+        }
+        TenantIndex index = indexName != null ? indices.get(indexName) : null;
+        if (index == null) {
+            return error(404, "index_not_found_exception", "no such index [" + indexName + "]");
+        }
+
+        if (!latency.isZero()) {
+            TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+        }
+
+        int from = request.path("from").asInt(0);
+        int size = request.path("size").asInt(10);
+        if (from < 0 || size < 0) {
+            return error(400, "illegal_argument_exception", "[from] and [size] cannot be negative");
+        }
+
+        Set<String> terms = tokens(queryText(request.path("query")));
+        JsonNode searchAfter = request.path("search_after");
+        ObjectNode response = index.search(terms, from, size,
+                searchAfter.isArray() && searchAfter.size() == 2 ? searchAfter : null,
+                request.has("sort"),
+                request.has("highlight"));
+
+        response.put("took", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        if (pitId != null) {
+            response.put("pit_id", pitId);
+        }
+        return new Reply(200, response);
+    }
+
+    private Reply multiSearch(String defaultIndex, String body) throws Exception {
+        long startNanos = System.nanoTime();
+        ArrayNode responses = objectMapper.createArrayNode();
+
+        String[] lines = body.split("\n");
+        for (int i = 0; i + 1 < lines.length; i += 2) {
+            JsonNode header = objectMapper.readTree(lines[i]);
+            JsonNode index = header.path("index");
+            String indexName = index.isArray() ? index.path(0).asText() : index.asText(defaultIndex);
+
+            Reply reply = search(indexName, objectMapper.readTree(lines[i + 1]));
+            ((ObjectNode) reply.body()).put("status", reply.status());
+            responses.add((ObjectNode) reply.body());
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("took", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        response.set("responses", responses);
+        return new Reply(200, response);
+    }
+
+    private Reply openPointInTime(String indexName) {
+        if (!indices.containsKey(indexName)) {
+            return error(404, "index_not_found_exception", "no such index [" + indexName + "]");
+        }
+        String id = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("pit-" + pitSequence.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+        pointsInTime.put(id, indexName);
+        return new Reply(200, objectMapper.createObjectNode().put("id", id));
+    }
+
+    private Reply closePointInTime(String id) {
+        boolean freed = pointsInTime.remove(id) != null;
+        return new Reply(200, objectMapper.createObjectNode()
+                .put("succeeded", true)
+                .put("num_freed", freed ? 1 : 0));
+    }
+
+    private ObjectNode info() {
+        ObjectNode info = objectMapper.createObjectNode()
+                .put("name", "stand-in")
+                .put("cluster_name", "load-test")
+                .put("cluster_uuid", "stand-in")
+                .put("tagline", "You Know, for Search");
+        info.putObject("version")
+                .put("number", "8.11.0")
+                .put("build_flavor", "default")
+                .put("build_type", "docker")
+                .put("build_hash", "stand-in")
+                .put("build_date", "2023-11-04T10:04:57.184859352Z")
+                .put("build_snapshot", false)
+                .put("lucene_version", "9.8.0")
+                .put("minimum_wire_compatibility_version", "7.17.0")
+                .put("minimum_index_compatibility_version", "7.0.0");
+        return info;
+    }
+
+    // What Spring Boot's sniffer asks for; the stand-in is the only node
+    private ObjectNode nodes() {
+        InetSocketAddress address = server.getAddress();
+        ObjectNode nodes = objectMapper.createObjectNode();
+        ObjectNode node = nodes.putObject("nodes").putObject("stand-in")
+                .put("name", "stand-in")
+                .put("version", "8.11.0")
+                .put("host", address.getHostString())
+                .put("ip", address.getHostString());
+        node.putArray("roles").add("master").add("data");
+        node.putObject("http").put("publish_address", address.getHostString() + ":" + address.getPort());
+        return nodes;
+    }
+
+    private Reply error(int status, String type, String reason) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode error = body.putObject("error");
+        error.putArray("root_cause").addObject().put("type", type).put("reason", reason);
+        error.put("type", type).put("reason", reason);
+        body.put("status", status);
+        return new Reply(status, body);
+    }
+
+    /**
+     * The text of the first multi_match in the query, wherever bool clauses
+     * have put it.
+     */
+    static String queryText(JsonNode query) {
+        JsonNode multiMatch = query.path("multi_match");
+        if (multiMatch.has("query")) {
+            return multiMatch.get("query").asText();
+        }
+        for (JsonNode child : query) {
+            String text = queryText(child);
+            if (text != null) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Reply(int status, JsonNode body) {
+    }
+
+    private class TenantIndex {
+
+        private final String name;
+        private final String[] ids;
+        private final ObjectNode[] sources;
+        private final String[] snippets;
+        // Per term: document number in the high half, weighted term frequency in the low half
+        private final Map<String, long[]> postings = new HashMap<>();
+
+        TenantIndex(String name, List<Document> documents) {
+            this.name = name;
+            this.ids = new String[documents.size()];
+            this.sources = new ObjectNode[documents.size()];
+            this.snippets = new String[documents.size()];
+
+            Map<String, Postings> building = new HashMap<>();
+            for (int doc = 0; doc < documents.size(); doc++) {
+                Document document = documents.get(doc);
+                Map<String, Object> source = IndexedSource.of(document);
+                ids[doc] = (String) source.get("document_id");
+                snippets[doc] = (String) source.get("snippet");
+
+                // Searches only ever fetch these fields
+                ObjectNode stored = objectMapper.createObjectNode();
+                stored.put("document_id", ids[doc]);
+                stored.put("title", document.getTitle());
+                stored.put("snippet", snippets[doc]);
+                stored.set("metadata", objectMapper.valueToTree(source.get("metadata")));
+                sources[doc] = stored;
+
+                Map<String, Integer> frequencies = new HashMap<>();
+                for (String token : NON_WORD.split(String.valueOf(document.getTitle()).toLowerCase(Locale.ROOT))) {
+                    frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+                }
+                for (String token : NON_WORD.split(String.valueOf(document.getContent()).toLowerCase(Locale.ROOT))) {
+                    frequencies.merge(token, 1, Integer::sum);
+                }
+                frequencies.remove("");
+
+                long docBits = (long) doc << 32;
+                frequencies.forEach((term, frequency) ->
+                        building.computeIfAbsent(term, t -> new Postings()).add(docBits | frequency));
+            }
+            building.forEach((term, list) -> postings.put(term, list.toArray()));
+        }
+
+        ObjectNode search(Set<String> terms, int from, int size, JsonNode searchAfter,
+                          boolean sorted, boolean highlight) {
+            float[] scores = new float[ids.length];
+            int[] matched = new int[ids.length];
+            int matchCount = 0;
+
+            for (String term : terms) {
+                long[] list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (ids.length - list.length + 0.5) / (list.length + 0.5));
+                for (long posting : list) {
+                    int doc = (int) (posting >>> 32);
+                    int frequency = (int) posting;
+                    if (scores[doc] == 0) {
+                        matched[matchCount++] = doc;
+                    }
+                    scores[doc] += (float) (idf * frequency * (K1 + 1) / (frequency + K1));
+                }
+            }
+
+            Comparator<Integer> ranking = (a, b) -> scores[a] != scores[b]
+                    ? Float.compare(scores[b], scores[a])
+                    : Integer.compare(a, b);
+            float afterScore = searchAfter != null ? searchAfter.get(0).floatValue() : Float.MAX_VALUE;
+            int afterDoc = searchAfter != null ? searchAfter.get(1).asInt() : -1;
+
+            // Keep the best from + size in a heap whose head is the worst of them
+            int wanted = from + size;
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, wanted), ranking.reversed());
+            for (int i = 0; i < matchCount; i++) {
+                int doc = matched[i];
+                boolean afterCursor = scores[doc] < afterScore || (scores[doc] == afterScore && doc > afterDoc);
+                if (!afterCursor || wanted == 0) {
+                    continue;
+                }
+                if (top.size() < wanted) {
+                    top.add(doc);
+                } else if (ranking.compare(doc, top.peek()) < 0) {
+                    top.poll();
+                    top.add(doc);
+                }
+            }
+            List<Integer> ranked = new ArrayList<>(top);
+            ranked.sort(ranking);
+
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("timed_out", false);
+            response.putObject("_shards").put("total", 1).put("successful", 1).put("skipped", 0).put("failed", 0);
+            ObjectNode hits = response.putObject("hits");
+            hits.putObject("total")
+                    .put("value", Math.min(matchCount, TRACK_TOTAL_HITS_UP_TO))
+                    .put("relation", matchCount > TRACK_TOTAL_HITS_UP_TO ? "gte" : "eq");
+            if (ranked.isEmpty()) {
+                hits.putNull("max_score");
+            } else {
+                hits.put("max_score", scores[ranked.get(0)]);
+            }
+
+            ArrayNode hitList = hits.putArray("hits");
+            for (int i = from; i < ranked.size(); i++) {
+                int doc = ranked.get(i);
+                ObjectNode hit = hitList.addObject();
+                hit.put("_index", name);
+                hit.put("_id", ids[doc]);
+                hit.put("_score", scores[doc]);
+                hit.set("_source", sources[doc]);
+                if (highlight) {
+                    String fragment = highlight(snippets[doc], terms);
+                    if (fragment != null) {
+                        hit.putObject("highlight").putArray("content").add(fragment);
+                    }
+                }
+                if (sorted) {
+                    hit.putArray("sort").add(scores[doc]).add(doc);
+                }
+            }
+            return response;
+        }
+
+        private String highlight(String snippet, Set<String> terms) {
+            StringBuilder fragment = new StringBuilder(snippet.length() + 32);
+            boolean found = false;
+            for (String word : snippet.split(" ")) {
+                if (!fragment.isEmpty()) {
+                    fragment.append(' ');
+                }
+                if (terms.contains(NON_WORD.matcher(word.toLowerCase(Locale.ROOT)).replaceAll(""))) {
+                    fragment.append("<em>").append(word).append("</em>");
+                    found = true;
+                } else {
+                    fragment.append(word);
+                }
+            }
+            return found ? fragment.toString() : null;
+        }
+    }
+
+    private static class Postings {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.enterprise.docsearch.loadtest.corpus;
+
+import com.enterprise.docsearch.common.model.Document;
+import com.enterprise.docsearch.common.model.DocumentStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates the documents of a {@link CorpusSpec}. Every tenant gets its own
+ * random stream derived from the seed, so a tenant's documents don't change
+ * when the number of tenants does.
+ */
+public class CorpusGenerator {
+
+    private static final String[] DEPARTMENTS = {
+            "engineering", "sales", "legal", "finance", "support", "marketing", "operations", "hr"
+    };
+    private static final int AUTHORS = 200;
+
+    private final CorpusSpec spec;
+    private final Vocabulary vocabulary;
+    private final ZipfSampler departments = new ZipfSampler(DEPARTMENTS.length, 1.0);
+
+    public CorpusGenerator(CorpusSpec spec) {
+        this.spec = spec;
+        this.vocabulary = new Vocabulary(spec.vocabularySize(), spec.termExponent());
+    }
+
+    public Vocabulary vocabulary() {
+        return vocabulary;
+    }
+
+    public List<String> tenantIds() {
+        List<String> tenantIds = new ArrayList<>(spec.tenants());
+        for (int i = 0; i < spec.tenants(); i++) {
+            tenantIds.add(spec.tenantId(i));
+        }
+        return tenantIds;
+    }
+
+    public List<Document> generate(String tenantId) {
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ tenantId.hashCode());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Document> documents = new ArrayList<>(spec.documentsPerTenant());
+        for (int i = 0; i < spec.documentsPerTenant(); i++) {
+            String content = text(random, documentWords(random));
+            documents.add(Document.builder()
+                    .documentId(new UUID(random.nextLong(), random.nextLong()))
+                    .tenantId(tenantId)
+                    .title(capitalize(text(random, 3 + random.nextInt(6))))
+                    .content(content)
+                    .metadata(metadata(random))
+                    .status(DocumentStatus.INDEXED)
+                    .createdAt(now.minusMinutes(random.nextInt(365 * 24 * 60)))
+                    .fileSizeBytes((long) content.length())
+                    .build());
+        }
+        return documents;
+    }
+
+    int documentWords(SplittableRandom random) {
+        double words = spec.medianWords() * Math.exp(spec.sizeSigma() * random.nextGaussian());
+        return (int) Math.max(1, Math.min(spec.maxWords(), Math.round(words)));
+    }
+
+    private String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                // Roughly fifteen words to a sentence
+                text.append(random.nextInt(15) == 0 ? ". " : " ");
+            }
+            text.append(vocabulary.word(random));
+        }
+        return text.toString();
+    }
+
+    private Map<String, Object> metadata(SplittableRandom random) {
+        List<String> tags = new ArrayList<>();
+        int tagCount = 1 + random.nextInt(3);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(vocabulary.word(random));
+        }
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("department", DEPARTMENTS[departments.sample(random)]);
+        metadata.put("author", "author" + random.nextInt(AUTHORS));
+        metadata.put("tags", tags);
+        return metadata;
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
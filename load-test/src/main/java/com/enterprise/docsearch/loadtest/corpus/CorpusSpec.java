@@ -0,0 +1,42 @@
+package com.enterprise.docsearch.loadtest.corpus;
+
+/**
+ * Shape of a synthetic corpus. Document lengths in words are log-normal
+ * around {@code medianWords}, which gives the long tail of large documents
+ * real corpora have, cut off at {@code maxWords}.
+ *
+ * @param tenants            number of tenants, named tenant1..tenantN
+ * @param documentsPerTenant documents generated for every tenant
+ * @param vocabularySize     distinct words in the vocabulary
+ * @param termExponent       Zipf exponent of word frequencies
+ * @param medianWords        median document length in words
+ * @param sizeSigma          standard deviation of the log of the length
+ * @param maxWords           longest document in words
+ * @param seed               seed for every random choice, so corpora are reproducible
+ */
+public record CorpusSpec(int tenants,
+                         int documentsPerTenant,
+                         int vocabularySize,
+                         double termExponent,
+                         int medianWords,
+                         double sizeSigma,
+                         int maxWords,
+                         long seed) {
+
+    public CorpusSpec {
+        if (tenants <= 0 || documentsPerTenant <= 0) {
+            throw new IllegalArgumentException("Corpus needs at least one tenant and one document");
+        }
+        if (medianWords <= 0 || maxWords < medianWords) {
+            throw new IllegalArgumentException("Median document length must be positive and at most the maximum");
+        }
+    }
+
+    public static CorpusSpec defaults() {
+        return new CorpusSpec(10, 2_000, 20_000, 1.0, 300, 1.0, 20_000, 42L);
+    }
+
+    public String tenantId(int index) {
+        return "tenant" + (index + 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.enterprise.docsearch.loadtest.corpus;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Synthetic, pronounceable words ordered by frequency rank. Word {@code r} is
+ * rank {@code r} written in bijective base-syllables, so words are unique,
+ * the same on every run and get longer as they get rarer, like real text.
+ */
+public class Vocabulary {
+
+    private static final String CONSONANTS = "bdfgklmnprstvz";
+    private static final String VOWELS = "aeiou";
+    private static final int SYLLABLES = CONSONANTS.length() * VOWELS.length();
+
+    private final String[] words;
+    private final ZipfSampler frequency;
+
+    /**
+     * @param size     number of distinct words
+     * @param exponent Zipf exponent of how often each word is used
+     */
+    public Vocabulary(int size, double exponent) {
+        this.words = new String[size];
+        for (int rank = 0; rank < size; rank++) {
+            words[rank] = word(rank);
+        }
+        this.frequency = new ZipfSampler(size, exponent);
+    }
+
+    public String word(RandomGenerator random) {
+        return words[frequency.sample(random)];
+    }
+
+    public String wordAt(int rank) {
+        return words[rank];
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        // Offset by one syllable's worth so every word has at least two
+        long remaining = rank + SYLLABLES + 1L;
+        while (remaining > 0) {
+            int syllable = (int) ((remaining - 1) % SYLLABLES);
+            word.append(CONSONANTS.charAt(syllable / VOWELS.length()))
+                    .append(VOWELS.charAt(syllable % VOWELS.length()));
+            remaining = (remaining - 1) / SYLLABLES;
+        }
+        return word.toString();
+    }
+}
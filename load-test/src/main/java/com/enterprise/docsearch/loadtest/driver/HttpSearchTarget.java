@@ -0,0 +1,66 @@
+package com.enterprise.docsearch.loadtest.driver;
+
+import com.enterprise.docsearch.loadtest.query.LoadQuery;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends searches to search-service's GET /api/v1/search with a test API key
+ * for the query's tenant. Response bodies are read in full and discarded.
+ */
+public class HttpSearchTarget implements SearchTarget {
+
+    private final String searchUrl;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "load-http");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient httpClient;
+
+    public HttpSearchTarget(URI baseUri, Duration timeout) {
+        this.searchUrl = baseUri.toString().replaceAll("/+$", "") + "/api/v1/search";
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<Integer> search(LoadQuery query) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(searchUrl
+                        + "?q=" + URLEncoder.encode(query.text(), StandardCharsets.UTF_8)
+                        + "&page=" + query.page()
+                        + "&size=" + query.size()
+                        + "&fuzzy=" + query.fuzzy()))
+                .header("X-API-Key", apiKey(query.tenantId()))
+                .timeout(timeout)
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    static String apiKey(String tenantId) {
+        // Format: sk_{env}_{tenant_id}_{random}
+        return "sk_test_" + tenantId + "_loadtest";
+    }
+}
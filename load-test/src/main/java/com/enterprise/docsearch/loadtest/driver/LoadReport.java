@@ -0,0 +1,64 @@
+package com.enterprise.docsearch.loadtest.driver;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+
+/**
+ * Results of the measured part of a run. Latencies are in microseconds and
+ * run from each search's scheduled start, not from when it was actually sent.
+ *
+ * @param duration   length of the measured part of the run
+ * @param scheduled  searches scheduled while measuring
+ * @param succeeded  latencies of 2xx responses
+ * @param failed     latencies of other responses and of errors
+ * @param rejected   429 responses, also counted in failed
+ * @param timedOut   searches still outstanding when the run was abandoned;
+ *                   their latency is recorded as a lower bound
+ * @param maxSendLag furthest the driver fell behind its own schedule
+ */
+public record LoadReport(Duration duration,
+                         long scheduled,
+                         Histogram succeeded,
+                         Histogram failed,
+                         long rejected,
+                         long timedOut,
+                         Duration maxSendLag) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public double throughput() {
+        return (succeeded.getTotalCount() + failed.getTotalCount()) / (duration.toNanos() / 1e9);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nScheduled %d searches over %ds, completed %.1f/s%n",
+                scheduled, duration.toSeconds(), throughput());
+        out.printf("Succeeded %d, failed %d (%d rejected with 429), abandoned %d%n",
+                succeeded.getTotalCount(), failed.getTotalCount(), rejected, timedOut);
+        if (maxSendLag.toMillis() > 10) {
+            out.printf("The driver fell up to %dms behind schedule; those searches include the delay%n",
+                    maxSendLag.toMillis());
+        }
+
+        out.println("\nLatency of successful searches (ms):");
+        for (double percentile : PERCENTILES) {
+            out.printf("  p%-6s %10.2f%n", format(percentile), millis(succeeded.getValueAtPercentile(percentile)));
+        }
+        out.printf("  max     %10.2f%n", millis(succeeded.getMaxValue()));
+
+        if (succeeded.getTotalCount() > 0) {
+            out.println("\nFull distribution (ms):");
+            succeeded.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
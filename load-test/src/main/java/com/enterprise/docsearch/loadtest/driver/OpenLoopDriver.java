@@ -0,0 +1,228 @@
+package com.enterprise.docsearch.loadtest.driver;
+
+import com.enterprise.docsearch.loadtest.query.LoadQuery;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Sends searches on a fixed schedule whatever the target does with them.
+ * Every search has a scheduled start time, and its latency is measured from
+ * that time rather than from when it was actually sent. A target that stalls
+ * therefore shows up as high latency for every search scheduled during the
+ * stall, instead of as a few slow searches and a quiet gap: the coordinated
+ * omission a closed-loop client that waits for each response suffers from.
+ * <p>
+ * Searches still outstanding at the end of the drain timeout are recorded as
+ * failed with the time they had waited so far, rather than dropped.
+ */
+public class OpenLoopDriver {
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final SearchTarget target;
+    private final Supplier<LoadQuery> queries;
+    private final double ratePerSecond;
+    private final boolean poisson;
+    private final SplittableRandom random;
+    private PrintStream progress;
+    private HistogramLogWriter histogramLog;
+
+    /**
+     * @param poisson exponential gaps between searches instead of even ones;
+     *                bursts that even spacing never produces
+     */
+    public OpenLoopDriver(SearchTarget target, Supplier<LoadQuery> queries, double ratePerSecond,
+                          boolean poisson, long seed) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.target = target;
+        this.queries = queries;
+        this.ratePerSecond = ratePerSecond;
+        this.poisson = poisson;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Prints a line per second with the throughput and latency of that second.
+     */
+    public OpenLoopDriver progressTo(PrintStream progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * Writes every one-second histogram in HdrHistogram's interval log format,
+     * for plotting latency over the run.
+     */
+    public OpenLoopDriver histogramLogTo(PrintStream log) {
+        this.histogramLog = new HistogramLogWriter(log);
+        return this;
+    }
+
+    public LoadReport run(Duration warmup, Duration duration, Duration drainTimeout) throws InterruptedException {
+        Run run = new Run(warmup, duration);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(run::report, REPORT_INTERVAL_NANOS, REPORT_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+
+        try {
+            run.send();
+            run.drain(drainTimeout);
+        } finally {
+            reporter.shutdownNow();
+        }
+        run.report();
+        return run.result(duration);
+    }
+
+    private long gapNanos() {
+        double gapSeconds = poisson
+                ? -Math.log(1.0 - random.nextDouble()) / ratePerSecond
+                : 1.0 / ratePerSecond;
+        return (long) (gapSeconds * 1e9);
+    }
+
+    private class Run {
+
+        private final long startNanos = System.nanoTime();
+        private final long startMillis = System.currentTimeMillis();
+        private final long measureFromNanos;
+        private final long endNanos;
+        private final Recorder interval = new Recorder(SIGNIFICANT_DIGITS);
+        private final Recorder succeeded = new Recorder(SIGNIFICANT_DIGITS);
+        private final Recorder failed = new Recorder(SIGNIFICANT_DIGITS);
+        private final AtomicLong rejected = new AtomicLong();
+        private final Map<Long, Long> outstanding = new ConcurrentHashMap<>();
+        private long scheduled;
+        private long timedOut;
+        private long maxLagNanos;
+        private Histogram intervalHistogram;
+
+        Run(Duration warmup, Duration duration) {
+            this.measureFromNanos = startNanos + warmup.toNanos();
+            this.endNanos = measureFromNanos + duration.toNanos();
+            if (histogramLog != null) {
+                histogramLog.outputLogFormatVersion();
+                histogramLog.outputStartTime(startMillis);
+                histogramLog.setBaseTime(startMillis);
+                histogramLog.outputLegend();
+            }
+        }
+
+        void send() {
+            long id = 0;
+            long intendedNanos = startNanos;
+            while (intendedNanos < endNanos) {
+                long now = System.nanoTime();
+                if (now < intendedNanos) {
+                    LockSupport.parkNanos(intendedNanos - now);
+                    continue;
+                }
+
+                maxLagNanos = Math.max(maxLagNanos, now - intendedNanos);
+                boolean measured = intendedNanos >= measureFromNanos;
+                if (measured) {
+                    scheduled++;
+                }
+                send(id++, intendedNanos, measured);
+                intendedNanos += gapNanos();
+            }
+        }
+
+        private void send(long id, long intendedNanos, boolean measured) {
+            CompletableFuture<Integer> response;
+            try {
+                response = target.search(queries.get());
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+
+            outstanding.put(id, intendedNanos);
+            response.whenComplete((status, error) -> {
+                // Already recorded as abandoned
+                if (outstanding.remove(id) == null) {
+                    return;
+                }
+                boolean ok = error == null && status != null && status >= 200 && status < 300;
+                record(intendedNanos, System.nanoTime(), measured, ok);
+                if (measured && error == null && status != null && status == 429) {
+                    rejected.incrementAndGet();
+                }
+            });
+        }
+
+        private void record(long intendedNanos, long completedNanos, boolean measured, boolean ok) {
+            long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+            interval.recordValue(micros);
+            if (measured) {
+                (ok ? succeeded : failed).recordValue(micros);
+            }
+        }
+
+        void drain(Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (!outstanding.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            long now = System.nanoTime();
+            for (Long id : outstanding.keySet()) {
+                Long intendedNanos = outstanding.remove(id);
+                if (intendedNanos != null) {
+                    boolean measured = intendedNanos >= measureFromNanos;
+                    if (measured) {
+                        timedOut++;
+                    }
+                    record(intendedNanos, now, measured, false);
+                }
+            }
+        }
+
+        synchronized void report() {
+            intervalHistogram = interval.getIntervalHistogram(intervalHistogram);
+            if (histogramLog != null) {
+                histogramLog.outputIntervalHistogram(intervalHistogram);
+            }
+            if (progress != null) {
+                long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+                progress.printf("%4ds %s %6d done  p50 %8.2fms  p99 %8.2fms  max %8.2fms  in flight %d%n",
+                        elapsedSeconds,
+                        System.nanoTime() < measureFromNanos ? "warmup " : "measure",
+                        intervalHistogram.getTotalCount(),
+                        LoadReport.millis(intervalHistogram.getValueAtPercentile(50)),
+                        LoadReport.millis(intervalHistogram.getValueAtPercentile(99)),
+                        LoadReport.millis(intervalHistogram.getMaxValue()),
+                        outstanding.size());
+            }
+        }
+
+        LoadReport result(Duration duration) {
+            return new LoadReport(duration, scheduled,
+                    succeeded.getIntervalHistogram(),
+                    failed.getIntervalHistogram(),
+                    rejected.get(),
+                    timedOut,
+                    Duration.ofNanos(maxLagNanos));
+        }
+    }
+}
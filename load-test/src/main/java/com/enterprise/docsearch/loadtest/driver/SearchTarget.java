@@ -0,0 +1,19 @@
+package com.enterprise.docsearch.loadtest.driver;
+
+import com.enterprise.docsearch.loadtest.query.LoadQuery;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where the driver sends its searches. Implementations must not block the
+ * caller for the duration of the search; the returned future completes with
+ * the HTTP status once the response has been read.
+ */
+public interface SearchTarget extends AutoCloseable {
+
+    CompletableFuture<Integer> search(LoadQuery query);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,7 @@
+package com.enterprise.docsearch.loadtest.query;
+
+/**
+ * One search to send. Pages start at 1, like the search API.
+ */
+public record LoadQuery(String tenantId, String text, int page, int size, boolean fuzzy) {
+}
@@ -0,0 +1,78 @@
+package com.enterprise.docsearch.loadtest.query;
+
+import com.enterprise.docsearch.loadtest.corpus.Vocabulary;
+import com.enterprise.docsearch.loadtest.corpus.ZipfSampler;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+/**
+ * Produces a Zipf-distributed stream of searches: tenants are picked by
+ * {@link QuerySpec#tenantExponent()}, then one of that tenant's queries by
+ * popularity. Query terms come from the corpus vocabulary, skipping its most
+ * frequent words the way people leave out stop words.
+ * <p>
+ * Not thread-safe; the driver draws every query from its scheduling thread.
+ */
+public class QueryGenerator {
+
+    // The most frequent words match nearly every document
+    private static final int SKIPPED_TOP_WORDS = 50;
+
+    private final QuerySpec spec;
+    private final List<String> tenantIds;
+    private final String[][] queries;
+    private final ZipfSampler tenants;
+    private final ZipfSampler popularity;
+    private final SplittableRandom random;
+
+    public QueryGenerator(QuerySpec spec, List<String> tenantIds, Vocabulary vocabulary) {
+        this.spec = spec;
+        this.tenantIds = List.copyOf(tenantIds);
+        this.tenants = new ZipfSampler(tenantIds.size(), spec.tenantExponent());
+        this.popularity = new ZipfSampler(spec.distinctQueries(), spec.queryExponent());
+        this.random = new SplittableRandom(spec.seed());
+
+        int skipped = Math.min(SKIPPED_TOP_WORDS, vocabulary.size() - 1);
+        ZipfSampler terms = new ZipfSampler(vocabulary.size() - skipped, 1.0);
+        this.queries = new String[tenantIds.size()][];
+        for (int t = 0; t < tenantIds.size(); t++) {
+            queries[t] = queryPool(vocabulary, terms, skipped, new SplittableRandom(spec.seed() + t));
+        }
+    }
+
+    public LoadQuery next() {
+        int tenant = tenants.sample(random);
+        String text = queries[tenant][popularity.sample(random)];
+
+        int page = 1;
+        while (random.nextDouble() < spec.nextPageRate()) {
+            page++;
+        }
+
+        return new LoadQuery(tenantIds.get(tenant), text, page, spec.pageSize(),
+                random.nextDouble() < spec.fuzzyRate());
+    }
+
+    private String[] queryPool(Vocabulary vocabulary, ZipfSampler terms, int skipped, SplittableRandom random) {
+        // Distinct texts, so the popularity ranks are what decides repetition
+        Set<String> pool = new LinkedHashSet<>();
+        int attempts = 0;
+        while (pool.size() < spec.distinctQueries() && attempts++ < spec.distinctQueries() * 20) {
+            int termCount = 1 + random.nextInt(spec.maxTerms());
+            StringJoiner query = new StringJoiner(" ");
+            for (int i = 0; i < termCount; i++) {
+                query.add(vocabulary.wordAt(skipped + terms.sample(random)));
+            }
+            pool.add(query.toString());
+        }
+        if (pool.size() < spec.distinctQueries()) {
+            throw new IllegalArgumentException("Vocabulary is too small for " + spec.distinctQueries()
+                    + " distinct queries");
+        }
+        return pool.toArray(new String[0]);
+    }
+}
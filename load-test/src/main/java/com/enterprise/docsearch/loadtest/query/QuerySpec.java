@@ -0,0 +1,39 @@
+package com.enterprise.docsearch.loadtest.query;
+
+/**
+ * Shape of the query stream.
+ *
+ * @param distinctQueries number of different queries each tenant sends
+ * @param queryExponent   Zipf exponent of query popularity; the higher, the more the
+ *                        top queries repeat and the more a cache can absorb
+ * @param tenantExponent  Zipf exponent of traffic over tenants; 0 spreads it evenly,
+ *                        higher values put most of it on the first few tenants
+ * @param maxTerms        longest query in words
+ * @param pageSize        results per page
+ * @param nextPageRate    chance a query asks for one more page than the previous
+ *                        draw, so page depth is geometric
+ * @param fuzzyRate       share of fuzzy queries
+ * @param seed            seed for every random choice
+ */
+public record QuerySpec(int distinctQueries,
+                        double queryExponent,
+                        double tenantExponent,
+                        int maxTerms,
+                        int pageSize,
+                        double nextPageRate,
+                        double fuzzyRate,
+                        long seed) {
+
+    public QuerySpec {
+        if (distinctQueries <= 0 || maxTerms <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Query counts and sizes must be positive");
+        }
+        if (nextPageRate < 0 || nextPageRate >= 1) {
+            throw new IllegalArgumentException("Next page rate must be in [0, 1)");
+        }
+    }
+
+    public static QuerySpec defaults() {
+        return new QuerySpec(5_000, 1.0, 1.0, 3, 10, 0.2, 0.05, 7L);
+    }
+}
@@ -0,0 +1,12 @@
+-- The part of schema.sql that search-service reads and writes, in H2's dialect
+CREATE TABLE IF NOT EXISTS search_analytics (
+    analytics_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id VARCHAR(100) NOT NULL,
+    query_text VARCHAR NOT NULL,
+    result_count INTEGER,
+    search_time_ms INTEGER,
+    cache_hit BOOLEAN DEFAULT FALSE,
+    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_analytics_tenant_timestamp ON search_analytics(tenant_id, timestamp DESC);
@@ -0,0 +1,189 @@
+package com.enterprise.docsearch.loadtest.backend;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.enterprise.docsearch.common.model.Document;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StandInElasticsearchTest {
+
+    private static final String INDEX = ElasticsearchBackend.INDEX_PREFIX + "tenant1";
+
+    private StandInElasticsearch elasticsearch;
+    private RestClient restClient;
+    private ElasticsearchClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        elasticsearch = new StandInElasticsearch(Duration.ZERO, 2);
+        elasticsearch.load("tenant1", List.of(
+                document("Quarterly report", "revenue grew in the north region"),
+                document("Revenue forecast", "revenue revenue revenue for next year"),
+                document("Holiday policy", "employees get twenty days"),
+                document("Travel policy", "book travel through the portal and report expenses")));
+        List<Document> many = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            many.add(document("Note " + i, "common words in note " + i));
+        }
+        elasticsearch.load("tenant2", many);
+
+        restClient = RestClient.builder(HttpHost.create(elasticsearch.uri().toString())).build();
+        client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        restClient.close();
+        elasticsearch.close();
+    }
+
+    @Test
+    void testSearchRanksMatchesByTermWeight() throws IOException {
+        // When
+        SearchResponse<JsonNode> response = client.search(s -> s
+                .index(INDEX)
+                .query(multiMatch("revenue report"))
+                .size(10), JsonNode.class);
+
+        // Then
+        assertEquals(3, response.hits().total().value());
+        List<String> titles = response.hits().hits().stream()
+                .map(hit -> hit.source().get("title").asText())
+                .toList();
+        assertEquals(List.of("Quarterly report", "Revenue forecast", "Travel policy"), titles);
+        assertTrue(response.hits().hits().get(0).score() > response.hits().hits().get(1).score());
+        assertNotNull(response.hits().hits().get(0).source().get("snippet"));
+    }
+
+    @Test
+    void testSearchHighlightsMatchedTerms() throws IOException {
+        // When
+        SearchResponse<JsonNode> response = client.search(s -> s
+                .index(INDEX)
+                .query(multiMatch("holiday employees"))
+                .highlight(h -> h.fields("content", f -> f)), JsonNode.class);
+
+        // Then
+        Hit<JsonNode> hit = response.hits().hits().get(0);
+        assertEquals("<em>employees</em> get twenty days", hit.highlight().get("content").get(0));
+    }
+
+    @Test
+    void testFromAndSizePage() throws IOException {
+        // When
+        SearchResponse<JsonNode> first = client.search(s -> s
+                .index(ElasticsearchBackend.INDEX_PREFIX + "tenant2")
+                .query(multiMatch("common"))
+                .from(0)
+                .size(10), JsonNode.class);
+        SearchResponse<JsonNode> third = client.search(s -> s
+                .index(ElasticsearchBackend.INDEX_PREFIX + "tenant2")
+                .query(multiMatch("common"))
+                .from(20)
+                .size(10), JsonNode.class);
+
+        // Then
+        assertEquals(25, first.hits().total().value());
+        assertEquals(10, first.hits().hits().size());
+        assertEquals(5, third.hits().hits().size());
+    }
+
+    @Test
+    void testPointInTimeWithSearchAfterVisitsEveryMatchOnce() throws IOException {
+        // Given
+        String pitId = client.openPointInTime(o -> o
+                .index(ElasticsearchBackend.INDEX_PREFIX + "tenant2")
+                .keepAlive(k -> k.time("1m"))).id();
+
+        // When
+        List<String> seen = new ArrayList<>();
+        List<FieldValue> searchAfter = List.of();
+        while (true) {
+            List<FieldValue> after = searchAfter;
+            SearchResponse<JsonNode> page = client.search(s -> {
+                s.pit(p -> p.id(pitId).keepAlive(k -> k.time("1m")))
+                        .query(multiMatch("common"))
+                        .size(7)
+                        .sort(o -> o.score(sc -> sc.order(SortOrder.Desc)))
+                        .sort(o -> o.field(f -> f.field("_shard_doc").order(SortOrder.Asc)));
+                if (!after.isEmpty()) {
+                    s.searchAfter(after);
+                }
+                return s;
+            }, JsonNode.class);
+            if (page.hits().hits().isEmpty()) {
+                break;
+            }
+            page.hits().hits().forEach(hit -> seen.add(hit.id()));
+            searchAfter = page.hits().hits().get(page.hits().hits().size() - 1).sort();
+        }
+        client.closePointInTime(c -> c.id(pitId));
+
+        // Then
+        assertEquals(25, seen.size());
+        assertEquals(25, seen.stream().distinct().count());
+    }
+
+    @Test
+    void testMultiSearchAnswersEveryItem() throws IOException {
+        // When
+        MsearchResponse<JsonNode> response = client.msearch(m -> m
+                .searches(item -> item
+                        .header(h -> h.index(INDEX))
+                        .body(b -> b.query(multiMatch("policy")).size(10)))
+                .searches(item -> item
+                        .header(h -> h.index(ElasticsearchBackend.INDEX_PREFIX + "unknown"))
+                        .body(b -> b.query(multiMatch("policy")))), JsonNode.class);
+
+        // Then
+        assertEquals(2, response.responses().size());
+        assertEquals(2, response.responses().get(0).result().hits().hits().size());
+        assertTrue(response.responses().get(1).isFailure());
+    }
+
+    @Test
+    void testUnknownIndexIsNotFound() throws IOException {
+        // When
+        ElasticsearchException e = assertThrows(ElasticsearchException.class, () -> client.search(s -> s
+                .index(ElasticsearchBackend.INDEX_PREFIX + "unknown")
+                .query(multiMatch("anything")), JsonNode.class));
+
+        // Then
+        assertEquals(404, e.status());
+        assertTrue(client.indices().exists(x -> x.index(INDEX)).value());
+    }
+
+    private static Query multiMatch(String text) {
+        return Query.of(q -> q.multiMatch(m -> m.query(text).fields("title^2", "content")));
+    }
+
+    private static Document document(String title, String content) {
+        return Document.builder()
+                .documentId(UUID.randomUUID())
+                .tenantId("tenant1")
+                .title(title)
+                .content(content)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.enterprise.docsearch.loadtest.corpus;
+
+import com.enterprise.docsearch.common.model.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusGeneratorTest {
+
+    private static final CorpusSpec SPEC = new CorpusSpec(3, 200, 2000, 1.0, 100, 1.0, 2000, 42);
+
+    @Test
+    void testVocabularyWordsAreUniqueAndGrowWithRank() {
+        // Given
+        Vocabulary vocabulary = new Vocabulary(10_000, 1.0);
+
+        // When
+        Set<String> words = new HashSet<>();
+        for (int rank = 0; rank < vocabulary.size(); rank++) {
+            words.add(vocabulary.wordAt(rank));
+        }
+
+        // Then
+        assertEquals(vocabulary.size(), words.size());
+        assertTrue(words.stream().allMatch(word -> word.matches("[a-z]{4,}")));
+        assertTrue(vocabulary.wordAt(0).length() <= vocabulary.wordAt(9_999).length());
+        assertEquals(Vocabulary.word(1234), vocabulary.wordAt(1234));
+    }
+
+    @Test
+    void testSameSpecGeneratesSameDocuments() {
+        // When
+        List<Document> first = new CorpusGenerator(SPEC).generate("tenant1");
+        List<Document> second = new CorpusGenerator(SPEC).generate("tenant1");
+
+        // Then
+        assertEquals(SPEC.documentsPerTenant(), first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getDocumentId(), second.get(i).getDocumentId());
+            assertEquals(first.get(i).getTitle(), second.get(i).getTitle());
+            assertEquals(first.get(i).getContent(), second.get(i).getContent());
+        }
+    }
+
+    @Test
+    void testTenantsGetDifferentDocuments() {
+        // Given
+        CorpusGenerator generator = new CorpusGenerator(SPEC);
+
+        // When
+        Document first = generator.generate("tenant1").get(0);
+        Document other = generator.generate("tenant2").get(0);
+
+        // Then
+        assertEquals("tenant1", first.getTenantId());
+        assertEquals("tenant2", other.getTenantId());
+        assertNotEquals(first.getContent(), other.getContent());
+        assertEquals(List.of("tenant1", "tenant2", "tenant3"), generator.tenantIds());
+    }
+
+    @Test
+    void testDocumentSizesAreLogNormalAroundTheMedian() {
+        // Given
+        CorpusGenerator generator = new CorpusGenerator(SPEC);
+        SplittableRandom random = new SplittableRandom(3);
+
+        // When
+        int[] sizes = IntStream.range(0, 20_000).map(i -> generator.documentWords(random)).sorted().toArray();
+
+        // Then
+        int median = sizes[sizes.length / 2];
+        assertTrue(median > 90 && median < 110, "median " + median);
+        // exp(1.645) times the median at the 95th percentile with sigma 1
+        int p95 = sizes[(int) (sizes.length * 0.95)];
+        assertTrue(p95 > 450 && p95 < 600, "p95 " + p95);
+        assertTrue(Arrays.stream(sizes).allMatch(words -> words >= 1 && words <= SPEC.maxWords()));
+    }
+
+    @Test
+    void testCommonWordsDominateTheText() {
+        // Given
+        CorpusGenerator generator = new CorpusGenerator(SPEC);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // When
+        for (Document document : generator.generate("tenant1")) {
+            for (String word : document.getContent().split("[ .]+")) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+
+        // Then
+        Vocabulary vocabulary = generator.vocabulary();
+        int top = counts.getOrDefault(vocabulary.wordAt(0), 0);
+        int tenth = counts.getOrDefault(vocabulary.wordAt(9), 0);
+        assertTrue(top > tenth * 5, "top " + top + ", tenth " + tenth);
+    }
+}
@@ -0,0 +1,63 @@
+package com.enterprise.docsearch.loadtest.corpus;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    @Test
+    void testProbabilitiesFollowThePowerLaw() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(100, 1.0);
+
+        // When & Then
+        double total = 0;
+        for (int rank = 0; rank < sampler.size(); rank++) {
+            total += sampler.probability(rank);
+        }
+        assertEquals(1.0, total, 1e-9);
+        assertEquals(2.0, sampler.probability(0) / sampler.probability(1), 1e-9);
+        assertEquals(10.0, sampler.probability(0) / sampler.probability(9), 1e-9);
+    }
+
+    @Test
+    void testExponentZeroIsUniform() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(4, 0.0);
+
+        // When & Then
+        for (int rank = 0; rank < 4; rank++) {
+            assertEquals(0.25, sampler.probability(rank), 1e-9);
+        }
+    }
+
+    @Test
+    void testSamplesMatchProbabilities() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(50, 1.2);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[50];
+        int samples = 200_000;
+
+        // When
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // Then
+        for (int rank : new int[]{0, 1, 5, 49}) {
+            double expected = sampler.probability(rank) * samples;
+            assertEquals(expected, counts[rank], Math.max(50, expected * 0.05), "rank " + rank);
+        }
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(10, -0.5));
+    }
+}
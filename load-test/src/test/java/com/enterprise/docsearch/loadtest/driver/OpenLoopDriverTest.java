@@ -0,0 +1,137 @@
+package com.enterprise.docsearch.loadtest.driver;
+
+import com.enterprise.docsearch.loadtest.query.LoadQuery;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenLoopDriverTest {
+
+    private static final Supplier<LoadQuery> QUERIES = () -> new LoadQuery("tenant1", "alpha beta", 1, 10, false);
+
+    @Test
+    void testSendsAtTheConfiguredRate() throws InterruptedException {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        SearchTarget target = query -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(200);
+        };
+        OpenLoopDriver driver = new OpenLoopDriver(target, QUERIES, 200, false, 1);
+
+        // When
+        LoadReport report = driver.run(Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(200, report.scheduled());
+        assertEquals(200, report.succeeded().getTotalCount());
+        assertEquals(0, report.failed().getTotalCount());
+        // Warmup searches are sent but not measured
+        assertEquals(300, calls.get());
+    }
+
+    @Test
+    void testKeepsSendingWhileTheTargetStallsAndChargesTheWait() throws InterruptedException {
+        // Given: nothing completes until 500ms in, as if the target paused
+        CompletableFuture<Integer> stall = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS).execute(() -> stall.complete(200));
+        AtomicInteger sentDuringStall = new AtomicInteger();
+        SearchTarget target = query -> {
+            if (stall.isDone()) {
+                return CompletableFuture.completedFuture(200);
+            }
+            sentDuringStall.incrementAndGet();
+            return stall.thenApply(status -> status);
+        };
+        OpenLoopDriver driver = new OpenLoopDriver(target, QUERIES, 100, false, 1);
+
+        // When
+        LoadReport report = driver.run(Duration.ZERO, Duration.ofSeconds(1), Duration.ofSeconds(2));
+
+        // Then
+        assertEquals(100, report.succeeded().getTotalCount());
+        assertTrue(sentDuringStall.get() >= 40, "sent during stall " + sentDuringStall.get());
+        // Half the searches waited between 0 and 500ms, so the upper quartile is around 250ms
+        long p75 = report.succeeded().getValueAtPercentile(75);
+        assertTrue(p75 >= TimeUnit.MILLISECONDS.toMicros(150), "p75 " + p75 + "us");
+        assertTrue(report.succeeded().getMaxValue() >= TimeUnit.MILLISECONDS.toMicros(450));
+    }
+
+    @Test
+    void testRecordsSearchesStillOutstandingAfterTheDrainAsFailed() throws InterruptedException {
+        // Given
+        SearchTarget target = query -> new CompletableFuture<>();
+        OpenLoopDriver driver = new OpenLoopDriver(target, QUERIES, 50, false, 1);
+
+        // When
+        LoadReport report = driver.run(Duration.ZERO, Duration.ofMillis(400), Duration.ofMillis(100));
+
+        // Then
+        assertEquals(20, report.scheduled());
+        assertEquals(20, report.timedOut());
+        assertEquals(20, report.failed().getTotalCount());
+        assertEquals(0, report.succeeded().getTotalCount());
+        assertTrue(report.failed().getMinValue() >= TimeUnit.MILLISECONDS.toMicros(90));
+    }
+
+    @Test
+    void testCountsRejectionsAndErrorsAsFailed() throws InterruptedException {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        SearchTarget target = query -> switch (calls.getAndIncrement() % 3) {
+            case 0 -> CompletableFuture.completedFuture(200);
+            case 1 -> CompletableFuture.completedFuture(429);
+            default -> CompletableFuture.failedFuture(new RuntimeException("connection refused"));
+        };
+        OpenLoopDriver driver = new OpenLoopDriver(target, QUERIES, 250, false, 1);
+
+        // When
+        LoadReport report = driver.run(Duration.ZERO, Duration.ofMillis(600), Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(150, report.scheduled());
+        assertEquals(50, report.succeeded().getTotalCount());
+        assertEquals(100, report.failed().getTotalCount());
+        assertEquals(50, report.rejected());
+    }
+
+    @Test
+    void testPoissonArrivalsKeepTheAverageRate() throws InterruptedException {
+        // Given
+        SearchTarget target = query -> CompletableFuture.completedFuture(200);
+        OpenLoopDriver driver = new OpenLoopDriver(target, QUERIES, 500, true, 3);
+
+        // When
+        LoadReport report = driver.run(Duration.ZERO, Duration.ofSeconds(2), Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(1000, report.scheduled(), 100);
+    }
+
+    @Test
+    void testPrintsReport() throws InterruptedException {
+        // Given
+        SearchTarget target = query -> CompletableFuture.completedFuture(200);
+        ByteArrayOutputStream histogramLog = new ByteArrayOutputStream();
+        LoadReport report = new OpenLoopDriver(target, QUERIES, 100, false, 1)
+                .histogramLogTo(new PrintStream(histogramLog))
+                .run(Duration.ZERO, Duration.ofMillis(1500), Duration.ofSeconds(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        report.print(new PrintStream(out));
+
+        // Then
+        assertTrue(out.toString().contains("Succeeded 150, failed 0"), out.toString());
+        assertTrue(out.toString().contains("p99.9"));
+        assertTrue(histogramLog.toString().contains("#[StartTime:"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.enterprise.docsearch.loadtest.query;
+
+import com.enterprise.docsearch.loadtest.corpus.Vocabulary;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryGeneratorTest {
+
+    private static final List<String> TENANTS = List.of("tenant1", "tenant2", "tenant3", "tenant4");
+    private static final Vocabulary VOCABULARY = new Vocabulary(5_000, 1.0);
+
+    @Test
+    void testTenantSkewOfZeroSpreadsTrafficEvenly() {
+        // Given
+        QueryGenerator generator = generator(new QuerySpec(500, 1.0, 0.0, 3, 10, 0.2, 0.05, 1));
+
+        // When
+        Map<String, Integer> perTenant = new HashMap<>();
+        for (int i = 0; i < 40_000; i++) {
+            perTenant.merge(generator.next().tenantId(), 1, Integer::sum);
+        }
+
+        // Then
+        TENANTS.forEach(tenant -> assertEquals(10_000, perTenant.get(tenant), 500, tenant));
+    }
+
+    @Test
+    void testTenantSkewPutsMostTrafficOnTheFirstTenant() {
+        // Given
+        QueryGenerator generator = generator(new QuerySpec(500, 1.0, 2.0, 3, 10, 0.2, 0.05, 1));
+
+        // When
+        Map<String, Integer> perTenant = new HashMap<>();
+        for (int i = 0; i < 40_000; i++) {
+            perTenant.merge(generator.next().tenantId(), 1, Integer::sum);
+        }
+
+        // Then
+        assertTrue(perTenant.get("tenant1") > 40_000 * 0.6, "tenant1 " + perTenant.get("tenant1"));
+        assertTrue(perTenant.get("tenant1") > perTenant.get("tenant2") * 3);
+    }
+
+    @Test
+    void testPopularQueriesRepeat() {
+        // Given
+        QueryGenerator generator = generator(new QuerySpec(1_000, 1.0, 0.0, 3, 10, 0.0, 0.0, 1));
+
+        // When
+        Map<String, Integer> perQuery = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            LoadQuery query = generator.next();
+            perQuery.merge(query.tenantId() + "/" + query.text(), 1, Integer::sum);
+        }
+
+        // Then
+        int mostPopular = perQuery.values().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        assertTrue(mostPopular > 20_000 / 4 * 0.1, "most popular " + mostPopular);
+        assertTrue(perQuery.size() < 4 * 1_000);
+    }
+
+    @Test
+    void testQueryShape() {
+        // Given
+        QueryGenerator generator = generator(new QuerySpec(200, 1.0, 1.0, 3, 25, 0.5, 0.1, 1));
+
+        // When
+        int deeperPages = 0;
+        int fuzzy = 0;
+        for (int i = 0; i < 10_000; i++) {
+            LoadQuery query = generator.next();
+            assertEquals(25, query.size());
+            assertTrue(query.page() >= 1);
+            int terms = query.text().split(" ").length;
+            assertTrue(terms >= 1 && terms <= 3, query.text());
+            // The most frequent words are left out like stop words
+            for (String term : query.text().split(" ")) {
+                assertNotEquals(VOCABULARY.wordAt(0), term);
+            }
+            deeperPages += query.page() > 1 ? 1 : 0;
+            fuzzy += query.fuzzy() ? 1 : 0;
+        }
+
+        // Then
+        assertEquals(5_000, deeperPages, 300);
+        assertEquals(1_000, fuzzy, 150);
+    }
+
+    @Test
+    void testSameSeedGivesSameStream() {
+        // Given
+        QuerySpec spec = QuerySpec.defaults();
+        QueryGenerator first = generator(spec);
+        QueryGenerator second = generator(spec);
+
+        // When & Then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    private static QueryGenerator generator(QuerySpec spec) {
+        return new QueryGenerator(spec, TENANTS, VOCABULARY);
+    }
+}
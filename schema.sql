@@ -84,9 +84,11 @@ CREATE INDEX idx_audit_logs_action ON audit_logs(action);
 CREATE INDEX idx_audit_logs_resource ON audit_logs(resource_type, resource_id);
 
 -- Search analytics table (for popular queries)
+-- tenant_id holds the tenant as it appears in API keys, like documents.tenant_id
+-- in the application, so it is not a reference to tenants
 CREATE TABLE IF NOT EXISTS search_analytics (
     analytics_id BIGSERIAL PRIMARY KEY,
-    tenant_id UUID NOT NULL REFERENCES tenants(tenant_id),
+    tenant_id VARCHAR(100) NOT NULL,
     query_text TEXT NOT NULL,
     result_count INTEGER,
     search_time_ms INTEGER,
@@ -94,6 +96,12 @@ CREATE TABLE IF NOT EXISTS search_analytics (
     timestamp TIMESTAMP DEFAULT NOW()
 );
 
+-- Databases created when tenant_id was a UUID referencing tenants keep that column, since
+-- the CREATE TABLE above is skipped for them. The view is recreated further down.
+DROP VIEW IF EXISTS popular_searches;
+ALTER TABLE search_analytics DROP CONSTRAINT IF EXISTS search_analytics_tenant_id_fkey;
+ALTER TABLE search_analytics ALTER COLUMN tenant_id TYPE VARCHAR(100);
+
 -- Indexes for search_analytics
 CREATE INDEX idx_search_analytics_tenant_timestamp ON search_analytics(tenant_id, timestamp DESC);
 CREATE INDEX idx_search_analytics_query ON search_analytics(query_text);
@@ -0,0 +1,92 @@
+package com.enterprise.docsearch.search.analytics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Every
+ * slot carries a sequence number telling whose turn it is: producers claim a
+ * slot with one CAS on the tail and publish the element by advancing the
+ * slot's sequence, the consumer frees it by advancing the sequence a lap
+ * further. Offering to a full buffer fails instead of waiting.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only advanced by the consumer; volatile so size() can be read from anywhere
+    private volatile long head;
+
+    MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Returns false, without waiting, when the buffer is full.
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (available < 0) {
+                // The consumer hasn't freed this slot since the last lap
+                return false;
+            }
+            // Another producer claimed the slot first; try the next one
+        }
+    }
+
+    /**
+     * Moves up to {@code limit} elements into the target. Must only be called
+     * from one thread at a time.
+     */
+    int drainTo(List<? super E> target, int limit) {
+        long position = head;
+        int drained = 0;
+
+        while (drained < limit) {
+            int index = (int) position & mask;
+            // Claimed but not yet published slots end the drain too
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.lazySet(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+
+        head = position;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
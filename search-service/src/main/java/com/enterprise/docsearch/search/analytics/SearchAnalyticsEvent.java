@@ -0,0 +1,12 @@
+package com.enterprise.docsearch.search.analytics;
+
+/**
+ * One row of search_analytics.
+ */
+record SearchAnalyticsEvent(String tenantId,
+                            String queryText,
+                            int resultCount,
+                            int searchTimeMs,
+                            boolean cacheHit,
+                            long timestampMillis) {
+}
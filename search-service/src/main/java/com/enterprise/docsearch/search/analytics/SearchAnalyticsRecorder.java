@@ -0,0 +1,155 @@
+package com.enterprise.docsearch.search.analytics;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every search into search_analytics without touching the database
+ * on the search path. Searches only put an event on a bounded ring buffer; a
+ * background writer drains it in batches. When the writer falls behind and
+ * the buffer fills up, new events are dropped and counted rather than
+ * slowing searches down.
+ */
+@Component
+@Slf4j
+public class SearchAnalyticsRecorder {
+
+    private final MpscRingBuffer<SearchAnalyticsEvent> buffer;
+    private final SearchAnalyticsWriter writer;
+    private final ScheduledExecutorService scheduler;
+    private final int batchSize;
+
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public SearchAnalyticsRecorder(SearchAnalyticsWriter writer,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${search.analytics.buffer-capacity:65536}") int bufferCapacity,
+                                   @Value("${search.analytics.batch-size:500}") int batchSize,
+                                   @Value("${search.analytics.flush-interval:1s}") Duration flushInterval) {
+        this(writer, meterRegistry, bufferCapacity, batchSize,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "search-analytics-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+        scheduler.scheduleWithFixedDelay(this::flush,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    SearchAnalyticsRecorder(SearchAnalyticsWriter writer,
+                            MeterRegistry meterRegistry,
+                            int bufferCapacity,
+                            int batchSize,
+                            ScheduledExecutorService scheduler) {
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
+
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.written = eventCounter(meterRegistry, "written");
+        this.failed = eventCounter(meterRegistry, "failed");
+        Gauge.builder("search.analytics.buffer.size", buffer, MpscRingBuffer::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a search of the tenant in context. Never blocks.
+     */
+    public void record(String query, long resultCount, long searchTimeMs, boolean cacheHit) {
+        record(TenantContext.getTenantId(), query, resultCount, searchTimeMs, cacheHit);
+    }
+
+    /**
+     * Queues a search of the given tenant, for callers that may run on a
+     * thread without one. Never blocks.
+     */
+    public void record(String tenantId, String query, long resultCount, long searchTimeMs, boolean cacheHit) {
+        if (tenantId == null) {
+            return;
+        }
+
+        SearchAnalyticsEvent event = new SearchAnalyticsEvent(tenantId, query,
+                (int) Math.min(resultCount, Integer.MAX_VALUE),
+                (int) Math.min(searchTimeMs, Integer.MAX_VALUE),
+                cacheHit, System.currentTimeMillis());
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes out what is buffered. Stops after one buffer's worth, so a
+     * steady stream of searches can't keep the writer here forever.
+     */
+    void flush() {
+        try {
+            List<SearchAnalyticsEvent> batch = new ArrayList<>(batchSize);
+            int remaining = buffer.capacity();
+
+            while (remaining > 0 && buffer.drainTo(batch, Math.min(batchSize, remaining)) > 0) {
+                remaining -= batch.size();
+                write(batch);
+                batch.clear();
+            }
+        } catch (Exception e) {
+            // An exception would cancel the scheduled flush for good
+            log.error("Error flushing search analytics", e);
+        }
+    }
+
+    private void write(List<SearchAnalyticsEvent> batch) {
+        try {
+            writer.insert(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            // Analytics are best effort; retrying would only let the buffer overflow
+            failed.increment(batch.size());
+            writeFailure(e).increment();
+            log.warn("Error writing {} search analytics events, dropping them", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // Counts failed batches by cause, so a database that can't be reached stands out from bad rows
+    private Counter writeFailure(Exception e) {
+        return Counter.builder("search.analytics.write.failures")
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("search.analytics.events")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.enterprise.docsearch.search.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts analytics rows as one JDBC batch. With reWriteBatchedInserts on the
+ * connection URL the PostgreSQL driver sends the batch as multi-row INSERTs
+ * instead of one statement per row.
+ */
+@Repository
+@RequiredArgsConstructor
+class SearchAnalyticsWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO search_analytics (tenant_id, query_text, result_count, search_time_ms, cache_hit, timestamp)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    void insert(List<SearchAnalyticsEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.tenantId());
+            ps.setString(2, event.queryText());
+            ps.setInt(3, event.resultCount());
+            ps.setInt(4, event.searchTimeMs());
+            ps.setBoolean(5, event.cacheHit());
+            ps.setTimestamp(6, new Timestamp(event.timestampMillis()));
+        });
+    }
+}
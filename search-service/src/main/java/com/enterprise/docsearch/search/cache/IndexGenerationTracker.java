@@ -0,0 +1,54 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.enterprise.docsearch.common.cache.CacheKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the per-tenant index generation published by index-service. Values are
+ * memoized for a short interval so a cache lookup doesn't cost a Redis round
+ * trip, and the last known value is kept if Redis becomes unavailable.
+ */
+@Component
+@Slf4j
+public class IndexGenerationTracker {
+
+    private final StringRedisTemplate redisTemplate;
+    private final long checkIntervalNanos;
+
+    private final Map<String, KnownGeneration> generations = new ConcurrentHashMap<>();
+
+    public IndexGenerationTracker(StringRedisTemplate redisTemplate,
+                                  @Value("${search.cache.generation-check-interval:1s}") Duration checkInterval) {
+        this.redisTemplate = redisTemplate;
+        this.checkIntervalNanos = checkInterval.toNanos();
+    }
+
+    public long currentGeneration(String tenantId) {
+        long now = System.nanoTime();
+        KnownGeneration known = generations.get(tenantId);
+
+        if (known != null && now - known.checkedAt() < checkIntervalNanos) {
+            return known.generation();
+        }
+
+        try {
+            String value = redisTemplate.opsForValue().get(CacheKeys.indexGeneration(tenantId));
+            long generation = value != null ? Long.parseLong(value) : 0L;
+            generations.put(tenantId, new KnownGeneration(generation, now));
+            return generation;
+        } catch (Exception e) {
+            log.warn("Could not read index generation for tenant {}", tenantId, e);
+            return known != null ? known.generation() : 0L;
+        }
+    }
+
+    private record KnownGeneration(long generation, long checkedAt) {
+    }
+}
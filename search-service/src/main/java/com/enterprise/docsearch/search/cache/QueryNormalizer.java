@@ -0,0 +1,34 @@
+package com.enterprise.docsearch.search.cache;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class QueryNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryNormalizer() {
+    }
+
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+
+        String trimmed = query.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.isEmpty()) {
+            return "";
+        }
+
+        String[] terms = WHITESPACE.split(trimmed);
+
+        // multi_match treats the text as a bag of terms, so order is irrelevant unless
+        // the text carries phrase syntax; duplicates are kept since they affect scoring
+        if (!trimmed.contains("\"")) {
+            Arrays.sort(terms);
+        }
+
+        return String.join(" ", terms);
+    }
+}
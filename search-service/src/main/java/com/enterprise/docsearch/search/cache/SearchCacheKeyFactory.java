@@ -0,0 +1,55 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.search.facet.FacetRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SearchCacheKeyFactory {
+
+    private final IndexGenerationTracker generationTracker;
+
+    public SearchFingerprint fingerprint(String query, int page, int size, boolean fuzzy, boolean highlight) {
+        return fingerprint(query, page, size, fuzzy, highlight, FacetRequest.NONE);
+    }
+
+    public SearchFingerprint fingerprint(String query, int page, int size, boolean fuzzy, boolean highlight,
+                                         FacetRequest facets) {
+        String canonicalRequest = "q=" + QueryNormalizer.normalize(query)
+                + "|page=" + page
+                + "|size=" + size
+                + "|fuzzy=" + fuzzy
+                + "|highlight=" + highlight;
+
+        // Plain searches keep the key layout they had before facets existed
+        if (!facets.isEmpty()) {
+            canonicalRequest += "|filters=" + facets.canonicalFilters()
+                    + "|facets=" + facets.canonicalFacets();
+        }
+
+        return build(canonicalRequest);
+    }
+
+    /**
+     * Key for the aggregation cache. Facet counts only depend on the query and
+     * its filters, so paging and highlighting are left out.
+     */
+    public SearchFingerprint facetFingerprint(String query, boolean fuzzy, FacetRequest facets) {
+        return build("facets"
+                + "|q=" + QueryNormalizer.normalize(query)
+                + "|fuzzy=" + fuzzy
+                + "|filters=" + facets.canonicalFilters()
+                + "|facets=" + facets.canonicalFacets());
+    }
+
+    private SearchFingerprint build(String canonicalRequest) {
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant in context for search cache key");
+        }
+
+        return new SearchFingerprint(tenantId, canonicalRequest, generationTracker.currentGeneration(tenantId));
+    }
+}
@@ -0,0 +1,27 @@
+package com.enterprise.docsearch.search.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public record SearchFingerprint(String tenantId, String canonicalRequest, long generation) {
+
+    /**
+     * Cache key in the {tenant}:{hash}:v{generation} layout, so entries of one
+     * tenant share a prefix and a generation bump orphans all of them at once.
+     */
+    public String key() {
+        return tenantId + ":" + hash(canonicalRequest) + ":v" + generation;
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
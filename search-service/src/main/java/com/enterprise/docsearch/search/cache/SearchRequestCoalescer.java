@@ -0,0 +1,107 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.enterprise.docsearch.common.dto.SearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical searches: while a search for a fingerprint is
+ * in flight, further requests for it wait for that result instead of going
+ * to Elasticsearch themselves. Waiters give up after the configured max wait
+ * and run their own search.
+ */
+@Component
+@Slf4j
+public class SearchRequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<SearchResponse>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMs;
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public SearchRequestCoalescer(MeterRegistry meterRegistry,
+                                  @Value("${search.coalescing.max-wait:2s}") Duration maxWait) {
+        this.maxWaitMs = maxWait.toMillis();
+        this.leaders = requestCounter(meterRegistry, "leader");
+        this.followers = requestCounter(meterRegistry, "follower");
+        this.fallbacks = Counter.builder("search.coalescing.fallbacks")
+                .description("Coalesced searches that timed out waiting and ran on their own")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the in-flight result for the fingerprint, or runs the loader if
+     * there is none. The loader must not depend on the calling thread's state,
+     * as timed out waiters may run it from a timer thread.
+     */
+    public CompletableFuture<SearchResponse> execute(SearchFingerprint fingerprint,
+                                                     Supplier<CompletableFuture<SearchResponse>> loader) {
+        String key = fingerprint.key();
+        CompletableFuture<SearchResponse> leader = new CompletableFuture<>();
+        CompletableFuture<SearchResponse> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing == null) {
+            leaders.increment();
+            load(loader).whenComplete((response, error) -> {
+                inFlight.remove(key, leader);
+                if (error != null) {
+                    leader.completeExceptionally(error);
+                } else {
+                    leader.complete(response);
+                }
+            });
+            return leader;
+        }
+
+        followers.increment();
+        log.debug("Coalescing search for key {} onto in-flight request", key);
+
+        // A copy, so a timeout only affects this waiter
+        return existing.thenApply(response -> response)
+                .orTimeout(maxWaitMs, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (!(cause instanceof TimeoutException)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    fallbacks.increment();
+                    log.warn("Timed out waiting for in-flight search for key {}, running it separately", key);
+                    return load(loader);
+                });
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static CompletableFuture<SearchResponse> load(Supplier<CompletableFuture<SearchResponse>> loader) {
+        try {
+            return loader.get();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("search.coalescing.requests")
+                .description("Searches that missed the cache, by whether they ran or joined an in-flight one")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
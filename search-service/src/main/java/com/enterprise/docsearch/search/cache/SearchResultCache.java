@@ -0,0 +1,64 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.enterprise.docsearch.common.dto.SearchResponse;
+import com.enterprise.docsearch.search.facet.FacetCounts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchResultCache {
+
+    public static final String CACHE_NAME = "searchResults";
+    public static final String FACETS_CACHE_NAME = "searchFacets";
+
+    private final CacheManager cacheManager;
+
+    public SearchResponse get(SearchFingerprint fingerprint) {
+        return read(CACHE_NAME, fingerprint, SearchResponse.class);
+    }
+
+    public void put(SearchFingerprint fingerprint, SearchResponse response) {
+        write(CACHE_NAME, fingerprint, response);
+    }
+
+    public FacetCounts getFacets(SearchFingerprint fingerprint) {
+        return read(FACETS_CACHE_NAME, fingerprint, FacetCounts.class);
+    }
+
+    public void putFacets(SearchFingerprint fingerprint, FacetCounts facets) {
+        write(FACETS_CACHE_NAME, fingerprint, facets);
+    }
+
+    private <T> T read(String cacheName, SearchFingerprint fingerprint, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return null;
+        }
+
+        try {
+            return cache.get(fingerprint.key(), type);
+        } catch (Exception e) {
+            // Fail open - a broken cache must not fail the search
+            log.warn("Error reading {} cache entry {}", cacheName, fingerprint.key(), e);
+            return null;
+        }
+    }
+
+    private void write(String cacheName, SearchFingerprint fingerprint, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+
+        try {
+            cache.put(fingerprint.key(), value);
+        } catch (Exception e) {
+            log.warn("Error writing {} cache entry {}", cacheName, fingerprint.key(), e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local Caffeine (L1) in front of shared Redis (L2). Evictions are broadcast
+ * over Redis pub/sub so every instance drops its L1 copy together.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager localCacheManager;
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String invalidationChannel;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager localCacheManager,
+                               CacheManager remoteCacheManager,
+                               StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               String invalidationChannel) {
+        this.localCacheManager = localCacheManager;
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(localCacheManager.getCacheNames());
+        names.addAll(remoteCacheManager.getCacheNames());
+        return names;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            InvalidationMessage invalidation = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+
+            // Our own evictions were already applied locally
+            if (instanceId.equals(invalidation.origin())) {
+                return;
+            }
+
+            TwoTierCache cache = caches.get(invalidation.cache());
+            if (cache == null) {
+                return;
+            }
+
+            if (invalidation.key() == null) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(invalidation.key());
+            }
+            log.debug("Applied remote L1 invalidation for cache {} key {}",
+                    invalidation.cache(), invalidation.key());
+
+        } catch (Exception e) {
+            log.error("Error processing cache invalidation message", e);
+        }
+    }
+
+    void publishEviction(String cacheName, Object key) {
+        try {
+            InvalidationMessage invalidation = new InvalidationMessage(
+                    instanceId, cacheName, key != null ? key.toString() : null);
+            redisTemplate.convertAndSend(invalidationChannel, objectMapper.writeValueAsString(invalidation));
+        } catch (Exception e) {
+            log.warn("Error publishing cache invalidation for cache {} key {}", cacheName, key, e);
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        Cache local = localCacheManager.getCache(name);
+        Cache remote = remoteCacheManager.getCache(name);
+
+        if (local == null || remote == null) {
+            log.warn("Cache {} is not available in both tiers", name);
+            return null;
+        }
+
+        return new TwoTierCache(name, local, remote, this, meterRegistry);
+    }
+
+    record InvalidationMessage(String origin, String cache, String key) {
+    }
+}
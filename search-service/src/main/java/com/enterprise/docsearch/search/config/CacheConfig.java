@@ -0,0 +1,47 @@
+package com.enterprise.docsearch.search.config;
+
+import com.enterprise.docsearch.search.cache.TwoTierCacheManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${search.cache.l1-spec:maximumSize=10000,expireAfterWrite=60s}")
+    private String localCacheSpec;
+
+    @Value("${search.cache.invalidation-channel:docsearch:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    @Primary
+    public TwoTierCacheManager searchCacheManager(RedisCacheManager redisCacheManager,
+                                                  StringRedisTemplate redisTemplate,
+                                                  ObjectMapper objectMapper,
+                                                  MeterRegistry meterRegistry) {
+        CaffeineCacheManager localCacheManager = new CaffeineCacheManager();
+        localCacheManager.setCacheSpecification(localCacheSpec);
+
+        return new TwoTierCacheManager(localCacheManager, redisCacheManager,
+                redisTemplate, objectMapper, meterRegistry, invalidationChannel);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, TwoTierCacheManager searchCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(searchCacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+}
@@ -1,41 +1,43 @@
 package com.enterprise.docsearch.search.config;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.transport.ElasticsearchTransport;
-import co.elastic.clients.transport.rest_client.RestClientTransport;
-import org.apache.http.HttpHost;
-import org.elasticsearch.client.RestClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+/**
+ * Search-only additions to the shared client in
+ * {@link com.enterprise.docsearch.common.elasticsearch.ElasticsearchClientConfig}.
+ */
 @Configuration
 public class ElasticsearchConfig {
     
-    @Value("${elasticsearch.host:localhost}")
-    private String host;
+    @Value("${search.async.threads:4}")
+    private int asyncThreads;
     
-    @Value("${elasticsearch.port:9200}")
-    private int port;
+    @Value("${search.async.queue-capacity:10000}")
+    private int asyncQueueCapacity;
     
     @Bean
-    public RestClient restClient() {
-        return RestClient.builder(
-                new HttpHost(host, port, "http")
-        ).build();
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
     }
     
+    /**
+     * Runs the continuations of async searches (response mapping, cache writes)
+     * off the HTTP client's I/O threads. It never blocks on Elasticsearch, so a
+     * few threads serve any number of in-flight searches.
+     */
     @Bean
-    public ElasticsearchTransport elasticsearchTransport(RestClient restClient) {
-        return new RestClientTransport(
-                restClient,
-                new JacksonJsonpMapper()
-        );
-    }
-    
-    @Bean
-    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport transport) {
-        return new ElasticsearchClient(transport);
+    public ThreadPoolTaskExecutor searchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncThreads);
+        executor.setMaxPoolSize(asyncThreads);
+        executor.setQueueCapacity(asyncQueueCapacity);
+        executor.setThreadNamePrefix("search-async-");
+        executor.initialize();
+        return executor;
     }
 }
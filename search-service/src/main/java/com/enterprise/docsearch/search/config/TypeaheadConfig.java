@@ -0,0 +1,22 @@
+package com.enterprise.docsearch.search.config;
+
+import com.enterprise.docsearch.common.cache.CacheKeys;
+import com.enterprise.docsearch.search.typeahead.TypeaheadService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class TypeaheadConfig {
+
+    @Bean
+    public RedisMessageListenerContainer titleChangesListenerContainer(
+            RedisConnectionFactory connectionFactory, TypeaheadService typeaheadService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(typeaheadService, new ChannelTopic(CacheKeys.TITLE_CHANGES_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,35 @@
+package com.enterprise.docsearch.search.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+    
+    @Value("${search.export.max-concurrent:8}")
+    private int maxConcurrentExports;
+    
+    /**
+     * Threads that write streaming responses such as exports. Each one is held
+     * for the whole stream, so this also caps concurrent exports.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentExports);
+        executor.setMaxPoolSize(maxConcurrentExports);
+        executor.setQueueCapacity(maxConcurrentExports);
+        executor.setThreadNamePrefix("search-stream-");
+        executor.initialize();
+        return executor;
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+    }
+}
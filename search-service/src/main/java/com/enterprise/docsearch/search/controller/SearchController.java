@@ -1,15 +1,33 @@
 package com.enterprise.docsearch.search.controller;
 
 import com.enterprise.docsearch.common.dto.ApiResponse;
+import com.enterprise.docsearch.common.dto.SearchRequest;
 import com.enterprise.docsearch.common.dto.SearchResponse;
+import com.enterprise.docsearch.search.facet.FacetRequest;
+import com.enterprise.docsearch.search.profile.SearchTimings;
+import com.enterprise.docsearch.search.service.SearchExport;
+import com.enterprise.docsearch.search.service.SearchExportService;
 import com.enterprise.docsearch.search.service.SearchService;
+import com.enterprise.docsearch.search.typeahead.TypeaheadService;
+import com.enterprise.docsearch.search.warmup.PopularQueries;
+import com.enterprise.docsearch.search.warmup.WarmQuery;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/search")
@@ -20,20 +38,143 @@ import org.springframework.web.bind.annotation.*;
 public class SearchController {
     
     private final SearchService searchService;
+    private final SearchExportService searchExportService;
+    private final TypeaheadService typeaheadService;
+    private final PopularQueries popularQueries;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${search.export.timeout:1h}")
+    private Duration exportTimeout = Duration.ofHours(1);
+    
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
     
     @GetMapping
-    @Operation(summary = "Search documents", description = "Performs full-text search across documents")
-    public ResponseEntity<ApiResponse<SearchResponse>> search(
+    @Operation(summary = "Search documents", description = "Performs full-text search across documents. "
+            + "Pass an empty cursor to page with cursors instead of page numbers, then send back nextCursor "
+            + "until it is null. Filter on metadata with filter=key:value or filter=key:from..to (to exclusive); "
+            + "quote an exact value that contains .., as in filter=key:\"v1..v2\". Get "
+            + "counts with facet=key (terms) or facet=key:10:100 (ranges between the boundaries). "
+            + "debug=timings adds a per-stage breakdown of where the time went; debug=profile also "
+            + "includes the Elasticsearch query profile")
+    public CompletableFuture<ResponseEntity<ApiResponse<SearchResponse>>> search(
             @RequestParam String q,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "false") boolean fuzzy,
-            @RequestParam(defaultValue = "true") boolean highlight) {
+            @RequestParam(defaultValue = "true") boolean highlight,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) List<String> filter,
+            @RequestParam(required = false) List<String> facet,
+            @RequestParam(required = false) List<String> debug) {
+        
+        FacetRequest facets = FacetRequest.parse(filter, facet);
+        SearchTimings timings = parseDebug(debug);
+        
+        CompletableFuture<SearchResponse> response;
+        if (cursor != null) {
+            if (!facets.isEmpty()) {
+                throw new IllegalArgumentException("Filters and facets are not supported in cursor mode");
+            }
+            if (timings.isEnabled()) {
+                throw new IllegalArgumentException("Debug timings are not supported in cursor mode");
+            }
+            log.info("Cursor search request - query: {}, size: {}", q, size);
+            response = CompletableFuture.completedFuture(
+                    searchService.searchWithCursor(q, cursor, size, fuzzy, highlight));
+        } else {
+            log.info("Search request - query: {}, page: {}, size: {}", q, page, size);
+            if (facets.isEmpty()) {
+                popularQueries.record(WarmQuery.of(q, page, size, fuzzy, highlight));
+            }
+            response = searchService.searchAsync(q, page, size, fuzzy, highlight, facets, timings);
+        }
+        
+        return response.thenApply(result -> ResponseEntity.ok(ApiResponse.success(withTimings(result, timings))));
+    }
+    
+    @PostMapping("/_batch")
+    @Operation(summary = "Batch search documents", description = "Runs several searches in one request. "
+            + "Results come back in request order; a failing search only fails its own entry")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<ApiResponse<SearchResponse>>>>> batchSearch(
+            @RequestBody List<SearchRequest> requests) {
+        
+        log.info("Batch search request - searches: {}", requests.size());
+        
+        return searchService.searchBatch(requests)
+                .thenApply(results -> ResponseEntity.ok(ApiResponse.success(results)));
+    }
+    
+    @GetMapping("/_suggest")
+    @Operation(summary = "Suggest titles", description = "Returns document titles starting with the prefix. "
+            + "Served from memory; a tenant's first request starts loading its titles and returns none")
+    public ResponseEntity<ApiResponse<List<String>>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        if (prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix must not be blank");
+        }
+        if (size < 1 || size > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(typeaheadService.suggest(prefix, size)));
+    }
+    
+    @GetMapping("/_export")
+    @Operation(summary = "Export search results", description = "Streams every matching document as "
+            + "newline-delimited JSON")
+    public WebAsyncTask<Void> export(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            HttpServletResponse response) {
         
-        log.info("Search request - query: {}, page: {}, size: {}", q, page, size);
+        log.info("Export request - query: {}", q);
+        
+        SearchExport export = searchExportService.export(q, fuzzy);
+        
+        // spring.mvc.async.request-timeout is sized for searches; a timeout mid-stream would
+        // leave the client with a 200 and a truncated body, so exports get their own
+        WebAsyncTask<Void> task = new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            response.setContentType(NDJSON.toString());
+            export.writeTo(response.getOutputStream());
+            return null;
+        });
+        // Closes the point-in-time if the task never ran, e.g. rejected with max-concurrent
+        // exports already running and queued
+        task.onCompletion(export::discard);
+        return task;
+    }
+    
+    private static SearchTimings parseDebug(List<String> debug) {
+        if (debug == null || debug.isEmpty()) {
+            return SearchTimings.NONE;
+        }
+        for (String mode : debug) {
+            if (!mode.equals("timings") && !mode.equals("profile")) {
+                throw new IllegalArgumentException("Unknown debug mode: " + mode);
+            }
+        }
+        return SearchTimings.start(debug.contains("profile"));
+    }
+    
+    /**
+     * The response is serialized only after it is complete, so serialization
+     * is timed by serializing it once more here. Only debug requests pay for it.
+     */
+    private SearchResponse withTimings(SearchResponse result, SearchTimings timings) {
+        if (!timings.isEnabled()) {
+            return result;
+        }
         
-        SearchResponse response = searchService.search(q, page, size, fuzzy, highlight);
+        try {
+            objectMapper.writeValueAsBytes(ApiResponse.success(result));
+            timings.lap("serialization");
+        } catch (JsonProcessingException e) {
+            log.warn("Could not time response serialization", e);
+        }
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return result.toBuilder().timings(timings.toResponse()).build();
     }
 }
@@ -0,0 +1,10 @@
+package com.enterprise.docsearch.search.cursor;
+
+import java.util.List;
+
+/**
+ * State carried between pages in cursor mode: the point-in-time the walk is
+ * pinned to and the sort values of the last hit returned.
+ */
+public record SearchCursor(String tenantId, String queryHash, String pitId, List<Object> searchAfter) {
+}
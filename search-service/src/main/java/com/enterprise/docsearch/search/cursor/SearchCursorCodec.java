@@ -0,0 +1,79 @@
+package com.enterprise.docsearch.search.cursor;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.enterprise.docsearch.search.cache.QueryNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Turns {@link SearchCursor}s into the opaque strings handed to clients and
+ * back, rejecting cursors that belong to another tenant or query.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchCursorCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(String tenantId, String query, boolean fuzzy, String pitId, List<FieldValue> sortValues) {
+        List<Object> searchAfter = sortValues.stream()
+                .map(FieldValue::_get)
+                .toList();
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(
+                    new SearchCursor(tenantId, queryHash(query, fuzzy), pitId, searchAfter));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode search cursor", e);
+        }
+    }
+
+    public SearchCursor decode(String cursor, String tenantId, String query, boolean fuzzy) {
+        SearchCursor decoded;
+        try {
+            decoded = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), SearchCursor.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (decoded.pitId() == null || decoded.searchAfter() == null || !tenantId.equals(decoded.tenantId())) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!queryHash(query, fuzzy).equals(decoded.queryHash())) {
+            throw new IllegalArgumentException("Cursor does not match the search query");
+        }
+
+        return decoded;
+    }
+
+    public static List<FieldValue> toFieldValues(List<Object> searchAfter) {
+        return searchAfter.stream()
+                .map(SearchCursorCodec::toFieldValue)
+                .toList();
+    }
+
+    private static FieldValue toFieldValue(Object value) {
+        if (value == null) {
+            return FieldValue.NULL;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return FieldValue.of(((Number) value).doubleValue());
+        }
+        if (value instanceof Number number) {
+            return FieldValue.of(number.longValue());
+        }
+        if (value instanceof Boolean bool) {
+            return FieldValue.of(bool);
+        }
+        return FieldValue.of(value.toString());
+    }
+
+    private static String queryHash(String query, boolean fuzzy) {
+        return Integer.toHexString((QueryNormalizer.normalize(query) + "|fuzzy=" + fuzzy).hashCode());
+    }
+}
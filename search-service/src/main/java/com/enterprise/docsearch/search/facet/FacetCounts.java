@@ -0,0 +1,20 @@
+package com.enterprise.docsearch.search.facet;
+
+import com.enterprise.docsearch.common.dto.SearchResponse.FacetBucket;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet buckets of one query as kept in the aggregation cache. They do not
+ * depend on the page, so every page of a result set shares the entry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCounts {
+    private Map<String, List<FacetBucket>> facets;
+}
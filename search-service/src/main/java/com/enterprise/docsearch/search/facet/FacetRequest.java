@@ -0,0 +1,171 @@
+package com.enterprise.docsearch.search.facet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Metadata filters and facets requested alongside a search, keyed by
+ * metadata key. A filter value is either an exact value or a {@code from..to}
+ * range (either bound may be left out); several values for one key match any
+ * of them. An exact value containing {@code ..} is sent in double quotes. A facet without boundaries counts terms, one with boundaries counts
+ * the ranges between them. Ranges are half-open, from inclusive and to
+ * exclusive, so the bucket a facet returns can be sent back as a filter and
+ * match the same documents.
+ */
+public record FacetRequest(SortedMap<String, List<String>> filters, SortedMap<String, List<String>> facets) {
+
+    public static final FacetRequest NONE = new FacetRequest(new TreeMap<>(), new TreeMap<>());
+
+    static final int MAX_FILTERS = 20;
+    static final int MAX_FACETS = 10;
+    static final String RANGE_SEPARATOR = "..";
+    private static final char QUOTE = '"';
+
+    private static final Pattern METADATA_KEY = Pattern.compile("[A-Za-z0-9_][A-Za-z0-9_.-]{0,63}");
+
+    /**
+     * Parses {@code key:value} filters and {@code key} or
+     * {@code key:boundary:boundary...} facets as sent on the query string.
+     */
+    public static FacetRequest parse(List<String> filterParams, List<String> facetParams) {
+        SortedMap<String, List<String>> filters = new TreeMap<>();
+        SortedMap<String, List<String>> facets = new TreeMap<>();
+
+        List<String> rawFilters = filterParams != null ? filterParams : Collections.emptyList();
+        List<String> rawFacets = facetParams != null ? facetParams : Collections.emptyList();
+
+        if (rawFilters.size() > MAX_FILTERS) {
+            throw new IllegalArgumentException("At most " + MAX_FILTERS + " filters are allowed");
+        }
+        if (rawFacets.size() > MAX_FACETS) {
+            throw new IllegalArgumentException("At most " + MAX_FACETS + " facets are allowed");
+        }
+
+        for (String raw : rawFilters) {
+            int separator = raw.indexOf(':');
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Filter must look like key:value, got: " + raw);
+            }
+            String key = metadataKey(raw.substring(0, separator));
+            String value = filterValue(raw.substring(separator + 1));
+            if (isRange(value)) {
+                parseRange(value);
+            }
+            filters.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+
+        for (String raw : rawFacets) {
+            String[] parts = raw.split(":");
+            String key = metadataKey(parts[0]);
+            List<String> boundaries = new ArrayList<>();
+            for (int i = 1; i < parts.length; i++) {
+                boundaries.add(number(parts[i]));
+            }
+            if (facets.put(key, boundaries) != null) {
+                throw new IllegalArgumentException("Facet requested more than once: " + key);
+            }
+        }
+
+        // Canonical order so equivalent requests share cache entries
+        filters.values().forEach(Collections::sort);
+        facets.values().forEach(boundaries -> boundaries.sort(
+                (a, b) -> Double.compare(Double.parseDouble(a), Double.parseDouble(b))));
+
+        return filters.isEmpty() && facets.isEmpty() ? NONE : new FacetRequest(filters, facets);
+    }
+
+    // Quotes are kept only where they mark a value as exact, so "eng" and eng share cache entries
+    private static String filterValue(String value) {
+        if (!isQuoted(value)) {
+            return value;
+        }
+        String exact = value.substring(1, value.length() - 1);
+        if (exact.isEmpty()) {
+            throw new IllegalArgumentException("Filter value must not be empty");
+        }
+        return exact.contains(RANGE_SEPARATOR) ? value : exact;
+    }
+
+    static boolean isRange(String value) {
+        return value.contains(RANGE_SEPARATOR) && !isQuoted(value);
+    }
+
+    /**
+     * The value an exact filter matches, without the quotes it may have been
+     * sent in.
+     */
+    static String exactValue(String value) {
+        return value.contains(RANGE_SEPARATOR) && isQuoted(value) ? value.substring(1, value.length() - 1) : value;
+    }
+
+    private static boolean isQuoted(String value) {
+        return value.length() >= 2 && value.charAt(0) == QUOTE && value.charAt(value.length() - 1) == QUOTE;
+    }
+
+    /**
+     * Splits a {@code from..to} filter value into its bounds; a missing
+     * bound comes back as null.
+     */
+    static String[] parseRange(String value) {
+        int separator = value.indexOf(RANGE_SEPARATOR);
+        String from = value.substring(0, separator);
+        String to = value.substring(separator + RANGE_SEPARATOR.length());
+        if (from.isEmpty() && to.isEmpty()) {
+            throw new IllegalArgumentException("Range filter needs at least one bound: " + value);
+        }
+        try {
+            return new String[] {
+                    from.isEmpty() ? null : number(from),
+                    to.isEmpty() ? null : number(to)
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Range bounds must be numbers, put an exact value in double quotes: "
+                    + value);
+        }
+    }
+
+    public boolean isEmpty() {
+        return filters.isEmpty() && facets.isEmpty();
+    }
+
+    public boolean hasFacets() {
+        return !facets.isEmpty();
+    }
+
+    public String canonicalFilters() {
+        return canonical(filters);
+    }
+
+    public String canonicalFacets() {
+        return canonical(facets);
+    }
+
+    private static String canonical(SortedMap<String, List<String>> entries) {
+        StringBuilder canonical = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+            canonical.append(entry.getKey()).append('=').append(String.join(",", entry.getValue())).append(';');
+        }
+        return canonical.toString();
+    }
+
+    private static String metadataKey(String key) {
+        if (!METADATA_KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid metadata key: " + key);
+        }
+        return key;
+    }
+
+    private static String number(String value) {
+        try {
+            Double.parseDouble(value);
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+    }
+}
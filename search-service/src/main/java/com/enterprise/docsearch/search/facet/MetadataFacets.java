@@ -0,0 +1,140 @@
+package com.enterprise.docsearch.search.facet;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.enterprise.docsearch.common.dto.SearchResponse.FacetBucket;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a {@link FacetRequest} into Elasticsearch filters and
+ * aggregations. index-service maps every metadata value, whatever its type,
+ * with a keyword and a numeric sub-field, so exact filters and terms facets go
+ * to {@code metadata.<key>.keyword} and ranges to {@code metadata.<key>.number}.
+ * A range over a key whose values aren't numbers matches nothing.
+ * Both read doc values rather than the _source.
+ */
+public final class MetadataFacets {
+
+    private static final String METADATA_PREFIX = "metadata.";
+    private static final String KEYWORD_SUFFIX = ".keyword";
+    private static final String NUMBER_SUFFIX = ".number";
+
+    private MetadataFacets() {
+    }
+
+    /**
+     * Non-scoring clauses for the bool filter context, where Elasticsearch
+     * can cache them per segment.
+     */
+    public static List<Query> filterQueries(FacetRequest facets) {
+        List<Query> queries = new ArrayList<>();
+
+        facets.filters().forEach((key, values) -> {
+            List<FieldValue> exactValues = new ArrayList<>();
+            for (String value : values) {
+                if (FacetRequest.isRange(value)) {
+                    queries.add(rangeQuery(key, FacetRequest.parseRange(value)));
+                } else {
+                    exactValues.add(FieldValue.of(FacetRequest.exactValue(value)));
+                }
+            }
+            if (!exactValues.isEmpty()) {
+                queries.add(Query.of(q -> q
+                        .terms(t -> t
+                                .field(METADATA_PREFIX + key + KEYWORD_SUFFIX)
+                                .terms(tv -> tv.value(exactValues))
+                        )
+                ));
+            }
+        });
+
+        return queries;
+    }
+
+    public static Map<String, Aggregation> aggregations(FacetRequest facets, int maxBuckets) {
+        Map<String, Aggregation> aggregations = new HashMap<>();
+
+        facets.facets().forEach((key, boundaries) -> {
+            if (boundaries.isEmpty()) {
+                aggregations.put(key, Aggregation.of(a -> a
+                        .terms(t -> t.field(METADATA_PREFIX + key + KEYWORD_SUFFIX).size(maxBuckets))
+                ));
+            } else {
+                aggregations.put(key, Aggregation.of(a -> a
+                        .range(r -> r.field(METADATA_PREFIX + key + NUMBER_SUFFIX).ranges(ranges(boundaries)))
+                ));
+            }
+        });
+
+        return aggregations;
+    }
+
+    /**
+     * Reads the buckets back in the order of the facet request; facets
+     * missing from the response come back empty.
+     */
+    public static Map<String, List<FacetBucket>> readBuckets(FacetRequest facets, Map<String, Aggregate> aggregations) {
+        Map<String, List<FacetBucket>> result = new LinkedHashMap<>();
+
+        for (String key : facets.facets().keySet()) {
+            Aggregate aggregate = aggregations != null ? aggregations.get(key) : null;
+            List<FacetBucket> buckets = new ArrayList<>();
+
+            if (aggregate != null && aggregate.isSterms()) {
+                aggregate.sterms().buckets().array().forEach(bucket -> buckets.add(FacetBucket.builder()
+                        .key(bucket.key().stringValue())
+                        .count(bucket.docCount())
+                        .build()));
+            } else if (aggregate != null && aggregate.isRange()) {
+                aggregate.range().buckets().array().forEach(bucket -> buckets.add(FacetBucket.builder()
+                        .key(bucket.key())
+                        .from(bucket.from())
+                        .to(bucket.to())
+                        .count(bucket.docCount())
+                        .build()));
+            }
+
+            result.put(key, buckets);
+        }
+
+        return result;
+    }
+
+    // Half-open like the range aggregation's buckets
+    private static Query rangeQuery(String key, String[] bounds) {
+        return Query.of(q -> q
+                .range(r -> {
+                    r.field(METADATA_PREFIX + key + NUMBER_SUFFIX);
+                    if (bounds[0] != null) {
+                        r.gte(JsonData.of(Double.parseDouble(bounds[0])));
+                    }
+                    if (bounds[1] != null) {
+                        r.lt(JsonData.of(Double.parseDouble(bounds[1])));
+                    }
+                    return r;
+                })
+        );
+    }
+
+    // Boundaries b1..bn become the buckets *-b1, b1-b2, ..., bn-*
+    private static List<AggregationRange> ranges(List<String> boundaries) {
+        List<AggregationRange> ranges = new ArrayList<>();
+        ranges.add(AggregationRange.of(r -> r.to(boundaries.get(0))));
+        for (int i = 1; i < boundaries.size(); i++) {
+            String from = boundaries.get(i - 1);
+            String to = boundaries.get(i);
+            ranges.add(AggregationRange.of(r -> r.from(from).to(to)));
+        }
+        ranges.add(AggregationRange.of(r -> r.from(boundaries.get(boundaries.size() - 1))));
+        return ranges;
+    }
+}
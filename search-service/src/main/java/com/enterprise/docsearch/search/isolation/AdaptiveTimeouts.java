@@ -0,0 +1,74 @@
+package com.enterprise.docsearch.search.isolation;
+
+import com.enterprise.docsearch.search.latency.LatencyWindow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Elasticsearch search timeouts that follow each tenant's own latency. The
+ * timeout is a multiple of the tenant's recent latency percentile, so a
+ * tenant whose searches are usually fast stops waiting on a straggling shard
+ * early, while a tenant with large indices still gets the time it needs.
+ * Tenants without enough history get the maximum.
+ */
+@Component
+public class AdaptiveTimeouts {
+
+    // Latest searches per tenant the percentile is taken over
+    static final int WINDOW_SIZE = 128;
+    // Searches a tenant needs before its timeout adapts
+    static final int MIN_SAMPLES = 32;
+    // The timeout is recomputed after this many new samples rather than on every search
+    static final int RECOMPUTE_EVERY = 16;
+
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+    private final double percentile;
+    private final double multiplier;
+
+    private final Map<String, TenantTimeout> tenants = new ConcurrentHashMap<>();
+
+    public AdaptiveTimeouts(@Value("${search.timeout.min:200ms}") Duration minTimeout,
+                            @Value("${search.timeout.max:5s}") Duration maxTimeout,
+                            @Value("${search.timeout.percentile:0.99}") double percentile,
+                            @Value("${search.timeout.multiplier:2.0}") double multiplier) {
+        this.minTimeoutMs = minTimeout.toMillis();
+        this.maxTimeoutMs = maxTimeout.toMillis();
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * The timeout for the tenant's next search, in Elasticsearch time units.
+     */
+    public String timeout(String tenantId) {
+        TenantTimeout tenant = tenants.get(tenantId);
+        return (tenant != null ? tenant.timeoutMs : maxTimeoutMs) + "ms";
+    }
+
+    /**
+     * Records how long Elasticsearch took for one of the tenant's searches.
+     */
+    public void observe(String tenantId, long tookMs) {
+        tenants.computeIfAbsent(tenantId, id -> new TenantTimeout()).add(tookMs);
+    }
+
+    private final class TenantTimeout {
+
+        private final LatencyWindow window = new LatencyWindow(WINDOW_SIZE);
+        private volatile long timeoutMs = maxTimeoutMs;
+
+        synchronized void add(long tookMs) {
+            long count = window.add(tookMs);
+
+            if (count >= MIN_SAMPLES && count % RECOMPUTE_EVERY == 0) {
+                long observed = window.percentile(percentile);
+                timeoutMs = Math.max(minTimeoutMs, Math.min(maxTimeoutMs, (long) (observed * multiplier)));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.enterprise.docsearch.search.isolation;
+
+import com.enterprise.docsearch.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the Elasticsearch searches each tenant has in flight, so a tenant
+ * running heavy queries uses up its own share of connections and threads
+ * rather than everyone's. Acquiring never waits: a search over the limit is
+ * rejected straight away.
+ */
+@Component
+@Slf4j
+public class TenantBulkhead {
+
+    private final TenantTierProperties tiers;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Counter rejections;
+
+    public TenantBulkhead(TenantTierProperties tiers, MeterRegistry meterRegistry) {
+        this.tiers = tiers;
+        this.rejections = Counter.builder("search.bulkhead.rejections")
+                .description("Searches rejected because their tenant had too many in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit for the tenant or throws if it has none left. Every
+     * successful call must be paired with {@link #release}.
+     */
+    public void acquire(String tenantId) {
+        if (!tryAcquire(tenantId)) {
+            rejections.increment();
+            log.warn("Rejecting search for tenant {}: {} searches already in flight",
+                    tenantId, tiers.permits(tenantId));
+            throw new TooManyRequestsException("Too many concurrent searches for this tenant");
+        }
+    }
+
+    /**
+     * Takes a permit if the tenant has one left, without counting a rejection
+     * otherwise. For optional work such as hedged searches.
+     */
+    public boolean tryAcquire(String tenantId) {
+        return permits(tenantId).tryAcquire();
+    }
+
+    public void release(String tenantId) {
+        permits(tenantId).release();
+    }
+
+    int available(String tenantId) {
+        return permits(tenantId).availablePermits();
+    }
+
+    private Semaphore permits(String tenantId) {
+        return permits.computeIfAbsent(tenantId, id -> new Semaphore(tiers.permits(id)));
+    }
+}
@@ -0,0 +1,31 @@
+package com.enterprise.docsearch.search.isolation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tenant tiers and how many concurrent Elasticsearch searches each tier
+ * gets. A tenant runs {@code permitsPerWeight} times its tier's weight.
+ */
+@Component
+@ConfigurationProperties(prefix = "search.bulkhead")
+@Data
+public class TenantTierProperties {
+
+    private int permitsPerWeight = 4;
+    private String defaultTier = "standard";
+    private Map<String, Integer> tierWeights = new HashMap<>(Map.of("free", 1, "standard", 2, "premium", 4));
+    private Map<String, String> tenantTiers = new HashMap<>();
+
+    public String tier(String tenantId) {
+        return tenantTiers.getOrDefault(tenantId, defaultTier);
+    }
+
+    public int permits(String tenantId) {
+        return Math.max(1, permitsPerWeight * tierWeights.getOrDefault(tier(tenantId), 1));
+    }
+}
@@ -0,0 +1,39 @@
+package com.enterprise.docsearch.search.latency;
+
+import java.util.Arrays;
+
+/**
+ * The latest latency samples of one tenant in a fixed-size ring, so
+ * percentiles follow recent behaviour. Not thread-safe; callers synchronize
+ * around it.
+ */
+public final class LatencyWindow {
+
+    private final long[] samples;
+    private long count;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    /**
+     * Adds a sample and returns how many have been added in total.
+     */
+    public long add(long latencyMs) {
+        samples[(int) (count % samples.length)] = latencyMs;
+        return ++count;
+    }
+
+    /**
+     * The given percentile, between 0 and 1, of the samples in the window.
+     */
+    public long percentile(double percentile) {
+        long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+}
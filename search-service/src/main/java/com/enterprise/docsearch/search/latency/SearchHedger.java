@@ -0,0 +1,257 @@
+package com.enterprise.docsearch.search.latency;
+
+import com.enterprise.docsearch.search.isolation.TenantBulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hedges slow Elasticsearch searches. When a search hasn't answered within
+ * its tenant's usual latency, the same search is sent again with a different
+ * preference, so it is most likely served by other copies of the shards than
+ * the slow ones. Whichever answers first is used and the other is cancelled.
+ * Every search earns a fraction of a hedge into a shared budget, which caps
+ * the extra load hedging puts on the cluster.
+ */
+@Component
+@Slf4j
+public class SearchHedger {
+
+    // Latest searches per tenant the hedge delay is taken over
+    static final int WINDOW_SIZE = 128;
+    // Searches a tenant needs before any of its searches are hedged
+    static final int MIN_SAMPLES = 32;
+    static final int RECOMPUTE_EVERY = 16;
+    // The budget is kept in thousandths of a hedge
+    private static final long HEDGE_COST = 1000;
+
+    private final TenantBulkhead tenantBulkhead;
+    private final ScheduledExecutorService scheduler;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMs;
+    private final long budgetPerSearch;
+    private final long maxBudget;
+
+    private final Map<String, TenantDelay> tenants = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+
+    private final Counter won;
+    private final Counter lost;
+    private final Counter overBudget;
+    private final Counter noPermit;
+
+    @Autowired
+    public SearchHedger(TenantBulkhead tenantBulkhead,
+                        MeterRegistry meterRegistry,
+                        @Value("${search.hedge.enabled:false}") boolean enabled,
+                        @Value("${search.hedge.percentile:0.95}") double percentile,
+                        @Value("${search.hedge.min-delay:20ms}") Duration minDelay,
+                        @Value("${search.hedge.budget:0.05}") double budget,
+                        @Value("${search.hedge.burst:10}") int burst) {
+        this(tenantBulkhead, meterRegistry, enabled, percentile, minDelay, budget, burst,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "search-hedger");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    SearchHedger(TenantBulkhead tenantBulkhead,
+                 MeterRegistry meterRegistry,
+                 boolean enabled,
+                 double percentile,
+                 Duration minDelay,
+                 double budget,
+                 int burst,
+                 ScheduledExecutorService scheduler) {
+        this.tenantBulkhead = tenantBulkhead;
+        this.scheduler = scheduler;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMs = minDelay.toMillis();
+        this.budgetPerSearch = Math.round(budget * HEDGE_COST);
+        this.maxBudget = burst * HEDGE_COST;
+
+        this.won = hedgeCounter(meterRegistry, "won");
+        this.lost = hedgeCounter(meterRegistry, "lost");
+        this.overBudget = hedgeCounter(meterRegistry, "over_budget");
+        this.noPermit = hedgeCounter(meterRegistry, "no_permit");
+    }
+
+    /**
+     * Runs a search of the tenant, hedging it if it turns out slow. The
+     * function sends the search with the given preference, which is
+     * {@code null} for the first attempt. Futures it returns must cancel
+     * their request when cancelled.
+     */
+    public <T> CompletableFuture<T> execute(String tenantId, Function<String, CompletableFuture<T>> search) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> primary = send(search, null);
+        if (!enabled) {
+            return primary;
+        }
+
+        TenantDelay tenant = tenants.computeIfAbsent(tenantId, id -> new TenantDelay());
+        primary.whenComplete((response, error) -> {
+            // A primary cancelled in favour of its hedge took at least this long
+            if (error == null || primary.isCancelled()) {
+                tenant.add((System.nanoTime() - startNanos) / 1_000_000);
+            }
+        });
+        budget.accumulateAndGet(budgetPerSearch, (available, earned) -> Math.min(maxBudget, available + earned));
+
+        long delayMs = tenant.delayMs;
+        if (delayMs < 0 || primary.isDone()) {
+            return primary;
+        }
+        return new HedgedSearch<>(tenantId, primary, search).schedule(delayMs);
+    }
+
+    /**
+     * How long the tenant's searches run before they are hedged, or -1 while
+     * it has too little history.
+     */
+    long delayMs(String tenantId) {
+        TenantDelay tenant = tenants.get(tenantId);
+        return tenant != null ? tenant.delayMs : -1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private boolean spendBudget() {
+        return budget.getAndUpdate(available -> available >= HEDGE_COST ? available - HEDGE_COST : available)
+                >= HEDGE_COST;
+    }
+
+    private static <T> CompletableFuture<T> send(Function<String, CompletableFuture<T>> search, String preference) {
+        try {
+            return search.apply(preference);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("search.hedges")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private final class TenantDelay {
+
+        private final LatencyWindow window = new LatencyWindow(WINDOW_SIZE);
+        private volatile long delayMs = -1;
+
+        synchronized void add(long latencyMs) {
+            long count = window.add(latencyMs);
+
+            if (count >= MIN_SAMPLES && count % RECOMPUTE_EVERY == 0) {
+                delayMs = Math.max(minDelayMs, window.percentile(percentile));
+            }
+        }
+    }
+
+    /**
+     * One search and, once its delay has passed, its hedge. The first
+     * successful answer completes the result; it only fails once both have.
+     */
+    private final class HedgedSearch<T> {
+
+        private final String tenantId;
+        private final CompletableFuture<T> primary;
+        private final Function<String, CompletableFuture<T>> search;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private CompletableFuture<T> hedge;
+
+        HedgedSearch(String tenantId, CompletableFuture<T> primary, Function<String, CompletableFuture<T>> search) {
+            this.tenantId = tenantId;
+            this.primary = primary;
+            this.search = search;
+        }
+
+        CompletableFuture<T> schedule(long delayMs) {
+            ScheduledFuture<?> timer = scheduler.schedule(this::sendHedge, delayMs, TimeUnit.MILLISECONDS);
+            primary.whenComplete((response, error) -> {
+                timer.cancel(false);
+                primaryDone(response, error);
+            });
+            return result;
+        }
+
+        private void sendHedge() {
+            if (primary.isDone()) {
+                return;
+            }
+            if (!tenantBulkhead.tryAcquire(tenantId)) {
+                noPermit.increment();
+                return;
+            }
+            if (!spendBudget()) {
+                tenantBulkhead.release(tenantId);
+                overBudget.increment();
+                return;
+            }
+
+            log.debug("Hedging search for tenant {} after {}ms", tenantId, delayMs(tenantId));
+            // A fresh preference each time, so no query is stuck hedging onto the same copies
+            CompletableFuture<T> sent = send(search, "hedge-" + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            synchronized (this) {
+                hedge = sent;
+                if (result.isDone()) {
+                    sent.cancel(true);
+                }
+            }
+            sent.whenComplete((response, error) -> {
+                tenantBulkhead.release(tenantId);
+                hedgeDone(response, error);
+            });
+        }
+
+        // The loser is cancelled before the result completes, so callers never see both running
+        private synchronized void primaryDone(T response, Throwable error) {
+            if (error == null) {
+                if (hedge != null) {
+                    hedge.cancel(true);
+                }
+                result.complete(response);
+            } else if (hedge == null || hedge.isCompletedExceptionally()) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private synchronized void hedgeDone(T response, Throwable error) {
+            if (error == null && !result.isDone()) {
+                won.increment();
+                primary.cancel(true);
+                result.complete(response);
+                return;
+            }
+
+            lost.increment();
+            if (error != null && primary.isCompletedExceptionally()) {
+                // Both failed; report why the primary did
+                primary.whenComplete((ignored, primaryError) -> result.completeExceptionally(primaryError));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.enterprise.docsearch.search.metrics;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.transport.TransportException;
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import com.enterprise.docsearch.search.profile.SearchTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.elasticsearch.client.ResponseException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Search meters. Stage and request timers publish percentile histograms,
+ * bounded to the latencies a search can realistically take so each timer
+ * has a fixed, small number of buckets. Cache hits by tier are counted by
+ * the cache itself as search.cache.requests.
+ */
+@Component
+public class SearchMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+    // Stages such as the cache lookup take microseconds
+    private static final Duration MIN_EXPECTED_STAGE = Duration.ofNanos(10_000);
+
+    private final MeterRegistry meterRegistry;
+    private final TenantTagger tenantTagger;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public SearchMetrics(MeterRegistry meterRegistry, TenantTagger tenantTagger) {
+        this.meterRegistry = meterRegistry;
+        this.tenantTagger = tenantTagger;
+        tenantTagger.removeOnEviction(meterRegistry);
+    }
+
+    /**
+     * Records one search: how long it took overall, tagged by its tenant and
+     * whether it was served from cache, and how long each of its stages took.
+     */
+    public void searched(String tenantId, SearchTimings timings, long tookNanos, boolean cacheHit, boolean failed) {
+        Timer.builder("search.requests")
+                .description("Searches from lookup to response")
+                .tag(TenantTagger.TAG, tenantTagger.tag(tenantId))
+                .tag("cache", cacheHit ? "hit" : "miss")
+                .tag("outcome", failed ? "error" : "success")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry)
+                .record(tookNanos, TimeUnit.NANOSECONDS);
+
+        timings.stagesNanos().forEach((stage, nanos) -> stageTimer(stage).record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    public void elasticsearchError(Throwable error) {
+        errorCounter(errorType(error)).increment();
+    }
+
+    /**
+     * Counts a failed item of a multi-search by its HTTP status.
+     */
+    public void elasticsearchError(int status) {
+        errorCounter(statusType(status)).increment();
+    }
+
+    static String errorType(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ElasticsearchException e) {
+                return statusType(e.status());
+            }
+            if (cause instanceof ResponseException e) {
+                return statusType(e.getResponse().getStatusLine().getStatusCode());
+            }
+            if (cause instanceof TransportException e && e.statusCode() > 0) {
+                return statusType(e.statusCode());
+            }
+            if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (cause instanceof IOException) {
+                return "connection";
+            }
+        }
+        return "other";
+    }
+
+    static String statusType(int status) {
+        if (status == 429) {
+            return "rejected";
+        }
+        if (status == 408 || status == 504) {
+            return "timeout";
+        }
+        if (status >= 500) {
+            return "server";
+        }
+        if (status >= 400) {
+            return "client";
+        }
+        return "other";
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> Timer.builder("search.stage")
+                .description("Time a search spends in each stage")
+                .tag("stage", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_STAGE)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry));
+    }
+
+    private Counter errorCounter(String type) {
+        return errorCounters.computeIfAbsent(type, name -> Counter.builder("search.elasticsearch.errors")
+                .description("Failed Elasticsearch searches by cause")
+                .tag("type", name)
+                .register(meterRegistry));
+    }
+}
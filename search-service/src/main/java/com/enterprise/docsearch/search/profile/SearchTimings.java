@@ -0,0 +1,109 @@
+package com.enterprise.docsearch.search.profile;
+
+import co.elastic.clients.elasticsearch._types.ShardStatistics;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import com.enterprise.docsearch.common.dto.SearchResponse;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-stage breakdown of one search for debug=timings. Each lap covers the
+ * time since the previous one, so the stages add up to the whole request.
+ * Laps can be taken on different threads as long as they happen one after
+ * the other, as they do along a CompletableFuture chain. Searches without
+ * debug are {@link #metered()}: their stages are only fed to the stage
+ * metrics. {@link #NONE} records nothing.
+ */
+public final class SearchTimings {
+
+    public static final SearchTimings NONE = new SearchTimings(false, false, false);
+
+    private final boolean recording;
+    private final boolean enabled;
+    private final boolean profiled;
+    private final long startNanos;
+    private final Map<String, Long> stages = new LinkedHashMap<>();
+    private long lastNanos;
+
+    private Long esTookMs;
+    private ShardStatistics shards;
+    private Map<String, Object> profile;
+
+    private SearchTimings(boolean recording, boolean enabled, boolean profiled) {
+        this.recording = recording;
+        this.enabled = enabled;
+        this.profiled = profiled;
+        this.startNanos = recording ? System.nanoTime() : 0;
+        this.lastNanos = startNanos;
+    }
+
+    /**
+     * Starts timing a search. A profiled search also runs with the
+     * Elasticsearch profile API on.
+     */
+    public static SearchTimings start(boolean profiled) {
+        return new SearchTimings(true, true, profiled);
+    }
+
+    /**
+     * Starts timing a search whose stages are recorded but not reported
+     * back to the caller.
+     */
+    public static SearchTimings metered() {
+        return new SearchTimings(true, false, false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isProfiled() {
+        return profiled;
+    }
+
+    /**
+     * Ends a stage. A stage that runs more than once, such as a retried
+     * request, adds up.
+     */
+    public void lap(String stage) {
+        if (!recording) {
+            return;
+        }
+        long now = System.nanoTime();
+        stages.merge(stage, now - lastNanos, Long::sum);
+        lastNanos = now;
+    }
+
+    public void elasticsearch(ResponseBody<?> response) {
+        if (enabled) {
+            esTookMs = response.took();
+            shards = response.shards();
+        }
+    }
+
+    public void profile(Map<String, Object> profile) {
+        if (enabled) {
+            this.profile = profile;
+        }
+    }
+
+    public Map<String, Long> stagesNanos() {
+        return Collections.unmodifiableMap(stages);
+    }
+
+    public SearchResponse.Timings toResponse() {
+        return SearchResponse.Timings.builder()
+                .stagesNanos(new LinkedHashMap<>(stages))
+                .totalNanos(lastNanos - startNanos)
+                .cacheHit(esTookMs == null)
+                .esTookMs(esTookMs)
+                .shardsTotal(shards != null ? shards.total().intValue() : null)
+                .shardsSuccessful(shards != null ? shards.successful().intValue() : null)
+                .shardsSkipped(shards != null && shards.skipped() != null ? shards.skipped().intValue() : null)
+                .shardsFailed(shards != null ? shards.failed().intValue() : null)
+                .profile(profile)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.enterprise.docsearch.search.profile;
+
+import co.elastic.clients.elasticsearch.core.search.Profile;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.JsonpUtils;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Finds slow queries in production without having to reproduce them. A
+ * sample of searches runs with the Elasticsearch profile API on, and the
+ * profile of any sampled search slower than the threshold is logged. Debug
+ * requests asking for a profile always get one.
+ */
+@Component
+@Slf4j
+public class SlowQueryProfiler {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final JsonpMapper jsonpMapper = new JacksonJsonpMapper();
+    private final double sampleRate;
+    private final long slowThresholdMs;
+
+    public SlowQueryProfiler(ObjectMapper objectMapper,
+                             @Value("${search.profile.sample-rate:0.01}") double sampleRate,
+                             @Value("${search.profile.slow-threshold:1s}") Duration slowThreshold) {
+        this.objectMapper = objectMapper;
+        this.sampleRate = sampleRate;
+        this.slowThresholdMs = slowThreshold.toMillis();
+    }
+
+    /**
+     * Whether to run the search with the profile API on. Profiling makes the
+     * search itself slower, so only a small sample is.
+     */
+    public boolean shouldProfile(SearchTimings timings) {
+        return timings.isProfiled() || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Logs the profile of a slow search and hands it to the timings of a
+     * debug request. Does nothing for searches that weren't profiled.
+     */
+    public void inspect(String tenantId, String query, ResponseBody<?> response, SearchTimings timings) {
+        Profile profile = response.profile();
+        boolean slow = response.took() >= slowThresholdMs;
+        if (profile == null || !(slow || timings.isEnabled())) {
+            return;
+        }
+
+        String json = JsonpUtils.toJsonString(profile, jsonpMapper);
+        if (slow) {
+            log.warn("Slow search for tenant {} took {}ms in Elasticsearch - query: {}, profile: {}",
+                    tenantId, response.took(), query, json);
+        }
+        if (timings.isEnabled()) {
+            try {
+                timings.profile(objectMapper.readValue(json, JSON_OBJECT));
+            } catch (Exception e) {
+                log.warn("Could not attach search profile to debug timings", e);
+            }
+        }
+    }
+}
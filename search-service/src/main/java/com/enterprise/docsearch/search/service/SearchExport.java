@@ -0,0 +1,42 @@
+package com.enterprise.docsearch.search.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The body of one export. Its point-in-time is already open, so it is closed
+ * either by writing the body, which closes it once the hits are streamed, or
+ * by {@link #discard()} when the body is never written.
+ */
+public class SearchExport implements StreamingResponseBody {
+
+    private final StreamingResponseBody body;
+    private final Runnable closePointInTime;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    public SearchExport(StreamingResponseBody body, Runnable closePointInTime) {
+        this.body = body;
+        this.closePointInTime = closePointInTime;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (!claimed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Export has already been written or discarded");
+        }
+        body.writeTo(outputStream);
+    }
+
+    /**
+     * Closes the point-in-time unless the body has been written. Safe to call
+     * after the export has run.
+     */
+    public void discard() {
+        if (claimed.compareAndSet(false, true)) {
+            closePointInTime.run();
+        }
+    }
+}
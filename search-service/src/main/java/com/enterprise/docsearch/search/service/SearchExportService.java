@@ -0,0 +1,156 @@
+package com.enterprise.docsearch.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streams every hit of a query as NDJSON. Hits are read one page at a time
+ * from a point-in-time with search_after and written straight to the
+ * response, so memory stays at one page regardless of the result size. The
+ * next page is only fetched once the previous one has been written, which
+ * lets a slow client throttle the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchExportService {
+    
+    private final ElasticsearchClient elasticsearchClient;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${search.export.page-size:1000}")
+    private int pageSize = 1000;
+    
+    @Value("${search.cursor.keep-alive:1m}")
+    private String keepAlive = "1m";
+    
+    private static final String INDEX_PREFIX = "docs_tenant_";
+    private static final List<String> EXPORTED_FIELDS = List.of("document_id", "title", "metadata", "indexed_at");
+    
+    /**
+     * Opens the point-in-time on the calling thread, so a failure surfaces as a
+     * normal error response, and returns the body that streams the hits.
+     */
+    public SearchExport export(String query, boolean fuzzy) {
+        String tenantId = TenantContext.getTenantId();
+        String indexName = INDEX_PREFIX + tenantId;
+        
+        String pitId;
+        try {
+            pitId = elasticsearchClient.openPointInTime(OpenPointInTimeRequest.of(o -> o
+                    .index(indexName)
+                    .keepAlive(t -> t.time(keepAlive))
+            )).id();
+        } catch (Exception e) {
+            log.error("Error opening point-in-time for export on index {}", indexName, e);
+            throw new RuntimeException("Export failed", e);
+        }
+        
+        log.info("Exporting results from index {} for query: {}", indexName, query);
+        
+        Query baseQuery = fuzzy ? SearchService.buildFuzzyQuery(query) : SearchService.buildStandardQuery(query);
+        Query exportQuery = Query.of(q -> q
+                .bool(b -> b
+                        .must(baseQuery)
+                        .filter(f -> f.term(t -> t.field("tenant_id").value(tenantId)))
+                )
+        );
+        
+        return new SearchExport(
+                outputStream -> streamHits(indexName, exportQuery, pitId, outputStream),
+                () -> closePointInTime(pitId));
+    }
+    
+    private void streamHits(String indexName, Query query, String initialPitId, OutputStream outputStream)
+            throws IOException {
+        
+        String pitId = initialPitId;
+        List<FieldValue> searchAfter = Collections.emptyList();
+        long exported = 0;
+        
+        // Flush once per page rather than after every hit
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            
+            while (true) {
+                SearchResponse<JsonNode> response = elasticsearchClient.search(
+                        buildPageRequest(query, pitId, searchAfter), JsonNode.class);
+                
+                if (response.pitId() != null) {
+                    pitId = response.pitId();
+                }
+                
+                List<Hit<JsonNode>> hits = response.hits().hits();
+                for (Hit<JsonNode> hit : hits) {
+                    writer.writeValue(generator, hit.source());
+                    generator.writeRaw('\n');
+                }
+                // Blocks while the client is behind
+                generator.flush();
+                exported += hits.size();
+                
+                if (hits.size() < pageSize) {
+                    break;
+                }
+                searchAfter = hits.get(hits.size() - 1).sort();
+            }
+            
+            log.info("Exported {} hits from index {}", exported, indexName);
+            
+        } catch (IOException e) {
+            log.warn("Export from index {} aborted after {} hits: {}", indexName, exported, e.getMessage());
+            throw e;
+        } finally {
+            closePointInTime(pitId);
+        }
+    }
+    
+    private SearchRequest buildPageRequest(Query query, String pitId, List<FieldValue> searchAfter) {
+        return SearchRequest.of(s -> {
+            s.pit(p -> p.id(pitId).keepAlive(t -> t.time(keepAlive)))
+                    .query(query)
+                    .size(pageSize)
+                    .source(src -> src.filter(f -> f.includes(EXPORTED_FIELDS)))
+                    // Index order is the cheapest stable order; exports don't need ranking
+                    .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                    .trackTotalHits(t -> t.enabled(false));
+            if (!searchAfter.isEmpty()) {
+                s.searchAfter(searchAfter);
+            }
+            return s;
+        });
+    }
+    
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchClient.closePointInTime(ClosePointInTimeRequest.of(c -> c.id(pitId)));
+        } catch (Exception e) {
+            log.warn("Error closing point-in-time", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.enterprise.docsearch.search.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The filtered _source of a search hit. The ES client binds hits straight
+ * into this from the response token stream, so no intermediate JSON tree is
+ * built per hit.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SearchHitSource(
+        @JsonProperty("document_id") UUID documentId,
+        String title,
+        String snippet,
+        Map<String, Object> metadata) {
+}
@@ -1,21 +1,57 @@
 package com.enterprise.docsearch.search.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.ShardStatistics;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.RequestItem;
+import co.elastic.clients.elasticsearch.core.search.Highlight;
+import co.elastic.clients.elasticsearch.core.search.HighlighterType;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
 import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.common.dto.ApiResponse;
 import com.enterprise.docsearch.common.dto.SearchResponse.SearchResult;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.enterprise.docsearch.common.exception.TooManyRequestsException;
+import com.enterprise.docsearch.common.jfr.SearchEvent;
+import com.enterprise.docsearch.search.analytics.SearchAnalyticsRecorder;
+import com.enterprise.docsearch.search.cache.SearchCacheKeyFactory;
+import com.enterprise.docsearch.search.cache.SearchFingerprint;
+import com.enterprise.docsearch.search.cache.SearchRequestCoalescer;
+import com.enterprise.docsearch.search.cache.SearchResultCache;
+import com.enterprise.docsearch.search.cursor.SearchCursor;
+import com.enterprise.docsearch.search.cursor.SearchCursorCodec;
+import com.enterprise.docsearch.search.facet.FacetCounts;
+import com.enterprise.docsearch.search.facet.FacetRequest;
+import com.enterprise.docsearch.search.facet.MetadataFacets;
+import com.enterprise.docsearch.search.isolation.AdaptiveTimeouts;
+import com.enterprise.docsearch.search.isolation.TenantBulkhead;
+import com.enterprise.docsearch.search.latency.SearchHedger;
+import com.enterprise.docsearch.search.metrics.SearchMetrics;
+import com.enterprise.docsearch.search.profile.SearchTimings;
+import com.enterprise.docsearch.search.profile.SlowQueryProfiler;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,53 +60,652 @@ import java.util.stream.Collectors;
 public class SearchService {
     
     private final ElasticsearchClient elasticsearchClient;
-    private final ObjectMapper objectMapper;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    private final SearchCacheKeyFactory cacheKeyFactory;
+    private final SearchResultCache searchResultCache;
+    private final SearchRequestCoalescer searchCoalescer;
+    private final SearchCursorCodec cursorCodec;
+    private final Executor searchExecutor;
+    private final Validator validator;
+    private final SearchAnalyticsRecorder analyticsRecorder;
+    private final TenantBulkhead tenantBulkhead;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+    private final SearchHedger searchHedger;
+    private final SlowQueryProfiler slowQueryProfiler;
+    private final SearchMetrics searchMetrics;
+    
+    @Value("${search.cursor.keep-alive:1m}")
+    private String cursorKeepAlive = "1m";
+    
+    @Value("${search.batch.max-size:50}")
+    private int maxBatchSize = 50;
+    
+    @Value("${search.facets.max-buckets:10}")
+    private int maxFacetBuckets = 10;
     
     private static final String INDEX_PREFIX = "docs_tenant_";
+    // Everything a result needs; content is never fetched, the snippet is stored at index time
+    private static final List<String> RESULT_SOURCE_FIELDS = List.of("document_id", "title", "snippet", "metadata");
     
-    @Cacheable(value = "searchResults", key = "#tenantId + ':' + #query + ':' + #page + ':' + #size")
     public com.enterprise.docsearch.common.dto.SearchResponse search(
             String query, int page, int size, boolean fuzzy, boolean highlight) {
+        return search(query, page, size, fuzzy, highlight, FacetRequest.NONE);
+    }
+    
+    public com.enterprise.docsearch.common.dto.SearchResponse search(
+            String query, int page, int size, boolean fuzzy, boolean highlight, FacetRequest facets) {
+        
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        SearchFingerprint fingerprint = cacheKeyFactory.fingerprint(query, page, size, fuzzy, highlight, facets);
+        
+        com.enterprise.docsearch.common.dto.SearchResponse cached = searchResultCache.get(fingerprint);
+        if (cached != null) {
+            log.debug("Search cache hit for key {}", fingerprint.key());
+            commitSearchEvent(event, fingerprint.tenantId(), query, cached, true, false);
+            // Equivalent queries share an entry, so echo the caller's own query text
+            return cached.toBuilder().query(query).build();
+        }
+        
+        com.enterprise.docsearch.common.dto.SearchResponse response = executeSearch(
+                query, page, size, fuzzy, highlight, planFacets(query, fuzzy, facets));
+        cacheUnlessPartial(fingerprint, response);
+        commitSearchEvent(event, fingerprint.tenantId(), query, response, false, false);
+        
+        return response;
+    }
+    
+    /**
+     * Runs the search and overwrites its cache entry whether or not one
+     * exists, so the entry starts a fresh TTL on the current generation.
+     */
+    public com.enterprise.docsearch.common.dto.SearchResponse refresh(
+            String query, int page, int size, boolean fuzzy, boolean highlight) {
+        
+        SearchFingerprint fingerprint = cacheKeyFactory.fingerprint(query, page, size, fuzzy, highlight);
+        
+        com.enterprise.docsearch.common.dto.SearchResponse response = executeSearch(
+                query, page, size, fuzzy, highlight, planFacets(query, fuzzy, FacetRequest.NONE));
+        cacheUnlessPartial(fingerprint, response);
+        
+        return response;
+    }
+    
+    /**
+     * Non-blocking variant of {@link #search}. The calling thread is released
+     * while Elasticsearch works; the response is mapped and cached on the
+     * search executor with the caller's tenant in context.
+     */
+    public CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> searchAsync(
+            String query, int page, int size, boolean fuzzy, boolean highlight) {
+        return searchAsync(query, page, size, fuzzy, highlight, FacetRequest.NONE);
+    }
+    
+    public CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> searchAsync(
+            String query, int page, int size, boolean fuzzy, boolean highlight, FacetRequest facets) {
+        return searchAsync(query, page, size, fuzzy, highlight, facets, SearchTimings.NONE);
+    }
+    
+    /**
+     * Records how long each stage takes in the given timings. A timed search
+     * never joins another caller's in-flight request, so the stages are its own.
+     * Searches without timings are still timed for the stage metrics.
+     */
+    public CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> searchAsync(
+            String query, int page, int size, boolean fuzzy, boolean highlight, FacetRequest facets,
+            SearchTimings timings) {
+        
+        long startNanos = System.nanoTime();
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        SearchTimings stages = timings.isEnabled() ? timings : SearchTimings.metered();
+        SearchFingerprint fingerprint = cacheKeyFactory.fingerprint(query, page, size, fuzzy, highlight, facets);
+        
+        com.enterprise.docsearch.common.dto.SearchResponse cached = searchResultCache.get(fingerprint);
+        stages.lap("cache_lookup");
+        if (cached != null) {
+            log.debug("Search cache hit for key {}", fingerprint.key());
+            analyticsRecorder.record(query, cached.getTotalHits(), elapsedMs(startNanos), true);
+            searchMetrics.searched(fingerprint.tenantId(), stages, System.nanoTime() - startNanos, true, false);
+            commitSearchEvent(event, fingerprint.tenantId(), query, cached, true, true);
+            return CompletableFuture.completedFuture(cached.toBuilder().query(query).build());
+        }
+        
+        FacetPlan facetPlan = planFacets(query, fuzzy, facets);
+        // Captured here, as a coalesced search that times out waiting is sent from a timer thread
+        Executor executor = TenantContext.propagatingTo(searchExecutor);
+        
+        // Identical concurrent misses share one Elasticsearch request; each
+        // caller still gets its own query text echoed back. Only the caller
+        // that sent the request records its Elasticsearch stages.
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> result = timings.isEnabled()
+                ? executeSearchAsync(fingerprint, query, page, size, fuzzy, highlight, facetPlan, stages, executor)
+                : searchCoalescer.execute(fingerprint, () -> executeSearchAsync(
+                        fingerprint, query, page, size, fuzzy, highlight, facetPlan, stages, executor));
+        return result
+                .whenComplete((response, error) -> searchMetrics.searched(
+                        fingerprint.tenantId(), stages, System.nanoTime() - startNanos, false, error != null))
+                .thenApply(response -> {
+                    // May run on the coalescer's timer thread, which has no tenant
+                    analyticsRecorder.record(fingerprint.tenantId(), query, response.getTotalHits(),
+                            elapsedMs(startNanos), false);
+                    commitSearchEvent(event, fingerprint.tenantId(), query, response, false, true);
+                    return query.equals(response.getQuery())
+                            ? response
+                            : response.toBuilder().query(query).build();
+                });
+    }
+    
+    private CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> executeSearchAsync(
+            SearchFingerprint fingerprint, String query, int page, int size, boolean fuzzy, boolean highlight,
+            FacetPlan facetPlan, SearchTimings timings, Executor executor) {
+        
+        String tenantId = fingerprint.tenantId();
+        String indexName = INDEX_PREFIX + tenantId;
+        log.info("Searching in index {} for query: {}", indexName, query);
+        
+        long startNanos = System.nanoTime();
+        String timeout = adaptiveTimeouts.timeout(tenantId);
+        boolean profile = slowQueryProfiler.shouldProfile(timings);
+        SearchRequest searchRequest = buildSearchRequest(indexName, timeout, null, profile,
+                query, page, size, fuzzy, highlight, facetPlan);
+        timings.lap("request_build");
+        
+        // Throws when the tenant is at its limit; the coalescer turns that into a failed future
+        tenantBulkhead.acquire(tenantId);
+        
+        // A hedge is the same search sent with a different preference
+        CompletableFuture<SearchResponse<SearchHitSource>> esResponse;
+        try {
+            esResponse = searchHedger.execute(tenantId,
+                    preference -> elasticsearchAsyncClient.search(preference == null
+                            ? searchRequest
+                            : buildSearchRequest(indexName, timeout, preference, profile,
+                                    query, page, size, fuzzy, highlight, facetPlan),
+                            SearchHitSource.class));
+        } catch (RuntimeException e) {
+            tenantBulkhead.release(tenantId);
+            throw e;
+        }
+        
+        return esResponse
+                .whenComplete((response, error) -> {
+                    tenantBulkhead.release(tenantId);
+                    timings.lap("elasticsearch");
+                })
+                .handleAsync((response, error) -> {
+                    timings.lap("executor_queue");
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        log.error("Error performing search", cause);
+                        searchMetrics.elasticsearchError(cause);
+                        throw searchFailure(cause);
+                    }
+                    
+                    adaptiveTimeouts.observe(tenantId, response.took());
+                    timings.elasticsearch(response);
+                    if (profile) {
+                        slowQueryProfiler.inspect(tenantId, query, response, timings);
+                        timings.lap("profile");
+                    }
+                    
+                    com.enterprise.docsearch.common.dto.SearchResponse result =
+                            buildSearchResponse(query, response, page, size, elapsedMs(startNanos));
+                    timings.lap("hit_mapping");
+                    result = withFacets(result, response, facetPlan);
+                    timings.lap("facets");
+                    cacheUnlessPartial(fingerprint, result);
+                    timings.lap("cache_write");
+                    return result;
+                }, executor);
+    }
+    
+    /**
+     * Runs several searches in one go. Cached entries are served directly and
+     * the rest go to Elasticsearch as a single _msearch. Results keep the
+     * order of the requests, and a failing item only fails its own slot.
+     */
+    public CompletableFuture<List<ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse>>> searchBatch(
+            List<com.enterprise.docsearch.common.dto.SearchRequest> requests) {
+        
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one search");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchSize + " searches");
+        }
+        
+        List<ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse>> results =
+                new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<BatchMiss> misses = new ArrayList<>();
+        
+        for (int i = 0; i < requests.size(); i++) {
+            com.enterprise.docsearch.common.dto.SearchRequest request = requests.get(i);
+            
+            String violation = validate(request);
+            if (violation != null) {
+                results.set(i, itemError("Invalid request", "INVALID_REQUEST", violation));
+                continue;
+            }
+            
+            boolean fuzzy = Boolean.TRUE.equals(request.getFuzzy());
+            boolean highlight = !Boolean.FALSE.equals(request.getHighlight());
+            SearchFingerprint fingerprint = cacheKeyFactory.fingerprint(
+                    request.getQuery(), request.getPage(), request.getSize(), fuzzy, highlight);
+            
+            com.enterprise.docsearch.common.dto.SearchResponse cached = searchResultCache.get(fingerprint);
+            if (cached != null) {
+                analyticsRecorder.record(request.getQuery(), cached.getTotalHits(), 0, true);
+                results.set(i, ApiResponse.success(cached.toBuilder().query(request.getQuery()).build()));
+            } else {
+                misses.add(new BatchMiss(i, request, fuzzy, highlight, fingerprint));
+            }
+        }
+        
+        if (misses.isEmpty()) {
+            log.debug("Batch of {} searches served entirely from cache", requests.size());
+            return CompletableFuture.completedFuture(results);
+        }
+        
+        String tenantId = misses.get(0).fingerprint().tenantId();
+        String indexName = INDEX_PREFIX + tenantId;
+        log.info("Running batch of {} searches ({} cached) against index {}",
+                requests.size(), requests.size() - misses.size(), indexName);
+        
+        long startNanos = System.nanoTime();
+        String timeout = adaptiveTimeouts.timeout(tenantId);
+        MsearchRequest msearchRequest = MsearchRequest.of(m -> {
+            for (BatchMiss miss : misses) {
+                m.searches(buildBatchItem(indexName, timeout, miss));
+            }
+            return m;
+        });
+        Executor executor = TenantContext.propagatingTo(searchExecutor);
+        
+        // The whole _msearch counts as one search against the tenant's limit.
+        // Taken right before sending; from here on every path releases it.
+        try {
+            tenantBulkhead.acquire(tenantId);
+        } catch (TooManyRequestsException e) {
+            for (BatchMiss miss : misses) {
+                results.set(miss.position(), itemError("Too many requests", "TOO_MANY_REQUESTS", e.getMessage()));
+            }
+            return CompletableFuture.completedFuture(results);
+        }
+        
+        CompletableFuture<MsearchResponse<SearchHitSource>> esResponse;
+        try {
+            esResponse = elasticsearchAsyncClient.msearch(msearchRequest, SearchHitSource.class);
+        } catch (Exception e) {
+            esResponse = CompletableFuture.failedFuture(e);
+        }
+        esResponse.whenComplete((response, error) -> tenantBulkhead.release(tenantId));
+        
+        return esResponse.handleAsync((response, error) -> {
+            long tookMs = elapsedMs(startNanos);
+            
+            if (error != null) {
+                log.error("Error performing batch search", error);
+                searchMetrics.elasticsearchError(error);
+            }
+            
+            for (int j = 0; j < misses.size(); j++) {
+                BatchMiss miss = misses.get(j);
+                results.set(miss.position(), error != null
+                        ? itemError("Search failed", "SEARCH_FAILED", "An unexpected error occurred")
+                        : toBatchResult(miss, response.responses().get(j), tookMs));
+            }
+            return results;
+        }, executor);
+    }
+    
+    private ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse> toBatchResult(
+            BatchMiss miss, MultiSearchResponseItem<SearchHitSource> item, long tookMs) {
+        
+        if (item.isFailure()) {
+            String reason = item.failure().error().reason();
+            log.warn("Batch search item failed for query {}: {}", miss.request().getQuery(), reason);
+            searchMetrics.elasticsearchError(item.failure().status());
+            return itemError("Search failed", "SEARCH_FAILED", reason);
+        }
+        
+        try {
+            adaptiveTimeouts.observe(miss.fingerprint().tenantId(), item.result().took());
+            com.enterprise.docsearch.common.dto.SearchResponse result = buildSearchResponse(
+                    miss.request().getQuery(), item.result(), miss.request().getPage(), miss.request().getSize(), tookMs);
+            cacheUnlessPartial(miss.fingerprint(), result);
+            analyticsRecorder.record(miss.request().getQuery(), result.getTotalHits(), tookMs, false);
+            return ApiResponse.success(result);
+        } catch (Exception e) {
+            log.error("Error mapping batch search item for query {}", miss.request().getQuery(), e);
+            return itemError("Search failed", "SEARCH_FAILED", "An unexpected error occurred");
+        }
+    }
+    
+    private RequestItem buildBatchItem(String indexName, String timeout, BatchMiss miss) {
+        com.enterprise.docsearch.common.dto.SearchRequest request = miss.request();
+        Query searchQuery = miss.fuzzy()
+                ? buildFuzzyQuery(request.getQuery())
+                : buildStandardQuery(request.getQuery());
+        
+        return RequestItem.of(r -> r
+                .header(h -> h.index(indexName).allowPartialSearchResults(true))
+                .body(b -> b
+                        .query(searchQuery)
+                        .timeout(timeout)
+                        .from((request.getPage() - 1) * request.getSize())
+                        .size(request.getSize())
+                        .source(src -> src.filter(f -> f.includes(RESULT_SOURCE_FIELDS)))
+                        .highlight(buildHighlight(miss.highlight()))
+                )
+        );
+    }
+    
+    private String validate(com.enterprise.docsearch.common.dto.SearchRequest request) {
+        if (request == null) {
+            return "Search must not be null";
+        }
+        
+        Set<ConstraintViolation<com.enterprise.docsearch.common.dto.SearchRequest>> violations =
+                validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    /**
+     * Partial results are returned to the caller but not cached, so the next
+     * request gets another chance at complete results.
+     */
+    private void cacheUnlessPartial(SearchFingerprint fingerprint,
+                                    com.enterprise.docsearch.common.dto.SearchResponse response) {
+        if (response.isPartial()) {
+            log.warn("Search for key {} returned partial results (timed out: {})",
+                    fingerprint.key(), response.isTimedOut());
+            return;
+        }
+        searchResultCache.put(fingerprint, response);
+    }
+    
+    private static void commitSearchEvent(SearchEvent event, String tenantId, String query,
+                                          com.enterprise.docsearch.common.dto.SearchResponse response,
+                                          boolean cacheHit, boolean async) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.tenant = tenantId;
+        event.queryLength = query.length();
+        event.cacheHit = cacheHit;
+        event.totalHits = response.getTotalHits();
+        event.returnedHits = response.getResults() != null ? response.getResults().size() : 0;
+        event.tookMs = response.getTookMs();
+        event.async = async;
+        event.commit();
+    }
+    
+    /**
+     * Elasticsearch rejecting the request itself, such as a range facet on a
+     * key an older index maps as text, is the caller's error rather than ours.
+     */
+    private static RuntimeException searchFailure(Throwable cause) {
+        if (cause instanceof ElasticsearchException e && e.status() == 400) {
+            return new IllegalArgumentException("Search rejected: " + e.error().reason(), e);
+        }
+        return new RuntimeException("Search failed", cause);
+    }
+    
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+    
+    private static ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse> itemError(
+            String message, String code, String details) {
+        return ApiResponse.error(message, ApiResponse.ErrorDetails.builder()
+                .code(code)
+                .details(details)
+                .build());
+    }
+    
+    private com.enterprise.docsearch.common.dto.SearchResponse executeSearch(
+            String query, int page, int size, boolean fuzzy, boolean highlight, FacetPlan facetPlan) {
         
         String tenantId = TenantContext.getTenantId();
         String indexName = INDEX_PREFIX + tenantId;
         
         log.info("Searching in index {} for query: {}", indexName, query);
         
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        tenantBulkhead.acquire(tenantId);
         
         try {
-            Query searchQuery = fuzzy 
-                    ? buildFuzzyQuery(query)
-                    : buildStandardQuery(query);
+            SearchRequest searchRequest = buildSearchRequest(indexName, adaptiveTimeouts.timeout(tenantId), null,
+                    false, query, page, size, fuzzy, highlight, facetPlan);
+            
+            SearchResponse<SearchHitSource> response = elasticsearchClient.search(
+                    searchRequest, 
+                    SearchHitSource.class
+            );
+            
+            long tookMs = elapsedMs(startNanos);
+            adaptiveTimeouts.observe(tenantId, response.took());
             
-            SearchRequest searchRequest = SearchRequest.of(s -> s
-                    .index(indexName)
+            return withFacets(buildSearchResponse(query, response, page, size, tookMs), response, facetPlan);
+            
+        } catch (Exception e) {
+            log.error("Error performing search", e);
+            searchMetrics.elasticsearchError(e);
+            throw searchFailure(e);
+        } finally {
+            tenantBulkhead.release(tenantId);
+        }
+    }
+    
+    /**
+     * Shards that don't answer within the timeout are left out rather than
+     * failing the search; the response is then flagged as partial. Without a
+     * preference Elasticsearch picks the shard copies itself.
+     */
+    private SearchRequest buildSearchRequest(String indexName, String timeout, String preference, boolean profile,
+                                             String query, int page, int size, boolean fuzzy, boolean highlight,
+                                             FacetPlan facetPlan) {
+        Query searchQuery = withFilters(fuzzy 
+                ? buildFuzzyQuery(query)
+                : buildStandardQuery(query), facetPlan.request());
+        
+        return SearchRequest.of(s -> {
+            s.index(indexName)
                     .query(searchQuery)
                     .from((page - 1) * size)
                     .size(size)
-                    .highlight(h -> h
-                            .fields("title", hf -> hf)
-                            .fields("content", hf -> hf.numberOfFragments(1).fragmentSize(150))
+                    .source(src -> src.filter(f -> f.includes(RESULT_SOURCE_FIELDS)))
+                    .highlight(buildHighlight(highlight))
+                    .timeout(timeout)
+                    .allowPartialSearchResults(true)
+                    .preference(preference);
+            if (profile) {
+                s.profile(true);
+            }
+            // Cached facet counts are reused across pages, so only aggregate on a miss
+            if (facetPlan.aggregate()) {
+                s.aggregations(MetadataFacets.aggregations(facetPlan.request(), maxFacetBuckets));
+            }
+            return s;
+        });
+    }
+    
+    /**
+     * Metadata filters go in filter context: they don't affect scoring, and
+     * Elasticsearch can cache them independently of the query text.
+     */
+    static Query withFilters(Query query, FacetRequest facets) {
+        List<Query> filters = MetadataFacets.filterQueries(facets);
+        if (filters.isEmpty()) {
+            return query;
+        }
+        
+        return Query.of(q -> q
+                .bool(b -> b
+                        .must(query)
+                        .filter(filters)
+                )
+        );
+    }
+    
+    private FacetPlan planFacets(String query, boolean fuzzy, FacetRequest facets) {
+        if (!facets.hasFacets()) {
+            return new FacetPlan(facets, null, null);
+        }
+        
+        SearchFingerprint facetFingerprint = cacheKeyFactory.facetFingerprint(query, fuzzy, facets);
+        return new FacetPlan(facets, facetFingerprint, searchResultCache.getFacets(facetFingerprint));
+    }
+    
+    private com.enterprise.docsearch.common.dto.SearchResponse withFacets(
+            com.enterprise.docsearch.common.dto.SearchResponse result,
+            ResponseBody<SearchHitSource> esResponse,
+            FacetPlan facetPlan) {
+        
+        if (facetPlan.fingerprint() == null) {
+            return result;
+        }
+        
+        FacetCounts counts = facetPlan.cached();
+        if (counts == null) {
+            counts = new FacetCounts(MetadataFacets.readBuckets(facetPlan.request(), esResponse.aggregations()));
+            if (!result.isPartial()) {
+                searchResultCache.putFacets(facetPlan.fingerprint(), counts);
+            }
+        }
+        
+        return result.toBuilder().facets(counts.getFacets()).build();
+    }
+    
+    /**
+     * Cursor mode: pages are pinned to a point-in-time and fetched with
+     * search_after, so every page costs the same no matter how deep it is.
+     * A null cursor opens a new point-in-time and returns the first page.
+     */
+    public com.enterprise.docsearch.common.dto.SearchResponse searchWithCursor(
+            String query, String cursor, int size, boolean fuzzy, boolean highlight) {
+        
+        String tenantId = TenantContext.getTenantId();
+        String indexName = INDEX_PREFIX + tenantId;
+        
+        long startNanos = System.nanoTime();
+        tenantBulkhead.acquire(tenantId);
+        // Set while this call holds a point-in-time nobody else has a cursor for
+        String openedPitId = null;
+        
+        try {
+            String pitId;
+            List<FieldValue> searchAfter;
+            if (cursor == null || cursor.isEmpty()) {
+                pitId = elasticsearchClient.openPointInTime(OpenPointInTimeRequest.of(o -> o
+                        .index(indexName)
+                        .keepAlive(t -> t.time(cursorKeepAlive))
+                )).id();
+                openedPitId = pitId;
+                searchAfter = Collections.emptyList();
+                log.info("Opened point-in-time on index {} for query: {}", indexName, query);
+            } else {
+                SearchCursor decoded = cursorCodec.decode(cursor, tenantId, query, fuzzy);
+                pitId = decoded.pitId();
+                searchAfter = SearchCursorCodec.toFieldValues(decoded.searchAfter());
+            }
+            
+            // The point-in-time decides which index is searched, so pin the
+            // tenant with a filter as well
+            Query baseQuery = fuzzy ? buildFuzzyQuery(query) : buildStandardQuery(query);
+            Query searchQuery = Query.of(q -> q
+                    .bool(b -> b
+                            .must(baseQuery)
+                            .filter(f -> f.term(t -> t.field("tenant_id").value(tenantId)))
                     )
             );
             
-            SearchResponse<JsonNode> response = elasticsearchClient.search(
-                    searchRequest, 
-                    JsonNode.class
-            );
+            SearchRequest searchRequest = SearchRequest.of(s -> {
+                s.pit(p -> p.id(pitId).keepAlive(t -> t.time(cursorKeepAlive)))
+                        .query(searchQuery)
+                        .size(size)
+                        .source(src -> src.filter(f -> f.includes(RESULT_SOURCE_FIELDS)))
+                        .sort(so -> so.score(sc -> sc.order(SortOrder.Desc)))
+                        .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                        .highlight(buildHighlight(highlight));
+                if (!searchAfter.isEmpty()) {
+                    s.searchAfter(searchAfter);
+                }
+                return s;
+            });
             
-            long tookMs = System.currentTimeMillis() - startTime;
+            SearchResponse<SearchHitSource> response = elasticsearchClient.search(searchRequest, SearchHitSource.class);
+            openedPitId = null;
             
-            return buildSearchResponse(query, response, page, size, tookMs);
+            long tookMs = elapsedMs(startNanos);
             
+            List<Hit<SearchHitSource>> hits = response.hits().hits();
+            String nextPitId = response.pitId() != null ? response.pitId() : pitId;
+            String nextCursor = null;
+            
+            if (hits.size() == size && !hits.isEmpty()) {
+                nextCursor = cursorCodec.encode(tenantId, query, fuzzy, nextPitId,
+                        hits.get(hits.size() - 1).sort());
+            } else {
+                closePointInTime(nextPitId);
+            }
+            
+            return buildSearchResponse(query, response, 0, size, tookMs).toBuilder()
+                    .nextCursor(nextCursor)
+                    .build();
+            
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error performing search", e);
+            log.error("Error performing cursor search", e);
             throw new RuntimeException("Search failed", e);
+        } finally {
+            // The first page failed, so no cursor will ever close it
+            if (openedPitId != null) {
+                closePointInTime(openedPitId);
+            }
+            tenantBulkhead.release(tenantId);
         }
     }
     
-    private Query buildStandardQuery(String queryText) {
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchClient.closePointInTime(ClosePointInTimeRequest.of(c -> c.id(pitId)));
+        } catch (Exception e) {
+            // It expires on its own after the keep-alive
+            log.warn("Error closing point-in-time", e);
+        }
+    }
+    
+    /**
+     * Highlighting is skipped entirely when the caller didn't ask for it. When
+     * it is on, the unified highlighter reads content offsets from the
+     * postings instead of re-analyzing the stored text.
+     */
+    private Highlight buildHighlight(boolean highlight) {
+        if (!highlight) {
+            return null;
+        }
+        
+        return Highlight.of(h -> h
+                .type(HighlighterType.Unified)
+                .fields("title", hf -> hf)
+                .fields("content", hf -> hf.numberOfFragments(1).fragmentSize(150))
+        );
+    }
+    
+    static Query buildStandardQuery(String queryText) {
         return Query.of(q -> q
                 .multiMatch(m -> m
                         .query(queryText)
@@ -80,7 +715,7 @@ public class SearchService {
         );
     }
     
-    private Query buildFuzzyQuery(String queryText) {
+    static Query buildFuzzyQuery(String queryText) {
         return Query.of(q -> q
                 .multiMatch(m -> m
                         .query(queryText)
@@ -90,19 +725,23 @@ public class SearchService {
         );
     }
     
-    private com.enterprise.docsearch.common.dto.SearchResponse buildSearchResponse(
+    com.enterprise.docsearch.common.dto.SearchResponse buildSearchResponse(
             String query,
-            SearchResponse<JsonNode> esResponse,
+            ResponseBody<SearchHitSource> esResponse,
             int page,
             int size,
             long tookMs) {
         
-        HitsMetadata<JsonNode> hits = esResponse.hits();
+        HitsMetadata<SearchHitSource> hits = esResponse.hits();
         
         List<SearchResult> results = hits.hits().stream()
                 .map(this::mapToSearchResult)
                 .collect(Collectors.toList());
         
+        boolean timedOut = esResponse.timedOut();
+        ShardStatistics shards = esResponse.shards();
+        boolean shardsFailed = shards != null && shards.failed().intValue() > 0;
+        
         return com.enterprise.docsearch.common.dto.SearchResponse.builder()
                 .query(query)
                 .totalHits(hits.total().value())
@@ -110,19 +749,13 @@ public class SearchService {
                 .pageSize(size)
                 .tookMs(tookMs)
                 .results(results)
+                .timedOut(timedOut)
+                .partial(timedOut || shardsFailed)
                 .build();
     }
     
-    private SearchResult mapToSearchResult(Hit<JsonNode> hit) {
-        JsonNode source = hit.source();
-        
-        String title = source.has("title") ? source.get("title").asText() : "";
-        String content = source.has("content") ? source.get("content").asText() : "";
-        
-        // Create snippet from content (first 200 chars)
-        String snippet = content.length() > 200 
-                ? content.substring(0, 200) + "..." 
-                : content;
+    SearchResult mapToSearchResult(Hit<SearchHitSource> hit) {
+        SearchHitSource source = hit.source();
         
         // Extract highlights if available
         List<String> highlights = new ArrayList<>();
@@ -132,19 +765,27 @@ public class SearchService {
             );
         }
         
-        Map<String, Object> metadata = new HashMap<>();
-        if (source.has("metadata")) {
-            JsonNode metadataNode = source.get("metadata");
-            metadata = objectMapper.convertValue(metadataNode, Map.class);
-        }
-        
         return SearchResult.builder()
-                .documentId(UUID.fromString(source.get("document_id").asText()))
-                .title(title)
-                .snippet(snippet)
+                .documentId(source.documentId())
+                .title(source.title() != null ? source.title() : "")
+                .snippet(source.snippet() != null ? source.snippet() : "")
                 .score(hit.score() != null ? hit.score() : 0.0)
-                .metadata(metadata)
+                .metadata(source.metadata() != null ? source.metadata() : new HashMap<>())
                 .highlights(highlights)
                 .build();
     }
+    
+    private record BatchMiss(int position,
+                             com.enterprise.docsearch.common.dto.SearchRequest request,
+                             boolean fuzzy,
+                             boolean highlight,
+                             SearchFingerprint fingerprint) {
+    }
+    
+    private record FacetPlan(FacetRequest request, SearchFingerprint fingerprint, FacetCounts cached) {
+        
+        boolean aggregate() {
+            return fingerprint != null && cached == null;
+        }
+    }
 }
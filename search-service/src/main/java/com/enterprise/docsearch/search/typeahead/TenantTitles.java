@@ -0,0 +1,95 @@
+package com.enterprise.docsearch.search.typeahead;
+
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One tenant's titles: the trie that answers suggestions plus the title of
+ * every document, which is needed to undo a title on update or delete.
+ * Changes that arrive while the initial load is running are queued and
+ * applied on top of the loaded snapshot.
+ */
+final class TenantTitles {
+
+    // Rough cost of a document id entry in the title map
+    static final int DOCUMENT_BYTES = 120;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean loadClaimed = new AtomicBoolean();
+    private final TitleTrie trie = new TitleTrie();
+    private final Map<String, String> titlesByDocument = new HashMap<>();
+    private List<TitleChangeEvent.Change> pending = new ArrayList<>();
+
+    /**
+     * True for exactly one caller, who is then responsible for loading.
+     */
+    boolean claimLoad() {
+        return loadClaimed.compareAndSet(false, true);
+    }
+
+    List<String> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            // Nothing to offer until the snapshot is in
+            return pending == null ? trie.suggest(prefix, limit) : Collections.emptyList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void apply(List<TitleChangeEvent.Change> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+                return;
+            }
+            changes.forEach(this::applyChange);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void completeLoad(Map<String, String> loadedTitles) {
+        lock.writeLock().lock();
+        try {
+            loadedTitles.forEach((documentId, title) -> applyChange(new TitleChangeEvent.Change(documentId, title)));
+            pending.forEach(this::applyChange);
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return trie.estimatedBytes() + (long) titlesByDocument.size() * DOCUMENT_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyChange(TitleChangeEvent.Change change) {
+        String previous = change.title() == null
+                ? titlesByDocument.remove(change.documentId())
+                : titlesByDocument.put(change.documentId(), change.title());
+
+        if (previous != null && previous.equals(change.title())) {
+            return;
+        }
+        if (previous != null) {
+            trie.remove(previous);
+        }
+        if (change.title() != null) {
+            trie.add(change.title());
+        }
+    }
+}
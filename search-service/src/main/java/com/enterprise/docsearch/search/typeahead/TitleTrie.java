@@ -0,0 +1,248 @@
+package com.enterprise.docsearch.search.typeahead;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Radix trie over lower-cased titles. Chains of single-child nodes are
+ * collapsed into one edge label, so a node is only spent where titles
+ * actually branch. Each title ending carries a reference count, since
+ * several documents can share a title. Not thread-safe.
+ */
+final class TitleTrie {
+
+    // Rough per-node cost: the node, its label String and its children array
+    static final int NODE_BYTES = 96;
+    // Rough cost of a display title String besides its characters
+    static final int TITLE_BYTES = 40;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+    private int nodeCount = 1;
+    private int size;
+    private long labelChars;
+    private long titleChars;
+
+    /**
+     * Adds one reference to a title. The first casing added is the one
+     * suggested.
+     */
+    void add(String title) {
+        String key = normalize(title);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                insertChild(node, -(index + 1), leaf);
+                nodeCount++;
+                labelChars += leaf.label.length();
+                node = leaf;
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge where the new title branches off
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[] {child};
+                node.children[index] = split;
+                nodeCount++;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.refs++ == 0) {
+            node.title = title;
+            size++;
+            titleChars += title.length();
+        }
+    }
+
+    /**
+     * Drops one reference to a title; the title disappears from suggestions
+     * once no document carries it.
+     */
+    void remove(String title) {
+        String key = normalize(title);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Node parent = null;
+        int parentIndex = -1;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, i)) {
+                return;
+            }
+            parent = node;
+            parentIndex = index;
+            node = child;
+            i += child.label.length();
+        }
+
+        if (node.refs == 0 || --node.refs > 0) {
+            return;
+        }
+        size--;
+        titleChars -= node.title.length();
+        node.title = null;
+
+        if (node.children.length == 0) {
+            removeChild(parent, parentIndex);
+            nodeCount--;
+            labelChars -= node.label.length();
+            // The parent may now be a pass-through node that can be merged
+            if (parent != root && parent.refs == 0 && parent.children.length == 1) {
+                mergeWithOnlyChild(parent);
+            }
+        } else if (node.children.length == 1) {
+            mergeWithOnlyChild(node);
+        }
+    }
+
+    /**
+     * Up to {@code limit} titles starting with the prefix, in alphabetical
+     * order with shorter titles first.
+     */
+    List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                return Collections.emptyList();
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (i + common == key.length()) {
+                // The prefix ends on or inside this edge
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return Collections.emptyList();
+            }
+            node = child;
+            i += common;
+        }
+
+        List<String> suggestions = new ArrayList<>(limit);
+        collect(node, suggestions, limit);
+        return suggestions;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimatedBytes() {
+        return (long) nodeCount * NODE_BYTES + labelChars + (long) size * TITLE_BYTES + titleChars;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void collect(Node node, List<String> suggestions, int limit) {
+        if (node.title != null) {
+            suggestions.add(node.title);
+        }
+        for (Node child : node.children) {
+            if (suggestions.size() >= limit) {
+                return;
+            }
+            collect(child, suggestions, limit);
+        }
+    }
+
+    private void mergeWithOnlyChild(Node node) {
+        Node child = node.children[0];
+        node.label = node.label + child.label;
+        node.children = child.children;
+        node.title = child.title;
+        node.refs = child.refs;
+        nodeCount--;
+    }
+
+    private static int childIndex(Node node, char first) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = children[mid].label.charAt(0);
+            if (midChar < first) {
+                low = mid + 1;
+            } else if (midChar > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int index, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, int index) {
+        if (node.children.length == 1) {
+            node.children = NO_CHILDREN;
+            return;
+        }
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private String title;
+        private int refs;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
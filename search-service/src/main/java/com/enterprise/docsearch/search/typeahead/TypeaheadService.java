@@ -0,0 +1,271 @@
+package com.enterprise.docsearch.search.typeahead;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.json.JsonArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Title autocomplete served from memory. A tenant's titles are loaded from
+ * the title.keyword doc values the first time it asks for suggestions, and
+ * kept current by the title changes index-service publishes. Suggestions
+ * never wait on Elasticsearch: a tenant that is still loading gets none.
+ * Tenants share a memory budget; when it is exceeded the cache drops the
+ * tenants that are used least. A tenant whose titles alone exceed the budget
+ * gets no suggestions for a while rather than being loaded and dropped again
+ * on every keystroke, and each tenant has at most one load queued.
+ */
+@Service
+@Slf4j
+public class TypeaheadService implements MessageListener {
+
+    private static final String INDEX_PREFIX = "docs_tenant_";
+    private static final String DOCUMENT_ID_FIELD = "document_id";
+    private static final String TITLE_FIELD = "title.keyword";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ObjectMapper objectMapper;
+    private final Executor loadExecutor;
+    private final int loadPageSize;
+    private final Cache<String, TenantTitles> tenants;
+    private final long memoryBudgetBytes;
+    // Tenants too large for the budget, not loaded again until the entry expires
+    private final Cache<String, Boolean> oversized;
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TypeaheadService(ElasticsearchClient elasticsearchClient,
+                            ObjectMapper objectMapper,
+                            @Value("${search.typeahead.memory-budget:64MB}") DataSize memoryBudget,
+                            @Value("${search.typeahead.load-page-size:5000}") int loadPageSize,
+                            @Value("${search.typeahead.oversized-retry:10m}") Duration oversizedRetry) {
+        this(elasticsearchClient, objectMapper, memoryBudget, loadPageSize, oversizedRetry,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "typeahead-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    TypeaheadService(ElasticsearchClient elasticsearchClient,
+                     ObjectMapper objectMapper,
+                     DataSize memoryBudget,
+                     int loadPageSize,
+                     Duration oversizedRetry,
+                     Executor loadExecutor) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.objectMapper = objectMapper;
+        this.loadPageSize = loadPageSize;
+        this.loadExecutor = loadExecutor;
+        this.memoryBudgetBytes = memoryBudget.toBytes();
+        this.oversized = Caffeine.newBuilder()
+                .expireAfterWrite(oversizedRetry)
+                .maximumSize(10_000)
+                .build();
+        // Weighed in kilobytes to stay well inside int range
+        this.tenants = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, memoryBudget.toKilobytes()))
+                .weigher((String tenantId, TenantTitles titles) ->
+                        (int) Math.min(Integer.MAX_VALUE, titles.estimatedBytes() / 1024))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String tenantId = TenantContext.getTenantId();
+        if (oversized.getIfPresent(tenantId) != null) {
+            return Collections.emptyList();
+        }
+
+        TenantTitles titles = tenants.get(tenantId, id -> new TenantTitles());
+        // A dropped tenant's load may still be queued; its replacement waits for it to finish
+        if (loading.add(tenantId)) {
+            if (titles.claimLoad()) {
+                log.info("Loading typeahead titles for tenant {}", tenantId);
+                loadExecutor.execute(() -> load(tenantId, titles));
+            } else {
+                loading.remove(tenantId);
+            }
+        }
+
+        return titles.suggest(prefix, limit);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            TitleChangeEvent event = objectMapper.readValue(message.getBody(), TitleChangeEvent.class);
+
+            // Tenants nobody asked for are loaded fresh when they are; reading
+            // quietly keeps index traffic from making a tenant look popular
+            TenantTitles titles = tenants.policy().getIfPresentQuietly(event.tenantId());
+            if (titles == null) {
+                return;
+            }
+
+            titles.apply(event.changes());
+            reweigh(event.tenantId(), titles);
+
+        } catch (Exception e) {
+            log.error("Error processing title change message", e);
+        }
+    }
+
+    long estimatedBytes() {
+        return tenants.asMap().values().stream().mapToLong(TenantTitles::estimatedBytes).sum();
+    }
+
+    boolean isResident(String tenantId) {
+        return tenants.policy().getIfPresentQuietly(tenantId) != null;
+    }
+
+    boolean isOversized(String tenantId) {
+        return oversized.getIfPresent(tenantId) != null;
+    }
+
+    void evict(String tenantId) {
+        tenants.invalidate(tenantId);
+    }
+
+    private void load(String tenantId, TenantTitles titles) {
+        try {
+            // Dropped while queued; the next suggestion request loads its replacement
+            if (tenants.policy().getIfPresentQuietly(tenantId) != titles) {
+                return;
+            }
+            Map<String, String> loaded = readTitles(INDEX_PREFIX + tenantId);
+            if (loaded == null) {
+                markOversized(tenantId, titles);
+                return;
+            }
+            titles.completeLoad(loaded);
+            reweigh(tenantId, titles);
+            log.info("Loaded {} typeahead titles for tenant {}", loaded.size(), tenantId);
+        } catch (Exception e) {
+            // The next suggestion request starts a fresh load
+            log.error("Error loading typeahead titles for tenant {}", tenantId, e);
+            tenants.asMap().remove(tenantId, titles);
+        } finally {
+            loading.remove(tenantId);
+        }
+    }
+
+    private void markOversized(String tenantId, TenantTitles titles) {
+        log.warn("Typeahead titles for tenant {} exceed the memory budget of {} bytes, not loading them",
+                tenantId, memoryBudgetBytes);
+        oversized.put(tenantId, Boolean.TRUE);
+        tenants.asMap().remove(tenantId, titles);
+    }
+
+    /**
+     * Pages through the index in document_id order reading doc values only;
+     * the _source is never fetched. Stops and returns null as soon as the
+     * titles read so far could not fit in the memory budget.
+     */
+    private Map<String, String> readTitles(String indexName) throws Exception {
+        Map<String, String> titles = new HashMap<>();
+        // A lower bound of what the titles will weigh once in the trie
+        long bytes = 0;
+        List<FieldValue> searchAfter = Collections.emptyList();
+
+        try {
+            while (true) {
+                List<FieldValue> after = searchAfter;
+                SearchRequest request = SearchRequest.of(s -> {
+                    s.index(indexName)
+                            .size(loadPageSize)
+                            .source(src -> src.fetch(false))
+                            .docvalueFields(f -> f.field(DOCUMENT_ID_FIELD))
+                            .docvalueFields(f -> f.field(TITLE_FIELD))
+                            .sort(so -> so.field(f -> f.field(DOCUMENT_ID_FIELD).order(SortOrder.Asc)))
+                            .trackTotalHits(t -> t.enabled(false));
+                    if (!after.isEmpty()) {
+                        s.searchAfter(after);
+                    }
+                    return s;
+                });
+
+                SearchResponse<JsonNode> response = elasticsearchClient.search(request, JsonNode.class);
+                List<Hit<JsonNode>> hits = response.hits().hits();
+
+                for (Hit<JsonNode> hit : hits) {
+                    String documentId = firstValue(hit, DOCUMENT_ID_FIELD);
+                    String title = firstValue(hit, TITLE_FIELD);
+                    if (documentId != null && title != null) {
+                        titles.put(documentId, title);
+                        bytes += TenantTitles.DOCUMENT_BYTES + title.length();
+                    }
+                }
+                if (bytes > memoryBudgetBytes) {
+                    return null;
+                }
+
+                if (hits.size() < loadPageSize) {
+                    return titles;
+                }
+                searchAfter = hits.get(hits.size() - 1).sort();
+            }
+        } catch (ElasticsearchException e) {
+            // A tenant that never indexed anything has no index yet
+            if ("index_not_found_exception".equals(e.error().type())) {
+                return titles;
+            }
+            throw e;
+        }
+    }
+
+    private static String firstValue(Hit<JsonNode> hit, String field) {
+        JsonData value = hit.fields().get(field);
+        if (value == null) {
+            return null;
+        }
+        JsonArray values = value.toJson().asJsonArray();
+        return values.isEmpty() ? null : values.getString(0);
+    }
+
+    // Caffeine weighs an entry when it is written, so write it again after it grows
+    private void reweigh(String tenantId, TenantTitles titles) {
+        if (titles.estimatedBytes() > memoryBudgetBytes) {
+            markOversized(tenantId, titles);
+            return;
+        }
+        tenants.asMap().computeIfPresent(tenantId, (id, current) -> current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (loadExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.enterprise.docsearch.search.warmup;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.search.cache.IndexGenerationTracker;
+import com.enterprise.docsearch.search.service.SearchService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each tenant's most popular searches cached. A popular search is run
+ * again shortly before its cache entry expires, and right after the tenant's
+ * index generation changes, so its callers never see the miss. On startup
+ * the popular queries of the last days are read from search_analytics and
+ * pulled into the cache, so a fresh instance doesn't start cold.
+ */
+@Component
+@Slf4j
+public class CacheWarmer {
+
+    private final SearchService searchService;
+    private final PopularQueries popularQueries;
+    private final PopularQueryStore popularQueryStore;
+    private final IndexGenerationTracker generationTracker;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+
+    private final int topQueries;
+    private final Duration interval;
+    private final Duration refreshAfter;
+    private final Duration startupWindow;
+    private final Duration decayInterval;
+
+    // Only touched on the scheduler thread
+    private final Map<String, Map<WarmQuery, Refreshed>> refreshed = new HashMap<>();
+    private Instant lastDecay;
+
+    @Autowired
+    public CacheWarmer(SearchService searchService,
+                       PopularQueries popularQueries,
+                       PopularQueryStore popularQueryStore,
+                       IndexGenerationTracker generationTracker,
+                       @Value("${search.warmup.top-queries:20}") int topQueries,
+                       @Value("${search.warmup.interval:30s}") Duration interval,
+                       @Value("${search.warmup.refresh-ahead:2m}") Duration refreshAhead,
+                       @Value("${search.warmup.startup-window:7d}") Duration startupWindow,
+                       @Value("${search.cache.ttl:5m}") Duration cacheTtl) {
+        this(searchService, popularQueries, popularQueryStore, generationTracker,
+                topQueries, interval, refreshAhead, startupWindow, cacheTtl,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "cache-warmer");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                Clock.systemUTC());
+    }
+
+    CacheWarmer(SearchService searchService,
+                PopularQueries popularQueries,
+                PopularQueryStore popularQueryStore,
+                IndexGenerationTracker generationTracker,
+                int topQueries,
+                Duration interval,
+                Duration refreshAhead,
+                Duration startupWindow,
+                Duration cacheTtl,
+                ScheduledExecutorService scheduler,
+                Clock clock) {
+        this.searchService = searchService;
+        this.popularQueries = popularQueries;
+        this.popularQueryStore = popularQueryStore;
+        this.generationTracker = generationTracker;
+        this.topQueries = topQueries;
+        this.interval = interval;
+        this.refreshAfter = cacheTtl.minus(refreshAhead);
+        this.startupWindow = startupWindow;
+        // A query popular one cache lifetime ago counts half as much as one popular now
+        this.decayInterval = cacheTtl;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.lastDecay = clock.instant();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.execute(this::preWarm);
+        scheduler.scheduleWithFixedDelay(this::refreshPopularQueries,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Seeds the popularity counts from search_analytics and reads every
+     * popular query through the cache: an entry another instance already
+     * cached lands in this instance's L1, anything else is searched.
+     */
+    void preWarm() {
+        List<PopularQueryStore.PopularQuery> stored;
+        try {
+            stored = popularQueryStore.topQueries(topQueries, clock.instant().minus(startupWindow));
+        } catch (Exception e) {
+            // Not fatal: popularity is then learned from live traffic
+            log.warn("Could not read popular queries, skipping cache pre-warm", e);
+            return;
+        }
+
+        stored.forEach(popular -> popularQueries.add(
+                popular.tenantId(), WarmQuery.withDefaults(popular.queryText()), popular.searchCount()));
+
+        int warmed = 0;
+        for (String tenantId : popularQueries.tenants()) {
+            TenantContext.setTenantId(tenantId);
+            try {
+                for (WarmQuery query : popularQueries.top(tenantId)) {
+                    searchService.search(query.query(), query.page(), query.size(), query.fuzzy(), query.highlight());
+                    warmed++;
+                }
+            } catch (Exception e) {
+                log.warn("Error pre-warming search cache for tenant {}", tenantId, e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+        log.info("Pre-warmed {} popular searches", warmed);
+    }
+
+    void refreshPopularQueries() {
+        try {
+            Instant now = clock.instant();
+            refreshed.keySet().retainAll(popularQueries.tenants());
+
+            for (String tenantId : popularQueries.tenants()) {
+                TenantContext.setTenantId(tenantId);
+                try {
+                    refreshTenant(tenantId, now);
+                } finally {
+                    TenantContext.clear();
+                }
+            }
+
+            if (!now.isBefore(lastDecay.plus(decayInterval))) {
+                popularQueries.decay();
+                lastDecay = now;
+            }
+        } catch (Exception e) {
+            // An exception would cancel the scheduled task for good
+            log.error("Error refreshing popular searches", e);
+        }
+    }
+
+    private void refreshTenant(String tenantId, Instant now) {
+        long generation = generationTracker.currentGeneration(tenantId);
+        List<WarmQuery> top = popularQueries.top(tenantId);
+
+        Map<WarmQuery, Refreshed> tenantRefreshed = refreshed.computeIfAbsent(tenantId, id -> new HashMap<>());
+        tenantRefreshed.keySet().retainAll(top);
+
+        for (WarmQuery query : top) {
+            Refreshed last = tenantRefreshed.get(query);
+            if (last != null && last.generation() == generation && now.isBefore(last.at().plus(refreshAfter))) {
+                continue;
+            }
+
+            try {
+                searchService.refresh(query.query(), query.page(), query.size(), query.fuzzy(), query.highlight());
+                tenantRefreshed.put(query, new Refreshed(generation, now));
+            } catch (Exception e) {
+                // The rest of this tenant's queries would most likely fail the same way
+                log.warn("Error refreshing popular search for tenant {}, retrying next round", tenantId, e);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record Refreshed(long generation, Instant at) {
+    }
+}
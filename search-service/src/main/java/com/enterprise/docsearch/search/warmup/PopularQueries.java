@@ -0,0 +1,111 @@
+package com.enterprise.docsearch.search.warmup;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate per-tenant query counts. Each tenant keeps a fixed number of
+ * counters (space-saving): a new query that finds them all taken replaces
+ * the least counted one and inherits its count, so a query that keeps coming
+ * back always makes it into the top. Counts are halved by {@link #decay()}
+ * so yesterday's popular queries make room for today's.
+ */
+@Component
+public class PopularQueries {
+
+    // Counters per tenant for each query that can be reported as popular
+    static final int COUNTERS_PER_TOP_QUERY = 4;
+
+    private final int topQueries;
+    private final int capacity;
+    private final Map<String, TenantCounts> tenants = new ConcurrentHashMap<>();
+
+    public PopularQueries(@Value("${search.warmup.top-queries:20}") int topQueries) {
+        this.topQueries = topQueries;
+        this.capacity = topQueries * COUNTERS_PER_TOP_QUERY;
+    }
+
+    /**
+     * Counts one request of the tenant in context.
+     */
+    public void record(WarmQuery query) {
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId == null || query.query().isEmpty()) {
+            return;
+        }
+        add(tenantId, query, 1);
+    }
+
+    void add(String tenantId, WarmQuery query, long count) {
+        tenants.computeIfAbsent(tenantId, id -> new TenantCounts()).add(query, count, capacity);
+    }
+
+    /**
+     * The tenant's most counted queries, most popular first.
+     */
+    public List<WarmQuery> top(String tenantId) {
+        TenantCounts counts = tenants.get(tenantId);
+        return counts != null ? counts.top(topQueries) : List.of();
+    }
+
+    public Set<String> tenants() {
+        return Set.copyOf(tenants.keySet());
+    }
+
+    public void decay() {
+        tenants.forEach((tenantId, counts) -> {
+            if (counts.halve()) {
+                tenants.remove(tenantId, counts);
+            }
+        });
+    }
+
+    private static final class TenantCounts {
+
+        private final Map<WarmQuery, Long> counts = new HashMap<>();
+
+        synchronized void add(WarmQuery query, long count, int capacity) {
+            Long current = counts.get(query);
+            if (current != null) {
+                counts.put(query, current + count);
+                return;
+            }
+
+            long inherited = 0;
+            if (counts.size() >= capacity) {
+                Map.Entry<WarmQuery, Long> least = counts.entrySet().stream()
+                        .min(Map.Entry.comparingByValue())
+                        .orElseThrow();
+                counts.remove(least.getKey());
+                inherited = least.getValue();
+            }
+            counts.put(query, inherited + count);
+        }
+
+        synchronized List<WarmQuery> top(int limit) {
+            return counts.entrySet().stream()
+                    .sorted(Map.Entry.<WarmQuery, Long>comparingByValue().reversed()
+                            .thenComparing(entry -> entry.getKey().query(), Comparator.naturalOrder()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        /**
+         * Returns true once nothing is left to count.
+         */
+        synchronized boolean halve() {
+            counts.replaceAll((query, count) -> count / 2);
+            counts.values().removeIf(count -> count == 0);
+            return counts.isEmpty();
+        }
+    }
+}
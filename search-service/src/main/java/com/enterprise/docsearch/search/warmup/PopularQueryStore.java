@@ -0,0 +1,46 @@
+package com.enterprise.docsearch.search.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reads query popularity from search_analytics. The popular_searches view
+ * is not used because it ranks all tenants together and stops at 100 rows,
+ * which leaves small tenants out entirely.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PopularQueryStore {
+
+    private static final String TOP_QUERIES_SQL = """
+            SELECT tenant_id, query_text, search_count
+            FROM (
+                SELECT tenant_id, query_text, COUNT(*) AS search_count,
+                       ROW_NUMBER() OVER (PARTITION BY tenant_id ORDER BY COUNT(*) DESC, query_text) AS tenant_rank
+                FROM search_analytics
+                WHERE timestamp > ?
+                GROUP BY tenant_id, query_text
+            ) ranked
+            WHERE tenant_rank <= ?
+            ORDER BY tenant_id, tenant_rank
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<PopularQuery> topQueries(int perTenant, Instant since) {
+        return jdbcTemplate.query(TOP_QUERIES_SQL,
+                (rs, rowNum) -> new PopularQuery(
+                        rs.getString("tenant_id"),
+                        rs.getString("query_text"),
+                        rs.getLong("search_count")),
+                Timestamp.from(since), perTenant);
+    }
+
+    public record PopularQuery(String tenantId, String queryText, long searchCount) {
+    }
+}
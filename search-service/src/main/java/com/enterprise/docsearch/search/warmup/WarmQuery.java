@@ -0,0 +1,26 @@
+package com.enterprise.docsearch.search.warmup;
+
+import com.enterprise.docsearch.search.cache.QueryNormalizer;
+
+/**
+ * A search worth keeping warm. The query text is normalized, so requests that
+ * share a cache entry are counted as one.
+ */
+public record WarmQuery(String query, int page, int size, boolean fuzzy, boolean highlight) {
+
+    // What GET /api/v1/search uses when the caller only sends q
+    static final int DEFAULT_PAGE = 1;
+    static final int DEFAULT_SIZE = 10;
+
+    public static WarmQuery of(String query, int page, int size, boolean fuzzy, boolean highlight) {
+        return new WarmQuery(QueryNormalizer.normalize(query), page, size, fuzzy, highlight);
+    }
+
+    /**
+     * search_analytics only keeps the query text, so queries read from it are
+     * warmed with the endpoint's defaults.
+     */
+    static WarmQuery withDefaults(String query) {
+        return of(query, DEFAULT_PAGE, DEFAULT_SIZE, false, true);
+    }
+}
@@ -0,0 +1,108 @@
+package com.enterprise.docsearch.search.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        // When & Then
+        assertEquals(8, new MpscRingBuffer<>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(1));
+    }
+
+    @Test
+    void testOfferFailsWhenFullAndSucceedsAfterDrain() {
+        // Given
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // When
+        boolean offeredWhenFull = buffer.offer(4);
+        List<Integer> drained = new ArrayList<>();
+        int count = buffer.drainTo(drained, 3);
+
+        // Then
+        assertFalse(offeredWhenFull);
+        assertEquals(3, count);
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(1, buffer.size());
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    void testElementsWrapAroundInOrder() {
+        // Given
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+            buffer.drainTo(drained, 1);
+        }
+
+        // Then
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), drained);
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        // Given
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer(base + i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+
+        Set<Integer> consumed = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        while (!pool.isTerminated() || buffer.size() > 0) {
+            buffer.drainTo(batch, 256);
+            for (Integer element : batch) {
+                assertTrue(consumed.add(element), "Element consumed twice: " + element);
+            }
+            batch.clear();
+        }
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(accepted.get(), consumed.size());
+    }
+}
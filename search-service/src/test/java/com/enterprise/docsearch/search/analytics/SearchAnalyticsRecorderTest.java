@@ -0,0 +1,163 @@
+package com.enterprise.docsearch.search.analytics;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchAnalyticsRecorderTest {
+
+    @Mock
+    private SearchAnalyticsWriter writer;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<SearchAnalyticsEvent>> batches = new ArrayList<>();
+    private SearchAnalyticsRecorder recorder;
+
+    private static final String TENANT_ID = "tenant123";
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(TENANT_ID);
+        recorder = new SearchAnalyticsRecorder(writer, meterRegistry, 8, 3, scheduler);
+        // The recorder reuses its batch list, so keep copies
+        lenient().doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(0))))
+                .when(writer).insert(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testFlushWritesBufferedEventsInBatches() {
+        // Given
+        for (int i = 0; i < 7; i++) {
+            recorder.record("query " + i, i, 12, i % 2 == 0);
+        }
+
+        // When
+        recorder.flush();
+
+        // Then
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).toList());
+        SearchAnalyticsEvent first = batches.get(0).get(0);
+        assertEquals(TENANT_ID, first.tenantId());
+        assertEquals("query 0", first.queryText());
+        assertEquals(12, first.searchTimeMs());
+        assertTrue(first.cacheHit());
+        assertEquals(7.0, eventCount("written"));
+        assertEquals(0.0, gaugeValue());
+    }
+
+    @Test
+    void testEventsBeyondCapacityAreDroppedAndCounted() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            recorder.record("query " + i, 1, 1, false);
+        }
+        recorder.flush();
+
+        // Then
+        assertEquals(2.0, eventCount("dropped"));
+        assertEquals(8.0, eventCount("written"));
+        assertEquals("query 7", batches.get(2).get(1).queryText());
+    }
+
+    @Test
+    void testFailedBatchIsDroppedAndNextBatchStillWritten() {
+        // Given
+        doThrow(new RuntimeException("Connection refused"))
+                .doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(0))))
+                .when(writer).insert(anyList());
+        for (int i = 0; i < 5; i++) {
+            recorder.record("query " + i, 1, 1, false);
+        }
+
+        // When
+        recorder.flush();
+
+        // Then
+        assertEquals(3.0, eventCount("failed"));
+        assertEquals(2.0, eventCount("written"));
+        assertEquals("query 3", batches.get(0).get(0).queryText());
+        assertEquals(1.0, meterRegistry.counter("search.analytics.write.failures",
+                "exception", "RuntimeException").count());
+    }
+
+    @Test
+    void testSearchesWithoutTenantAreNotRecorded() {
+        // Given
+        TenantContext.clear();
+
+        // When
+        recorder.record("query", 1, 1, false);
+        recorder.flush();
+
+        // Then
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    void testSearchRecordedForGivenTenantWithoutContext() {
+        // Given
+        TenantContext.clear();
+
+        // When
+        recorder.record("otherTenant", "query", 1, 1, false);
+        recorder.flush();
+
+        // Then
+        assertEquals("otherTenant", batches.get(0).get(0).tenantId());
+    }
+
+    @Test
+    void testShutdownFlushesWhatIsLeft() {
+        // Given
+        recorder.record("query", 1, 1, false);
+
+        // When
+        recorder.shutdown();
+
+        // Then
+        verify(scheduler).shutdown();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testLargeValuesAreClampedToColumnRange() {
+        // When
+        recorder.record("query", Long.MAX_VALUE, Long.MAX_VALUE, false);
+        recorder.flush();
+
+        // Then
+        assertEquals(Integer.MAX_VALUE, batches.get(0).get(0).resultCount());
+        assertEquals(Integer.MAX_VALUE, batches.get(0).get(0).searchTimeMs());
+    }
+
+    private double eventCount(String outcome) {
+        return meterRegistry.counter("search.analytics.events", "outcome", outcome).count();
+    }
+
+    private double gaugeValue() {
+        return meterRegistry.get("search.analytics.buffer.size").gauge().value();
+    }
+}
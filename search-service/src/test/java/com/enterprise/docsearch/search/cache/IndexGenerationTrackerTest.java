@@ -0,0 +1,72 @@
+package com.enterprise.docsearch.search.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexGenerationTrackerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private static final String GENERATION_KEY = "docsearch:index-generation:tenant123";
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void testMissingGenerationIsZero() {
+        // Given
+        IndexGenerationTracker tracker = new IndexGenerationTracker(redisTemplate, Duration.ZERO);
+
+        // When & Then
+        assertEquals(0L, tracker.currentGeneration("tenant123"));
+    }
+
+    @Test
+    void testGenerationIsMemoizedWithinCheckInterval() {
+        // Given
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("3", "4");
+        IndexGenerationTracker tracker = new IndexGenerationTracker(redisTemplate, Duration.ofMinutes(1));
+
+        // When
+        long first = tracker.currentGeneration("tenant123");
+        long second = tracker.currentGeneration("tenant123");
+
+        // Then
+        assertEquals(3L, first);
+        assertEquals(3L, second);
+        verify(valueOperations, times(1)).get(GENERATION_KEY);
+    }
+
+    @Test
+    void testLastKnownGenerationUsedWhenRedisFails() {
+        // Given
+        when(valueOperations.get(GENERATION_KEY))
+                .thenReturn("5")
+                .thenThrow(new RuntimeException("Redis down"));
+        IndexGenerationTracker tracker = new IndexGenerationTracker(redisTemplate, Duration.ZERO);
+
+        // When
+        tracker.currentGeneration("tenant123");
+        long generation = tracker.currentGeneration("tenant123");
+
+        // Then
+        assertEquals(5L, generation);
+    }
+}
@@ -0,0 +1,123 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.search.facet.FacetRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchCacheKeyFactoryTest {
+
+    @Mock
+    private IndexGenerationTracker generationTracker;
+
+    private SearchCacheKeyFactory keyFactory;
+
+    private static final String TENANT_ID = "tenant123";
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(TENANT_ID);
+        keyFactory = new SearchCacheKeyFactory(generationTracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testNormalizesCaseWhitespaceAndTermOrder() {
+        String first = keyFactory.fingerprint("  Annual   REPORT 2024 ", 1, 10, false, true).key();
+        String second = keyFactory.fingerprint("2024 report annual", 1, 10, false, true).key();
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testPhraseQueriesKeepTermOrder() {
+        assertEquals("\"annual report\"", QueryNormalizer.normalize("\"Annual Report\""));
+        assertNotEquals(
+                keyFactory.fingerprint("\"annual report\"", 1, 10, false, true).key(),
+                keyFactory.fingerprint("\"report annual\"", 1, 10, false, true).key());
+    }
+
+    @Test
+    void testDuplicateTermsAreKept() {
+        assertEquals("a a b", QueryNormalizer.normalize("b a a"));
+    }
+
+    @Test
+    void testEveryOptionChangesKey() {
+        String base = keyFactory.fingerprint("test", 1, 10, false, true).key();
+
+        assertNotEquals(base, keyFactory.fingerprint("test", 2, 10, false, true).key());
+        assertNotEquals(base, keyFactory.fingerprint("test", 1, 20, false, true).key());
+        assertNotEquals(base, keyFactory.fingerprint("test", 1, 10, true, true).key());
+        assertNotEquals(base, keyFactory.fingerprint("test", 1, 10, false, false).key());
+    }
+
+    @Test
+    void testFiltersAndFacetsChangeKeyRegardlessOfOrder() {
+        String plain = keyFactory.fingerprint("test", 1, 10, false, true).key();
+        FacetRequest first = FacetRequest.parse(List.of("dept:eng", "dept:sales"), List.of("dept", "pages:10:100"));
+        FacetRequest second = FacetRequest.parse(List.of("dept:sales", "dept:eng"), List.of("pages:100:10", "dept"));
+
+        String faceted = keyFactory.fingerprint("test", 1, 10, false, true, first).key();
+
+        assertNotEquals(plain, faceted);
+        assertEquals(faceted, keyFactory.fingerprint("test", 1, 10, false, true, second).key());
+        assertEquals(plain, keyFactory.fingerprint("test", 1, 10, false, true, FacetRequest.NONE).key());
+    }
+
+    @Test
+    void testFacetKeyIgnoresPagingButNotFilters() {
+        FacetRequest facets = FacetRequest.parse(List.of("dept:eng"), List.of("dept"));
+
+        String facetKey = keyFactory.facetFingerprint("test", false, facets).key();
+
+        assertEquals(facetKey, keyFactory.facetFingerprint("TEST", false, facets).key());
+        assertNotEquals(facetKey, keyFactory.fingerprint("test", 1, 10, false, true, facets).key());
+        assertNotEquals(facetKey, keyFactory.facetFingerprint("test", false,
+                FacetRequest.parse(List.of("dept:sales"), List.of("dept"))).key());
+    }
+
+    @Test
+    void testKeyIsScopedByTenantFromContext() {
+        String tenantKey = keyFactory.fingerprint("test", 1, 10, false, true).key();
+
+        TenantContext.setTenantId("otherTenant");
+        String otherKey = keyFactory.fingerprint("test", 1, 10, false, true).key();
+
+        assertTrue(tenantKey.startsWith(TENANT_ID + ":"));
+        assertTrue(otherKey.startsWith("otherTenant:"));
+        assertNotEquals(tenantKey, otherKey);
+    }
+
+    @Test
+    void testKeyIncludesIndexGeneration() {
+        when(generationTracker.currentGeneration(TENANT_ID)).thenReturn(7L);
+
+        SearchFingerprint fingerprint = keyFactory.fingerprint("test", 1, 10, false, true);
+
+        assertEquals(7L, fingerprint.generation());
+        assertTrue(fingerprint.key().endsWith(":v7"));
+    }
+
+    @Test
+    void testMissingTenantIsRejected() {
+        TenantContext.clear();
+
+        assertThrows(IllegalStateException.class, () ->
+                keyFactory.fingerprint("test", 1, 10, false, true));
+    }
+}
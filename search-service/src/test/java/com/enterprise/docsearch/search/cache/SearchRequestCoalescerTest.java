@@ -0,0 +1,127 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.enterprise.docsearch.common.dto.SearchResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchRequestCoalescerTest {
+
+    private MeterRegistry meterRegistry;
+    private SearchRequestCoalescer coalescer;
+
+    private static final SearchFingerprint FINGERPRINT =
+            new SearchFingerprint("tenant123", "q=test|page=1|size=10|fuzzy=false|highlight=true", 0);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new SearchRequestCoalescer(meterRegistry, Duration.ofMillis(200));
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneLoad() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<SearchResponse> pending = new CompletableFuture<>();
+        SearchResponse response = SearchResponse.builder().query("test").build();
+
+        // When
+        CompletableFuture<SearchResponse> first = coalescer.execute(FINGERPRINT, () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<SearchResponse> second = coalescer.execute(FINGERPRINT, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        pending.complete(response);
+
+        // Then
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("leader"));
+        assertEquals(1.0, count("follower"));
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testCompletedSearchIsNotReused() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        coalescer.execute(FINGERPRINT, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new SearchResponse());
+        }).get();
+        coalescer.execute(FINGERPRINT, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new SearchResponse());
+        }).get();
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(2.0, count("leader"));
+    }
+
+    @Test
+    void testFailureIsSharedWithWaiters() {
+        // Given
+        CompletableFuture<SearchResponse> pending = new CompletableFuture<>();
+        CompletableFuture<SearchResponse> first = coalescer.execute(FINGERPRINT, () -> pending);
+        CompletableFuture<SearchResponse> second = coalescer.execute(FINGERPRINT, CompletableFuture::new);
+
+        // When
+        pending.completeExceptionally(new RuntimeException("Search failed"));
+
+        // Then
+        ExecutionException firstError = assertThrows(ExecutionException.class, first::get);
+        ExecutionException secondError = assertThrows(ExecutionException.class, second::get);
+        assertEquals("Search failed", firstError.getCause().getMessage());
+        assertEquals("Search failed", secondError.getCause().getMessage());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testWaiterFallsBackAfterMaxWait() throws Exception {
+        // Given
+        CompletableFuture<SearchResponse> stuck = new CompletableFuture<>();
+        SearchResponse fallback = SearchResponse.builder().query("fallback").build();
+        CompletableFuture<SearchResponse> first = coalescer.execute(FINGERPRINT, () -> stuck);
+
+        // When
+        SearchResponse second = coalescer.execute(FINGERPRINT,
+                () -> CompletableFuture.completedFuture(fallback)).get();
+
+        // Then
+        assertSame(fallback, second);
+        assertFalse(first.isDone());
+        assertEquals(1.0, meterRegistry.get("search.coalescing.fallbacks").counter().count());
+    }
+
+    @Test
+    void testLoaderExceptionCompletesExceptionally() {
+        // When
+        CompletableFuture<SearchResponse> result = coalescer.execute(FINGERPRINT, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // Then
+        assertThrows(ExecutionException.class, result::get);
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    private double count(String role) {
+        return meterRegistry.get("search.coalescing.requests").tag("role", role).counter().count();
+    }
+}
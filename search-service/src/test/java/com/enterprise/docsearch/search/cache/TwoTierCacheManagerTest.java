@@ -0,0 +1,165 @@
+package com.enterprise.docsearch.search.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private CacheManager remoteCacheManager;
+
+    @Mock
+    private Cache remoteCache;
+
+    private ConcurrentMapCacheManager localCacheManager;
+    private MeterRegistry meterRegistry;
+    private ObjectMapper objectMapper;
+    private TwoTierCacheManager cacheManager;
+
+    private static final String CHANNEL = "docsearch:cache-invalidation";
+
+    @BeforeEach
+    void setUp() {
+        localCacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new ObjectMapper();
+        lenient().when(remoteCacheManager.getCache("searchResults")).thenReturn(remoteCache);
+
+        cacheManager = new TwoTierCacheManager(localCacheManager, remoteCacheManager,
+                redisTemplate, objectMapper, meterRegistry, CHANNEL);
+    }
+
+    @Test
+    void testL2HitPopulatesL1() {
+        // Given
+        when(remoteCache.get("key")).thenReturn(() -> "value");
+        Cache cache = cacheManager.getCache("searchResults");
+
+        // When
+        String first = cache.get("key", String.class);
+        String second = cache.get("key", String.class);
+
+        // Then
+        assertEquals("value", first);
+        assertEquals("value", second);
+        verify(remoteCache, times(1)).get("key");
+        assertEquals(1.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "hit"));
+        assertEquals(0.0, count("l2", "miss"));
+    }
+
+    @Test
+    void testMissInBothTiersCountsBoth() {
+        // Given
+        Cache cache = cacheManager.getCache("searchResults");
+
+        // When
+        Object value = cache.get("missing", Object.class);
+
+        // Then
+        assertNull(value);
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "miss"));
+    }
+
+    @Test
+    void testL2FailureDegradesToMiss() {
+        // Given
+        when(remoteCache.get("key")).thenThrow(new RuntimeException("Redis down"));
+        doThrow(new RuntimeException("Redis down")).when(remoteCache).put("key", "value");
+        Cache cache = cacheManager.getCache("searchResults");
+
+        // When
+        assertNull(cache.get("key", String.class));
+        cache.put("key", "value");
+
+        // Then
+        assertEquals("value", cache.get("key", String.class));
+    }
+
+    @Test
+    void testEvictBroadcastsInvalidation() throws Exception {
+        // Given
+        Cache cache = cacheManager.getCache("searchResults");
+        cache.put("key", "value");
+
+        // When
+        cache.evict("key");
+
+        // Then
+        verify(remoteCache).evict("key");
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), payload.capture());
+        assertTrue(payload.getValue().contains("\"key\":\"key\""));
+        assertNull(localCacheManager.getCache("searchResults").get("key"));
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsL1Only() throws Exception {
+        // Given
+        Cache cache = cacheManager.getCache("searchResults");
+        cache.put("key", "value");
+        String payload = objectMapper.writeValueAsString(
+                new TwoTierCacheManager.InvalidationMessage("other-instance", "searchResults", "key"));
+
+        // When
+        cacheManager.onMessage(new DefaultMessage(
+                CHANNEL.getBytes(StandardCharsets.UTF_8), payload.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertNull(localCacheManager.getCache("searchResults").get("key"));
+        verify(remoteCache, never()).evict(anyString());
+    }
+
+    @Test
+    void testOwnInvalidationIsIgnored() throws Exception {
+        // Given
+        Cache cache = cacheManager.getCache("searchResults");
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        cache.evict("other");
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), payload.capture());
+        cache.put("key", "value");
+
+        String ownPayload = payload.getValue().replace("\"other\"", "\"key\"");
+
+        // When
+        cacheManager.onMessage(new DefaultMessage(
+                CHANNEL.getBytes(StandardCharsets.UTF_8), ownPayload.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertNotNull(localCacheManager.getCache("searchResults").get("key"));
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("search.cache.requests")
+                .tag("cache", "searchResults")
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
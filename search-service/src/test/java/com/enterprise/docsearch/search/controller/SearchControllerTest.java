@@ -2,10 +2,19 @@ package com.enterprise.docsearch.search.controller;
 
 import com.enterprise.docsearch.common.config.TestConfig;
 import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.common.dto.ApiResponse;
 import com.enterprise.docsearch.common.dto.SearchResponse;
 import com.enterprise.docsearch.common.dto.SearchResponse.SearchResult;
+import com.enterprise.docsearch.common.exception.GlobalExceptionHandler;
 import com.enterprise.docsearch.search.controller.SearchController;
+import com.enterprise.docsearch.search.facet.FacetRequest;
+import com.enterprise.docsearch.search.profile.SearchTimings;
+import com.enterprise.docsearch.search.service.SearchExport;
+import com.enterprise.docsearch.search.service.SearchExportService;
 import com.enterprise.docsearch.search.service.SearchService;
+import com.enterprise.docsearch.search.typeahead.TypeaheadService;
+import com.enterprise.docsearch.search.warmup.PopularQueries;
+import com.enterprise.docsearch.search.warmup.WarmQuery;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,18 +22,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = SearchController.class)
-@ContextConfiguration(classes = {SearchController.class, TestConfig.class})
+@ContextConfiguration(classes = {SearchController.class, GlobalExceptionHandler.class, TestConfig.class})
 class SearchControllerTest {
 
     @Autowired
@@ -36,6 +52,15 @@ class SearchControllerTest {
     @MockBean
     private SearchService searchService;
 
+    @MockBean
+    private SearchExportService searchExportService;
+
+    @MockBean
+    private TypeaheadService typeaheadService;
+
+    @MockBean
+    private PopularQueries popularQueries;
+
     private static final String TENANT_ID = "tenant123";
 
     @BeforeEach
@@ -70,11 +95,12 @@ class SearchControllerTest {
                 .results(Collections.singletonList(result))
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test query")
                         .param("page", "1")
                         .param("size", "10"))
@@ -87,7 +113,8 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$.data.results[0].documentId").value(documentId.toString()))
                 .andExpect(jsonPath("$.data.results[0].title").value("Test Document"));
 
-        verify(searchService).search("test query", 1, 10, false, true);
+        verify(searchService).searchAsync("test query", 1, 10, false, true, FacetRequest.NONE, SearchTimings.NONE);
+        verify(popularQueries).record(WarmQuery.of("test query", 1, 10, false, true));
     }
 
     @Test
@@ -102,16 +129,17 @@ class SearchControllerTest {
                 .results(Collections.emptyList())
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
 
-        verify(searchService).search("test", 1, 10, false, true);
+        verify(searchService).searchAsync("test", 1, 10, false, true, FacetRequest.NONE, SearchTimings.NONE);
     }
 
     @Test
@@ -126,16 +154,17 @@ class SearchControllerTest {
                 .results(Collections.emptyList())
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test")
                         .param("fuzzy", "true"))
                 .andExpect(status().isOk());
 
-        verify(searchService).search("test", 1, 10, true, true);
+        verify(searchService).searchAsync("test", 1, 10, true, true, FacetRequest.NONE, SearchTimings.NONE);
     }
 
     @Test
@@ -150,16 +179,17 @@ class SearchControllerTest {
                 .results(Collections.emptyList())
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test")
                         .param("highlight", "false"))
                 .andExpect(status().isOk());
 
-        verify(searchService).search("test", 1, 10, false, false);
+        verify(searchService).searchAsync("test", 1, 10, false, false, FacetRequest.NONE, SearchTimings.NONE);
     }
 
     @Test
@@ -174,11 +204,12 @@ class SearchControllerTest {
                 .results(Collections.emptyList())
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test")
                         .param("page", "5")
                         .param("size", "20"))
@@ -186,7 +217,7 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$.data.page").value(5))
                 .andExpect(jsonPath("$.data.pageSize").value(20));
 
-        verify(searchService).search("test", 5, 20, false, true);
+        verify(searchService).searchAsync("test", 5, 20, false, true, FacetRequest.NONE, SearchTimings.NONE);
     }
 
     @Test
@@ -220,11 +251,12 @@ class SearchControllerTest {
                 .results(results)
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.results.length()").value(2))
@@ -244,11 +276,12 @@ class SearchControllerTest {
                 .results(Collections.emptyList())
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "nonexistent"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.totalHits").value(0))
@@ -267,11 +300,12 @@ class SearchControllerTest {
                 .results(Collections.emptyList())
                 .build();
 
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenReturn(response);
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
         // When & Then
-        mockMvc.perform(get("/api/v1/search")
+        performAsync(get("/api/v1/search")
                         .param("q", "test")
                         .param("size", "100"))
                 .andExpect(status().isOk())
@@ -279,14 +313,199 @@ class SearchControllerTest {
     }
 
     @Test
-    void testSearchServiceError() throws Exception {
+    void testSearchWithCursor() throws Exception {
+        // Given
+        SearchResponse response = SearchResponse.builder()
+                .query("test")
+                .totalHits(50L)
+                .pageSize(10)
+                .tookMs(10L)
+                .results(Collections.emptyList())
+                .nextCursor("next-cursor")
+                .build();
+
+        when(searchService.searchWithCursor(anyString(), anyString(), anyInt(), anyBoolean(), anyBoolean()))
+                .thenReturn(response);
+
+        // When & Then
+        performAsync(get("/api/v1/search")
+                        .param("q", "test")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"));
+
+        verify(searchService).searchWithCursor("test", "abc", 10, false, true);
+        verify(searchService, never()).searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class));
+    }
+
+    @Test
+    void testSearchWithFiltersAndFacets() throws Exception {
+        // Given
+        SearchResponse response = SearchResponse.builder()
+                .query("test")
+                .page(1)
+                .pageSize(10)
+                .results(Collections.emptyList())
+                .facets(Map.of("dept", List.of(SearchResponse.FacetBucket.builder().key("eng").count(3).build())))
+                .build();
+
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        // When & Then
+        performAsync(get("/api/v1/search")
+                        .param("q", "test")
+                        .param("filter", "dept:eng")
+                        .param("facet", "dept"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.facets.dept[0].key").value("eng"))
+                .andExpect(jsonPath("$.data.facets.dept[0].count").value(3));
+
+        verify(searchService).searchAsync("test", 1, 10, false, true,
+                FacetRequest.parse(List.of("dept:eng"), List.of("dept")), SearchTimings.NONE);
+        verifyNoInteractions(popularQueries);
+    }
+
+    @Test
+    void testCursorSearchRejectsFacets() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/search")
+                        .param("q", "test")
+                        .param("cursor", "")
+                        .param("facet", "dept"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testSearchWithDebugTimings() throws Exception {
         // Given
-        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
-                .thenThrow(new RuntimeException("Search failed"));
+        SearchResponse response = SearchResponse.builder()
+                .query("test")
+                .page(1)
+                .pageSize(10)
+                .results(Collections.emptyList())
+                .build();
 
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenAnswer(invocation -> {
+                    SearchTimings timings = invocation.getArgument(6);
+                    timings.lap("cache_lookup");
+                    return CompletableFuture.completedFuture(response);
+                });
+
+        // When & Then
+        performAsync(get("/api/v1/search")
+                        .param("q", "test")
+                        .param("debug", "timings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.timings.stagesNanos.cache_lookup").isNumber())
+                .andExpect(jsonPath("$.data.timings.stagesNanos.serialization").isNumber())
+                .andExpect(jsonPath("$.data.timings.cacheHit").value(true));
+    }
+
+    @Test
+    void testSearchRejectsUnknownDebugMode() throws Exception {
         // When & Then
         mockMvc.perform(get("/api/v1/search")
+                        .param("q", "test")
+                        .param("debug", "everything"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+        // Given
+        when(typeaheadService.suggest("ann", 5)).thenReturn(List.of("Annual Report", "Annex"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/search/_suggest")
+                        .param("prefix", "ann")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0]").value("Annual Report"))
+                .andExpect(jsonPath("$.data[1]").value("Annex"));
+    }
+
+    @Test
+    void testSuggestRejectsOversizedRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/search/_suggest")
+                        .param("prefix", "ann")
+                        .param("size", "500"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(typeaheadService);
+    }
+
+    @Test
+    void testSearchServiceError() throws Exception {
+        // Given
+        when(searchService.searchAsync(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean(), any(FacetRequest.class),
+                any(SearchTimings.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Search failed")));
+
+        // When & Then
+        performAsync(get("/api/v1/search")
                         .param("q", "test"))
                 .andExpect(status().is5xxServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBatchSearch() throws Exception {
+        // Given
+        SearchResponse response = SearchResponse.builder()
+                .query("first")
+                .totalHits(3L)
+                .page(1)
+                .pageSize(10)
+                .results(Collections.emptyList())
+                .build();
+        ApiResponse<SearchResponse> failed = ApiResponse.error("Invalid request",
+                ApiResponse.ErrorDetails.builder().code("INVALID_REQUEST").build());
+
+        when(searchService.searchBatch(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(ApiResponse.success(response), failed)));
+
+        // When & Then
+        performAsync(post("/api/v1/search/_batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"query\":\"first\"},{\"query\":\"\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[0].data.totalHits").value(3))
+                .andExpect(jsonPath("$.data[1].success").value(false))
+                .andExpect(jsonPath("$.data[1].error.code").value("INVALID_REQUEST"));
+
+        verify(searchService).searchBatch(argThat(requests -> requests.size() == 2
+                && requests.get(0).getQuery().equals("first")));
+    }
+
+    @Test
+    void testExportStreamsNdjson() throws Exception {
+        // Given
+        when(searchExportService.export("test", false))
+                .thenReturn(new SearchExport(out -> out.write("{\"document_id\":\"a\"}\n".getBytes()), () -> { }));
+
+        // When & Then
+        performAsync(get("/api/v1/search/_export")
+                        .param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"document_id\":\"a\"}\n"));
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
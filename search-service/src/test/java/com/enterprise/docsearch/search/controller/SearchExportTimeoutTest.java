@@ -0,0 +1,165 @@
+package com.enterprise.docsearch.search.controller;
+
+import com.enterprise.docsearch.search.config.WebMvcAsyncConfig;
+import com.enterprise.docsearch.search.service.SearchExport;
+import com.enterprise.docsearch.search.service.SearchExportService;
+import com.enterprise.docsearch.search.service.SearchService;
+import com.enterprise.docsearch.search.typeahead.TypeaheadService;
+import com.enterprise.docsearch.search.warmup.PopularQueries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the export endpoint on a real server, where async request timeouts
+ * fire; MockMvc never times an async request out.
+ */
+@SpringBootTest(
+        classes = SearchExportTimeoutTest.ExportApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.mvc.async.request-timeout=200ms",
+                "search.export.max-concurrent=1"
+        })
+class SearchExportTimeoutTest {
+
+    @Configuration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import({SearchController.class, WebMvcAsyncConfig.class})
+    static class ExportApplication {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private SearchService searchService;
+
+    @MockBean
+    private SearchExportService searchExportService;
+
+    @MockBean
+    private TypeaheadService typeaheadService;
+
+    @MockBean
+    private PopularQueries popularQueries;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        reset(searchExportService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void testExportStreamsPastAsyncRequestTimeout() throws Exception {
+        // Given
+        when(searchExportService.export("test", false)).thenReturn(new SearchExport(out -> {
+            for (int i = 0; i < 6; i++) {
+                out.write(("{\"document_id\":\"" + i + "\"}\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(100);
+            }
+        }, () -> { }));
+
+        // When
+        HttpResponse<String> response = httpClient.send(exportRequest(), HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals(6, response.body().split("\n").length);
+        assertTrue(response.body().endsWith("{\"document_id\":\"5\"}\n"));
+    }
+
+    @Test
+    void testRejectedExportClosesPointInTime() throws Exception {
+        // Given - one export running and one queued fill the streaming executor
+        CountDownLatch started = new CountDownLatch(1);
+        Runnable runningClose = mock(Runnable.class);
+        Runnable queuedClose = mock(Runnable.class);
+        Runnable rejectedClose = mock(Runnable.class);
+        when(searchExportService.export("test", false))
+                .thenReturn(new SearchExport(out -> {
+                    started.countDown();
+                    await(release);
+                }, runningClose))
+                .thenReturn(new SearchExport(out -> { }, queuedClose))
+                .thenReturn(new SearchExport(out -> { }, rejectedClose));
+
+        CompletableFuture<HttpResponse<String>> running =
+                httpClient.sendAsync(exportRequest(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<HttpResponse<String>> queued =
+                httpClient.sendAsync(exportRequest(), HttpResponse.BodyHandlers.ofString());
+        verify(searchExportService, timeout(5000).times(2)).export("test", false);
+
+        // When
+        HttpResponse<String> rejected = httpClient.send(exportRequest(), HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertNotEquals(200, rejected.statusCode());
+        verify(rejectedClose, timeout(5000)).run();
+
+        release.countDown();
+        assertEquals(200, running.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, queued.get(5, TimeUnit.SECONDS).statusCode());
+        verify(runningClose, never()).run();
+        verify(queuedClose, never()).run();
+    }
+
+    private HttpRequest exportRequest() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/search/_export?q=test")).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.enterprise.docsearch.search.cursor;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorCodecTest {
+
+    private final SearchCursorCodec codec = new SearchCursorCodec(new ObjectMapper());
+
+    private static final String TENANT_ID = "tenant123";
+
+    @Test
+    void testRoundTrip() {
+        // Given
+        String cursor = codec.encode(TENANT_ID, "annual report", false, "pit-1",
+                List.of(FieldValue.of(3.25), FieldValue.of(17L), FieldValue.of("abc")));
+
+        // When
+        SearchCursor decoded = codec.decode(cursor, TENANT_ID, "annual report", false);
+        List<FieldValue> values = SearchCursorCodec.toFieldValues(decoded.searchAfter());
+
+        // Then
+        assertEquals("pit-1", decoded.pitId());
+        assertEquals(3.25, values.get(0).doubleValue());
+        assertEquals(17L, values.get(1).longValue());
+        assertEquals("abc", values.get(2).stringValue());
+    }
+
+    @Test
+    void testCursorIsUrlSafe() {
+        // When
+        String cursor = codec.encode(TENANT_ID, "test", false, "pit+/=id", List.of(FieldValue.of(1L)));
+
+        // Then
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testEquivalentQueryAccepted() {
+        // Given
+        String cursor = codec.encode(TENANT_ID, "annual report", false, "pit-1", List.of(FieldValue.of(1L)));
+
+        // When & Then
+        assertDoesNotThrow(() -> codec.decode(cursor, TENANT_ID, "Report  ANNUAL", false));
+    }
+
+    @Test
+    void testDifferentQueryRejected() {
+        // Given
+        String cursor = codec.encode(TENANT_ID, "annual report", false, "pit-1", List.of(FieldValue.of(1L)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(cursor, TENANT_ID, "budget", false));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(cursor, TENANT_ID, "annual report", true));
+    }
+
+    @Test
+    void testOtherTenantRejected() {
+        // Given
+        String cursor = codec.encode(TENANT_ID, "test", false, "pit-1", List.of(FieldValue.of(1L)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(cursor, "otherTenant", "test", false));
+    }
+
+    @Test
+    void testGarbageRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("%%%", TENANT_ID, "test", false));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("e30", TENANT_ID, "test", false));
+    }
+}
@@ -0,0 +1,86 @@
+package com.enterprise.docsearch.search.facet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetRequestTest {
+
+    @Test
+    void testParseFiltersAndFacets() {
+        // When
+        FacetRequest facets = FacetRequest.parse(
+                List.of("dept:sales", "dept:eng", "pages:10..", "status:a:b"),
+                List.of("dept", "pages:1000:10:100"));
+
+        // Then
+        assertEquals(List.of("eng", "sales"), facets.filters().get("dept"));
+        assertEquals(List.of("10.."), facets.filters().get("pages"));
+        // Only the first colon separates key and value
+        assertEquals(List.of("a:b"), facets.filters().get("status"));
+        assertEquals(Collections.emptyList(), facets.facets().get("dept"));
+        assertEquals(List.of("10", "100", "1000"), facets.facets().get("pages"));
+        assertTrue(facets.hasFacets());
+    }
+
+    @Test
+    void testNothingRequestedIsNone() {
+        // When & Then
+        assertSame(FacetRequest.NONE, FacetRequest.parse(null, null));
+        assertSame(FacetRequest.NONE, FacetRequest.parse(List.of(), List.of()));
+        assertTrue(FacetRequest.NONE.isEmpty());
+        assertFalse(FacetRequest.NONE.hasFacets());
+    }
+
+    @Test
+    void testCanonicalFormIgnoresOrder() {
+        // Given
+        FacetRequest first = FacetRequest.parse(List.of("b:2", "a:1"), List.of("y", "x"));
+        FacetRequest second = FacetRequest.parse(List.of("a:1", "b:2"), List.of("x", "y"));
+
+        // When & Then
+        assertEquals(first.canonicalFilters(), second.canonicalFilters());
+        assertEquals(first.canonicalFacets(), second.canonicalFacets());
+    }
+
+    @Test
+    void testInvalidInputRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(List.of("novalue"), null));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(List.of("dept:"), null));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(List.of("pages:.."), null));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(List.of("pages:1..x"), null));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(List.of("a[b]:1"), null));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(null, List.of("pages:ten")));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(null, List.of("dept", "dept")));
+    }
+
+    @Test
+    void testQuotedValueIsExactEvenWithRangeSeparator() {
+        // When
+        FacetRequest facets = FacetRequest.parse(List.of("version:\"1.2..1.4\"", "dept:\"eng\"", "pages:1..2"), null);
+
+        // Then
+        String version = facets.filters().get("version").get(0);
+        assertFalse(FacetRequest.isRange(version));
+        assertEquals("1.2..1.4", FacetRequest.exactValue(version));
+        // Quotes that change nothing are dropped so both spellings share cache entries
+        assertEquals(List.of("eng"), facets.filters().get("dept"));
+        assertEquals(FacetRequest.parse(List.of("dept:eng"), null).canonicalFilters(),
+                FacetRequest.parse(List.of("dept:\"eng\""), null).canonicalFilters());
+        assertTrue(FacetRequest.isRange(facets.filters().get("pages").get(0)));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(List.of("dept:\"\""), null));
+    }
+
+    @Test
+    void testLimitsEnforced() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(
+                Collections.nCopies(FacetRequest.MAX_FILTERS + 1, "dept:eng"), null));
+        assertThrows(IllegalArgumentException.class, () -> FacetRequest.parse(
+                null, Collections.nCopies(FacetRequest.MAX_FACETS + 1, "dept")));
+    }
+}
@@ -0,0 +1,104 @@
+package com.enterprise.docsearch.search.facet;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.aggregations.RangeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.enterprise.docsearch.common.dto.SearchResponse.FacetBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataFacetsTest {
+
+    @Test
+    void testFiltersTargetKeywordAndNumericFields() {
+        // Given
+        FacetRequest facets = FacetRequest.parse(List.of("dept:eng", "dept:sales", "pages:10..100"), null);
+
+        // When
+        List<Query> queries = MetadataFacets.filterQueries(facets);
+
+        // Then
+        assertEquals(2, queries.size());
+        Query exact = queries.stream().filter(Query::isTerms).findFirst().orElseThrow();
+        assertEquals("metadata.dept.keyword", exact.terms().field());
+        assertEquals(2, exact.terms().terms().value().size());
+
+        Query range = queries.stream().filter(Query::isRange).findFirst().orElseThrow();
+        assertEquals("metadata.pages.number", range.range().field());
+        assertEquals(10.0, range.range().gte().to(Double.class));
+        assertEquals(100.0, range.range().lt().to(Double.class));
+        assertNull(range.range().lte());
+    }
+
+    @Test
+    void testQuotedFilterValueMatchesExactly() {
+        // Given
+        FacetRequest facets = FacetRequest.parse(List.of("version:\"1.2..1.4\""), null);
+
+        // When
+        List<Query> queries = MetadataFacets.filterQueries(facets);
+
+        // Then
+        assertEquals(1, queries.size());
+        assertEquals("metadata.version.keyword", queries.get(0).terms().field());
+        assertEquals("1.2..1.4", queries.get(0).terms().terms().value().get(0).stringValue());
+    }
+
+    @Test
+    void testAggregationsForTermsAndRangeFacets() {
+        // Given
+        FacetRequest facets = FacetRequest.parse(null, List.of("dept", "pages:10:100"));
+
+        // When
+        Map<String, Aggregation> aggregations = MetadataFacets.aggregations(facets, 5);
+
+        // Then
+        assertEquals("metadata.dept.keyword", aggregations.get("dept").terms().field());
+        assertEquals(5, aggregations.get("dept").terms().size());
+
+        List<AggregationRange> ranges = aggregations.get("pages").range().ranges();
+        assertEquals("metadata.pages.number", aggregations.get("pages").range().field());
+        assertEquals(3, ranges.size());
+        assertNull(ranges.get(0).from());
+        assertEquals("10", ranges.get(0).to());
+        assertEquals("10", ranges.get(1).from());
+        assertEquals("100", ranges.get(1).to());
+        assertEquals("100", ranges.get(2).from());
+        assertNull(ranges.get(2).to());
+    }
+
+    @Test
+    void testReadBuckets() {
+        // Given
+        FacetRequest facets = FacetRequest.parse(null, List.of("dept", "pages:10", "missing"));
+        Map<String, Aggregate> aggregations = Map.of(
+                "dept", Aggregate.of(a -> a.sterms(t -> t
+                        .sumOtherDocCount(0L)
+                        .buckets(b -> b.array(List.of(
+                                StringTermsBucket.of(sb -> sb.key("eng").docCount(4))))))),
+                "pages", Aggregate.of(a -> a.range(r -> r
+                        .buckets(b -> b.array(List.of(
+                                RangeBucket.of(rb -> rb.key("*-10.0").to(10.0).docCount(2)),
+                                RangeBucket.of(rb -> rb.key("10.0-*").from(10.0).docCount(5))))))));
+
+        // When
+        Map<String, List<FacetBucket>> buckets = MetadataFacets.readBuckets(facets, aggregations);
+
+        // Then
+        assertEquals(List.of("dept", "missing", "pages"), List.copyOf(buckets.keySet()));
+        assertEquals("eng", buckets.get("dept").get(0).getKey());
+        assertEquals(4L, buckets.get("dept").get(0).getCount());
+        assertNull(buckets.get("dept").get(0).getFrom());
+        assertEquals(10.0, buckets.get("pages").get(0).getTo());
+        assertEquals(10.0, buckets.get("pages").get(1).getFrom());
+        assertEquals(5L, buckets.get("pages").get(1).getCount());
+        assertTrue(buckets.get("missing").isEmpty());
+    }
+}
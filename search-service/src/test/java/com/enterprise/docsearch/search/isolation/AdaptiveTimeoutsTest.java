@@ -0,0 +1,67 @@
+package com.enterprise.docsearch.search.isolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveTimeoutsTest {
+
+    private final AdaptiveTimeouts timeouts =
+            new AdaptiveTimeouts(Duration.ofMillis(100), Duration.ofSeconds(5), 0.99, 2.0);
+
+    @Test
+    void testTenantWithoutHistoryGetsMaximum() {
+        // Given
+        for (int i = 0; i < AdaptiveTimeouts.MIN_SAMPLES - 1; i++) {
+            timeouts.observe("tenant123", 10);
+        }
+
+        // When & Then
+        assertEquals("5000ms", timeouts.timeout("tenant123"));
+        assertEquals("5000ms", timeouts.timeout("otherTenant"));
+    }
+
+    @Test
+    void testTimeoutFollowsTenantPercentile() {
+        // Given
+        for (int i = 1; i <= AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.observe("tenant123", i * 2L);
+        }
+
+        // When & Then
+        // p99 of 2..256ms is 254ms, doubled
+        assertEquals("508ms", timeouts.timeout("tenant123"));
+        assertEquals("5000ms", timeouts.timeout("otherTenant"));
+    }
+
+    @Test
+    void testOldSamplesLeaveTheWindow() {
+        // Given
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.observe("tenant123", 2000);
+        }
+
+        // When
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.observe("tenant123", 80);
+        }
+
+        // Then
+        assertEquals("160ms", timeouts.timeout("tenant123"));
+    }
+
+    @Test
+    void testTimeoutStaysWithinBounds() {
+        // Given
+        for (int i = 0; i < AdaptiveTimeouts.MIN_SAMPLES; i++) {
+            timeouts.observe("fast", 1);
+            timeouts.observe("slow", 10_000);
+        }
+
+        // When & Then
+        assertEquals("100ms", timeouts.timeout("fast"));
+        assertEquals("5000ms", timeouts.timeout("slow"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.enterprise.docsearch.search.isolation;
+
+import com.enterprise.docsearch.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantBulkheadTest {
+
+    private final TenantTierProperties tiers = new TenantTierProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TenantBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        tiers.setPermitsPerWeight(2);
+        tiers.setTenantTiers(Map.of("small", "free", "large", "premium"));
+        bulkhead = new TenantBulkhead(tiers, meterRegistry);
+    }
+
+    @Test
+    void testPermitsAreWeightedByTier() {
+        // When & Then
+        assertEquals(2, bulkhead.available("small"));
+        assertEquals(4, bulkhead.available("unlisted"));
+        assertEquals(8, bulkhead.available("large"));
+    }
+
+    @Test
+    void testTenantAtItsLimitIsRejectedWithoutAffectingOthers() {
+        // Given
+        bulkhead.acquire("small");
+        bulkhead.acquire("small");
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class, () -> bulkhead.acquire("small"));
+        assertDoesNotThrow(() -> bulkhead.acquire("large"));
+        assertEquals(1.0, meterRegistry.counter("search.bulkhead.rejections").count());
+
+        // When
+        bulkhead.release("small");
+
+        // Then
+        assertDoesNotThrow(() -> bulkhead.acquire("small"));
+    }
+
+    @Test
+    void testUnknownTierFallsBackToWeightOne() {
+        // Given
+        tiers.setTenantTiers(Map.of("odd", "platinum"));
+
+        // When & Then
+        assertEquals(2, bulkhead.available("odd"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.enterprise.docsearch.search.latency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyWindowTest {
+
+    @Test
+    void testPercentileOfPartiallyFilledWindow() {
+        // Given
+        LatencyWindow window = new LatencyWindow(100);
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(i, window.add(i * 10L));
+        }
+
+        // When & Then
+        assertEquals(100, window.percentile(0.5));
+        assertEquals(190, window.percentile(0.95));
+        assertEquals(200, window.percentile(1.0));
+    }
+
+    @Test
+    void testOnlyLatestSamplesCount() {
+        // Given
+        LatencyWindow window = new LatencyWindow(4);
+        window.add(1000);
+        window.add(1000);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            window.add(5);
+        }
+
+        // Then
+        assertEquals(5, window.percentile(1.0));
+    }
+
+    @Test
+    void testEmptyWindow() {
+        // When & Then
+        assertEquals(0, new LatencyWindow(8).percentile(0.99));
+    }
+}
@@ -0,0 +1,231 @@
+package com.enterprise.docsearch.search.latency;
+
+import com.enterprise.docsearch.search.isolation.TenantBulkhead;
+import com.enterprise.docsearch.search.isolation.TenantTierProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchHedgerTest {
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private final TenantTierProperties tiers = new TenantTierProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> timers = new ArrayList<>();
+    private final List<String> preferences = new ArrayList<>();
+    private TenantBulkhead bulkhead;
+
+    private static final String TENANT_ID = "tenant123";
+
+    @BeforeEach
+    void setUp() {
+        tiers.setPermitsPerWeight(1);
+        tiers.setTenantTiers(Map.of(TENANT_ID, "standard"));
+        bulkhead = new TenantBulkhead(tiers, meterRegistry);
+        lenient().when(scheduler.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS)))
+                .thenAnswer(invocation -> {
+                    timers.add(invocation.getArgument(0));
+                    return mock(ScheduledFuture.class);
+                });
+    }
+
+    @Test
+    void testDisabledHedgerOnlySendsTheSearch() {
+        // Given
+        SearchHedger hedger = hedger(false, 1.0);
+
+        // When
+        for (int i = 0; i < SearchHedger.MIN_SAMPLES * 2; i++) {
+            hedger.execute(TENANT_ID, search(CompletableFuture.completedFuture("primary")));
+        }
+        hedger.execute(TENANT_ID, search(new CompletableFuture<>()));
+
+        // Then
+        assertEquals(-1, hedger.delayMs(TENANT_ID));
+        assertTrue(timers.isEmpty());
+        assertTrue(preferences.stream().allMatch(preference -> preference == null));
+    }
+
+    @Test
+    void testNoHedgingUntilTenantHasHistory() {
+        // Given
+        SearchHedger hedger = hedger(true, 1.0);
+
+        // When
+        warmUp(hedger, SearchHedger.MIN_SAMPLES - 1);
+        hedger.execute(TENANT_ID, search(new CompletableFuture<>()));
+
+        // Then
+        assertEquals(-1, hedger.delayMs(TENANT_ID));
+        assertTrue(timers.isEmpty());
+    }
+
+    @Test
+    void testHedgeAnsweringFirstWinsAndCancelsPrimary() throws Exception {
+        // Given
+        SearchHedger hedger = hedger(true, 1.0);
+        warmUp(hedger, SearchHedger.MIN_SAMPLES);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> result = hedger.execute(TENANT_ID,
+                search(primary, CompletableFuture.completedFuture("hedge")));
+        fireTimers();
+
+        // Then
+        verify(scheduler).schedule(any(Runnable.class), eq(10L), eq(TimeUnit.MILLISECONDS));
+        assertEquals("hedge", result.get());
+        assertTrue(primary.isCancelled());
+        assertNull(preferences.get(preferences.size() - 2));
+        assertNotNull(preferences.get(preferences.size() - 1));
+        assertEquals(1.0, hedges("won"));
+        // The hedge gave its permit back
+        assertTrue(bulkhead.tryAcquire(TENANT_ID));
+        assertTrue(bulkhead.tryAcquire(TENANT_ID));
+    }
+
+    @Test
+    void testPrimaryAnsweringFirstCancelsHedge() throws Exception {
+        // Given
+        SearchHedger hedger = hedger(true, 1.0);
+        warmUp(hedger, SearchHedger.MIN_SAMPLES);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> hedge = new CompletableFuture<>();
+        CompletableFuture<String> result = hedger.execute(TENANT_ID, search(primary, hedge));
+        fireTimers();
+
+        // When
+        primary.complete("primary");
+
+        // Then
+        assertEquals("primary", result.get());
+        assertTrue(hedge.isCancelled());
+        assertEquals(1.0, hedges("lost"));
+    }
+
+    @Test
+    void testFailedPrimaryFallsBackToHedge() throws Exception {
+        // Given
+        SearchHedger hedger = hedger(true, 1.0);
+        warmUp(hedger, SearchHedger.MIN_SAMPLES);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> hedge = new CompletableFuture<>();
+        CompletableFuture<String> result = hedger.execute(TENANT_ID, search(primary, hedge));
+        fireTimers();
+
+        // When
+        primary.completeExceptionally(new RuntimeException("node down"));
+
+        // Then
+        assertFalse(result.isDone());
+        hedge.complete("hedge");
+        assertEquals("hedge", result.get());
+    }
+
+    @Test
+    void testSearchFailsWithPrimaryErrorWhenBothFail() {
+        // Given
+        SearchHedger hedger = hedger(true, 1.0);
+        warmUp(hedger, SearchHedger.MIN_SAMPLES);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> hedge = new CompletableFuture<>();
+        CompletableFuture<String> result = hedger.execute(TENANT_ID, search(primary, hedge));
+        fireTimers();
+
+        // When
+        hedge.completeExceptionally(new RuntimeException("hedge failed"));
+        primary.completeExceptionally(new RuntimeException("primary failed"));
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertEquals("primary failed", e.getCause().getMessage());
+    }
+
+    @Test
+    void testHedgesAreLimitedByBudget() {
+        // Given
+        SearchHedger hedger = hedger(true, 0.0);
+        warmUp(hedger, SearchHedger.MIN_SAMPLES);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> result = hedger.execute(TENANT_ID, search(primary, new CompletableFuture<>()));
+        fireTimers();
+
+        // Then
+        assertEquals(1.0, hedges("over_budget"));
+        assertNull(preferences.get(preferences.size() - 1));
+        primary.complete("primary");
+        assertEquals("primary", result.join());
+    }
+
+    @Test
+    void testNoHedgeWhenTenantIsAtItsLimit() {
+        // Given
+        SearchHedger hedger = hedger(true, 1.0);
+        warmUp(hedger, SearchHedger.MIN_SAMPLES);
+        hedger.execute(TENANT_ID, search(new CompletableFuture<>()));
+        bulkhead.acquire(TENANT_ID);
+        bulkhead.acquire(TENANT_ID);
+
+        // When
+        fireTimers();
+
+        // Then
+        assertEquals(1.0, hedges("no_permit"));
+        assertNull(preferences.get(preferences.size() - 1));
+    }
+
+    private SearchHedger hedger(boolean enabled, double budget) {
+        return new SearchHedger(bulkhead, meterRegistry, enabled, 0.95, Duration.ofMillis(10), budget, 10, scheduler);
+    }
+
+    private void warmUp(SearchHedger hedger, int searches) {
+        for (int i = 0; i < searches; i++) {
+            hedger.execute(TENANT_ID, search(CompletableFuture.completedFuture("primary")));
+        }
+    }
+
+    @SafeVarargs
+    private Function<String, CompletableFuture<String>> search(CompletableFuture<String>... attempts) {
+        List<CompletableFuture<String>> remaining = new ArrayList<>(List.of(attempts));
+        return preference -> {
+            preferences.add(preference);
+            return remaining.remove(0);
+        };
+    }
+
+    private void fireTimers() {
+        List<Runnable> due = new ArrayList<>(timers);
+        timers.clear();
+        due.forEach(Runnable::run);
+    }
+
+    private double hedges(String outcome) {
+        return meterRegistry.counter("search.hedges", "outcome", outcome).count();
+    }
+}
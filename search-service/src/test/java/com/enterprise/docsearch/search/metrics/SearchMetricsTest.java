@@ -0,0 +1,60 @@
+package com.enterprise.docsearch.search.metrics;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import com.enterprise.docsearch.search.profile.SearchTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TenantTagger tenantTagger = new TenantTagger(1, Duration.ofMinutes(1));
+    private final SearchMetrics metrics = new SearchMetrics(meterRegistry, tenantTagger);
+
+    @AfterEach
+    void tearDown() {
+        tenantTagger.shutdown();
+    }
+
+    @Test
+    void testErrorsAreClassifiedByCause() {
+        // Given
+        ElasticsearchException rejected = new ElasticsearchException("search", ErrorResponse.of(r -> r
+                .status(429)
+                .error(e -> e.type("es_rejected_execution_exception").reason("queue full"))));
+
+        // When & Then
+        assertEquals("rejected", SearchMetrics.errorType(new CompletionException(rejected)));
+        assertEquals("timeout", SearchMetrics.errorType(new RuntimeException(new SocketTimeoutException())));
+        assertEquals("connection", SearchMetrics.errorType(new ConnectException("refused")));
+        assertEquals("other", SearchMetrics.errorType(new IllegalStateException()));
+        assertEquals("server", SearchMetrics.statusType(503));
+        assertEquals("client", SearchMetrics.statusType(400));
+    }
+
+    @Test
+    void testTenantsBeyondTopShareTheOtherTag() {
+        // When
+        metrics.searched("tenant1", SearchTimings.NONE, 1_000_000, false, false);
+        metrics.searched("tenant2", SearchTimings.NONE, 1_000_000, false, false);
+        metrics.searched("tenant3", SearchTimings.NONE, 1_000_000, true, false);
+
+        // Then
+        assertEquals(1, meterRegistry.timer("search.requests",
+                "tenant", "tenant1", "cache", "miss", "outcome", "success").count());
+        assertEquals(1, meterRegistry.timer("search.requests",
+                "tenant", TenantTagger.OTHER, "cache", "miss", "outcome", "success").count());
+        assertEquals(1, meterRegistry.timer("search.requests",
+                "tenant", TenantTagger.OTHER, "cache", "hit", "outcome", "success").count());
+    }
+}
@@ -0,0 +1,85 @@
+package com.enterprise.docsearch.search.profile;
+
+import co.elastic.clients.elasticsearch._types.ShardStatistics;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import com.enterprise.docsearch.search.service.SearchHitSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SearchTimingsTest {
+
+    @Test
+    void testNoneRecordsNothing() {
+        // When
+        SearchTimings.NONE.lap("cache_lookup");
+        SearchTimings.NONE.profile(Map.of("shards", List.of()));
+
+        // Then
+        assertFalse(SearchTimings.NONE.isEnabled());
+        assertTrue(SearchTimings.NONE.toResponse().getStagesNanos().isEmpty());
+        assertNull(SearchTimings.NONE.toResponse().getProfile());
+    }
+
+    @Test
+    void testMeteredRecordsStagesWithoutDebugDetails() {
+        // Given
+        SearchTimings timings = SearchTimings.metered();
+
+        // When
+        timings.lap("cache_lookup");
+        timings.profile(Map.of("shards", List.of()));
+
+        // Then
+        assertFalse(timings.isEnabled());
+        assertFalse(timings.isProfiled());
+        assertEquals(List.of("cache_lookup"), List.copyOf(timings.stagesNanos().keySet()));
+        assertNull(timings.toResponse().getProfile());
+    }
+
+    @Test
+    void testLapsAddUpToTotal() {
+        // Given
+        SearchTimings timings = SearchTimings.start(false);
+
+        // When
+        timings.lap("elasticsearch");
+        timings.lap("hit_mapping");
+        timings.lap("elasticsearch");
+
+        // Then
+        com.enterprise.docsearch.common.dto.SearchResponse.Timings result = timings.toResponse();
+        assertEquals(List.of("elasticsearch", "hit_mapping"), List.copyOf(result.getStagesNanos().keySet()));
+        assertEquals(result.getTotalNanos(),
+                result.getStagesNanos().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(result.isCacheHit());
+        assertNull(result.getEsTookMs());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordsWhatElasticsearchReported() {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
+        when(esResponse.took()).thenReturn(42L);
+        when(esResponse.shards()).thenReturn(ShardStatistics.of(s -> s.total(5).successful(4).skipped(0).failed(1)));
+        SearchTimings timings = SearchTimings.start(true);
+
+        // When
+        timings.elasticsearch(esResponse);
+
+        // Then
+        com.enterprise.docsearch.common.dto.SearchResponse.Timings result = timings.toResponse();
+        assertTrue(timings.isProfiled());
+        assertFalse(result.isCacheHit());
+        assertEquals(42L, result.getEsTookMs());
+        assertEquals(5, result.getShardsTotal());
+        assertEquals(4, result.getShardsSuccessful());
+        assertEquals(0, result.getShardsSkipped());
+        assertEquals(1, result.getShardsFailed());
+    }
+}
@@ -0,0 +1,72 @@
+package com.enterprise.docsearch.search.profile;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Profile;
+import com.enterprise.docsearch.search.service.SearchHitSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SlowQueryProfilerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testOnlyProfileDebugRequestsWhenNothingIsSampled() {
+        // Given
+        SlowQueryProfiler profiler = new SlowQueryProfiler(objectMapper, 0.0, Duration.ofSeconds(1));
+
+        // When & Then
+        assertFalse(profiler.shouldProfile(SearchTimings.NONE));
+        assertFalse(profiler.shouldProfile(SearchTimings.start(false)));
+        assertTrue(profiler.shouldProfile(SearchTimings.start(true)));
+    }
+
+    @Test
+    void testEverySearchIsProfiledAtFullSampleRate() {
+        // Given
+        SlowQueryProfiler profiler = new SlowQueryProfiler(objectMapper, 1.0, Duration.ofSeconds(1));
+
+        // When & Then
+        assertTrue(profiler.shouldProfile(SearchTimings.NONE));
+    }
+
+    @Test
+    void testProfileIsAttachedToDebugTimings() {
+        // Given
+        SlowQueryProfiler profiler = new SlowQueryProfiler(objectMapper, 0.0, Duration.ofSeconds(1));
+        SearchTimings timings = SearchTimings.start(true);
+
+        // When
+        profiler.inspect("tenant123", "test", esResponse(5, Profile.of(p -> p.shards(List.of()))), timings);
+
+        // Then
+        assertEquals(List.of(), timings.toResponse().getProfile().get("shards"));
+    }
+
+    @Test
+    void testUnprofiledSearchIsIgnored() {
+        // Given
+        SlowQueryProfiler profiler = new SlowQueryProfiler(objectMapper, 0.0, Duration.ofSeconds(1));
+        SearchTimings timings = SearchTimings.start(false);
+
+        // When
+        profiler.inspect("tenant123", "test", esResponse(5000, null), timings);
+
+        // Then
+        assertNull(timings.toResponse().getProfile());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SearchResponse<SearchHitSource> esResponse(long tookMs, Profile profile) {
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
+        lenient().when(esResponse.took()).thenReturn(tookMs);
+        when(esResponse.profile()).thenReturn(profile);
+        return esResponse;
+    }
+}
@@ -0,0 +1,176 @@
+package com.enterprise.docsearch.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchExportServiceTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SearchExportService exportService;
+
+    private static final String TENANT_ID = "tenant123";
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TenantContext.setTenantId(TENANT_ID);
+        exportService = new SearchExportService(elasticsearchClient, objectMapper);
+        ReflectionTestUtils.setField(exportService, "pageSize", 2);
+
+        OpenPointInTimeResponse pitResponse = mock(OpenPointInTimeResponse.class);
+        lenient().when(pitResponse.id()).thenReturn("pit-1");
+        lenient().when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(pitResponse);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testExportStreamsAllPagesAsNdjson() throws Exception {
+        // Given
+        SearchResponse<JsonNode> firstPage = page(0, 2);
+        SearchResponse<JsonNode> lastPage = page(2, 1);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+                .thenReturn(firstPage, lastPage);
+
+        // When
+        StreamingResponseBody body = exportService.export("test", false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith("{"));
+        assertEquals("Document 0", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals("Document 2", objectMapper.readTree(lines[2]).get("title").asText());
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient, times(2)).search(captor.capture(), eq(JsonNode.class));
+        assertTrue(captor.getAllValues().get(0).searchAfter().isEmpty());
+        assertEquals(1L, captor.getAllValues().get(1).searchAfter().get(0).longValue());
+        assertEquals("pit-1", captor.getAllValues().get(1).pit().id());
+
+        verify(elasticsearchClient).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    void testPointInTimeClosedWhenClientDisconnects() throws Exception {
+        // Given
+        SearchResponse<JsonNode> firstPage = page(0, 2);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(firstPage);
+
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When
+        StreamingResponseBody body = exportService.export("test", false);
+
+        // Then
+        assertThrows(IOException.class, () -> body.writeTo(broken));
+        verify(elasticsearchClient, times(1)).search(any(SearchRequest.class), eq(JsonNode.class));
+        verify(elasticsearchClient).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    void testDiscardClosesPointInTimeOfUnwrittenExport() throws Exception {
+        // Given
+        SearchExport export = exportService.export("test", false);
+
+        // When
+        export.discard();
+        export.discard();
+
+        // Then
+        verify(elasticsearchClient, never()).search(any(SearchRequest.class), eq(JsonNode.class));
+        verify(elasticsearchClient).closePointInTime(any(ClosePointInTimeRequest.class));
+        assertThrows(IllegalStateException.class, () -> export.writeTo(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testDiscardAfterWriteDoesNotCloseAgain() throws Exception {
+        // Given
+        SearchResponse<JsonNode> lastPage = page(0, 1);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(lastPage);
+        SearchExport export = exportService.export("test", false);
+
+        // When
+        export.writeTo(new ByteArrayOutputStream());
+        export.discard();
+
+        // Then
+        verify(elasticsearchClient, times(1)).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    void testOpenFailureSurfacesBeforeStreaming() throws Exception {
+        // Given
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class)))
+                .thenThrow(new IOException("ES down"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> exportService.export("test", false));
+    }
+
+    private SearchResponse<JsonNode> page(int firstId, int count) {
+        List<Hit<JsonNode>> hits = new ArrayList<>();
+        for (int i = firstId; i < firstId + count; i++) {
+            ObjectNode source = objectMapper.createObjectNode();
+            source.put("document_id", "doc-" + i);
+            source.put("title", "Document " + i);
+
+            Hit<JsonNode> hit = mock(Hit.class);
+            when(hit.source()).thenReturn(source);
+            lenient().when(hit.sort()).thenReturn(List.of(FieldValue.of((long) i)));
+            hits.add(hit);
+        }
+
+        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        when(hitsMetadata.hits()).thenReturn(hits);
+
+        SearchResponse<JsonNode> response = mock(SearchResponse.class);
+        when(response.hits()).thenReturn(hitsMetadata);
+        return response;
+    }
+}
@@ -0,0 +1,63 @@
+package com.enterprise.docsearch.search.service;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import jakarta.json.stream.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchHitSourceTest {
+
+    private final JsonpMapper mapper = new JacksonJsonpMapper();
+
+    @Test
+    void testHitsBindDirectlyFromEsResponse() {
+        // Given
+        UUID documentId = UUID.randomUUID();
+        String json = """
+                {
+                  "took": 3,
+                  "timed_out": false,
+                  "_shards": { "total": 1, "successful": 1, "skipped": 0, "failed": 0 },
+                  "hits": {
+                    "total": { "value": 1, "relation": "eq" },
+                    "max_score": 1.5,
+                    "hits": [
+                      {
+                        "_index": "docs_tenant_tenant123",
+                        "_id": "%s",
+                        "_score": 1.5,
+                        "_source": {
+                          "document_id": "%s",
+                          "title": "Quarterly report",
+                          "snippet": "Revenue grew...",
+                          "metadata": { "author": "Jane", "pages": 12, "tags": ["finance"] },
+                          "indexed_at": "2024-01-01T00:00:00"
+                        }
+                      }
+                    ]
+                  }
+                }
+                """.formatted(documentId, documentId);
+
+        // When
+        JsonParser parser = mapper.jsonProvider().createParser(new StringReader(json));
+        JsonpDeserializer<SearchHitSource> sourceDeserializer = JsonpDeserializer.of(SearchHitSource.class);
+        SearchResponse<SearchHitSource> response =
+                SearchResponse.createSearchResponseDeserializer(sourceDeserializer).deserialize(parser, mapper);
+
+        // Then
+        SearchHitSource source = response.hits().hits().get(0).source();
+        assertEquals(documentId, source.documentId());
+        assertEquals("Quarterly report", source.title());
+        assertEquals("Revenue grew...", source.snippet());
+        assertEquals("Jane", source.metadata().get("author"));
+        assertEquals(12, source.metadata().get("pages"));
+    }
+}
@@ -1,18 +1,52 @@
 package com.enterprise.docsearch.search.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.ShardStatistics;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.HighlighterType;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
 import co.elastic.clients.elasticsearch.core.search.TotalHits;
 import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
 import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.common.dto.ApiResponse;
 import com.enterprise.docsearch.common.dto.SearchResponse.SearchResult;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.enterprise.docsearch.common.exception.TooManyRequestsException;
+import com.enterprise.docsearch.common.metrics.TenantTagger;
+import com.enterprise.docsearch.search.analytics.SearchAnalyticsRecorder;
+import com.enterprise.docsearch.search.cache.IndexGenerationTracker;
+import com.enterprise.docsearch.search.cache.SearchCacheKeyFactory;
+import com.enterprise.docsearch.search.cache.SearchRequestCoalescer;
+import com.enterprise.docsearch.search.cache.SearchResultCache;
+import com.enterprise.docsearch.search.cursor.SearchCursorCodec;
+import com.enterprise.docsearch.search.facet.FacetRequest;
+import com.enterprise.docsearch.search.isolation.AdaptiveTimeouts;
+import com.enterprise.docsearch.search.isolation.TenantBulkhead;
+import com.enterprise.docsearch.search.isolation.TenantTierProperties;
+import com.enterprise.docsearch.search.latency.SearchHedger;
+import com.enterprise.docsearch.search.metrics.SearchMetrics;
+import com.enterprise.docsearch.search.profile.SearchTimings;
+import com.enterprise.docsearch.search.profile.SlowQueryProfiler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,11 +55,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -35,21 +80,56 @@ class SearchServiceTest {
     @Mock
     private ElasticsearchClient elasticsearchClient;
 
+    @Mock
+    private ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    @Mock
+    private IndexGenerationTracker generationTracker;
+
+    @Mock
+    private SearchAnalyticsRecorder analyticsRecorder;
+
     @InjectMocks
     private SearchService searchService;
 
     private ObjectMapper objectMapper = new ObjectMapper();
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private TenantTierProperties tierProperties = new TenantTierProperties();
+    private boolean hedging = false;
+    private SearchHedger searchHedger;
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TenantTagger tenantTagger;
+    private SearchMetrics searchMetrics;
     private static final String TENANT_ID = "tenant123";
 
     @BeforeEach
     void setUp() {
         TenantContext.setTenantId(TENANT_ID);
-        searchService = new SearchService(elasticsearchClient, objectMapper);
+        TenantBulkhead tenantBulkhead = new TenantBulkhead(tierProperties, new SimpleMeterRegistry());
+        searchHedger = new SearchHedger(tenantBulkhead, new SimpleMeterRegistry(),
+                hedging, 0.95, Duration.ofMillis(1), 1.0, 10);
+        tenantTagger = new TenantTagger(10, Duration.ofMinutes(1));
+        searchMetrics = new SearchMetrics(meterRegistry, tenantTagger);
+        searchService = new SearchService(elasticsearchClient, elasticsearchAsyncClient,
+                new SearchCacheKeyFactory(generationTracker),
+                new SearchResultCache(new ConcurrentMapCacheManager("searchResults", "searchFacets")),
+                new SearchRequestCoalescer(new SimpleMeterRegistry(), Duration.ofSeconds(2)),
+                new SearchCursorCodec(objectMapper),
+                Runnable::run,
+                validator,
+                analyticsRecorder,
+                tenantBulkhead,
+                new AdaptiveTimeouts(Duration.ofMillis(200), Duration.ofSeconds(5), 0.99, 2.0),
+                searchHedger,
+                new SlowQueryProfiler(objectMapper, 0.0, Duration.ofSeconds(1)),
+                searchMetrics);
     }
 
     @AfterEach
     void tearDown() {
         TenantContext.clear();
+        searchHedger.shutdown();
+        tenantTagger.shutdown();
     }
 
     @Test
@@ -63,23 +143,22 @@ class SearchServiceTest {
         sourceNode.put("title", "Test Document");
         sourceNode.put("content", "This is test content for the query");
 
-        Hit<JsonNode> hit = mock(Hit.class);
-        when(hit.source()).thenReturn(sourceNode);
+        Hit<SearchHitSource> hit = mock(Hit.class);
+        when(hit.source()).thenReturn(toSource(sourceNode));
         when(hit.score()).thenReturn(8.5);
         when(hit.highlight()).thenReturn(Collections.emptyMap());
 
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(1L);
-        when(totalHits.relation()).thenReturn(TotalHitsRelation.Eq);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.singletonList(hit));
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -99,7 +178,7 @@ class SearchServiceTest {
         assertEquals("Test Document", result.getTitle());
         assertEquals(8.5, result.getScore());
 
-        verify(elasticsearchClient).search(any(SearchRequest.class), eq(JsonNode.class));
+        verify(elasticsearchClient).search(any(SearchRequest.class), eq(SearchHitSource.class));
     }
 
     @Test
@@ -110,14 +189,14 @@ class SearchServiceTest {
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(0L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.emptyList());
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -138,14 +217,14 @@ class SearchServiceTest {
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(0L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.emptyList());
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -154,7 +233,7 @@ class SearchServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(elasticsearchClient).search(any(SearchRequest.class), eq(JsonNode.class));
+        verify(elasticsearchClient).search(any(SearchRequest.class), eq(SearchHitSource.class));
     }
 
     @Test
@@ -167,14 +246,14 @@ class SearchServiceTest {
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(0L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.emptyList());
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -201,22 +280,22 @@ class SearchServiceTest {
         sourceNode.put("content", "Content");
         sourceNode.set("metadata", metadataNode);
 
-        Hit<JsonNode> hit = mock(Hit.class);
-        when(hit.source()).thenReturn(sourceNode);
+        Hit<SearchHitSource> hit = mock(Hit.class);
+        when(hit.source()).thenReturn(toSource(sourceNode));
         when(hit.score()).thenReturn(5.0);
         when(hit.highlight()).thenReturn(Collections.emptyMap());
 
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(1L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.singletonList(hit));
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -242,22 +321,22 @@ class SearchServiceTest {
         Map<String, List<String>> highlights = new HashMap<>();
         highlights.put("content", Arrays.asList("This is <em>test</em> content"));
 
-        Hit<JsonNode> hit = mock(Hit.class);
-        when(hit.source()).thenReturn(sourceNode);
+        Hit<SearchHitSource> hit = mock(Hit.class);
+        when(hit.source()).thenReturn(toSource(sourceNode));
         when(hit.score()).thenReturn(7.5);
         when(hit.highlight()).thenReturn(highlights);
 
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(1L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.singletonList(hit));
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -269,11 +348,93 @@ class SearchServiceTest {
         assertTrue(response.getResults().get(0).getHighlights().get(0).contains("<em>test</em>"));
     }
 
+    @Test
+    void testHighlightFlagControlsHighlightSection() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+
+        // When
+        searchService.search("plain", 1, 10, false, false);
+        searchService.search("highlighted", 1, 10, false, true);
+
+        // Then
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient, times(2)).search(captor.capture(), eq(SearchHitSource.class));
+        assertNull(captor.getAllValues().get(0).highlight());
+        assertNotNull(captor.getAllValues().get(1).highlight());
+        assertEquals(HighlighterType.Unified.jsonValue(), captor.getAllValues().get(1).highlight().type());
+    }
+
+    @Test
+    void testMetadataFiltersRunInFilterContext() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse response = searchService.search("test", 1, 10, false, true,
+                FacetRequest.parse(List.of("dept:eng"), null));
+
+        // Then
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(SearchHitSource.class));
+        Query query = captor.getValue().query();
+        assertTrue(query.isBool());
+        assertEquals("metadata.dept.keyword", query.bool().filter().get(0).terms().field());
+        assertTrue(captor.getValue().aggregations().isEmpty());
+        assertNull(response.getFacets());
+    }
+
+    @Test
+    void testFacetCountsAreCachedAcrossPages() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(esResponse.aggregations()).thenReturn(Map.of("dept", Aggregate.of(a -> a.sterms(t -> t
+                .sumOtherDocCount(0L)
+                .buckets(b -> b.array(List.of(StringTermsBucket.of(sb -> sb.key("eng").docCount(3)))))))));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+        FacetRequest facets = FacetRequest.parse(null, List.of("dept"));
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse first = searchService.search("test", 1, 10, false, true, facets);
+        com.enterprise.docsearch.common.dto.SearchResponse second = searchService.search("test", 2, 10, false, true, facets);
+
+        // Then
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient, times(2)).search(captor.capture(), eq(SearchHitSource.class));
+        assertEquals("metadata.dept.keyword",
+                captor.getAllValues().get(0).aggregations().get("dept").terms().field());
+        assertTrue(captor.getAllValues().get(1).aggregations().isEmpty());
+
+        assertEquals(3L, first.getFacets().get("dept").get(0).getCount());
+        assertEquals(first.getFacets(), second.getFacets());
+    }
+
+    @Test
+    void testSearchAsyncWithoutHighlightOmitsHighlightSection() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+
+        // When
+        searchService.searchAsync("test", 1, 10, false, false).get();
+
+        // Then
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchAsyncClient).search(captor.capture(), eq(SearchHitSource.class));
+        assertNull(captor.getValue().highlight());
+    }
+
     @Test
     void testSearchException() throws Exception {
         // Given
         String query = "test";
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenThrow(new RuntimeException("Elasticsearch error"));
 
         // When & Then
@@ -289,25 +450,25 @@ class SearchServiceTest {
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(0L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.emptyList());
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
         searchService.search(query, 1, 10, false, true);
 
         // Then
-        verify(elasticsearchClient).search(any(SearchRequest.class), eq(JsonNode.class));
+        verify(elasticsearchClient).search(any(SearchRequest.class), eq(SearchHitSource.class));
     }
 
     @Test
-    void testSnippetCreation() throws Exception {
+    void testSnippetReadFromStoredField() throws Exception {
         // Given
         String query = "test";
         UUID documentId = UUID.randomUUID();
@@ -315,24 +476,24 @@ class SearchServiceTest {
         ObjectNode sourceNode = objectMapper.createObjectNode();
         sourceNode.put("document_id", documentId.toString());
         sourceNode.put("title", "Test");
-        sourceNode.put("content", "a".repeat(250)); // Long content
+        sourceNode.put("snippet", "a".repeat(200) + "..."); // Stored at index time
 
-        Hit<JsonNode> hit = mock(Hit.class);
-        when(hit.source()).thenReturn(sourceNode);
+        Hit<SearchHitSource> hit = mock(Hit.class);
+        when(hit.source()).thenReturn(toSource(sourceNode));
         when(hit.score()).thenReturn(5.0);
         when(hit.highlight()).thenReturn(Collections.emptyMap());
 
         TotalHits totalHits = mock(TotalHits.class);
         when(totalHits.value()).thenReturn(1L);
 
-        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
         when(hitsMetadata.hits()).thenReturn(Collections.singletonList(hit));
         when(hitsMetadata.total()).thenReturn(totalHits);
 
-        SearchResponse<JsonNode> esResponse = mock(SearchResponse.class);
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
         when(esResponse.hits()).thenReturn(hitsMetadata);
 
-        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
                 .thenReturn(esResponse);
 
         // When
@@ -341,7 +502,715 @@ class SearchServiceTest {
 
         // Then
         String snippet = response.getResults().get(0).getSnippet();
-        assertTrue(snippet.length() <= 203); // 200 chars + "..."
-        assertTrue(snippet.endsWith("..."));
+        assertEquals("a".repeat(200) + "...", snippet);
+
+        // Content is never fetched
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(SearchHitSource.class));
+        assertEquals(List.of("document_id", "title", "snippet", "metadata"),
+                captor.getValue().source().filter().includes());
+    }
+
+    @Test
+    void testEquivalentQueriesShareCacheEntry() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+
+        // When
+        searchService.search("Quarterly  Report", 1, 10, false, true);
+        com.enterprise.docsearch.common.dto.SearchResponse second =
+                searchService.search("report quarterly", 1, 10, false, true);
+
+        // Then
+        verify(elasticsearchClient, times(1)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+        assertEquals("report quarterly", second.getQuery());
+    }
+
+    @Test
+    void testCacheIsScopedByTenantAndOptions() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+
+        // When
+        searchService.search("test", 1, 10, false, true);
+        searchService.search("test", 1, 10, true, true);
+        searchService.search("test", 1, 10, false, false);
+        TenantContext.setTenantId("otherTenant");
+        searchService.search("test", 1, 10, false, true);
+
+        // Then
+        verify(elasticsearchClient, times(4)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testGenerationChangeBypassesCachedEntry() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+        when(generationTracker.currentGeneration(TENANT_ID)).thenReturn(1L, 2L);
+
+        // When
+        searchService.search("test", 1, 10, false, true);
+        searchService.search("test", 1, 10, false, true);
+
+        // Then
+        verify(elasticsearchClient, times(2)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testRefreshReplacesCachedEntry() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(esResponse);
+
+        // When
+        searchService.search("test", 1, 10, false, true);
+        searchService.refresh("test", 1, 10, false, true);
+        searchService.search("test", 1, 10, false, true);
+
+        // Then
+        verify(elasticsearchClient, times(2)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testCursorSearchFirstPageOpensPointInTime() throws Exception {
+        // Given
+        OpenPointInTimeResponse pitResponse = mock(OpenPointInTimeResponse.class);
+        when(pitResponse.id()).thenReturn("pit-1");
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(pitResponse);
+
+        SearchResponse<SearchHitSource> esResponse = cursorEsResponse(2, "pit-2");
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class))).thenReturn(esResponse);
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse response =
+                searchService.searchWithCursor("test", null, 2, false, true);
+
+        // Then
+        assertEquals(2, response.getResults().size());
+        assertNotNull(response.getNextCursor());
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(SearchHitSource.class));
+        SearchRequest request = captor.getValue();
+        assertEquals("pit-1", request.pit().id());
+        assertTrue(request.index().isEmpty());
+        assertNull(request.from());
+        assertTrue(request.searchAfter().isEmpty());
+        verify(elasticsearchClient, never()).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    void testFailedFirstCursorPageClosesItsPointInTime() throws Exception {
+        // Given
+        OpenPointInTimeResponse pitResponse = mock(OpenPointInTimeResponse.class);
+        when(pitResponse.id()).thenReturn("pit-1");
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(pitResponse);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenThrow(new RuntimeException("Elasticsearch error"));
+
+        // When
+        assertThrows(RuntimeException.class, () -> searchService.searchWithCursor("test", null, 2, false, true));
+
+        // Then
+        ArgumentCaptor<ClosePointInTimeRequest> captor = ArgumentCaptor.forClass(ClosePointInTimeRequest.class);
+        verify(elasticsearchClient).closePointInTime(captor.capture());
+        assertEquals("pit-1", captor.getValue().id());
+    }
+
+    @Test
+    void testFailedNextCursorPageLeavesPointInTimeOpen() throws Exception {
+        // Given - the caller may retry with the same cursor
+        String cursor = new SearchCursorCodec(objectMapper).encode(TENANT_ID, "test", false, "pit-2",
+                List.of(FieldValue.of(1.5), FieldValue.of(7L)));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenThrow(new RuntimeException("Elasticsearch error"));
+
+        // When
+        assertThrows(RuntimeException.class, () -> searchService.searchWithCursor("test", cursor, 2, false, true));
+
+        // Then
+        verify(elasticsearchClient, never()).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    void testCursorSearchNextPageUsesSearchAfter() throws Exception {
+        // Given
+        String cursor = new SearchCursorCodec(objectMapper).encode(TENANT_ID, "test", false, "pit-2",
+                List.of(FieldValue.of(1.5), FieldValue.of(42L)));
+
+        SearchResponse<SearchHitSource> esResponse = cursorEsResponse(1, "pit-3");
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(SearchHitSource.class))).thenReturn(esResponse);
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse response =
+                searchService.searchWithCursor("test", cursor, 2, false, true);
+
+        // Then
+        assertNull(response.getNextCursor());
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(SearchHitSource.class));
+        SearchRequest request = captor.getValue();
+        assertEquals("pit-2", request.pit().id());
+        assertEquals(1.5, request.searchAfter().get(0).doubleValue());
+        assertEquals(42L, request.searchAfter().get(1).longValue());
+
+        // Last page releases the point-in-time
+        verify(elasticsearchClient, never()).openPointInTime(any(OpenPointInTimeRequest.class));
+        ArgumentCaptor<ClosePointInTimeRequest> closeCaptor = ArgumentCaptor.forClass(ClosePointInTimeRequest.class);
+        verify(elasticsearchClient).closePointInTime(closeCaptor.capture());
+        assertEquals("pit-3", closeCaptor.getValue().id());
+    }
+
+    @Test
+    void testCursorFromOtherTenantRejected() {
+        // Given
+        String cursor = new SearchCursorCodec(objectMapper).encode("otherTenant", "test", false, "pit-1",
+                List.of(FieldValue.of(1.0), FieldValue.of(1L)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.searchWithCursor("test", cursor, 10, false, true));
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    void testMalformedCursorRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.searchWithCursor("test", "not-a-cursor", 10, false, true));
+    }
+
+    @Test
+    void testSearchAsyncCompletesFromAsyncClient() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        CompletableFuture<SearchResponse<SearchHitSource>> pending = new CompletableFuture<>();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class))).thenReturn(pending);
+
+        // When
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> future =
+                searchService.searchAsync("test", 2, 10, false, true);
+
+        // Then
+        assertFalse(future.isDone());
+        pending.complete(esResponse);
+        assertEquals(2, future.get().getPage());
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchAsyncClient).search(captor.capture(), eq(SearchHitSource.class));
+        assertEquals("docs_tenant_tenant123", captor.getValue().index().get(0));
+        assertEquals(10, captor.getValue().from());
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    void testSearchAsyncServesCacheWithoutElasticsearch() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+
+        // When
+        searchService.searchAsync("test", 1, 10, false, true).get();
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> second =
+                searchService.searchAsync("TEST", 1, 10, false, true);
+
+        // Then
+        assertTrue(second.isDone());
+        assertEquals("TEST", second.get().getQuery());
+        verify(elasticsearchAsyncClient, times(1)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testSearchAsyncRecordsAnalyticsForMissesAndHits() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+
+        // When
+        searchService.searchAsync("test", 1, 10, false, true).get();
+        searchService.searchAsync("TEST", 1, 10, false, true).get();
+        searchService.search("test", 1, 10, false, true);
+
+        // Then
+        verify(analyticsRecorder).record(eq(TENANT_ID), eq("test"), eq(0L), anyLong(), eq(false));
+        verify(analyticsRecorder).record(eq("TEST"), eq(0L), anyLong(), eq(true));
+        verifyNoMoreInteractions(analyticsRecorder);
+    }
+
+    @Test
+    void testSearchRequestAllowsPartialResultsWithinTimeout() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+
+        // When
+        searchService.searchAsync("test", 1, 10, false, true).get();
+
+        // Then
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchAsyncClient).search(captor.capture(), eq(SearchHitSource.class));
+        assertEquals("5000ms", captor.getValue().timeout());
+        assertTrue(captor.getValue().allowPartialSearchResults());
+    }
+
+    @Test
+    void testPartialResultsAreFlaggedAndNotCached() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(esResponse.timedOut()).thenReturn(true);
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse first =
+                searchService.searchAsync("test", 1, 10, false, true).get();
+        searchService.searchAsync("test", 1, 10, false, true).get();
+
+        // Then
+        assertTrue(first.isTimedOut());
+        assertTrue(first.isPartial());
+        verify(elasticsearchAsyncClient, times(2)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testTenantOverItsConcurrencyLimitIsRejected() throws Exception {
+        // Given
+        tierProperties.setPermitsPerWeight(1);
+        tierProperties.setTenantTiers(Map.of(TENANT_ID, "free"));
+        setUp();
+
+        CompletableFuture<SearchResponse<SearchHitSource>> pending = new CompletableFuture<>();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(pending);
+
+        // When
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> first =
+                searchService.searchAsync("first", 1, 10, false, true);
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> rejected =
+                searchService.searchAsync("second", 1, 10, false, true);
+        TenantContext.setTenantId("otherTenant");
+        searchService.searchAsync("second", 1, 10, false, true);
+        TenantContext.setTenantId(TENANT_ID);
+        pending.complete(emptyEsResponse());
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> afterRelease =
+                searchService.searchAsync("third", 1, 10, false, true);
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(TooManyRequestsException.class, e.getCause());
+        assertNotNull(first.get());
+        assertNotNull(afterRelease.get());
+        verify(elasticsearchAsyncClient, times(3)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testSlowAsyncSearchIsHedgedWithAnotherPreference() throws Exception {
+        // Given
+        hedging = true;
+        setUp();
+
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+        // Enough history for the tenant's searches to be hedged
+        for (int i = 0; i < 32; i++) {
+            searchService.searchAsync("warm " + i, 1, 10, false, true).get();
+        }
+
+        CompletableFuture<SearchResponse<SearchHitSource>> slow = new CompletableFuture<>();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(slow, CompletableFuture.completedFuture(esResponse));
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse response =
+                searchService.searchAsync("slow", 1, 10, false, true).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("slow", response.getQuery());
+        assertTrue(slow.isCancelled());
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchAsyncClient, times(34)).search(captor.capture(), eq(SearchHitSource.class));
+        List<SearchRequest> requests = captor.getAllValues();
+        SearchRequest primary = requests.get(requests.size() - 2);
+        SearchRequest hedge = requests.get(requests.size() - 1);
+        assertNull(primary.preference());
+        assertNotNull(hedge.preference());
+        assertEquals(primary.index(), hedge.index());
+        assertEquals(primary.from(), hedge.from());
+    }
+
+    @Test
+    void testTimedSearchRecordsEveryStageAndRunsProfiled() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(esResponse.took()).thenReturn(12L);
+        when(esResponse.shards()).thenReturn(ShardStatistics.of(s -> s.total(3).successful(3).failed(0)));
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+        SearchTimings timings = SearchTimings.start(true);
+
+        // When
+        com.enterprise.docsearch.common.dto.SearchResponse response =
+                searchService.searchAsync("test", 1, 10, false, true, FacetRequest.NONE, timings).get();
+
+        // Then
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchAsyncClient).search(captor.capture(), eq(SearchHitSource.class));
+        assertTrue(captor.getValue().profile());
+        assertNull(response.getTimings());
+
+        com.enterprise.docsearch.common.dto.SearchResponse.Timings result = timings.toResponse();
+        assertEquals(List.of("cache_lookup", "request_build", "elasticsearch", "executor_queue", "profile",
+                "hit_mapping", "facets", "cache_write"), List.copyOf(result.getStagesNanos().keySet()));
+        assertFalse(result.isCacheHit());
+        assertEquals(12L, result.getEsTookMs());
+        assertEquals(3, result.getShardsTotal());
+    }
+
+    @Test
+    void testSearchAsyncRecordsRequestAndStageMetrics() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+
+        // When
+        searchService.searchAsync("test", 1, 10, false, true).get();
+        searchService.searchAsync("test", 1, 10, false, true).get();
+
+        // Then
+        assertEquals(1, meterRegistry.timer("search.requests",
+                "tenant", TENANT_ID, "cache", "miss", "outcome", "success").count());
+        assertEquals(1, meterRegistry.timer("search.requests",
+                "tenant", TENANT_ID, "cache", "hit", "outcome", "success").count());
+        assertEquals(2, meterRegistry.timer("search.stage", "stage", "cache_lookup").count());
+        assertEquals(1, meterRegistry.timer("search.stage", "stage", "elasticsearch").count());
+        assertEquals(1, meterRegistry.timer("search.stage", "stage", "hit_mapping").count());
+    }
+
+    @Test
+    void testSearchAsyncFailureIsWrapped() {
+        // Given
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("ES down")));
+
+        // When
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> future =
+                searchService.searchAsync("test", 1, 10, false, true);
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertEquals("Search failed", e.getCause().getMessage());
+        assertEquals("ES down", e.getCause().getCause().getMessage());
+        assertEquals(1.0, meterRegistry.counter("search.elasticsearch.errors", "type", "other").count());
+        assertEquals(1, meterRegistry.timer("search.requests",
+                "tenant", TENANT_ID, "cache", "miss", "outcome", "error").count());
+    }
+
+    @Test
+    void testSearchRejectedByElasticsearchIsBadRequest() {
+        // Given - a range facet on a key an older index maps as text
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ElasticsearchException("search", ErrorResponse.of(r -> r
+                        .error(c -> c.type("illegal_argument_exception")
+                                .reason("Field [metadata.dept] of type [text] is not supported for aggregation [range]"))
+                        .status(400)))));
+
+        // When
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> future = searchService.searchAsync(
+                "test", 1, 10, false, true, FacetRequest.parse(null, List.of("dept:10")));
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("not supported for aggregation [range]"));
+    }
+
+    @Test
+    void testSearchAsyncContinuationRunsWithCallerTenant() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            TenantBulkhead tenantBulkhead = new TenantBulkhead(tierProperties, new SimpleMeterRegistry());
+            searchService = new SearchService(elasticsearchClient, elasticsearchAsyncClient,
+                    new SearchCacheKeyFactory(generationTracker),
+                    new SearchResultCache(new ConcurrentMapCacheManager("searchResults", "searchFacets")),
+                    new SearchRequestCoalescer(new SimpleMeterRegistry(), Duration.ofSeconds(2)),
+                    new SearchCursorCodec(objectMapper),
+                    pool,
+                    validator,
+                    analyticsRecorder,
+                    tenantBulkhead,
+                    new AdaptiveTimeouts(Duration.ofMillis(200), Duration.ofSeconds(5), 0.99, 2.0),
+                    searchHedger,
+                    new SlowQueryProfiler(objectMapper, 0.0, Duration.ofSeconds(1)),
+                    searchMetrics);
+
+            SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+            CompletableFuture<SearchResponse<SearchHitSource>> pending = new CompletableFuture<>();
+            when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class))).thenReturn(pending);
+
+            // When
+            CompletableFuture<String> tenant = searchService.searchAsync("test", 1, 10, false, true)
+                    .thenApply(response -> TenantContext.getTenantId());
+            TenantContext.clear();
+
+            // Complete from a thread without a tenant, like an HTTP client I/O thread
+            Thread ioThread = new Thread(() -> pending.complete(esResponse));
+            ioThread.start();
+            ioThread.join();
+
+            // Then
+            assertEquals(TENANT_ID, tenant.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCoalescedSearchThatTimesOutIsStillRecorded() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            searchService = new SearchService(elasticsearchClient, elasticsearchAsyncClient,
+                    new SearchCacheKeyFactory(generationTracker),
+                    new SearchResultCache(new ConcurrentMapCacheManager("searchResults", "searchFacets")),
+                    new SearchRequestCoalescer(new SimpleMeterRegistry(), Duration.ofMillis(50)),
+                    new SearchCursorCodec(objectMapper),
+                    pool,
+                    validator,
+                    analyticsRecorder,
+                    new TenantBulkhead(tierProperties, new SimpleMeterRegistry()),
+                    new AdaptiveTimeouts(Duration.ofMillis(200), Duration.ofSeconds(5), 0.99, 2.0),
+                    searchHedger,
+                    new SlowQueryProfiler(objectMapper, 0.0, Duration.ofSeconds(1)),
+                    searchMetrics);
+
+            SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+            when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                    .thenReturn(new CompletableFuture<>(), CompletableFuture.completedFuture(esResponse));
+            List<String> recordedTenants = Collections.synchronizedList(new ArrayList<>());
+            doAnswer(invocation -> recordedTenants.add(invocation.getArgument(0)))
+                    .when(analyticsRecorder).record(any(), anyString(), anyLong(), anyLong(), anyBoolean());
+
+            // When - the second search waits on the first, which never answers
+            searchService.searchAsync("test", 1, 10, false, true);
+            CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> fallback =
+                    searchService.searchAsync("test", 1, 10, false, true);
+            TenantContext.clear();
+            fallback.get(5, TimeUnit.SECONDS);
+
+            // Then - sent from the coalescer's timer thread, still recorded for the caller's tenant
+            verify(elasticsearchAsyncClient, times(2)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+            assertEquals(List.of(TENANT_ID), recordedTenants);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSearchAsyncCoalescesIdenticalInFlightSearches() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        CompletableFuture<SearchResponse<SearchHitSource>> pending = new CompletableFuture<>();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class))).thenReturn(pending);
+
+        // When
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> first =
+                searchService.searchAsync("test query", 1, 10, false, true);
+        CompletableFuture<com.enterprise.docsearch.common.dto.SearchResponse> second =
+                searchService.searchAsync("Query  TEST", 1, 10, false, true);
+        pending.complete(esResponse);
+
+        // Then
+        assertEquals("test query", first.get().getQuery());
+        assertEquals("Query  TEST", second.get().getQuery());
+        verify(elasticsearchAsyncClient, times(1)).search(any(SearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testSearchBatchServesCacheAndSendsMissesInOneMsearch() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+        searchService.searchAsync("cached", 1, 10, false, true).get();
+
+        MsearchResponse<SearchHitSource> msearchResponse = mock(MsearchResponse.class);
+        when(msearchResponse.responses()).thenReturn(List.of(
+                MultiSearchResponseItem.of(r -> r.result(emptyMultiSearchItem(2L))),
+                MultiSearchResponseItem.of(r -> r.result(emptyMultiSearchItem(3L)))));
+        when(elasticsearchAsyncClient.msearch(any(MsearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(msearchResponse));
+
+        // When
+        List<ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse>> results = searchService.searchBatch(List.of(
+                batchItem("first"), batchItem("CACHED"), batchItem("third"))).get();
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals("first", results.get(0).getData().getQuery());
+        assertEquals(2L, results.get(0).getData().getTotalHits());
+        assertEquals("CACHED", results.get(1).getData().getQuery());
+        assertEquals("third", results.get(2).getData().getQuery());
+        assertEquals(3L, results.get(2).getData().getTotalHits());
+
+        ArgumentCaptor<MsearchRequest> captor = ArgumentCaptor.forClass(MsearchRequest.class);
+        verify(elasticsearchAsyncClient).msearch(captor.capture(), eq(SearchHitSource.class));
+        assertEquals(2, captor.getValue().searches().size());
+        assertEquals("docs_tenant_tenant123", captor.getValue().searches().get(0).header().index().get(0));
+    }
+
+    @Test
+    void testSearchBatchItemErrorsDoNotFailBatch() throws Exception {
+        // Given
+        MsearchResponse<SearchHitSource> msearchResponse = mock(MsearchResponse.class);
+        when(msearchResponse.responses()).thenReturn(List.of(
+                MultiSearchResponseItem.of(r -> r.failure(f -> f
+                        .status(400)
+                        .error(e -> e.type("illegal_argument_exception").reason("Result window is too large")))),
+                MultiSearchResponseItem.of(r -> r.result(emptyMultiSearchItem(1L)))));
+        when(elasticsearchAsyncClient.msearch(any(MsearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(msearchResponse));
+
+        com.enterprise.docsearch.common.dto.SearchRequest invalid = batchItem(" ");
+
+        // When
+        List<ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse>> results = searchService.searchBatch(List.of(
+                batchItem("deep"), invalid, batchItem("fine"))).get();
+
+        // Then
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("SEARCH_FAILED", results.get(0).getError().getCode());
+        assertEquals("Result window is too large", results.get(0).getError().getDetails());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("INVALID_REQUEST", results.get(1).getError().getCode());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(1.0, meterRegistry.counter("search.elasticsearch.errors", "type", "client").count());
+    }
+
+    @Test
+    void testSearchBatchTransportFailureFailsOnlyMisses() throws Exception {
+        // Given
+        SearchResponse<SearchHitSource> esResponse = emptyEsResponse();
+        when(elasticsearchAsyncClient.search(any(SearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.completedFuture(esResponse));
+        searchService.searchAsync("cached", 1, 10, false, true).get();
+
+        when(elasticsearchAsyncClient.msearch(any(MsearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("ES down")));
+
+        // When
+        List<ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse>> results = searchService.searchBatch(List.of(
+                batchItem("cached"), batchItem("other"))).get();
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("SEARCH_FAILED", results.get(1).getError().getCode());
+    }
+
+    @Test
+    void testSearchBatchThatFailsBeforeSendingKeepsNoPermit() throws Exception {
+        // Given - a tenant with a single permit
+        tierProperties.setPermitsPerWeight(1);
+        tierProperties.setTenantTiers(Map.of(TENANT_ID, "free"));
+        setUp();
+        AdaptiveTimeouts adaptiveTimeouts = spy(new AdaptiveTimeouts(
+                Duration.ofMillis(200), Duration.ofSeconds(5), 0.99, 2.0));
+        doThrow(new IllegalStateException("boom")).doCallRealMethod().when(adaptiveTimeouts).timeout(TENANT_ID);
+        ReflectionTestUtils.setField(searchService, "adaptiveTimeouts", adaptiveTimeouts);
+
+        when(elasticsearchAsyncClient.msearch(any(MsearchRequest.class), eq(SearchHitSource.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("ES down")));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> searchService.searchBatch(List.of(batchItem("first"))));
+        List<ApiResponse<com.enterprise.docsearch.common.dto.SearchResponse>> results =
+                searchService.searchBatch(List.of(batchItem("second"))).get();
+
+        // Then - the second batch got the permit and reached Elasticsearch
+        assertEquals("SEARCH_FAILED", results.get(0).getError().getCode());
+        verify(elasticsearchAsyncClient).msearch(any(MsearchRequest.class), eq(SearchHitSource.class));
+    }
+
+    @Test
+    void testSearchBatchSizeLimits() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> searchService.searchBatch(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> searchService.searchBatch(
+                Collections.nCopies(51, batchItem("test"))));
+    }
+
+    private com.enterprise.docsearch.common.dto.SearchRequest batchItem(String query) {
+        return com.enterprise.docsearch.common.dto.SearchRequest.builder()
+                .query(query)
+                .build();
+    }
+
+    private MultiSearchItem<SearchHitSource> emptyMultiSearchItem(long total) {
+        return MultiSearchItem.of(m -> m
+                .took(1)
+                .timedOut(false)
+                .shards(sh -> sh.total(1).successful(1).failed(0))
+                .hits(h -> h
+                        .total(t -> t.value(total).relation(TotalHitsRelation.Eq))
+                        .hits(Collections.emptyList())));
+    }
+
+    private SearchResponse<SearchHitSource> cursorEsResponse(int hitCount, String pitId) {
+        List<Hit<SearchHitSource>> hits = new ArrayList<>();
+        for (int i = 0; i < hitCount; i++) {
+            ObjectNode sourceNode = objectMapper.createObjectNode();
+            sourceNode.put("document_id", UUID.randomUUID().toString());
+            sourceNode.put("title", "Document " + i);
+            sourceNode.put("content", "content " + i);
+
+            Hit<SearchHitSource> hit = mock(Hit.class);
+            when(hit.source()).thenReturn(toSource(sourceNode));
+            lenient().when(hit.sort()).thenReturn(List.of(FieldValue.of(1.0), FieldValue.of((long) i)));
+            hits.add(hit);
+        }
+
+        TotalHits totalHits = mock(TotalHits.class);
+        when(totalHits.value()).thenReturn((long) hitCount);
+
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
+        when(hitsMetadata.hits()).thenReturn(hits);
+        when(hitsMetadata.total()).thenReturn(totalHits);
+
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
+        when(esResponse.hits()).thenReturn(hitsMetadata);
+        when(esResponse.pitId()).thenReturn(pitId);
+        return esResponse;
+    }
+
+    private SearchResponse<SearchHitSource> emptyEsResponse() {
+        TotalHits totalHits = mock(TotalHits.class);
+        when(totalHits.value()).thenReturn(0L);
+
+        HitsMetadata<SearchHitSource> hitsMetadata = mock(HitsMetadata.class);
+        when(hitsMetadata.hits()).thenReturn(Collections.emptyList());
+        when(hitsMetadata.total()).thenReturn(totalHits);
+
+        SearchResponse<SearchHitSource> esResponse = mock(SearchResponse.class);
+        when(esResponse.hits()).thenReturn(hitsMetadata);
+        return esResponse;
+    }
+
+    private SearchHitSource toSource(ObjectNode sourceNode) {
+        return objectMapper.convertValue(sourceNode, SearchHitSource.class);
     }
-}
\ No newline at end of file
+}
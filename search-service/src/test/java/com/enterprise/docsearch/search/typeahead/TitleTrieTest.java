@@ -0,0 +1,108 @@
+package com.enterprise.docsearch.search.typeahead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleTrieTest {
+
+    private final TitleTrie trie = new TitleTrie();
+
+    @Test
+    void testSuggestsTitlesByCaseInsensitivePrefix() {
+        // Given
+        trie.add("Annual Report 2024");
+        trie.add("Annual Budget");
+        trie.add("Annex A");
+        trie.add("Budget Plan");
+
+        // When & Then
+        assertEquals(List.of("Annex A", "Annual Budget", "Annual Report 2024"), trie.suggest("ann", 10));
+        assertEquals(List.of("Annual Budget", "Annual Report 2024"), trie.suggest("ANNUAL ", 10));
+        assertEquals(List.of("Annual Report 2024"), trie.suggest("annual r", 10));
+        assertEquals(List.of("Budget Plan"), trie.suggest("b", 10));
+        assertTrue(trie.suggest("annuals", 10).isEmpty());
+        assertTrue(trie.suggest("x", 10).isEmpty());
+    }
+
+    @Test
+    void testShorterTitlesComeFirstAndLimitApplies() {
+        // Given
+        trie.add("report");
+        trie.add("report b");
+        trie.add("report a");
+        trie.add("reports");
+
+        // When & Then
+        assertEquals(List.of("report", "report a"), trie.suggest("rep", 2));
+        assertEquals(List.of("report", "report a", "report b", "reports"), trie.suggest("report", 10));
+    }
+
+    @Test
+    void testPrefixEndingInsideEdge() {
+        // Given
+        trie.add("documentation");
+
+        // When & Then
+        assertEquals(List.of("documentation"), trie.suggest("docu", 10));
+        assertEquals(List.of("documentation"), trie.suggest("documentation", 10));
+        assertTrue(trie.suggest("documentations", 10).isEmpty());
+    }
+
+    @Test
+    void testSharedTitleStaysUntilLastReferenceIsRemoved() {
+        // Given
+        trie.add("Quarterly Review");
+        trie.add("quarterly review");
+
+        // When
+        trie.remove("Quarterly Review");
+
+        // Then
+        assertEquals(List.of("Quarterly Review"), trie.suggest("quar", 10));
+        assertEquals(1, trie.size());
+
+        // When
+        trie.remove("Quarterly Review");
+
+        // Then
+        assertTrue(trie.suggest("quar", 10).isEmpty());
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void testRemovingTitlesReturnsToEmptyFootprint() {
+        // Given
+        long empty = trie.estimatedBytes();
+        List<String> titles = List.of("alpha", "alphabet", "alpine", "beta", "bet", "a");
+        titles.forEach(trie::add);
+        long populated = trie.estimatedBytes();
+
+        // When
+        titles.forEach(trie::remove);
+
+        // Then
+        assertTrue(populated > empty);
+        assertEquals(empty, trie.estimatedBytes());
+        assertTrue(trie.suggest("a", 10).isEmpty());
+    }
+
+    @Test
+    void testRemoveKeepsSiblingsReachable() {
+        // Given
+        trie.add("test");
+        trie.add("team");
+        trie.add("tea");
+
+        // When
+        trie.remove("tea");
+        trie.remove("unknown");
+        trie.remove("te");
+
+        // Then
+        assertEquals(List.of("team", "test"), trie.suggest("te", 10));
+        assertEquals(List.of("team"), trie.suggest("tea", 10));
+    }
+}
@@ -0,0 +1,305 @@
+package com.enterprise.docsearch.search.typeahead;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.json.JsonData;
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.common.event.TitleChangeEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TypeaheadServiceTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Runnable> loads = new ArrayList<>();
+    private TypeaheadService typeaheadService;
+
+    private static final String TENANT_ID = "tenant123";
+    private static final byte[] CHANNEL = "docsearch:title-changes".getBytes(StandardCharsets.UTF_8);
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(TENANT_ID);
+        typeaheadService = new TypeaheadService(elasticsearchClient, objectMapper,
+                DataSize.ofMegabytes(1), 2, Duration.ofMinutes(10), loads::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testFirstRequestLoadsInBackgroundThenServesFromMemory() throws Exception {
+        // Given
+        SearchResponse<JsonNode> firstPage = page(hit("d1", "Annual Report"), hit("d2", "Annex"));
+        SearchResponse<JsonNode> lastPage = page(hit("d3", "Budget"));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+                .thenReturn(firstPage, lastPage);
+
+        // When
+        List<String> whileLoading = typeaheadService.suggest("ann", 10);
+        runLoads();
+        List<String> loaded = typeaheadService.suggest("ann", 10);
+        typeaheadService.suggest("b", 10);
+
+        // Then
+        assertTrue(whileLoading.isEmpty());
+        assertEquals(List.of("Annex", "Annual Report"), loaded);
+        assertEquals(List.of("Budget"), typeaheadService.suggest("bud", 10));
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient, times(2)).search(captor.capture(), eq(JsonNode.class));
+        SearchRequest first = captor.getAllValues().get(0);
+        assertEquals("docs_tenant_tenant123", first.index().get(0));
+        assertFalse(first.source().fetch());
+        assertEquals("title.keyword", first.docvalueFields().get(1).field());
+        assertEquals("d2", captor.getAllValues().get(1).searchAfter().get(0).stringValue());
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test
+    void testTitleChangesAreAppliedIncrementally() throws Exception {
+        // Given
+        SearchResponse<JsonNode> response = page(hit("d1", "Annual Report"));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(response);
+        typeaheadService.suggest("ann", 10);
+        runLoads();
+
+        // When
+        publish(TENANT_ID, new TitleChangeEvent.Change("d1", "Annual Review"),
+                new TitleChangeEvent.Change("d2", "Annex"),
+                new TitleChangeEvent.Change("d3", "Annotations"));
+        publish(TENANT_ID, new TitleChangeEvent.Change("d3", null));
+
+        // Then
+        assertEquals(List.of("Annex", "Annual Review"), typeaheadService.suggest("ann", 10));
+        verify(elasticsearchClient, times(1)).search(any(SearchRequest.class), eq(JsonNode.class));
+    }
+
+    @Test
+    void testChangesDuringLoadAreAppliedAfterSnapshot() throws Exception {
+        // Given
+        SearchResponse<JsonNode> response = page(hit("d1", "Annual Report"));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(response);
+        typeaheadService.suggest("ann", 10);
+
+        // When
+        publish(TENANT_ID, new TitleChangeEvent.Change("d1", null), new TitleChangeEvent.Change("d2", "Annex"));
+        runLoads();
+
+        // Then
+        assertEquals(List.of("Annex"), typeaheadService.suggest("ann", 10));
+    }
+
+    @Test
+    void testChangesForTenantsNotInMemoryAreIgnored() throws Exception {
+        // When
+        publish("otherTenant", new TitleChangeEvent.Change("d1", "Annual Report"));
+
+        // Then
+        assertFalse(typeaheadService.isResident("otherTenant"));
+        assertTrue(loads.isEmpty());
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    void testFailedLoadIsRetriedOnNextRequest() throws Exception {
+        // Given
+        SearchResponse<JsonNode> response = page(hit("d1", "Annual Report"));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenReturn(response);
+
+        // When
+        typeaheadService.suggest("ann", 10);
+        runLoads();
+        boolean residentAfterFailure = typeaheadService.isResident(TENANT_ID);
+        typeaheadService.suggest("ann", 10);
+        runLoads();
+
+        // Then
+        assertFalse(residentAfterFailure);
+        assertEquals(List.of("Annual Report"), typeaheadService.suggest("ann", 10));
+    }
+
+    @Test
+    void testTenantWithoutIndexLoadsEmpty() throws Exception {
+        // Given
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class)))
+                .thenThrow(new ElasticsearchException("search", ErrorResponse.of(e -> e
+                        .error(c -> c.type("index_not_found_exception").reason("no such index"))
+                        .status(404))));
+
+        // When
+        typeaheadService.suggest("ann", 10);
+        runLoads();
+
+        // Then
+        assertTrue(typeaheadService.isResident(TENANT_ID));
+        assertTrue(typeaheadService.suggest("ann", 10).isEmpty());
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test
+    void testMemoryBudgetEvictsTenants() throws Exception {
+        // Given
+        long budget = DataSize.ofKilobytes(100).toBytes();
+        typeaheadService = new TypeaheadService(elasticsearchClient, objectMapper,
+                DataSize.ofBytes(budget), 1000, Duration.ofMinutes(10), loads::add);
+
+        Hit<JsonNode>[] hits = new Hit[250];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = hit("d" + i, "Document title number " + i);
+        }
+        SearchResponse<JsonNode> response = page(hits);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(response);
+
+        // When
+        for (String tenant : List.of("tenantA", "tenantB", "tenantC")) {
+            TenantContext.setTenantId(tenant);
+            typeaheadService.suggest("doc", 10);
+            runLoads();
+        }
+
+        // Then
+        assertTrue(typeaheadService.estimatedBytes() <= budget);
+        assertTrue(typeaheadService.estimatedBytes() > 0);
+    }
+
+    @Test
+    void testTenantOverBudgetIsNotReloadedOnEveryRequest() throws Exception {
+        // Given
+        typeaheadService = new TypeaheadService(elasticsearchClient, objectMapper,
+                DataSize.ofKilobytes(1), 5, Duration.ofMinutes(10), loads::add);
+
+        Hit<JsonNode>[] hits = new Hit[5];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = hit("d" + i, "Document title number " + i);
+        }
+        SearchResponse<JsonNode> fullPage = page(hits);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(fullPage);
+
+        // When
+        typeaheadService.suggest("doc", 10);
+        runLoads();
+        List<String> afterLoad = typeaheadService.suggest("doc", 10);
+        typeaheadService.suggest("docu", 10);
+
+        // Then - the scan stops at the budget and the tenant is not queued again
+        assertTrue(afterLoad.isEmpty());
+        assertTrue(typeaheadService.isOversized(TENANT_ID));
+        assertFalse(typeaheadService.isResident(TENANT_ID));
+        assertTrue(loads.isEmpty());
+        verify(elasticsearchClient, times(2)).search(any(SearchRequest.class), eq(JsonNode.class));
+    }
+
+    @Test
+    void testTitleChangesPushingTenantOverBudgetStopSuggestions() throws Exception {
+        // Given
+        typeaheadService = new TypeaheadService(elasticsearchClient, objectMapper,
+                DataSize.ofKilobytes(1), 1000, Duration.ofMinutes(10), loads::add);
+        SearchResponse<JsonNode> response = page(hit("d1", "Annual Report"));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(response);
+        typeaheadService.suggest("ann", 10);
+        runLoads();
+
+        TitleChangeEvent.Change[] changes = new TitleChangeEvent.Change[10];
+        for (int i = 0; i < changes.length; i++) {
+            changes[i] = new TitleChangeEvent.Change("n" + i, "Another document title " + i);
+        }
+
+        // When
+        publish(TENANT_ID, changes);
+        List<String> suggestions = typeaheadService.suggest("ann", 10);
+
+        // Then
+        assertTrue(suggestions.isEmpty());
+        assertTrue(typeaheadService.isOversized(TENANT_ID));
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test
+    void testOneLoadQueuedPerTenant() throws Exception {
+        // Given - a load is queued and the tenant is dropped before it runs
+        SearchResponse<JsonNode> response = page(hit("d1", "Annual Report"));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(JsonNode.class))).thenReturn(response);
+        typeaheadService.suggest("ann", 10);
+        typeaheadService.evict(TENANT_ID);
+
+        // When
+        typeaheadService.suggest("ann", 10);
+        typeaheadService.suggest("annu", 10);
+
+        // Then - the stale load is skipped and the replacement is queued after it
+        assertEquals(1, loads.size());
+        runLoads();
+        verify(elasticsearchClient, never()).search(any(SearchRequest.class), eq(JsonNode.class));
+
+        typeaheadService.suggest("ann", 10);
+        assertEquals(1, loads.size());
+        runLoads();
+        assertEquals(List.of("Annual Report"), typeaheadService.suggest("ann", 10));
+    }
+
+    private void runLoads() {
+        List<Runnable> pending = new ArrayList<>(loads);
+        loads.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private void publish(String tenantId, TitleChangeEvent.Change... changes) throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(new TitleChangeEvent(tenantId, List.of(changes)));
+        typeaheadService.onMessage(new DefaultMessage(CHANNEL, payload), null);
+    }
+
+    @SafeVarargs
+    private SearchResponse<JsonNode> page(Hit<JsonNode>... hits) {
+        HitsMetadata<JsonNode> hitsMetadata = mock(HitsMetadata.class);
+        when(hitsMetadata.hits()).thenReturn(List.of(hits));
+
+        SearchResponse<JsonNode> response = mock(SearchResponse.class);
+        when(response.hits()).thenReturn(hitsMetadata);
+        return response;
+    }
+
+    private Hit<JsonNode> hit(String documentId, String title) {
+        return Hit.of(h -> h
+                .index("docs_tenant_" + TENANT_ID)
+                .id(documentId)
+                .fields(Map.of(
+                        "document_id", JsonData.fromJson("[\"" + documentId + "\"]"),
+                        "title.keyword", JsonData.fromJson("[\"" + title + "\"]")))
+                .sort(List.of(FieldValue.of(documentId))));
+    }
+}
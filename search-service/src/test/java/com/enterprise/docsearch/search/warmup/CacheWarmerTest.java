@@ -0,0 +1,173 @@
+package com.enterprise.docsearch.search.warmup;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import com.enterprise.docsearch.search.cache.IndexGenerationTracker;
+import com.enterprise.docsearch.search.service.SearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private PopularQueryStore popularQueryStore;
+
+    @Mock
+    private IndexGenerationTracker generationTracker;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private Clock clock;
+
+    private final PopularQueries popularQueries = new PopularQueries(2);
+    private CacheWarmer cacheWarmer;
+
+    private static final String TENANT_ID = "tenant123";
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenReturn(START);
+        cacheWarmer = new CacheWarmer(searchService, popularQueries, popularQueryStore, generationTracker,
+                2, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofDays(7), Duration.ofMinutes(30),
+                scheduler, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testPreWarmReadsPopularQueriesThroughCache() {
+        // Given
+        when(popularQueryStore.topQueries(2, START.minus(Duration.ofDays(7)))).thenReturn(List.of(
+                new PopularQueryStore.PopularQuery(TENANT_ID, "Annual Report", 12),
+                new PopularQueryStore.PopularQuery(TENANT_ID, "budget", 30),
+                new PopularQueryStore.PopularQuery("otherTenant", "roadmap", 3)));
+        when(searchService.search(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    assertNotNull(TenantContext.getTenantId());
+                    return null;
+                });
+
+        // When
+        cacheWarmer.preWarm();
+
+        // Then
+        verify(searchService).search("annual report", 1, 10, false, true);
+        verify(searchService).search("budget", 1, 10, false, true);
+        verify(searchService).search("roadmap", 1, 10, false, true);
+        assertEquals(List.of(WarmQuery.withDefaults("budget"), WarmQuery.withDefaults("annual report")),
+                popularQueries.top(TENANT_ID));
+        assertNull(TenantContext.getTenantId());
+    }
+
+    @Test
+    void testPreWarmSkippedWhenAnalyticsUnavailable() {
+        // Given
+        when(popularQueryStore.topQueries(anyInt(), any(Instant.class)))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        // When
+        cacheWarmer.preWarm();
+
+        // Then
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testPopularQueriesAreRefreshedBeforeTheyExpire() {
+        // Given
+        recordPopular("budget");
+
+        // When
+        cacheWarmer.refreshPopularQueries();
+        advanceTo(START.plus(Duration.ofMinutes(27)));
+        cacheWarmer.refreshPopularQueries();
+        advanceTo(START.plus(Duration.ofMinutes(28)));
+        cacheWarmer.refreshPopularQueries();
+
+        // Then
+        verify(searchService, times(2)).refresh("budget", 1, 10, false, true);
+    }
+
+    @Test
+    void testGenerationChangeTriggersRefresh() {
+        // Given
+        recordPopular("budget");
+        when(generationTracker.currentGeneration(TENANT_ID)).thenReturn(1L, 1L, 2L);
+
+        // When
+        cacheWarmer.refreshPopularQueries();
+        cacheWarmer.refreshPopularQueries();
+        cacheWarmer.refreshPopularQueries();
+
+        // Then
+        verify(searchService, times(2)).refresh("budget", 1, 10, false, true);
+    }
+
+    @Test
+    void testFailedRefreshIsRetriedNextRound() {
+        // Given
+        recordPopular("budget");
+        recordPopular("roadmap");
+        when(searchService.refresh(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
+                .thenThrow(new RuntimeException("Search failed"))
+                .thenReturn(null);
+
+        // When
+        cacheWarmer.refreshPopularQueries();
+        cacheWarmer.refreshPopularQueries();
+
+        // Then
+        verify(searchService, times(3)).refresh(anyString(), anyInt(), anyInt(), anyBoolean(), anyBoolean());
+        assertNull(TenantContext.getTenantId());
+    }
+
+    @Test
+    void testPopularityDecaysOncePerCacheLifetime() {
+        // Given
+        recordPopular("budget");
+
+        // When
+        advanceTo(START.plus(Duration.ofMinutes(29)));
+        cacheWarmer.refreshPopularQueries();
+        boolean keptBeforeDecay = !popularQueries.top(TENANT_ID).isEmpty();
+        advanceTo(START.plus(Duration.ofMinutes(30)));
+        cacheWarmer.refreshPopularQueries();
+
+        // Then
+        assertTrue(keptBeforeDecay);
+        assertTrue(popularQueries.top(TENANT_ID).isEmpty());
+    }
+
+    private void recordPopular(String query) {
+        TenantContext.setTenantId(TENANT_ID);
+        popularQueries.record(WarmQuery.of(query, 1, 10, false, true));
+        TenantContext.clear();
+    }
+
+    private void advanceTo(Instant instant) {
+        when(clock.instant()).thenReturn(instant);
+    }
+}
@@ -0,0 +1,105 @@
+package com.enterprise.docsearch.search.warmup;
+
+import com.enterprise.docsearch.common.context.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularQueriesTest {
+
+    private final PopularQueries popularQueries = new PopularQueries(2);
+
+    private static final String TENANT_ID = "tenant123";
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(TENANT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testTopQueriesAreMostCountedFirst() {
+        // Given
+        record("annual report", 3);
+        record("budget", 5);
+        record("roadmap", 1);
+
+        // When & Then
+        assertEquals(List.of(query("budget"), query("annual report")), popularQueries.top(TENANT_ID));
+        assertTrue(popularQueries.top("otherTenant").isEmpty());
+    }
+
+    @Test
+    void testEquivalentQueriesAreCountedTogether() {
+        // Given
+        popularQueries.record(WarmQuery.of("Annual  Report", 1, 10, false, true));
+        popularQueries.record(WarmQuery.of("report annual", 1, 10, false, true));
+        record("budget", 1);
+
+        // When & Then
+        assertEquals(query("annual report"), popularQueries.top(TENANT_ID).get(0));
+    }
+
+    @Test
+    void testRecurringQueryDisplacesOneOffsWhenCountersAreFull() {
+        // Given
+        for (int i = 0; i < 8; i++) {
+            record("one-off " + i, 1);
+        }
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            record("recurring", 1);
+            record("noise " + i, 1);
+        }
+
+        // Then
+        assertEquals(query("recurring"), popularQueries.top(TENANT_ID).get(0));
+    }
+
+    @Test
+    void testDecayHalvesCountsAndForgetsIdleTenants() {
+        // Given
+        record("budget", 4);
+        record("roadmap", 1);
+        TenantContext.setTenantId("otherTenant");
+        record("budget", 1);
+
+        // When
+        popularQueries.decay();
+
+        // Then
+        assertEquals(List.of(query("budget")), popularQueries.top(TENANT_ID));
+        assertEquals(Set.of(TENANT_ID), popularQueries.tenants());
+    }
+
+    @Test
+    void testRequestsWithoutTenantOrQueryAreIgnored() {
+        // Given
+        record("  ", 1);
+        TenantContext.clear();
+        record("budget", 1);
+
+        // When & Then
+        assertTrue(popularQueries.tenants().isEmpty());
+    }
+
+    private void record(String query, int times) {
+        for (int i = 0; i < times; i++) {
+            popularQueries.record(query(query));
+        }
+    }
+
+    private static WarmQuery query(String query) {
+        return WarmQuery.of(query, 1, 10, false, true);
+    }
+}